@@ -0,0 +1,13 @@
+package com.example.digigoods.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Asynchronous execution configuration.
+ * Methods annotated with {@code @Async} run on the application task executor.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,24 @@
+package com.example.digigoods.config;
+
+import java.time.Clock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration for background maintenance tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+  /**
+   * Time source shared by time-windowed components, replaceable in tests.
+   *
+   * @return the system clock in the default time zone
+   */
+  @Bean
+  public Clock clock() {
+    return Clock.systemDefaultZone();
+  }
+}
@@ -2,10 +2,13 @@ package com.example.digigoods.config;
 
 import com.example.digigoods.security.JwtAuthenticationEntryPoint;
 import com.example.digigoods.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -16,9 +19,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 /**
  * Security configuration for the application.
+ * Back office endpoints require the admin role both here and through {@code @PreAuthorize}
+ * on their handler methods. Async dispatches completing a streamed response are permitted:
+ * the request was authorized when it was first dispatched, and the token filter does not
+ * run again for them.
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
   private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
@@ -45,10 +53,14 @@ public class SecurityConfig {
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(authz -> authz
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers("/auth/**").permitAll()
             .requestMatchers("/actuator/**").permitAll()
-            .requestMatchers("/products").permitAll()
+            .requestMatchers("/products", "/products/top", "/products/*/related").permitAll()
             .requestMatchers("/discounts").permitAll()
+            .requestMatchers(HttpMethod.POST, "/products/*/restock").hasRole("ADMIN")
+            .requestMatchers("/discounts/batches/**", "/discounts/*/stats").hasRole("ADMIN")
+            .requestMatchers("/admin/**").hasRole("ADMIN")
             .anyRequest().authenticated()
         )
         .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
@@ -0,0 +1,115 @@
+package com.example.digigoods.controller;
+
+import com.example.digigoods.dto.RevenueResponse;
+import com.example.digigoods.model.OrderExportFormat;
+import com.example.digigoods.model.RevenuePeriod;
+import com.example.digigoods.service.OrderExportService;
+import com.example.digigoods.service.RevenueService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Controller for back office endpoints.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+  private static final String EXPORT_TIMEOUT_KEY = AdminController.class.getName() + ".export";
+
+  private final OrderExportService orderExportService;
+  private final RevenueService revenueService;
+  private final CallableProcessingInterceptor exportTimeout;
+
+  /**
+   * Create the admin controller.
+   *
+   * @param orderExportService the order export service
+   * @param revenueService     the revenue service
+   * @param exportTimeout      how long an order export may stream before it is cut off
+   */
+  public AdminController(OrderExportService orderExportService, RevenueService revenueService,
+                         @Value("${order.export.timeout:PT30M}") Duration exportTimeout) {
+    this.orderExportService = orderExportService;
+    this.revenueService = revenueService;
+    this.exportTimeout = new AsyncTimeout(exportTimeout.toMillis());
+  }
+
+  /**
+   * Get revenue endpoint.
+   * Reads the revenue rollups of a range of days, one row per hour or day with orders.
+   *
+   * @param from   the first day of the range
+   * @param to     the last day of the range, inclusive
+   * @param period the breakdown of the report
+   * @return the revenue report
+   */
+  @GetMapping("/revenue")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<RevenueResponse> getRevenue(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "DAY") RevenuePeriod period) {
+    return ResponseEntity.ok(revenueService.getRevenue(from, to, period));
+  }
+
+  /**
+   * Export orders endpoint.
+   * Streams the orders placed from the start of {@code from} until the start of {@code to}
+   * as a file download; the response is written while the orders are read. Long ranges
+   * stream for longer than the default async request timeout, so the export sets its own.
+   *
+   * @param from    the first day of the range
+   * @param to      the day after the range
+   * @param format  the file format
+   * @param request the export request
+   * @return the streamed file
+   */
+  @GetMapping("/orders/export")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "CSV") OrderExportFormat format,
+      HttpServletRequest request) {
+    orderExportService.validateRange(from, to);
+    WebAsyncUtils.getAsyncManager(request)
+        .registerCallableInterceptor(EXPORT_TIMEOUT_KEY, exportTimeout);
+    String fileName = "orders-" + from + "-" + to + "." + format.getExtension();
+    StreamingResponseBody body = out -> orderExportService.export(from, to, format, out);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+        .contentType(MediaType.parseMediaType(format.getContentType()))
+        .body(body);
+  }
+
+  /**
+   * Interceptor applying a timeout to the async request streaming a response.
+   */
+  private record AsyncTimeout(long timeoutMillis) implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+      if (request instanceof AsyncWebRequest asyncWebRequest) {
+        asyncWebRequest.setTimeout(timeoutMillis);
+      }
+    }
+  }
+}
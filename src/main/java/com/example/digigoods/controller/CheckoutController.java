@@ -1,33 +1,125 @@
 package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderDetailResponse;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.exception.InvalidCursorException;
 import com.example.digigoods.exception.MissingJwtTokenException;
 import com.example.digigoods.service.CheckoutService;
 import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.OrderService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Controller for checkout endpoints.
+ * Controller for checkout and order history endpoints.
  */
 @RestController
 @RequestMapping("/orders")
 public class CheckoutController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 100;
+  private static final char CURSOR_SEPARATOR = '_';
+
   private final CheckoutService checkoutService;
+  private final OrderService orderService;
   private final JwtService jwtService;
 
-  public CheckoutController(CheckoutService checkoutService, JwtService jwtService) {
+  /**
+   * Create the checkout controller.
+   *
+   * @param checkoutService the checkout service
+   * @param orderService    the order service
+   * @param jwtService      the JWT service
+   */
+  public CheckoutController(CheckoutService checkoutService, OrderService orderService,
+                            JwtService jwtService) {
     this.checkoutService = checkoutService;
+    this.orderService = orderService;
     this.jwtService = jwtService;
   }
 
+  /**
+   * Get order history endpoint.
+   * Returns the orders of the authenticated user, newest first, one page at a time. When the
+   * page is full, the {@value #NEXT_CURSOR_HEADER} header carries the cursor of the next page.
+   *
+   * @param cursor  the cursor returned with the previous page, or none for the first page
+   * @param limit   the maximum number of orders per page, at most 100
+   * @param request the HTTP servlet request
+   * @return page of orders
+   */
+  @GetMapping
+  public ResponseEntity<List<OrderSummaryResponse>> getOrderHistory(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int limit,
+      HttpServletRequest request) {
+    String token = extractTokenFromRequest(request);
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+    Long authenticatedUserId = jwtService.extractUserId(token);
+
+    LocalDateTime beforeDate = null;
+    Long beforeId = null;
+    if (cursor != null && !cursor.isEmpty()) {
+      int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+      try {
+        beforeDate = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+        beforeId = Long.valueOf(cursor.substring(separator + 1));
+      } catch (DateTimeParseException | NumberFormatException e) {
+        throw new InvalidCursorException(cursor);
+      }
+    }
+
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    List<OrderSummaryResponse> orders = orderService.getOrderHistory(authenticatedUserId,
+        beforeDate, beforeId, pageSize);
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (orders.size() == pageSize) {
+      OrderSummaryResponse last = orders.get(orders.size() - 1);
+      response.header(NEXT_CURSOR_HEADER,
+          last.getOrderDate().toString() + CURSOR_SEPARATOR + last.getOrderId());
+    }
+    return response.body(orders);
+  }
+
+  /**
+   * Get order details endpoint.
+   * Served from the order cache, filled as soon as checkout commits, or else from the order
+   * read model once the outbox relay has projected the order.
+   *
+   * @param orderId the order ID
+   * @param request the HTTP servlet request
+   * @return the order details
+   */
+  @GetMapping("/{orderId}")
+  public ResponseEntity<OrderDetailResponse> getOrder(@PathVariable Long orderId,
+                                                      HttpServletRequest request) {
+    String token = extractTokenFromRequest(request);
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+    Long authenticatedUserId = jwtService.extractUserId(token);
+
+    return ResponseEntity.ok(orderService.getOrder(orderId, authenticatedUserId));
+  }
+
   /**
    * Create order endpoint.
    *
@@ -50,6 +142,27 @@ public class CheckoutController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Quote order endpoint, pricing the cart with the best combination of its discount codes.
+   *
+   * @param checkoutRequest the checkout request to quote
+   * @param request the HTTP servlet request
+   * @return quote response
+   */
+  @PostMapping("/quote")
+  public ResponseEntity<QuoteResponse> quoteOrder(
+      @Valid @RequestBody CheckoutRequest checkoutRequest,
+      HttpServletRequest request) {
+    String token = extractTokenFromRequest(request);
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+    Long authenticatedUserId = jwtService.extractUserId(token);
+
+    QuoteResponse response = checkoutService.quote(checkoutRequest, authenticatedUserId);
+    return ResponseEntity.ok(response);
+  }
+
   private String extractTokenFromRequest(HttpServletRequest request) {
     String bearerToken = request.getHeader("Authorization");
     if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -1,11 +1,24 @@
 package com.example.digigoods.controller;
 
-import com.example.digigoods.model.Discount;
+import com.example.digigoods.dto.DiscountBatchRequest;
+import com.example.digigoods.dto.DiscountBatchResponse;
+import com.example.digigoods.dto.DiscountResponse;
+import com.example.digigoods.dto.DiscountStatsResponse;
+import com.example.digigoods.service.DiscountBatchService;
 import com.example.digigoods.service.DiscountService;
+import com.example.digigoods.service.DiscountUsageService;
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -15,20 +28,93 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/discounts")
 public class DiscountController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 200;
+  private static final int MAX_STATS_HOURS = 24 * 90;
+
   private final DiscountService discountService;
+  private final DiscountUsageService discountUsageService;
+  private final DiscountBatchService discountBatchService;
 
-  public DiscountController(DiscountService discountService) {
+  /**
+   * Create the discount controller.
+   *
+   * @param discountService      the discount service
+   * @param discountUsageService the discount usage service
+   * @param discountBatchService the discount batch service
+   */
+  public DiscountController(DiscountService discountService,
+                            DiscountUsageService discountUsageService,
+                            DiscountBatchService discountBatchService) {
     this.discountService = discountService;
+    this.discountUsageService = discountUsageService;
+    this.discountBatchService = discountBatchService;
   }
 
   /**
-   * Get all discounts endpoint.
+   * Get active discounts endpoint.
+   * Returns the discounts valid today with uses left, one page at a time. When the page is
+   * full, the {@value #NEXT_CURSOR_HEADER} header carries the cursor of the next page.
    *
-   * @return list of all discounts
+   * @param after the cursor returned with the previous page, or 0 for the first page
+   * @param limit the maximum number of discounts per page, at most 200
+   * @return page of active discounts
    */
   @GetMapping
-  public ResponseEntity<List<Discount>> getAllDiscounts() {
-    List<Discount> discounts = discountService.getAllDiscounts();
-    return ResponseEntity.ok(discounts);
+  public ResponseEntity<List<DiscountResponse>> getActiveDiscounts(
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "50") int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    List<DiscountResponse> discounts = discountService.getActiveDiscounts(after, pageSize);
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (discounts.size() == pageSize) {
+      response.header(NEXT_CURSOR_HEADER,
+          String.valueOf(discounts.get(discounts.size() - 1).getId()));
+    }
+    return response.body(discounts);
+  }
+
+  /**
+   * Get discount usage statistics endpoint.
+   * Reads the hourly usage rollup of the discount for the last hours, at most 90 days.
+   * Restricted to admins, as it reveals both the usage and the existence of a code.
+   *
+   * @param code  the discount code
+   * @param hours the number of hours to cover, ending with the current hour
+   * @return usage statistics of the discount
+   */
+  @GetMapping("/{code}/stats")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<DiscountStatsResponse> getDiscountStats(@PathVariable String code,
+      @RequestParam(defaultValue = "168") int hours) {
+    int window = Math.max(1, Math.min(hours, MAX_STATS_HOURS));
+    return ResponseEntity.ok(discountUsageService.getStats(code, window));
+  }
+
+  /**
+   * Start a discount code batch endpoint.
+   * The codes are generated in the background; the response carries the batch ID to poll.
+   *
+   * @param request the batch request
+   * @return progress of the started batch
+   */
+  @PostMapping("/batches")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<DiscountBatchResponse> startBatch(
+      @Valid @RequestBody DiscountBatchRequest request) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(discountBatchService.start(request));
+  }
+
+  /**
+   * Get discount code batch progress endpoint.
+   *
+   * @param batchId the batch ID
+   * @return progress of the batch
+   */
+  @GetMapping("/batches/{batchId}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<DiscountBatchResponse> getBatch(@PathVariable UUID batchId) {
+    return ResponseEntity.ok(discountBatchService.getBatch(batchId));
   }
 }
@@ -1,17 +1,23 @@
 package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.ErrorResponse;
+import com.example.digigoods.exception.DiscountBatchNotFoundException;
 import com.example.digigoods.exception.ExcessiveDiscountException;
 import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.InvalidCursorException;
 import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.InvalidExportRangeException;
+import com.example.digigoods.exception.InvalidRevenueRangeException;
 import com.example.digigoods.exception.MissingJwtTokenException;
 import com.example.digigoods.exception.NotificationException;
+import com.example.digigoods.exception.OrderNotFoundException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -35,8 +41,32 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
   }
 
+  @ExceptionHandler(OrderNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleOrderNotFoundException(
+      OrderNotFoundException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.NOT_FOUND.value(),
+        "Not Found",
+        ex.getMessage(),
+        request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+  }
+
+  @ExceptionHandler(DiscountBatchNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleDiscountBatchNotFoundException(
+      DiscountBatchNotFoundException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.NOT_FOUND.value(),
+        "Not Found",
+        ex.getMessage(),
+        request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+  }
+
   @ExceptionHandler({ InvalidDiscountException.class, ExcessiveDiscountException.class,
-      InsufficientStockException.class, NotificationException.class })
+      InsufficientStockException.class, NotificationException.class,
+      InvalidCursorException.class, InvalidExportRangeException.class,
+      InvalidRevenueRangeException.class })
   public ResponseEntity<ErrorResponse> handleBadRequestExceptions(
       RuntimeException ex, HttpServletRequest request) {
     ErrorResponse error = new ErrorResponse(
@@ -58,6 +88,17 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
   }
 
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAccessDeniedException(
+      AccessDeniedException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.FORBIDDEN.value(),
+        "Forbidden",
+        ex.getMessage(),
+        request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+  }
+
   @ExceptionHandler(BadCredentialsException.class)
   public ResponseEntity<ErrorResponse> handleBadCredentialsException(
       BadCredentialsException ex, HttpServletRequest request) {
@@ -1,11 +1,27 @@
 package com.example.digigoods.controller;
 
+import com.example.digigoods.dto.RelatedProductResponse;
+import com.example.digigoods.dto.RestockRequest;
+import com.example.digigoods.dto.StockSubscriptionResponse;
+import com.example.digigoods.dto.TopProductResponse;
+import com.example.digigoods.exception.MissingJwtTokenException;
 import com.example.digigoods.model.Product;
+import com.example.digigoods.service.JwtService;
 import com.example.digigoods.service.ProductService;
+import com.example.digigoods.service.RelatedProductService;
+import com.example.digigoods.service.StockAlertService;
+import com.example.digigoods.service.TopSellerService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -16,9 +32,30 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductController {
 
   private final ProductService productService;
+  private final StockAlertService stockAlertService;
+  private final TopSellerService topSellerService;
+  private final RelatedProductService relatedProductService;
+  private final JwtService jwtService;
 
-  public ProductController(ProductService productService) {
+  /**
+   * Create the product controller.
+   *
+   * @param productService        the product service
+   * @param stockAlertService     the stock alert service
+   * @param topSellerService      the top seller service
+   * @param relatedProductService the related product service
+   * @param jwtService            the JWT service
+   */
+  public ProductController(ProductService productService,
+                           StockAlertService stockAlertService,
+                           TopSellerService topSellerService,
+                           RelatedProductService relatedProductService,
+                           JwtService jwtService) {
     this.productService = productService;
+    this.stockAlertService = stockAlertService;
+    this.topSellerService = topSellerService;
+    this.relatedProductService = relatedProductService;
+    this.jwtService = jwtService;
   }
 
   /**
@@ -31,4 +68,77 @@ public class ProductController {
     List<Product> products = productService.getAllProducts();
     return ResponseEntity.ok(products);
   }
+
+  /**
+   * Get best sellers endpoint.
+   * Ranks products by recent sales, each sale counting less as it ages.
+   *
+   * @param limit the maximum number of products
+   * @return best selling products, best first
+   */
+  @GetMapping("/top")
+  public ResponseEntity<List<TopProductResponse>> getTopProducts(
+      @RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(topSellerService.getTopProducts(Math.max(1, limit)));
+  }
+
+  /**
+   * Get frequently bought together endpoint.
+   * Ranks products by the number of orders containing both them and the given product.
+   *
+   * @param productId the product ID
+   * @param limit     the maximum number of products
+   * @return related products, most frequent first
+   */
+  @GetMapping("/{productId}/related")
+  public ResponseEntity<List<RelatedProductResponse>> getRelatedProducts(
+      @PathVariable Long productId, @RequestParam(defaultValue = "5") int limit) {
+    return ResponseEntity.ok(relatedProductService.getRelated(productId, Math.max(1, limit)));
+  }
+
+  /**
+   * Restock product endpoint.
+   * Restricted to admins, as restocking also alerts every subscriber of the product.
+   *
+   * @param productId      the product ID
+   * @param restockRequest the restock request
+   * @return the updated product
+   */
+  @PostMapping("/{productId}/restock")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Product> restockProduct(@PathVariable Long productId,
+      @Valid @RequestBody RestockRequest restockRequest) {
+    Product product = productService.restock(productId, restockRequest.getQuantity());
+    return ResponseEntity.ok(product);
+  }
+
+  /**
+   * Subscribe to back-in-stock alert endpoint.
+   *
+   * @param productId the product ID
+   * @param request   the HTTP servlet request
+   * @return subscription response
+   */
+  @PostMapping("/{productId}/subscriptions")
+  public ResponseEntity<StockSubscriptionResponse> subscribeToStockAlert(
+      @PathVariable Long productId, HttpServletRequest request) {
+    // Extract user ID from JWT token
+    String token = extractTokenFromRequest(request);
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+    Long authenticatedUserId = jwtService.extractUserId(token);
+
+    StockSubscriptionResponse response = stockAlertService.subscribe(authenticatedUserId,
+        productId);
+    return ResponseEntity.ok(response);
+  }
+
+  private String extractTokenFromRequest(HttpServletRequest request) {
+    String bearerToken = request.getHeader("Authorization");
+    if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+      return bearerToken.substring(7);
+    }
+    return null;
+  }
 }
@@ -0,0 +1,59 @@
+package com.example.digigoods.dto;
+
+import com.example.digigoods.model.DiscountType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a request to generate a batch of single-definition discount codes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountBatchRequest {
+
+  /**
+   * Largest number of codes a single batch may generate.
+   */
+  public static final int MAX_CODES = 1_000_000;
+
+  @NotBlank(message = "Code prefix is required")
+  @Pattern(regexp = "[A-Z0-9]{2,16}",
+      message = "Code prefix must be 2 to 16 uppercase letters or digits")
+  private String prefix;
+
+  @NotNull(message = "Code count is required")
+  @Positive(message = "Code count must be positive")
+  @Max(value = MAX_CODES, message = "Code count must not exceed " + MAX_CODES)
+  private Integer count;
+
+  @NotNull(message = "Percentage is required")
+  @DecimalMin(value = "0.01", message = "Percentage must be at least 0.01")
+  @DecimalMax(value = "100.00", message = "Percentage must not exceed 100.00")
+  private BigDecimal percentage;
+
+  @NotNull(message = "Discount type is required")
+  private DiscountType type;
+
+  @NotNull(message = "Valid from date is required")
+  private LocalDate validFrom;
+
+  @NotNull(message = "Valid until date is required")
+  private LocalDate validUntil;
+
+  @Positive(message = "Uses per code must be positive")
+  private Integer usesPerCode = 1;
+
+  private List<Long> productIds;
+}
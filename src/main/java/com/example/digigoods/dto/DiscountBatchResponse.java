@@ -0,0 +1,27 @@
+package com.example.digigoods.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the progress of a discount code batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountBatchResponse {
+
+  private UUID batchId;
+  private String prefix;
+  private String status;
+  private long requested;
+  private long inserted;
+  private long productLinks;
+  private long codesPerSecond;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private String error;
+}
@@ -0,0 +1,27 @@
+package com.example.digigoods.dto;
+
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for discount response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountResponse {
+
+  private Long id;
+  private String code;
+  private BigDecimal percentage;
+  private DiscountType type;
+  private LocalDate validFrom;
+  private LocalDate validUntil;
+  private Integer remainingUses;
+  private List<Long> applicableProductIds;
+}
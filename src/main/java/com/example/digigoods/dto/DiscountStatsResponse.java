@@ -0,0 +1,37 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the usage statistics of a discount over a window of hours.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountStatsResponse {
+
+  private String code;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  private long totalRedemptions;
+  private BigDecimal totalDiscountAmount;
+  private List<HourlyUsage> hours;
+
+  /**
+   * Usage of a discount within a single hour.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class HourlyUsage {
+
+    private LocalDateTime hourStart;
+    private long redemptions;
+    private BigDecimal discountAmount;
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the details of one order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetailResponse {
+
+  private Long orderId;
+  private Long userId;
+  private LocalDateTime orderDate;
+  private BigDecimal originalSubtotal;
+  private BigDecimal finalPrice;
+  private List<Line> lines;
+  private Map<String, BigDecimal> discountAmounts;
+
+  /**
+   * One ordered item and its price.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Line {
+
+    private Long productId;
+    private String productName;
+    private BigDecimal originalPrice;
+    private BigDecimal price;
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.digigoods.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +17,22 @@ public class OrderResponse {
 
   private String message;
   private BigDecimal finalPrice;
+  private Long orderId;
+  private BigDecimal originalSubtotal;
+  private List<Line> lines;
+  private Map<String, BigDecimal> discountAmounts;
+
+  /**
+   * Price of one ordered item. Order-wide discounts are not spread over the lines, so the
+   * line prices only add up to the final price when no such discount applies.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Line {
+
+    private Long productId;
+    private BigDecimal originalPrice;
+    private BigDecimal price;
+  }
 }
@@ -0,0 +1,35 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an order in the order history of a user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+
+  private Long orderId;
+  private LocalDateTime orderDate;
+  private BigDecimal originalSubtotal;
+  private BigDecimal finalPrice;
+  private List<Item> items;
+
+  /**
+   * Product bought with an order.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Item {
+
+    private Long productId;
+    private String productName;
+  }
+}
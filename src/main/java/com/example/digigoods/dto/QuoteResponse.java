@@ -0,0 +1,26 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a price quote with the best combination of the submitted discount codes.
+ * Dropped codes include the invalid ones, whose reasons are listed by code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponse {
+
+  private BigDecimal originalSubtotal;
+  private BigDecimal finalPrice;
+  private List<String> appliedDiscountCodes;
+  private List<String> droppedDiscountCodes;
+  private Map<String, String> rejectedDiscountCodes;
+  private Map<String, BigDecimal> discountAmounts;
+  private boolean optimal;
+}
@@ -0,0 +1,20 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a product frequently bought together with another one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedProductResponse {
+
+  private Long productId;
+  private String name;
+  private BigDecimal price;
+  private long count;
+}
@@ -0,0 +1,20 @@
+package com.example.digigoods.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for restock request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestockRequest {
+
+  @NotNull(message = "Quantity is required")
+  @Positive(message = "Quantity must be positive")
+  private Integer quantity;
+}
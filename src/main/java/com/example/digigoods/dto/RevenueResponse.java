@@ -0,0 +1,43 @@
+package com.example.digigoods.dto;
+
+import com.example.digigoods.model.RevenuePeriod;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the revenue of a range of days, broken down by hour or by day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueResponse {
+
+  private LocalDate from;
+  private LocalDate to;
+  private RevenuePeriod period;
+  private long totalOrders;
+  private BigDecimal totalGross;
+  private BigDecimal totalNet;
+  private BigDecimal totalDiscount;
+  private List<PeriodRevenue> periods;
+
+  /**
+   * Revenue of a single hour or day. Periods without orders are left out.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PeriodRevenue {
+
+    private LocalDateTime start;
+    private long orders;
+    private BigDecimal gross;
+    private BigDecimal net;
+    private BigDecimal discount;
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.digigoods.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for stock subscription response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSubscriptionResponse {
+
+  private Long productId;
+  private Long userId;
+  private String message;
+}
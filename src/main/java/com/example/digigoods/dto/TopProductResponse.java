@@ -0,0 +1,20 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a best selling product and its decayed sales score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopProductResponse {
+
+  private Long productId;
+  private String name;
+  private BigDecimal price;
+  private double score;
+}
@@ -0,0 +1,24 @@
+package com.example.digigoods.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event written to the outbox and published locally when a checkout has created an order.
+ *
+ * @param orderId          the order ID
+ * @param userId           the ID of the ordering user
+ * @param productIds       the ordered product IDs, repeated once per item
+ * @param originalSubtotal the undiscounted sum of all items
+ * @param finalPrice       the price after all discounts
+ * @param discountAmounts  the amount each applied discount took off, by discount ID
+ */
+public record CheckoutCompletedEvent(Long orderId, Long userId, List<Long> productIds,
+    BigDecimal originalSubtotal, BigDecimal finalPrice, Map<Long, BigDecimal> discountAmounts) {
+
+  /**
+   * Outbox event type of the event.
+   */
+  public static final String TYPE = "CHECKOUT_COMPLETED";
+}
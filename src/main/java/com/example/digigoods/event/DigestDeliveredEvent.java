@@ -0,0 +1,14 @@
+package com.example.digigoods.event;
+
+import com.example.digigoods.model.NotificationType;
+import java.util.List;
+
+/**
+ * Event published once a notification digest has been delivered to its user.
+ *
+ * @param userId the user ID
+ * @param type   the notification type of the digest
+ * @param keys   the subjects of every line of the digest, such as product IDs
+ */
+public record DigestDeliveredEvent(Long userId, NotificationType type, List<String> keys) {
+}
@@ -0,0 +1,15 @@
+package com.example.digigoods.event;
+
+import java.time.LocalDate;
+
+/**
+ * Event published when a discount is created or updated.
+ *
+ * @param discountId the discount ID
+ * @param code       the discount code
+ * @param validUntil the last day the discount is valid
+ * @param announced  whether users are reminded before the discount expires
+ */
+public record DiscountChangedEvent(Long discountId, String code, LocalDate validUntil,
+                                   boolean announced) {
+}
@@ -0,0 +1,13 @@
+package com.example.digigoods.event;
+
+import java.time.LocalDate;
+
+/**
+ * Event published once per discount when its expiry reminder is due.
+ *
+ * @param discountId the discount ID
+ * @param code       the discount code
+ * @param validUntil the last day the discount is valid
+ */
+public record DiscountExpiringEvent(Long discountId, String code, LocalDate validUntil) {
+}
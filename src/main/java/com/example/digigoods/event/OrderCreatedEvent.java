@@ -0,0 +1,51 @@
+package com.example.digigoods.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event written to the outbox and published locally when a checkout has created an order.
+ * Carries everything the order read model shows, so projecting or caching it never reads the
+ * order tables. The event is immutable: its collections are copied on creation.
+ *
+ * @param orderId          the order ID
+ * @param userId           the ID of the ordering user
+ * @param orderDate        the time the order was placed
+ * @param originalSubtotal the undiscounted sum of all items
+ * @param finalPrice       the price after all discounts
+ * @param lines            the ordered items, one per item
+ * @param discountAmounts  the amount each applied discount took off, by discount code
+ */
+public record OrderCreatedEvent(Long orderId, Long userId, LocalDateTime orderDate,
+    BigDecimal originalSubtotal, BigDecimal finalPrice, List<Line> lines,
+    Map<String, BigDecimal> discountAmounts) {
+
+  /**
+   * Outbox event type of the event.
+   */
+  public static final String TYPE = "ORDER_CREATED";
+
+  /**
+   * Copy the collections of the event so it cannot change once created.
+   */
+  public OrderCreatedEvent {
+    lines = List.copyOf(lines);
+    discountAmounts = Collections.unmodifiableMap(new LinkedHashMap<>(discountAmounts));
+  }
+
+  /**
+   * One ordered item.
+   *
+   * @param productId     the product ID
+   * @param productName   the product name at the time of the order
+   * @param originalPrice the undiscounted price
+   * @param price         the price after product discounts
+   */
+  public record Line(Long productId, String productName, BigDecimal originalPrice,
+      BigDecimal price) {
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.digigoods.event;
+
+/**
+ * Event published when a product's stock moves from zero to a positive quantity.
+ *
+ * @param productId   the restocked product ID
+ * @param productName the restocked product name
+ */
+public record ProductRestockedEvent(Long productId, String productName) {
+}
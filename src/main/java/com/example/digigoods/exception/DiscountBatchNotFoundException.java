@@ -0,0 +1,13 @@
+package com.example.digigoods.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a discount code batch is not found.
+ */
+public class DiscountBatchNotFoundException extends RuntimeException {
+
+  public DiscountBatchNotFoundException(UUID batchId) {
+    super("Discount batch not found with ID: " + batchId);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.digigoods.exception;
+
+import java.time.LocalDate;
+
+/**
+ * Exception thrown when an export date range is empty or reversed.
+ */
+public class InvalidExportRangeException extends RuntimeException {
+
+  public InvalidExportRangeException(LocalDate from, LocalDate to) {
+    super("Export range must end after it starts: " + from + " to " + to);
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when a revenue report range is empty, reversed or too long.
+ */
+public class InvalidRevenueRangeException extends RuntimeException {
+
+  public InvalidRevenueRangeException(String message) {
+    super(message);
+  }
+}
@@ -1,7 +1,9 @@
 package com.example.digigoods.model;
 
+import com.example.digigoods.service.DiscountChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -13,6 +15,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -24,6 +27,7 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "discounts")
+@EntityListeners(DiscountChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +56,33 @@ public class Discount {
   @Column(name = "remaining_uses", nullable = false)
   private Integer remainingUses;
 
+  @Column(nullable = false)
+  private Boolean sharded = false;
+
+  @Column(name = "min_cart_value", precision = 10, scale = 2)
+  private BigDecimal minCartValue;
+
+  @Column(name = "max_discount_per_item", precision = 10, scale = 2)
+  private BigDecimal maxDiscountPerItem;
+
+  @Column(nullable = false)
+  private Boolean stackable = true;
+
+  @Column(name = "buy_quantity")
+  private Integer buyQuantity;
+
+  @Column(name = "get_quantity")
+  private Integer getQuantity;
+
+  @Column(nullable = false)
+  private Boolean announced = true;
+
+  @Column(name = "reminder_sent_at")
+  private LocalDateTime reminderSentAt;
+
+  @Column(name = "archived_at")
+  private LocalDateTime archivedAt;
+
   @ManyToMany
   @JoinTable(
       name = "discount_applicable_products",
@@ -0,0 +1,312 @@
+package com.example.digigoods.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable pricing rule compiled once from a discount definition and cached with its
+ * {@link DiscountSnapshot}. Percentages are turned into rates, product IDs into sorted
+ * arrays and optional settings into plain fields, so pricing a cart only loops over the
+ * compiled rules. Line rules reduce individual items first; order rules then compound on
+ * the resulting subtotal.
+ */
+public sealed interface DiscountRule {
+
+  /**
+   * Pricing phase a rule takes part in.
+   */
+  enum Phase {
+    LINE,
+    ORDER
+  }
+
+  /**
+   * Get the phase this rule is applied in.
+   *
+   * @return the pricing phase
+   */
+  Phase phase();
+
+  /**
+   * Get the minimum original subtotal the cart must reach for the discount to be used.
+   *
+   * @return the minimum cart value, or null if there is none
+   */
+  BigDecimal minCartValue();
+
+  /**
+   * Check whether the discount may be combined with other discounts.
+   *
+   * @return true if the discount is stackable
+   */
+  boolean stackable();
+
+  /**
+   * Apply the rule to a cart.
+   *
+   * @param cart          the cart being priced
+   * @param discountIndex the position of the discount in the priced discount list
+   */
+  void apply(PricingCart cart, int discountIndex);
+
+  /**
+   * Compile the rule of a discount entity.
+   *
+   * @param discount   the discount entity
+   * @param productIds the IDs of the products the discount applies to
+   * @return the compiled rule
+   * @throws IllegalStateException if a buy-X-get-Y discount has no valid quantities
+   */
+  static DiscountRule compile(Discount discount, Set<Long> productIds) {
+    return compile(discount.getCode(), discount.getType(), discount.getPercentage(), productIds,
+        discount.getMinCartValue(), discount.getMaxDiscountPerItem(),
+        !Boolean.FALSE.equals(discount.getStackable()), discount.getBuyQuantity(),
+        discount.getGetQuantity());
+  }
+
+  /**
+   * Compile the rule of a stackable percentage discount without further restrictions.
+   *
+   * @param type       the discount type
+   * @param percentage the discount percentage
+   * @param productIds the IDs of the products the discount applies to
+   * @return the compiled rule
+   */
+  static DiscountRule compile(DiscountType type, BigDecimal percentage, Set<Long> productIds) {
+    return compile(null, type, percentage, productIds, null, null, true, null, null);
+  }
+
+  private static DiscountRule compile(String code, DiscountType type, BigDecimal percentage,
+      Set<Long> productIds, BigDecimal minCartValue, BigDecimal maxDiscountPerItem,
+      boolean stackable, Integer buyQuantity, Integer getQuantity) {
+    BigDecimal rate = percentage.movePointLeft(2);
+    long[] sortedProductIds = productIds.stream().mapToLong(Long::longValue).sorted().toArray();
+    return switch (type) {
+      case GENERAL -> new OrderPercentage(rate, minCartValue, stackable);
+      case PRODUCT_SPECIFIC -> new ProductPercentage(sortedProductIds, rate, maxDiscountPerItem,
+          minCartValue, stackable);
+      case BUY_X_GET_Y -> {
+        if (buyQuantity == null || getQuantity == null || buyQuantity <= 0 || getQuantity <= 0) {
+          throw new IllegalStateException(
+              "Discount " + code + " has no valid buy and get quantities");
+        }
+        yield new BuyGetQuantity(sortedProductIds, buyQuantity, getQuantity, rate,
+            maxDiscountPerItem, minCartValue, stackable);
+      }
+    };
+  }
+
+  /**
+   * Percentage taken off every item of the applicable products, optionally capped per item.
+   */
+  final class ProductPercentage implements DiscountRule {
+
+    private final long[] productIds;
+    private final BigDecimal rate;
+    private final BigDecimal maxPerItem;
+    private final BigDecimal minCartValue;
+    private final boolean stackable;
+
+    private ProductPercentage(long[] productIds, BigDecimal rate, BigDecimal maxPerItem,
+        BigDecimal minCartValue, boolean stackable) {
+      this.productIds = productIds;
+      this.rate = rate;
+      this.maxPerItem = maxPerItem;
+      this.minCartValue = minCartValue;
+      this.stackable = stackable;
+    }
+
+    @Override
+    public Phase phase() {
+      return Phase.LINE;
+    }
+
+    @Override
+    public BigDecimal minCartValue() {
+      return minCartValue;
+    }
+
+    @Override
+    public boolean stackable() {
+      return stackable;
+    }
+
+    @Override
+    public void apply(PricingCart cart, int discountIndex) {
+      for (int line = 0; line < cart.size(); line++) {
+        if (Arrays.binarySearch(productIds, cart.productId(line)) >= 0) {
+          cart.discountLine(line, discountIndex,
+              capped(cart.originalPrice(line).multiply(rate), maxPerItem));
+        }
+      }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof ProductPercentage rule
+          && Arrays.equals(productIds, rule.productIds)
+          && rate.compareTo(rule.rate) == 0
+          && sameAmount(maxPerItem, rule.maxPerItem)
+          && sameAmount(minCartValue, rule.minCartValue)
+          && stackable == rule.stackable;
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(productIds) * 31 + rate.stripTrailingZeros().hashCode();
+    }
+  }
+
+  /**
+   * For every group of buy plus get applicable items, the get cheapest items of the group
+   * receive the percentage off. Items are grouped from the most expensive down, and an
+   * empty product list makes every product applicable.
+   */
+  final class BuyGetQuantity implements DiscountRule {
+
+    private final long[] productIds;
+    private final int buyQuantity;
+    private final int groupSize;
+    private final BigDecimal rate;
+    private final BigDecimal maxPerItem;
+    private final BigDecimal minCartValue;
+    private final boolean stackable;
+
+    private BuyGetQuantity(long[] productIds, int buyQuantity, int getQuantity, BigDecimal rate,
+        BigDecimal maxPerItem, BigDecimal minCartValue, boolean stackable) {
+      this.productIds = productIds;
+      this.buyQuantity = buyQuantity;
+      this.groupSize = buyQuantity + getQuantity;
+      this.rate = rate;
+      this.maxPerItem = maxPerItem;
+      this.minCartValue = minCartValue;
+      this.stackable = stackable;
+    }
+
+    @Override
+    public Phase phase() {
+      return Phase.LINE;
+    }
+
+    @Override
+    public BigDecimal minCartValue() {
+      return minCartValue;
+    }
+
+    @Override
+    public boolean stackable() {
+      return stackable;
+    }
+
+    @Override
+    public void apply(PricingCart cart, int discountIndex) {
+      Integer[] eligible = new Integer[cart.size()];
+      int count = 0;
+      for (int line = 0; line < cart.size(); line++) {
+        if (productIds.length == 0 || Arrays.binarySearch(productIds, cart.productId(line)) >= 0) {
+          eligible[count++] = line;
+        }
+      }
+      if (count < groupSize) {
+        return;
+      }
+      Arrays.sort(eligible, 0, count,
+          (a, b) -> cart.originalPrice(b).compareTo(cart.originalPrice(a)));
+      for (int group = 0; group + groupSize <= count; group += groupSize) {
+        for (int i = group + buyQuantity; i < group + groupSize; i++) {
+          int line = eligible[i];
+          cart.discountLine(line, discountIndex,
+              capped(cart.originalPrice(line).multiply(rate), maxPerItem));
+        }
+      }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof BuyGetQuantity rule
+          && Arrays.equals(productIds, rule.productIds)
+          && buyQuantity == rule.buyQuantity
+          && groupSize == rule.groupSize
+          && rate.compareTo(rule.rate) == 0
+          && sameAmount(maxPerItem, rule.maxPerItem)
+          && sameAmount(minCartValue, rule.minCartValue)
+          && stackable == rule.stackable;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(Arrays.hashCode(productIds), buyQuantity, groupSize,
+          rate.stripTrailingZeros());
+    }
+  }
+
+  /**
+   * Percentage taken off the subtotal left after the line rules, compounding in code order.
+   */
+  final class OrderPercentage implements DiscountRule {
+
+    private final BigDecimal rate;
+    private final BigDecimal minCartValue;
+    private final boolean stackable;
+
+    private OrderPercentage(BigDecimal rate, BigDecimal minCartValue, boolean stackable) {
+      this.rate = rate;
+      this.minCartValue = minCartValue;
+      this.stackable = stackable;
+    }
+
+    /**
+     * Get the share of the total taken off.
+     *
+     * @return the rate, such as 0.1000 for ten percent
+     */
+    public BigDecimal rate() {
+      return rate;
+    }
+
+    @Override
+    public Phase phase() {
+      return Phase.ORDER;
+    }
+
+    @Override
+    public BigDecimal minCartValue() {
+      return minCartValue;
+    }
+
+    @Override
+    public boolean stackable() {
+      return stackable;
+    }
+
+    @Override
+    public void apply(PricingCart cart, int discountIndex) {
+      cart.discountOrder(discountIndex,
+          cart.total().multiply(rate).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof OrderPercentage rule
+          && rate.compareTo(rule.rate) == 0
+          && sameAmount(minCartValue, rule.minCartValue)
+          && stackable == rule.stackable;
+    }
+
+    @Override
+    public int hashCode() {
+      return rate.stripTrailingZeros().hashCode();
+    }
+  }
+
+  private static BigDecimal capped(BigDecimal amount, BigDecimal cap) {
+    return cap != null && amount.compareTo(cap) > 0 ? cap : amount;
+  }
+
+  private static boolean sameAmount(BigDecimal first, BigDecimal second) {
+    return first == null ? second == null : second != null && first.compareTo(second) == 0;
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.digigoods.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of a discount definition that can be cached and shared between threads.
+ * It carries everything pricing needs, including the compiled pricing rule, except the
+ * remaining uses, which only the database decrement may decide on.
+ *
+ * @param id                   the discount ID
+ * @param code                 the discount code
+ * @param percentage           the discount percentage
+ * @param type                 the discount type
+ * @param validFrom            the first day the discount is valid
+ * @param validUntil           the last day the discount is valid
+ * @param applicableProductIds the IDs of the products a product-specific discount applies to
+ * @param sharded              whether uses are redeemed from in-memory sharded counters
+ * @param rule                 the compiled pricing rule
+ */
+public record DiscountSnapshot(Long id, String code, BigDecimal percentage, DiscountType type,
+    LocalDate validFrom, LocalDate validUntil, Set<Long> applicableProductIds,
+    boolean sharded, DiscountRule rule) {
+
+  /**
+   * Create a snapshot, copying the product IDs into an immutable set.
+   */
+  public DiscountSnapshot {
+    applicableProductIds = Set.copyOf(applicableProductIds);
+  }
+
+  /**
+   * Create a snapshot of a stackable percentage discount without further restrictions.
+   *
+   * @param id                   the discount ID
+   * @param code                 the discount code
+   * @param percentage           the discount percentage
+   * @param type                 the discount type
+   * @param validFrom            the first day the discount is valid
+   * @param validUntil           the last day the discount is valid
+   * @param applicableProductIds the IDs of the products the discount applies to
+   * @param sharded              whether uses are redeemed from in-memory sharded counters
+   */
+  public DiscountSnapshot(Long id, String code, BigDecimal percentage, DiscountType type,
+      LocalDate validFrom, LocalDate validUntil, Set<Long> applicableProductIds,
+      boolean sharded) {
+    this(id, code, percentage, type, validFrom, validUntil, applicableProductIds, sharded,
+        DiscountRule.compile(type, percentage, applicableProductIds));
+  }
+
+  /**
+   * Create a snapshot of a discount entity, compiling its pricing rule.
+   *
+   * @param discount the discount entity
+   * @return the snapshot
+   */
+  public static DiscountSnapshot from(Discount discount) {
+    Set<Long> productIds = discount.getApplicableProducts().stream()
+        .map(Product::getId)
+        .collect(Collectors.toSet());
+    return new DiscountSnapshot(discount.getId(), discount.getCode(), discount.getPercentage(),
+        discount.getType(), discount.getValidFrom(), discount.getValidUntil(), productIds,
+        Boolean.TRUE.equals(discount.getSharded()), DiscountRule.compile(discount, productIds));
+  }
+}
@@ -5,5 +5,6 @@ package com.example.digigoods.model;
  */
 public enum DiscountType {
   PRODUCT_SPECIFIC,
-  GENERAL
+  GENERAL,
+  BUY_X_GET_Y
 }
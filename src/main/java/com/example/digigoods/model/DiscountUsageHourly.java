@@ -0,0 +1,42 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hourly rollup of the redemptions of a discount and the amount it took off.
+ */
+@Entity
+@Table(name = "discount_usage_hourly", uniqueConstraints = @UniqueConstraint(
+    name = "uk_discount_usage_hourly_discount_hour", columnNames = {"discount_id", "hour_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountUsageHourly {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "discount_id", nullable = false)
+  private Long discountId;
+
+  @Column(name = "hour_start", nullable = false)
+  private LocalDateTime hourStart;
+
+  @Column(nullable = false)
+  private Long redemptions;
+
+  @Column(name = "discount_amount", nullable = false, precision = 14, scale = 2)
+  private BigDecimal discountAmount;
+}
@@ -3,31 +3,48 @@ package com.example.digigoods.model;
 /**
  * Enumeration representing different types of notifications in the system.
  * Used to categorize notifications for proper handling and routing.
+ * Each type is delivered through its own dispatcher lane; the lane weight is the
+ * relative share of delivery capacity the lane receives while other lanes are busy.
  */
 public enum NotificationType {
-  
+
   /**
    * Notification sent when an order is successfully created and confirmed.
    */
-  ORDER_CONFIRMATION,
-  
+  ORDER_CONFIRMATION(8),
+
   /**
    * Notification sent to remind users about expiring discount codes.
    */
-  DISCOUNT_REMINDER,
-  
+  DISCOUNT_REMINDER(2),
+
   /**
    * General system notifications for maintenance, updates, etc.
    */
-  SYSTEM_NOTIFICATION,
-  
+  SYSTEM_NOTIFICATION(4),
+
   /**
    * Notification sent when a product is back in stock.
    */
-  STOCK_ALERT,
-  
+  STOCK_ALERT(2),
+
   /**
    * Notification sent for promotional offers and marketing campaigns.
    */
-  PROMOTIONAL_OFFER
+  PROMOTIONAL_OFFER(1);
+
+  private final int laneWeight;
+
+  NotificationType(int laneWeight) {
+    this.laneWeight = laneWeight;
+  }
+
+  /**
+   * Get the scheduling weight of the dispatcher lane for this type.
+   *
+   * @return the lane weight, always positive
+   */
+  public int getLaneWeight() {
+    return laneWeight;
+  }
 }
@@ -0,0 +1,43 @@
+package com.example.digigoods.model;
+
+/**
+ * Enumeration representing the file formats orders can be exported to.
+ */
+public enum OrderExportFormat {
+
+  /**
+   * Comma separated values with a header line, amounts in currency units.
+   */
+  CSV("text/csv", "csv"),
+
+  /**
+   * Column-oriented binary file with per-column compression, amounts in cents.
+   */
+  COLUMNAR("application/octet-stream", "dgcol");
+
+  private final String contentType;
+  private final String extension;
+
+  OrderExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  /**
+   * Get the media type of exported files.
+   *
+   * @return the content type
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * Get the file name extension of exported files.
+   *
+   * @return the extension, without the dot
+   */
+  public String getExtension() {
+    return extension;
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized read model of an order, one row per order.
+ * Line items and discount amounts are stored as JSON, so reading an order is a single row
+ * lookup that never joins or locks the order tables written by checkout.
+ */
+@Entity
+@Table(name = "order_view")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+
+  @Id
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "order_date", nullable = false)
+  private LocalDateTime orderDate;
+
+  @Column(name = "original_subtotal", nullable = false, precision = 10, scale = 2)
+  private BigDecimal originalSubtotal;
+
+  @Column(name = "final_price", nullable = false, precision = 10, scale = 2)
+  private BigDecimal finalPrice;
+
+  @Column(name = "item_count", nullable = false)
+  private Integer itemCount;
+
+  @Column(name = "line_items", nullable = false, columnDefinition = "text")
+  private String lineItems;
+
+  @Column(name = "discount_amounts", nullable = false, columnDefinition = "text")
+  private String discountAmounts;
+}
@@ -0,0 +1,160 @@
+package com.example.digigoods.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable working state of a single pricing run.
+ * Line discounts are accumulated unrounded per item and rounded once when the lines are
+ * settled; order discounts are then taken off the settled total one after another.
+ */
+public final class PricingCart {
+
+  private final long[] productIds;
+  private final BigDecimal[] originalPrices;
+  private final BigDecimal[] lineDiscounts;
+  private final BigDecimal[] linePrices;
+  private final BigDecimal[] discountAmounts;
+  private final BigDecimal originalSubtotal;
+  private BigDecimal total;
+
+  /**
+   * Create a cart with one line per ordered item.
+   *
+   * @param productIds    the ordered product IDs, repeated once per item
+   * @param products      the ordered products by ID
+   * @param discountCount the number of discounts being priced
+   */
+  public PricingCart(List<Long> productIds, Map<Long, Product> products, int discountCount) {
+    int size = productIds.size();
+    this.productIds = new long[size];
+    this.originalPrices = new BigDecimal[size];
+    this.lineDiscounts = new BigDecimal[size];
+    this.linePrices = new BigDecimal[size];
+    BigDecimal subtotal = BigDecimal.ZERO;
+    for (int line = 0; line < size; line++) {
+      Long productId = productIds.get(line);
+      this.productIds[line] = productId;
+      originalPrices[line] = products.get(productId).getPrice();
+      lineDiscounts[line] = BigDecimal.ZERO;
+      subtotal = subtotal.add(originalPrices[line]);
+    }
+    this.originalSubtotal = subtotal;
+    this.total = subtotal;
+    this.discountAmounts = new BigDecimal[discountCount];
+    Arrays.fill(discountAmounts, BigDecimal.ZERO);
+  }
+
+  /**
+   * Get the number of lines.
+   *
+   * @return the number of ordered items
+   */
+  public int size() {
+    return productIds.length;
+  }
+
+  /**
+   * Get the product ID of a line.
+   *
+   * @param line the line index
+   * @return the product ID
+   */
+  public long productId(int line) {
+    return productIds[line];
+  }
+
+  /**
+   * Get the undiscounted price of a line.
+   *
+   * @param line the line index
+   * @return the original price
+   */
+  public BigDecimal originalPrice(int line) {
+    return originalPrices[line];
+  }
+
+  /**
+   * Get the unrounded discount accumulated on a line so far.
+   *
+   * @param line the line index
+   * @return the accumulated line discount
+   */
+  public BigDecimal lineDiscount(int line) {
+    return lineDiscounts[line];
+  }
+
+  /**
+   * Get the undiscounted sum of all lines.
+   *
+   * @return the original subtotal
+   */
+  public BigDecimal originalSubtotal() {
+    return originalSubtotal;
+  }
+
+  /**
+   * Get the current total, which is the settled line subtotal less any order discounts.
+   *
+   * @return the current total
+   */
+  public BigDecimal total() {
+    return total;
+  }
+
+  /**
+   * Record a line discount given by a discount.
+   *
+   * @param line          the line index
+   * @param discountIndex the position of the discount
+   * @param amount        the unrounded amount taken off the line
+   */
+  public void discountLine(int line, int discountIndex, BigDecimal amount) {
+    lineDiscounts[line] = lineDiscounts[line].add(amount);
+    discountAmounts[discountIndex] = discountAmounts[discountIndex].add(amount);
+  }
+
+  /**
+   * Round the accumulated line discounts, never below a zero line price, and total the
+   * discounted lines.
+   */
+  public void settleLines() {
+    BigDecimal subtotal = BigDecimal.ZERO;
+    for (int line = 0; line < productIds.length; line++) {
+      BigDecimal discount = lineDiscounts[line].setScale(2, RoundingMode.HALF_UP)
+          .min(originalPrices[line]);
+      linePrices[line] = originalPrices[line].subtract(discount);
+      subtotal = subtotal.add(linePrices[line]);
+    }
+    total = subtotal;
+  }
+
+  /**
+   * Take an order discount off the current total.
+   *
+   * @param discountIndex the position of the discount
+   * @param amount        the rounded amount taken off the total
+   */
+  public void discountOrder(int discountIndex, BigDecimal amount) {
+    total = total.subtract(amount);
+    discountAmounts[discountIndex] = discountAmounts[discountIndex].add(amount);
+  }
+
+  /**
+   * Build the outcome of the pricing run.
+   *
+   * @param discounts the priced discounts, in the positions used while pricing
+   * @return the pricing result
+   */
+  public PricingResult toResult(List<DiscountSnapshot> discounts) {
+    Map<String, BigDecimal> amounts = new LinkedHashMap<>();
+    for (int i = 0; i < discounts.size(); i++) {
+      amounts.put(discounts.get(i).code(), discountAmounts[i].setScale(2, RoundingMode.HALF_UP));
+    }
+    return new PricingResult(originalSubtotal, total, List.of(linePrices), amounts);
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.digigoods.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of pricing a cart against a set of discounts.
+ *
+ * @param originalSubtotal the undiscounted sum of all items
+ * @param finalPrice       the price after all discounts
+ * @param linePrices       the price of each item after line discounts, in order
+ * @param discountAmounts  the amount each discount took off, by code in application order
+ */
+public record PricingResult(BigDecimal originalSubtotal, BigDecimal finalPrice,
+    List<BigDecimal> linePrices, Map<String, BigDecimal> discountAmounts) {
+
+  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
+
+  /**
+   * Create a result, wrapping the collections as unmodifiable views.
+   */
+  public PricingResult {
+    linePrices = List.copyOf(linePrices);
+    discountAmounts = Collections.unmodifiableMap(discountAmounts);
+  }
+
+  /**
+   * Get the total discount as a percentage of the original subtotal.
+   *
+   * @return the discount percentage, zero for an empty cart
+   */
+  public BigDecimal discountPercentage() {
+    if (originalSubtotal.signum() == 0) {
+      return BigDecimal.ZERO;
+    }
+    return originalSubtotal.subtract(finalPrice).multiply(HUNDRED)
+        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the decayed sales score of a product, as it was at a point in time.
+ */
+@Entity
+@Table(name = "product_sales_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesScore {
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(nullable = false)
+  private Double score;
+
+  @Column(name = "as_of", nullable = false)
+  private LocalDateTime asOf;
+}
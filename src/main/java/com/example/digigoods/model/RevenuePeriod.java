@@ -0,0 +1,36 @@
+package com.example.digigoods.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enumeration representing the lengths of the periods revenue is rolled up by.
+ */
+public enum RevenuePeriod {
+
+  /**
+   * One rollup row per hour.
+   */
+  HOUR(ChronoUnit.HOURS),
+
+  /**
+   * One rollup row per day.
+   */
+  DAY(ChronoUnit.DAYS);
+
+  private final ChronoUnit unit;
+
+  RevenuePeriod(ChronoUnit unit) {
+    this.unit = unit;
+  }
+
+  /**
+   * Get the start of the period containing a point in time.
+   *
+   * @param time the point in time
+   * @return the start of its period
+   */
+  public LocalDateTime startOf(LocalDateTime time) {
+    return time.truncatedTo(unit);
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hourly or daily rollup of the orders placed and the revenue they brought.
+ * Gross is the undiscounted subtotal, net the price paid, and the discount amount the
+ * difference between the two.
+ */
+@Entity
+@Table(name = "revenue_rollups", uniqueConstraints = @UniqueConstraint(
+    name = "uk_revenue_rollups_period_start", columnNames = {"period", "period_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 8)
+  private RevenuePeriod period;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDateTime periodStart;
+
+  @Column(nullable = false)
+  private Long orders;
+
+  @Column(name = "gross_amount", nullable = false, precision = 16, scale = 2)
+  private BigDecimal grossAmount;
+
+  @Column(name = "net_amount", nullable = false, precision = 16, scale = 2)
+  private BigDecimal netAmount;
+
+  @Column(name = "discount_amount", nullable = false, precision = 16, scale = 2)
+  private BigDecimal discountAmount;
+}
@@ -29,4 +29,18 @@ public class User {
 
   @Column(nullable = false)
   private String password;
+
+  @Column(nullable = false)
+  private boolean admin;
+
+  /**
+   * Create a customer, without the admin role.
+   *
+   * @param id       the user ID
+   * @param username the username
+   * @param password the encoded password
+   */
+  public User(Long id, String username, String password) {
+    this(id, username, password, false);
+  }
 }
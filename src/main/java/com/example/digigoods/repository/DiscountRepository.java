@@ -1,10 +1,20 @@
 package com.example.digigoods.repository;
 
 import com.example.digigoods.model.Discount;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for Discount entity.
@@ -21,10 +31,167 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
   Optional<Discount> findByCode(String code);
 
   /**
-   * Find all discounts by their codes.
+   * Find all discounts by their codes, fetching their applicable products in the same query
+   * so that building snapshots does not load one collection per discount.
    *
    * @param codes the list of discount codes
-   * @return list of discounts
+   * @return list of discounts with initialized applicable products
    */
+  @EntityGraph(attributePaths = "applicableProducts")
   List<Discount> findAllByCodeIn(List<String> codes);
+
+  /**
+   * Get the highest discount ID.
+   *
+   * @return the highest discount ID, or 0 if there are no discounts
+   */
+  @Query("SELECT COALESCE(MAX(d.id), 0) FROM Discount d")
+  long findMaxId();
+
+  /**
+   * Check whether any discount code starts with the given prefix.
+   *
+   * @param prefix the code prefix
+   * @return true if at least one code starts with the prefix
+   */
+  boolean existsByCodeStartingWith(String prefix);
+
+  /**
+   * Find the next page of discounts valid on the given day with uses left, using keyset
+   * pagination on the ID. The archive and remaining uses conditions match the partial index
+   * the page is read from in ID order.
+   *
+   * @param today    the day the discounts must be valid on
+   * @param afterId  the last discount ID of the previous page, or 0 for the first page
+   * @param pageable the page size; the page number is ignored by the keyset
+   * @return active discounts in ascending ID order
+   */
+  @Query("SELECT d FROM Discount d "
+      + "WHERE d.archivedAt IS NULL AND d.remainingUses > 0 "
+      + "AND d.validFrom <= :today AND d.validUntil >= :today "
+      + "AND d.id > :afterId ORDER BY d.id")
+  List<Discount> findActiveAfter(@Param("today") LocalDate today,
+      @Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Find the applicable product IDs of several discounts in one query.
+   *
+   * @param discountIds the discount IDs
+   * @return one (discount ID, product ID) pair per applicable product
+   */
+  @Query("SELECT d.id AS discountId, p.id AS productId "
+      + "FROM Discount d JOIN d.applicableProducts p WHERE d.id IN :discountIds")
+  List<ApplicableProductId> findApplicableProductIds(
+      @Param("discountIds") Collection<Long> discountIds);
+
+  /**
+   * Find which of several discounts, redeemed from their row, have no remaining uses.
+   *
+   * @param discountIds the discount IDs
+   * @return the IDs of the used-up discounts that are not sharded
+   */
+  @Query("SELECT d.id FROM Discount d WHERE d.id IN :discountIds "
+      + "AND (d.sharded IS NULL OR d.sharded = false) AND d.remainingUses <= 0")
+  List<Long> findUsedUpIds(@Param("discountIds") Collection<Long> discountIds);
+
+  /**
+   * Stream the code of every discount that has not been archived; must be consumed inside
+   * a transaction and closed.
+   *
+   * @return stream of discount codes
+   */
+  @Query("SELECT d.code FROM Discount d WHERE d.archivedAt IS NULL")
+  Stream<String> streamAllCodes();
+
+  /**
+   * Stream the codes of the discounts within an ID range; must be consumed inside a
+   * transaction and closed.
+   *
+   * @param afterId   the discount ID after which the range starts, exclusive
+   * @param throughId the discount ID the range ends with, inclusive
+   * @return stream of discount codes
+   */
+  @Query("SELECT d.code FROM Discount d WHERE d.id > :afterId AND d.id <= :throughId")
+  Stream<String> streamCodesBetween(@Param("afterId") long afterId,
+      @Param("throughId") long throughId);
+
+  /**
+   * Find the discounts not yet archived whose last valid day falls in a range.
+   *
+   * @param after the day after which the range starts, exclusive
+   * @param until the day the range ends, inclusive
+   * @return the expiring discounts
+   */
+  @Query("SELECT d.id AS id, d.code AS code, d.validUntil AS validUntil, "
+      + "d.announced AS announced FROM Discount d "
+      + "WHERE d.archivedAt IS NULL AND d.validUntil > :after AND d.validUntil <= :until")
+  List<ExpiringDiscount> findExpiringBetween(@Param("after") LocalDate after,
+      @Param("until") LocalDate until);
+
+  /**
+   * Claim the expiry reminder of an announced discount, unless another node already has or
+   * the discount no longer expires on the given day.
+   *
+   * @param id         the discount ID
+   * @param validUntil the last valid day the reminder was scheduled for
+   * @param now        the claim time
+   * @return 1 if the reminder was claimed, 0 otherwise
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE Discount d SET d.reminderSentAt = :now "
+      + "WHERE d.id = :id AND d.validUntil = :validUntil "
+      + "AND d.announced = TRUE AND d.reminderSentAt IS NULL AND d.archivedAt IS NULL")
+  int markReminderSent(@Param("id") Long id, @Param("validUntil") LocalDate validUntil,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Archive a discount whose last valid day is before the given day.
+   *
+   * @param id    the discount ID
+   * @param today the current day
+   * @param now   the archive time
+   * @return 1 if the discount was archived, 0 if it is still valid or already archived
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE Discount d SET d.archivedAt = :now "
+      + "WHERE d.id = :id AND d.validUntil < :today AND d.archivedAt IS NULL")
+  int archiveExpired(@Param("id") Long id, @Param("today") LocalDate today,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Atomically take one use of a discount if it has any left.
+   *
+   * @param id the discount ID
+   * @return 1 if a use was taken, 0 if the discount has no remaining uses
+   */
+  @Modifying
+  @Query("UPDATE Discount d SET d.remainingUses = d.remainingUses - 1 "
+      + "WHERE d.id = :id AND d.remainingUses > 0")
+  int decrementRemainingUses(@Param("id") Long id);
+
+  /**
+   * Projection of one applicable product of a discount.
+   */
+  interface ApplicableProductId {
+
+    Long getDiscountId();
+
+    Long getProductId();
+  }
+
+  /**
+   * Projection of a discount waiting for its expiry.
+   */
+  interface ExpiringDiscount {
+
+    Long getId();
+
+    String getCode();
+
+    LocalDate getValidUntil();
+
+    Boolean getAnnounced();
+  }
 }
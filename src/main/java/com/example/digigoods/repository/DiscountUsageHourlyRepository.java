@@ -0,0 +1,25 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.DiscountUsageHourly;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for DiscountUsageHourly entity.
+ */
+@Repository
+public interface DiscountUsageHourlyRepository extends JpaRepository<DiscountUsageHourly, Long> {
+
+  /**
+   * Find the hourly rollup rows of a discount within a time range.
+   *
+   * @param discountId the discount ID
+   * @param from       the first hour, inclusive
+   * @param to         the last hour, inclusive
+   * @return the rollup rows in hour order
+   */
+  List<DiscountUsageHourly> findByDiscountIdAndHourStartBetweenOrderByHourStart(
+      Long discountId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,7 +1,14 @@
 package com.example.digigoods.repository;
 
 import com.example.digigoods.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,69 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+  /**
+   * Find the most recent orders of a user.
+   *
+   * @param userId   the user ID
+   * @param pageable the page size; the page number must be 0
+   * @return order summaries, newest first
+   */
+  @Query("SELECT o.id AS id, o.orderDate AS orderDate, o.originalSubtotal AS originalSubtotal, "
+      + "o.finalPrice AS finalPrice FROM Order o WHERE o.user.id = :userId "
+      + "ORDER BY o.orderDate DESC, o.id DESC")
+  List<OrderSummary> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+  /**
+   * Find the orders of a user placed before a keyset position.
+   *
+   * @param userId     the user ID
+   * @param beforeDate the order date of the last order of the previous page
+   * @param beforeId   the ID of the last order of the previous page
+   * @param pageable   the page size; the page number must be 0
+   * @return order summaries after the position, newest first
+   */
+  @Query("SELECT o.id AS id, o.orderDate AS orderDate, o.originalSubtotal AS originalSubtotal, "
+      + "o.finalPrice AS finalPrice FROM Order o WHERE o.user.id = :userId "
+      + "AND (o.orderDate < :beforeDate OR (o.orderDate = :beforeDate AND o.id < :beforeId)) "
+      + "ORDER BY o.orderDate DESC, o.id DESC")
+  List<OrderSummary> findByUserIdBefore(@Param("userId") Long userId,
+      @Param("beforeDate") LocalDateTime beforeDate, @Param("beforeId") Long beforeId,
+      Pageable pageable);
+
+  /**
+   * Find the products of several orders at once.
+   *
+   * @param orderIds the order IDs
+   * @return one row per order and product, ordered by order and product ID
+   */
+  @Query("SELECT o.id AS orderId, p.id AS productId, p.name AS productName "
+      + "FROM Order o JOIN o.products p WHERE o.id IN :orderIds ORDER BY o.id, p.id")
+  List<OrderItem> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+  /**
+   * Projection of an order without its associations.
+   */
+  interface OrderSummary {
+
+    Long getId();
+
+    LocalDateTime getOrderDate();
+
+    BigDecimal getOriginalSubtotal();
+
+    BigDecimal getFinalPrice();
+  }
+
+  /**
+   * Projection of a product line of an order.
+   */
+  interface OrderItem {
+
+    Long getOrderId();
+
+    Long getProductId();
+
+    String getProductName();
+  }
 }
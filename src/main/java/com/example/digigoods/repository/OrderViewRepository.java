@@ -0,0 +1,12 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderView entity.
+ */
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+}
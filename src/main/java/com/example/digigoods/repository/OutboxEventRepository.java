@@ -0,0 +1,69 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OutboxEvent;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Lock the oldest events still to be delivered, skipping the events locked by other
+   * relays, so several nodes drain the outbox in parallel without delivering an event twice.
+   * The locks are held until the calling transaction ends.
+   *
+   * @param maxAttempts the number of failed deliveries after which an event is given up
+   * @param limit       the maximum number of events
+   * @return the claimed events in the order they were written
+   */
+  @Query(value = "SELECT * FROM outbox_events WHERE attempts < :maxAttempts "
+      + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<OutboxEvent> claimBatch(@Param("maxAttempts") int maxAttempts,
+      @Param("limit") int limit);
+
+  /**
+   * Lock one event unless another relay holds it.
+   *
+   * @param id the event ID
+   * @return the claimed event, or empty if it is gone or locked
+   */
+  @Query(value = "SELECT * FROM outbox_events WHERE id = :id FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  Optional<OutboxEvent> claimById(@Param("id") Long id);
+
+  /**
+   * Count a failed delivery of an event.
+   *
+   * @param id the event ID
+   * @return the number of rows updated
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+  int incrementAttempts(@Param("id") Long id);
+
+  /**
+   * Find the oldest event still to be delivered.
+   *
+   * @param maxAttempts the number of failed deliveries after which an event is given up
+   * @return the oldest pending event, or empty if the outbox is drained
+   */
+  Optional<OutboxEvent> findFirstByAttemptsLessThanOrderById(int maxAttempts);
+
+  /**
+   * Count the events given up after too many failed deliveries.
+   *
+   * @param maxAttempts the number of failed deliveries after which an event is given up
+   * @return the number of given up events
+   */
+  long countByAttemptsGreaterThanEqual(int maxAttempts);
+}
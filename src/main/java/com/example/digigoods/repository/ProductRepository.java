@@ -3,6 +3,9 @@ package com.example.digigoods.repository;
 import com.example.digigoods.model.Product;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +21,17 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
    * @return list of products
    */
   List<Product> findAllByIdIn(List<Long> ids);
+
+  /**
+   * Atomically add stock to a product. The updated row stays locked until the transaction
+   * ends, so a read of it in the same transaction sees exactly this increment on top of
+   * the previous stock.
+   *
+   * @param id       the product ID
+   * @param quantity the quantity to add
+   * @return 1 if the stock was added, 0 if the product does not exist
+   */
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.id = :id")
+  int addStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,12 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.ProductSalesScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for ProductSalesScore entity.
+ */
+@Repository
+public interface ProductSalesScoreRepository extends JpaRepository<ProductSalesScore, Long> {
+}
@@ -0,0 +1,26 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.RevenuePeriod;
+import com.example.digigoods.model.RevenueRollup;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for RevenueRollup entity.
+ */
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+  /**
+   * Find the rollup rows of a period length within a time range.
+   *
+   * @param period the period length
+   * @param from   the first period start, inclusive
+   * @param to     the last period start, inclusive
+   * @return the rollup rows in time order
+   */
+  List<RevenueRollup> findByPeriodAndPeriodStartBetweenOrderByPeriodStart(
+      RevenuePeriod period, LocalDateTime from, LocalDateTime to);
+}
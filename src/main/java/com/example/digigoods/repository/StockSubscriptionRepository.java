@@ -0,0 +1,55 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockSubscription;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for StockSubscription entity.
+ */
+@Repository
+public interface StockSubscriptionRepository extends JpaRepository<StockSubscription, Long> {
+
+  /**
+   * Check whether a user is already subscribed to a product.
+   *
+   * @param userId    the user ID
+   * @param productId the product ID
+   * @return true if the subscription exists
+   */
+  boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+  /**
+   * Find the next page of subscriber IDs of a product using keyset pagination.
+   *
+   * @param productId   the product ID
+   * @param afterUserId the last user ID of the previous page, or 0 for the first page
+   * @param pageable    the page size; the page number is ignored by the keyset
+   * @return subscriber user IDs in ascending order
+   */
+  @Query("SELECT s.user.id FROM StockSubscription s "
+      + "WHERE s.product.id = :productId AND s.user.id > :afterUserId "
+      + "ORDER BY s.user.id")
+  List<Long> findSubscriberIds(@Param("productId") Long productId,
+      @Param("afterUserId") Long afterUserId, Pageable pageable);
+
+  /**
+   * Delete the subscriptions of a user to the given products.
+   *
+   * @param userId     the user ID
+   * @param productIds the product IDs
+   * @return the number of deleted subscriptions
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM StockSubscription s "
+      + "WHERE s.user.id = :userId AND s.product.id IN :productIds")
+  int deleteByUserIdAndProductIds(@Param("userId") Long userId,
+      @Param("productIds") List<Long> productIds);
+}
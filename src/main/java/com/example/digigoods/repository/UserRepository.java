@@ -1,8 +1,12 @@
 package com.example.digigoods.repository;
 
 import com.example.digigoods.model.User;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return an Optional containing the user if found
    */
   Optional<User> findByUsername(String username);
+
+  /**
+   * Find the next page of user IDs using keyset pagination.
+   *
+   * @param afterId  the last user ID of the previous page, or 0 for the first page
+   * @param pageable the page size; the page number is ignored by the keyset
+   * @return user IDs in ascending order
+   */
+  @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+  List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
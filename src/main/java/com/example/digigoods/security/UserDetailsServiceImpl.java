@@ -3,6 +3,9 @@ package com.example.digigoods.security;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
 import java.util.ArrayList;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,6 +17,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+  /**
+   * Authority granted to back office users.
+   */
+  public static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
   private final UserRepository userRepository;
 
   public UserDetailsServiceImpl(UserRepository userRepository) {
@@ -25,10 +33,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
+    List<GrantedAuthority> authorities = new ArrayList<>();
+    if (user.isAdmin()) {
+      authorities.add(new SimpleGrantedAuthority(ADMIN_AUTHORITY));
+    }
     return new org.springframework.security.core.userdetails.User(
         user.getUsername(),
         user.getPassword(),
-        new ArrayList<>()
+        authorities
     );
   }
 }
@@ -2,22 +2,25 @@ package com.example.digigoods.service;
 
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
-import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.event.OrderCreatedEvent;
 import com.example.digigoods.exception.UnauthorizedAccessException;
-import com.example.digigoods.model.Discount;
-import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.DiscountSnapshot;
 import com.example.digigoods.model.Order;
+import com.example.digigoods.model.PricingResult;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.OrderRepository;
 import com.example.digigoods.repository.UserRepository;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,22 +30,43 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CheckoutService {
 
-  private static final BigDecimal MAX_DISCOUNT_PERCENTAGE = new BigDecimal("75.00");
-  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
-
   private final ProductService productService;
   private final DiscountService discountService;
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
+  private final PricingEngine pricingEngine;
+  private final DiscountOptimizer discountOptimizer;
+  private final ApplicationEventPublisher eventPublisher;
+  private final OutboxWriter outboxWriter;
 
+  /**
+   * Create the checkout service.
+   *
+   * @param productService    the product service
+   * @param discountService   the discount service
+   * @param orderRepository   the order repository
+   * @param userRepository    the user repository
+   * @param pricingEngine     the engine applying discount rules
+   * @param discountOptimizer the optimizer choosing discount combinations for quotes
+   * @param eventPublisher    the publisher of checkout events
+   * @param outboxWriter      the writer recording created orders for the read model
+   */
   public CheckoutService(ProductService productService,
                          DiscountService discountService,
                          OrderRepository orderRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         PricingEngine pricingEngine,
+                         DiscountOptimizer discountOptimizer,
+                         ApplicationEventPublisher eventPublisher,
+                         OutboxWriter outboxWriter) {
     this.productService = productService;
     this.discountService = discountService;
     this.orderRepository = orderRepository;
     this.userRepository = userRepository;
+    this.pricingEngine = pricingEngine;
+    this.discountOptimizer = discountOptimizer;
+    this.eventPublisher = eventPublisher;
+    this.outboxWriter = outboxWriter;
   }
 
   /**
@@ -60,117 +84,95 @@ public class CheckoutService {
     // 2. Product Validation
     List<Product> products = productService.getProductsByIds(request.getProductIds());
 
-    // 3. Original Subtotal Calculation
-    BigDecimal originalSubtotal = calculateOriginalSubtotal(request.getProductIds(), products);
-
-    // 4. Discount Validation
-    List<Discount> discounts = discountService.validateAndGetDiscounts(request.getDiscountCodes());
+    // 3. Discount Validation
+    List<DiscountSnapshot> discounts =
+        discountService.validateAndGetDiscounts(request.getDiscountCodes());
 
-    // 5. Discount Application
-    BigDecimal finalPrice = applyDiscounts(request.getProductIds(), products, discounts,
-        originalSubtotal);
+    // 4. Discount Application
+    PricingResult pricing = pricingEngine.price(request.getProductIds(), products, discounts);
 
-    // 6. Maximum Discount Rule
-    validateMaximumDiscount(originalSubtotal, finalPrice);
+    // 5. Maximum Discount Rule
+    pricingEngine.validateMaximumDiscount(pricing);
 
-    // 7. Final Commit
-    commitTransaction(request, products, discounts, originalSubtotal, finalPrice);
+    // 6. Final Commit
+    Order order = commitTransaction(request, products, discounts, pricing);
 
-    return new OrderResponse("Order created successfully!", finalPrice);
+    return new OrderResponse("Order created successfully!", pricing.finalPrice(), order.getId(),
+        pricing.originalSubtotal(), toLines(request.getProductIds(), products, pricing),
+        pricing.discountAmounts());
   }
 
-  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
-    if (!requestUserId.equals(authenticatedUserId)) {
-      throw new UnauthorizedAccessException("User cannot place order for another user");
-    }
-  }
-
-  private BigDecimal calculateOriginalSubtotal(List<Long> productIds, List<Product> products) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
-
-    return productIds.stream()
-        .map(productMap::get)
-        .map(Product::getPrice)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-  }
-
-  private BigDecimal applyDiscounts(List<Long> productIds, List<Product> products,
-                                    List<Discount> discounts,
-                                    BigDecimal originalSubtotal) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
+  /**
+   * Quote the lowest price of a cart using the best admissible subset of its discount codes.
+   * Nothing is reserved; invalid codes and codes left out of the subset are reported as
+   * dropped, the invalid ones with their reason.
+   *
+   * @param request             the checkout request to quote
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return quote response
+   */
+  @Transactional(readOnly = true)
+  public QuoteResponse quote(CheckoutRequest request, Long authenticatedUserId) {
+    validateUserAuthorization(request.getUserId(), authenticatedUserId);
 
-    // Separate discounts by type
-    List<Discount> productSpecificDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.PRODUCT_SPECIFIC)
-        .toList();
+    List<Product> products = productService.getProductsByIds(request.getProductIds());
+    DiscountService.Candidates candidates =
+        discountService.resolveCandidates(request.getDiscountCodes());
+    DiscountOptimizer.Selection selection = discountOptimizer.optimize(
+        request.getProductIds(), products, candidates.discounts());
 
-    List<Discount> generalDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.GENERAL)
+    List<String> applied = selection.discounts().stream()
+        .map(DiscountSnapshot::code)
         .toList();
-
-    // Apply product-specific discounts first
-    BigDecimal intermediateSubtotal = applyProductSpecificDiscounts(
-        productIds, productMap, productSpecificDiscounts);
-
-    // Apply general discounts to intermediate subtotal
-    return applyGeneralDiscounts(intermediateSubtotal, generalDiscounts);
+    List<String> dropped = new ArrayList<>(candidates.rejected().keySet());
+    candidates.discounts().stream()
+        .map(DiscountSnapshot::code)
+        .filter(code -> !applied.contains(code))
+        .forEach(dropped::add);
+    PricingResult pricing = selection.pricing();
+    return new QuoteResponse(pricing.originalSubtotal(), pricing.finalPrice(), applied, dropped,
+        candidates.rejected(), pricing.discountAmounts(), selection.complete());
   }
 
-  private BigDecimal applyProductSpecificDiscounts(List<Long> productIds,
-                                                   Map<Long, Product> productMap,
-                                                   List<Discount> productSpecificDiscounts) {
-    BigDecimal total = BigDecimal.ZERO;
-
-    for (Long productId : productIds) {
-      Product product = productMap.get(productId);
-      BigDecimal itemPrice = product.getPrice();
-
-      // Find applicable discounts for this product
-      BigDecimal totalDiscountPercentage = productSpecificDiscounts.stream()
-          .filter(discount -> discount.getApplicableProducts().contains(product))
-          .map(Discount::getPercentage)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      // Apply discount
-      if (totalDiscountPercentage.compareTo(BigDecimal.ZERO) > 0) {
-        BigDecimal discountAmount = itemPrice.multiply(totalDiscountPercentage)
-            .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-        itemPrice = itemPrice.subtract(discountAmount);
-      }
-
-      total = total.add(itemPrice);
+  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
+    if (!requestUserId.equals(authenticatedUserId)) {
+      throw new UnauthorizedAccessException("User cannot place order for another user");
     }
-
-    return total;
   }
 
-  private BigDecimal applyGeneralDiscounts(BigDecimal subtotal, List<Discount> generalDiscounts) {
-    BigDecimal currentPrice = subtotal;
-
-    for (Discount discount : generalDiscounts) {
-      BigDecimal discountAmount = currentPrice.multiply(discount.getPercentage())
-          .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-      currentPrice = currentPrice.subtract(discountAmount);
+  private List<OrderResponse.Line> toLines(List<Long> productIds, List<Product> products,
+                                           PricingResult pricing) {
+    Map<Long, BigDecimal> originalPrices = new HashMap<>();
+    for (Product product : products) {
+      originalPrices.put(product.getId(), product.getPrice());
     }
-
-    return currentPrice;
+    List<OrderResponse.Line> lines = new ArrayList<>(productIds.size());
+    for (int i = 0; i < productIds.size(); i++) {
+      Long productId = productIds.get(i);
+      lines.add(new OrderResponse.Line(productId, originalPrices.get(productId),
+          pricing.linePrices().get(i)));
+    }
+    return lines;
   }
 
-  private void validateMaximumDiscount(BigDecimal originalSubtotal, BigDecimal finalPrice) {
-    BigDecimal totalDiscount = originalSubtotal.subtract(finalPrice);
-    BigDecimal discountPercentage = totalDiscount.multiply(HUNDRED)
-        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
-
-    if (discountPercentage.compareTo(MAX_DISCOUNT_PERCENTAGE) > 0) {
-      throw new ExcessiveDiscountException();
+  private List<OrderCreatedEvent.Line> toEventLines(List<Long> productIds,
+                                                   List<Product> products,
+                                                   PricingResult pricing) {
+    Map<Long, Product> productsById = new HashMap<>();
+    for (Product product : products) {
+      productsById.put(product.getId(), product);
+    }
+    List<OrderCreatedEvent.Line> lines = new ArrayList<>(productIds.size());
+    for (int i = 0; i < productIds.size(); i++) {
+      Product product = productsById.get(productIds.get(i));
+      lines.add(new OrderCreatedEvent.Line(product.getId(), product.getName(),
+          product.getPrice(), pricing.linePrices().get(i)));
     }
+    return lines;
   }
 
-  private void commitTransaction(CheckoutRequest request, List<Product> products,
-                                 List<Discount> discounts, BigDecimal originalSubtotal,
-                                 BigDecimal finalPrice) {
+  private Order commitTransaction(CheckoutRequest request, List<Product> products,
+                                  List<DiscountSnapshot> discounts, PricingResult pricing) {
     // Get user
     User user = userRepository.findById(request.getUserId())
         .orElseThrow(() -> new RuntimeException("User not found"));
@@ -179,9 +181,9 @@ public class CheckoutService {
     Order order = new Order();
     order.setUser(user);
     order.setProducts(new HashSet<>(products));
-    order.setAppliedDiscounts(new HashSet<>(discounts));
-    order.setOriginalSubtotal(originalSubtotal);
-    order.setFinalPrice(finalPrice);
+    order.setAppliedDiscounts(discountService.getDiscountReferences(discounts));
+    order.setOriginalSubtotal(pricing.originalSubtotal());
+    order.setFinalPrice(pricing.finalPrice());
 
     orderRepository.save(order);
 
@@ -190,5 +192,25 @@ public class CheckoutService {
 
     // Update discount usage
     discountService.updateDiscountUsage(discounts);
+
+    // Record the order for the read model, committed or rolled back with the order itself,
+    // and hand the in-memory order to the order cache once it has committed
+    OrderCreatedEvent created = new OrderCreatedEvent(order.getId(), user.getId(),
+        order.getOrderDate(), pricing.originalSubtotal(), pricing.finalPrice(),
+        toEventLines(request.getProductIds(), products, pricing), pricing.discountAmounts());
+    outboxWriter.append(OrderCreatedEvent.TYPE, order.getId(), created);
+    eventPublisher.publishEvent(created);
+
+    // Record the checkout for the rollups, and announce it to listeners running after commit
+    Map<Long, BigDecimal> discountAmounts = new LinkedHashMap<>();
+    for (DiscountSnapshot discount : discounts) {
+      discountAmounts.put(discount.id(), pricing.discountAmounts().get(discount.code()));
+    }
+    CheckoutCompletedEvent completed = new CheckoutCompletedEvent(order.getId(), user.getId(),
+        List.copyOf(request.getProductIds()), pricing.originalSubtotal(), pricing.finalPrice(),
+        discountAmounts);
+    outboxWriter.append(CheckoutCompletedEvent.TYPE, order.getId(), completed);
+    eventPublisher.publishEvent(completed);
+    return order;
   }
 }
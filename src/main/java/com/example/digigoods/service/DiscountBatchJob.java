@@ -0,0 +1,157 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.DiscountBatchRequest;
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running or finished generation of a discount code batch.
+ * The definition is copied from the request when the batch starts; progress counters are
+ * updated by the writer and may be read concurrently.
+ */
+public final class DiscountBatchJob {
+
+  /**
+   * Lifecycle of a batch.
+   */
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private final UUID id;
+  private final String prefix;
+  private final int count;
+  private final BigDecimal percentage;
+  private final DiscountType type;
+  private final LocalDate validFrom;
+  private final LocalDate validUntil;
+  private final int usesPerCode;
+  private final List<Long> productIds;
+  private final long startedAtMillis;
+  private final AtomicLong inserted = new AtomicLong();
+  private final AtomicLong productLinks = new AtomicLong();
+  private volatile Status status = Status.RUNNING;
+  private volatile long finishedAtMillis;
+  private volatile String error;
+
+  /**
+   * Create a running batch.
+   *
+   * @param id              the batch ID
+   * @param request         the validated batch request
+   * @param productIds      the distinct IDs of the products every code applies to
+   * @param startedAtMillis the time the batch started
+   */
+  public DiscountBatchJob(UUID id, DiscountBatchRequest request, List<Long> productIds,
+                          long startedAtMillis) {
+    this.id = id;
+    this.prefix = request.getPrefix();
+    this.count = request.getCount();
+    this.percentage = request.getPercentage();
+    this.type = request.getType();
+    this.validFrom = request.getValidFrom();
+    this.validUntil = request.getValidUntil();
+    this.usesPerCode = request.getUsesPerCode() != null ? request.getUsesPerCode() : 1;
+    this.productIds = List.copyOf(productIds);
+    this.startedAtMillis = startedAtMillis;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getPrefix() {
+    return prefix;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public BigDecimal getPercentage() {
+    return percentage;
+  }
+
+  public DiscountType getType() {
+    return type;
+  }
+
+  public LocalDate getValidFrom() {
+    return validFrom;
+  }
+
+  public LocalDate getValidUntil() {
+    return validUntil;
+  }
+
+  public int getUsesPerCode() {
+    return usesPerCode;
+  }
+
+  public List<Long> getProductIds() {
+    return productIds;
+  }
+
+  public long getStartedAtMillis() {
+    return startedAtMillis;
+  }
+
+  public long getInserted() {
+    return inserted.get();
+  }
+
+  public long getProductLinks() {
+    return productLinks.get();
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public long getFinishedAtMillis() {
+    return finishedAtMillis;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * Record a committed chunk.
+   *
+   * @param codes the number of codes inserted
+   * @param links the number of product links inserted
+   */
+  void recordChunk(long codes, long links) {
+    inserted.addAndGet(codes);
+    productLinks.addAndGet(links);
+  }
+
+  void complete(long nowMillis) {
+    finishedAtMillis = nowMillis;
+    status = Status.COMPLETED;
+  }
+
+  void fail(long nowMillis, String message) {
+    error = message;
+    finishedAtMillis = nowMillis;
+    status = Status.FAILED;
+  }
+
+  /**
+   * Get the average insert rate since the batch started.
+   *
+   * @param nowMillis the current time, used while the batch is running
+   * @return the number of codes inserted per second
+   */
+  public long codesPerSecond(long nowMillis) {
+    long end = status == Status.RUNNING ? nowMillis : finishedAtMillis;
+    return inserted.get() * 1000 / Math.max(1, end - startedAtMillis);
+  }
+}
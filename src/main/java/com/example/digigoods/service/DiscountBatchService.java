@@ -0,0 +1,163 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.DiscountBatchRequest;
+import com.example.digigoods.dto.DiscountBatchResponse;
+import com.example.digigoods.exception.DiscountBatchNotFoundException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service starting discount code batches and reporting their progress.
+ * Every batch owns its code prefix: a prefix is only accepted when no stored code and no
+ * running batch uses it, which keeps the generated codes free of collisions without
+ * checking them one by one. Progress is kept in memory on the node running the batch.
+ */
+@Service
+public class DiscountBatchService {
+
+  private final DiscountRepository discountRepository;
+  private final ProductRepository productRepository;
+  private final DiscountBatchWriter discountBatchWriter;
+  private final PricingEngine pricingEngine;
+  private final Clock clock;
+  private final long retentionMillis;
+  private final Map<UUID, DiscountBatchJob> jobs = new ConcurrentHashMap<>();
+
+  /**
+   * Create the discount batch service.
+   *
+   * @param discountRepository  the discount repository
+   * @param productRepository   the product repository
+   * @param discountBatchWriter the writer inserting the codes
+   * @param pricingEngine       the pricing engine capping the discount checkout accepts
+   * @param clock               the time source of the batch progress
+   * @param retention           how long a finished batch can still be looked up
+   */
+  public DiscountBatchService(DiscountRepository discountRepository,
+                              ProductRepository productRepository,
+                              DiscountBatchWriter discountBatchWriter,
+                              PricingEngine pricingEngine, Clock clock,
+                              @Value("${discount.batch.retention:P1D}") Duration retention) {
+    this.discountRepository = discountRepository;
+    this.productRepository = productRepository;
+    this.discountBatchWriter = discountBatchWriter;
+    this.pricingEngine = pricingEngine;
+    this.clock = clock;
+    this.retentionMillis = retention.toMillis();
+  }
+
+  /**
+   * Validate a batch request and start generating its codes in the background.
+   *
+   * @param request the batch request
+   * @return the progress of the started batch
+   * @throws InvalidDiscountException if the definition is invalid or the prefix is in use
+   * @throws ProductNotFoundException if an applicable product does not exist
+   */
+  public DiscountBatchResponse start(DiscountBatchRequest request) {
+    if (request.getValidUntil().isBefore(request.getValidFrom())) {
+      throw new InvalidDiscountException("Discount batch must not end before it starts");
+    }
+    if (request.getType() == DiscountType.BUY_X_GET_Y) {
+      throw new InvalidDiscountException("Discount batches support percentage discounts only");
+    }
+    BigDecimal maxPercentage = pricingEngine.getMaxDiscountPercentage();
+    if (request.getPercentage().compareTo(maxPercentage) > 0) {
+      throw new InvalidDiscountException("Discount batch percentage must not exceed "
+          + maxPercentage.stripTrailingZeros().toPlainString()
+          + "%, the most a checkout accepts");
+    }
+    List<Long> productIds = request.getProductIds() == null
+        ? List.of() : request.getProductIds().stream().distinct().toList();
+    if (request.getType() == DiscountType.PRODUCT_SPECIFIC && productIds.isEmpty()) {
+      throw new InvalidDiscountException(
+          "Product specific discount batches need at least one product");
+    }
+    if (!productIds.isEmpty()) {
+      Set<Long> found = productRepository.findAllById(productIds).stream()
+          .map(Product::getId)
+          .collect(Collectors.toSet());
+      productIds.stream()
+          .filter(id -> !found.contains(id))
+          .findFirst()
+          .ifPresent(id -> {
+            throw new ProductNotFoundException(id);
+          });
+    }
+
+    DiscountBatchJob job = register(request, productIds);
+    discountBatchWriter.write(job);
+    return toResponse(job);
+  }
+
+  /**
+   * Get the progress of a batch started on this node.
+   *
+   * @param batchId the batch ID
+   * @return the batch progress
+   * @throws DiscountBatchNotFoundException if the batch is unknown or expired
+   */
+  public DiscountBatchResponse getBatch(UUID batchId) {
+    DiscountBatchJob job = jobs.get(batchId);
+    if (job == null) {
+      throw new DiscountBatchNotFoundException(batchId);
+    }
+    return toResponse(job);
+  }
+
+  /**
+   * Forget batches that finished longer ago than the retention.
+   */
+  @Scheduled(fixedDelayString = "${discount.batch.eviction-interval:PT1H}")
+  public void evictFinished() {
+    long cutoff = clock.millis() - retentionMillis;
+    jobs.values().removeIf(job -> job.getStatus() != DiscountBatchJob.Status.RUNNING
+        && job.getFinishedAtMillis() < cutoff);
+  }
+
+  private synchronized DiscountBatchJob register(DiscountBatchRequest request,
+                                                 List<Long> productIds) {
+    String prefix = request.getPrefix();
+    boolean running = jobs.values().stream().anyMatch(job -> job.getPrefix().equals(prefix)
+        && job.getStatus() == DiscountBatchJob.Status.RUNNING);
+    if (running || discountRepository.existsByCodeStartingWith(prefix + "-")) {
+      throw new InvalidDiscountException(
+          "Discount code prefix '" + prefix + "' is already in use");
+    }
+    DiscountBatchJob job = new DiscountBatchJob(UUID.randomUUID(), request, productIds,
+        clock.millis());
+    jobs.put(job.getId(), job);
+    return job;
+  }
+
+  private DiscountBatchResponse toResponse(DiscountBatchJob job) {
+    long now = clock.millis();
+    LocalDateTime finishedAt = job.getStatus() == DiscountBatchJob.Status.RUNNING
+        ? null : toDateTime(job.getFinishedAtMillis());
+    return new DiscountBatchResponse(job.getId(), job.getPrefix(), job.getStatus().name(),
+        job.getCount(), job.getInserted(), job.getProductLinks(), job.codesPerSecond(now),
+        toDateTime(job.getStartedAtMillis()), finishedAt, job.getError());
+  }
+
+  private LocalDateTime toDateTime(long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+  }
+}
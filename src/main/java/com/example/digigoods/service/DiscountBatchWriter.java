@@ -0,0 +1,139 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.util.UniqueCodeSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writer inserting the codes of a discount batch with plain JDBC batches.
+ * Codes are generated chunk by chunk from a {@link UniqueCodeSequence}, so memory stays
+ * bounded by the chunk size. Each chunk is one transaction: a batched insert of the
+ * discounts, followed by a single insert-select adding the product links of every code in
+ * the chunk. Bypassing the entity manager avoids an identity round trip and a persistence
+ * context entry per code.
+ */
+@Component
+public class DiscountBatchWriter {
+
+  static final String INSERT_DISCOUNT_SQL = "INSERT INTO discounts (code, percentage, type, "
+      + "valid_from, valid_until, remaining_uses, sharded, stackable, announced) "
+      + "VALUES (?, ?, ?, ?, ?, ?, FALSE, TRUE, FALSE)";
+  static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM discounts";
+  static final String MAX_PREFIX_ID_SQL =
+      "SELECT COALESCE(MAX(id), ?) FROM discounts WHERE id > ? AND code LIKE ?";
+  static final String LINK_PRODUCTS_SQL = "INSERT INTO discount_applicable_products "
+      + "(discount_id, product_id) SELECT d.id, p.id FROM discounts d CROSS JOIN products p "
+      + "WHERE d.id > ? AND d.code LIKE ? AND p.id IN (%s)";
+
+  private static final Logger logger = LoggerFactory.getLogger(DiscountBatchWriter.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final DiscountCodeFilter discountCodeFilter;
+  private final Clock clock;
+  private final int chunkSize;
+  private final SecureRandom random = new SecureRandom();
+  private final Counter insertedCounter;
+
+  /**
+   * Create the batch writer.
+   *
+   * @param jdbcTemplate        the JDBC template issuing the batched statements
+   * @param transactionTemplate the template running each chunk in its own transaction
+   * @param discountCodeFilter  the filter of known discount codes
+   * @param clock               the time source of the batch progress
+   * @param meterRegistry       the registry receiving the insert metric
+   * @param chunkSize           the number of codes inserted per transaction
+   */
+  public DiscountBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             DiscountCodeFilter discountCodeFilter, Clock clock,
+                             MeterRegistry meterRegistry,
+                             @Value("${discount.batch.chunk-size:5000}") int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Discount batch chunk size must be positive");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.discountCodeFilter = discountCodeFilter;
+    this.clock = clock;
+    this.chunkSize = chunkSize;
+    this.insertedCounter = Counter.builder("discount.batch.inserted")
+        .description("Discount codes inserted by batch generation")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Generate and insert every code of a batch, then mark the batch as finished.
+   * A failure stops the batch; the chunks committed before it are kept.
+   *
+   * @param job the batch to write
+   */
+  @Async
+  public void write(DiscountBatchJob job) {
+    try {
+      writeChunks(job);
+      job.complete(clock.millis());
+      logger.info("Generated {} discount codes with prefix {} at {} codes/s",
+          job.getInserted(), job.getPrefix(), job.codesPerSecond(clock.millis()));
+    } catch (RuntimeException e) {
+      job.fail(clock.millis(), e.getMessage());
+      logger.warn("Discount batch {} failed after {} codes: {}", job.getId(),
+          job.getInserted(), e.getMessage());
+    }
+  }
+
+  void writeChunks(DiscountBatchJob job) {
+    UniqueCodeSequence sequence = new UniqueCodeSequence(job.getPrefix(), random);
+    String codePattern = job.getPrefix() + "-%";
+    List<Long> productIds = job.getProductIds();
+    String linkSql = String.format(LINK_PRODUCTS_SQL,
+        String.join(", ", Collections.nCopies(productIds.size(), "?")));
+    long lastLinkedId = productIds.isEmpty()
+        ? 0L : jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+
+    for (long start = 0; start < job.getCount(); start += chunkSize) {
+      int size = (int) Math.min(chunkSize, job.getCount() - start);
+      List<String> codes = new ArrayList<>(size);
+      List<Object[]> rows = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        String code = sequence.codeAt(start + i);
+        codes.add(code);
+        rows.add(new Object[] {code, job.getPercentage(), job.getType().name(),
+            job.getValidFrom(), job.getValidUntil(), job.getUsesPerCode()});
+      }
+
+      long afterId = lastLinkedId;
+      long[] linked = transactionTemplate.execute(status -> {
+        jdbcTemplate.batchUpdate(INSERT_DISCOUNT_SQL, rows);
+        if (productIds.isEmpty()) {
+          return new long[] {0, afterId};
+        }
+        List<Object> args = new ArrayList<>(productIds.size() + 2);
+        args.add(afterId);
+        args.add(codePattern);
+        args.addAll(productIds);
+        long links = jdbcTemplate.update(linkSql, args.toArray());
+        long maxId = jdbcTemplate.queryForObject(MAX_PREFIX_ID_SQL, Long.class, afterId,
+            afterId, codePattern);
+        return new long[] {links, maxId};
+      });
+
+      lastLinkedId = linked[1];
+      codes.forEach(discountCodeFilter::addCommitted);
+      job.recordChunk(size, linked[0]);
+      insertedCounter.increment(size);
+    }
+  }
+}
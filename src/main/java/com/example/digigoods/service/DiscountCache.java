@@ -0,0 +1,142 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.DiscountSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache of discount definitions keyed by code.
+ * Each entry expires at the end of the last valid day of its discount: a read at or after
+ * that instant evicts the entry and misses, so an expired definition is never served.
+ * Entries are invalidated when the discount row changes; remaining uses are never cached.
+ */
+@Component
+public class DiscountCache {
+
+  private final Clock clock;
+  private final int maxEntries;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, String> codesById = new ConcurrentHashMap<>();
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  /**
+   * Create the discount cache.
+   *
+   * @param clock         the time source deciding expiry
+   * @param meterRegistry the registry receiving cache metrics
+   * @param maxEntries    the maximum number of cached discounts
+   */
+  public DiscountCache(Clock clock, MeterRegistry meterRegistry,
+      @Value("${discount.cache.max-entries:100000}") int maxEntries) {
+    this.clock = clock;
+    this.maxEntries = maxEntries;
+    this.hitCounter = Counter.builder("discount.cache.requests")
+        .description("Discount code lookups served by the cache")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("discount.cache.requests")
+        .description("Discount code lookups served by the cache")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("discount.cache.size", entries, ConcurrentHashMap::size)
+        .description("Discounts held in the cache")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Get the cached snapshot of a discount code.
+   *
+   * @param code the discount code
+   * @return the snapshot, or null if the code is not cached or its discount has expired
+   */
+  public DiscountSnapshot get(String code) {
+    Entry entry = entries.get(code);
+    if (entry != null && entry.expiresAt <= clock.millis()) {
+      remove(code, entry);
+      entry = null;
+    }
+    if (entry == null) {
+      missCounter.increment();
+      return null;
+    }
+    hitCounter.increment();
+    return entry.snapshot;
+  }
+
+  /**
+   * Cache a discount snapshot until the end of its last valid day.
+   * Expired snapshots are not cached, nor are new codes once the cache is full of live ones.
+   *
+   * @param snapshot the discount snapshot
+   */
+  public void put(DiscountSnapshot snapshot) {
+    long expiresAt = snapshot.validUntil().plusDays(1).atStartOfDay(clock.getZone())
+        .toInstant().toEpochMilli();
+    long now = clock.millis();
+    if (expiresAt <= now) {
+      return;
+    }
+    if (entries.size() >= maxEntries && !entries.containsKey(snapshot.code())) {
+      evictExpired();
+      if (entries.size() >= maxEntries) {
+        return;
+      }
+    }
+    entries.put(snapshot.code(), new Entry(snapshot, expiresAt));
+    codesById.put(snapshot.id(), snapshot.code());
+  }
+
+  /**
+   * Drop the cached snapshot of a discount, both under its cached code and the given one.
+   *
+   * @param discountId the discount ID
+   * @param code       the current code of the discount
+   */
+  public void invalidate(Long discountId, String code) {
+    String cachedCode = discountId != null ? codesById.remove(discountId) : null;
+    if (cachedCode != null) {
+      entries.remove(cachedCode);
+    }
+    if (code != null) {
+      entries.remove(code);
+    }
+  }
+
+  /**
+   * Evict every entry whose discount has expired.
+   */
+  @Scheduled(fixedDelayString = "${discount.cache.eviction-interval:PT1M}")
+  public void evictExpired() {
+    long now = clock.millis();
+    entries.forEach((code, entry) -> {
+      if (entry.expiresAt <= now) {
+        remove(code, entry);
+      }
+    });
+  }
+
+  /**
+   * Get the number of cached discounts.
+   *
+   * @return the number of cached discounts
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private void remove(String code, Entry entry) {
+    if (entries.remove(code, entry)) {
+      codesById.remove(entry.snapshot.id(), code);
+    }
+  }
+
+  private record Entry(DiscountSnapshot snapshot, long expiresAt) {
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.event.DiscountChangedEvent;
+import com.example.digigoods.model.Discount;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener keeping the in-memory discount structures in line with the table.
+ * New codes are added to the {@link DiscountCodeFilter}. Cached snapshots are dropped when
+ * the change is flushed and once more after the transaction completes, so a concurrent
+ * checkout cannot re-cache the row as it was before the commit. Creations and updates are
+ * also published as {@link DiscountChangedEvent}s.
+ */
+@Component
+public class DiscountChangeListener {
+
+  private final DiscountCache discountCache;
+  private final DiscountCodeFilter discountCodeFilter;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Create the discount change listener.
+   *
+   * @param discountCache      the cache of discount definitions
+   * @param discountCodeFilter the filter of known discount codes
+   * @param eventPublisher     the publisher of discount change events
+   */
+  public DiscountChangeListener(DiscountCache discountCache,
+                                DiscountCodeFilter discountCodeFilter,
+                                ApplicationEventPublisher eventPublisher) {
+    this.discountCache = discountCache;
+    this.discountCodeFilter = discountCodeFilter;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Record the code of a created discount.
+   *
+   * @param discount the created discount
+   */
+  @PostPersist
+  public void onDiscountCreated(Discount discount) {
+    discountCodeFilter.add(discount.getCode());
+    publishChange(discount);
+  }
+
+  /**
+   * Record the possibly changed code and invalidate the cached snapshot of a discount.
+   *
+   * @param discount the updated discount
+   */
+  @PostUpdate
+  public void onDiscountUpdated(Discount discount) {
+    discountCodeFilter.add(discount.getCode());
+    invalidate(discount);
+    publishChange(discount);
+  }
+
+  /**
+   * Invalidate the cached snapshot of a deleted discount.
+   *
+   * @param discount the deleted discount
+   */
+  @PostRemove
+  public void onDiscountRemoved(Discount discount) {
+    invalidate(discount);
+  }
+
+  private void publishChange(Discount discount) {
+    eventPublisher.publishEvent(new DiscountChangedEvent(discount.getId(), discount.getCode(),
+        discount.getValidUntil(), Boolean.TRUE.equals(discount.getAnnounced())));
+  }
+
+  private void invalidate(Discount discount) {
+    Long discountId = discount.getId();
+    String code = discount.getCode();
+    discountCache.invalidate(discountId, code);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          discountCache.invalidate(discountId, code);
+        }
+      });
+    }
+  }
+}
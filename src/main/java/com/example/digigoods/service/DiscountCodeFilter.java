@@ -0,0 +1,220 @@
+package com.example.digigoods.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter over every known discount code.
+ * The filter is rebuilt from the discounts table now and then, and caught up in between
+ * with the discounts created after {@link #getCoveredThroughId()}, possibly by another
+ * node, so a code it has never seen is rejected without a database lookup; a positive
+ * answer only means the code may exist. Until the first build completes every code is
+ * reported as possibly known.
+ */
+@Component
+public class DiscountCodeFilter {
+
+  private static final long SECOND_SEED = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Maximum number of locally added codes carried over to the next rebuild.
+   */
+  static final int MAX_CARRY_OVER = 10_000;
+
+  private final long bitCount;
+  private final int hashCount;
+  private final Counter rejectedCounter;
+  private final ConcurrentLinkedQueue<String> recentCodes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger recentCount = new AtomicInteger();
+  private volatile long coveredThroughId;
+  private volatile AtomicLongArray bits;
+  private volatile AtomicLongArray pending;
+
+  /**
+   * Create a filter sized for the expected number of codes and false positive rate.
+   *
+   * @param meterRegistry     the registry receiving the rejection metric
+   * @param expectedCodes     the number of codes the filter is sized for
+   * @param falsePositiveRate the accepted probability of reporting an unknown code as known
+   */
+  public DiscountCodeFilter(MeterRegistry meterRegistry,
+      @Value("${discount.code-filter.expected-codes:1000000}") long expectedCodes,
+      @Value("${discount.code-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    if (expectedCodes <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid discount code filter sizing");
+    }
+    double ln2 = Math.log(2);
+    long bitsNeeded = (long) Math.ceil(-expectedCodes * Math.log(falsePositiveRate) / (ln2 * ln2));
+    this.bitCount = Math.max(64, (bitsNeeded + 63) / 64 * 64);
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedCodes * ln2));
+    this.rejectedCounter = Counter.builder("discount.code-filter.rejected")
+        .description("Discount codes rejected by the filter without a database lookup")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Replace the filter contents with the given codes.
+   * Codes added while the rebuild runs are recorded in both the old and the new filter.
+   * The most recent codes added on this node are carried over as well, since their
+   * transaction may not have been committed when the given codes were read.
+   *
+   * @param codes            every discount code currently stored
+   * @param coveredThroughId the highest discount ID read before the codes, so that any
+   *                         discount with a higher ID may be missing from the filter
+   */
+  public synchronized void rebuild(Iterator<String> codes, long coveredThroughId) {
+    AtomicLongArray rebuilt = new AtomicLongArray((int) (bitCount / 64));
+    pending = rebuilt;
+    int carriedOver = recentCodes.size();
+    while (codes.hasNext()) {
+      set(rebuilt, codes.next());
+    }
+    for (int i = 0; i < carriedOver; i++) {
+      String code = recentCodes.poll();
+      if (code == null) {
+        break;
+      }
+      recentCount.decrementAndGet();
+      set(rebuilt, code);
+    }
+    this.coveredThroughId = coveredThroughId;
+    bits = rebuilt;
+    pending = null;
+  }
+
+  /**
+   * Record the codes of the discounts created since the filter was last built or caught up.
+   *
+   * @param codes            the codes of the discounts with an ID above
+   *                         {@link #getCoveredThroughId()}, up to the given ID
+   * @param coveredThroughId the highest discount ID read before the codes
+   */
+  public synchronized void catchUp(Iterator<String> codes, long coveredThroughId) {
+    while (codes.hasNext()) {
+      addCommitted(codes.next());
+    }
+    if (coveredThroughId > this.coveredThroughId) {
+      this.coveredThroughId = coveredThroughId;
+    }
+  }
+
+  /**
+   * Record a new discount code.
+   * Only the latest {@value #MAX_CARRY_OVER} codes are carried over to the next rebuild;
+   * older ones have long committed and are read from the table by the rebuild itself.
+   *
+   * @param code the discount code
+   */
+  public void add(String code) {
+    recentCodes.add(code);
+    if (recentCount.incrementAndGet() > MAX_CARRY_OVER && recentCodes.poll() != null) {
+      recentCount.decrementAndGet();
+    }
+    addCommitted(code);
+  }
+
+  /**
+   * Record a discount code whose transaction has already committed.
+   * Unlike {@link #add(String)} the code is not carried over to the next rebuild, which
+   * reads it from the table anyway, so bulk inserts do not grow the carry-over queue.
+   *
+   * @param code the discount code
+   */
+  public void addCommitted(String code) {
+    AtomicLongArray current = bits;
+    if (current != null) {
+      set(current, code);
+    }
+    AtomicLongArray rebuilding = pending;
+    if (rebuilding != null) {
+      set(rebuilding, code);
+    }
+  }
+
+  /**
+   * Check whether a discount code may exist, counting the codes reported as unknown.
+   *
+   * @param code the discount code
+   * @return false if the code is unknown as of the last rebuild, true if it may exist
+   */
+  public boolean mightContain(String code) {
+    AtomicLongArray current = bits;
+    if (current == null) {
+      return true;
+    }
+    long hash1 = hash(code, 0);
+    long hash2 = hash(code, SECOND_SEED) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+      if ((current.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        rejectedCounter.increment();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the highest discount ID covered by the last rebuild or catch-up.
+   * Discounts with a higher ID, created since by this or another node, may be missing.
+   *
+   * @return the highest covered discount ID, or 0 before the first build
+   */
+  public long getCoveredThroughId() {
+    return coveredThroughId;
+  }
+
+  /**
+   * Get the number of codes waiting to be carried over to the next rebuild.
+   *
+   * @return the number of carried over codes
+   */
+  int getCarryOverSize() {
+    return recentCount.get();
+  }
+
+  /**
+   * Check whether the filter has been built and is rejecting unknown codes.
+   *
+   * @return true once the first build has completed
+   */
+  public boolean isReady() {
+    return bits != null;
+  }
+
+  private void set(AtomicLongArray target, String code) {
+    long hash1 = hash(code, 0);
+    long hash2 = hash(code, SECOND_SEED) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+      if ((target.get(word) & mask) == 0) {
+        target.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+      }
+    }
+  }
+
+  /**
+   * 64-bit FNV-1a over the characters of the code, finished with the MurmurHash3 mixer.
+   */
+  private static long hash(String code, long seed) {
+    long hash = 0xCBF29CE484222325L ^ seed;
+    for (int i = 0; i < code.length(); i++) {
+      hash ^= code.charAt(i);
+      hash *= 0x100000001B3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
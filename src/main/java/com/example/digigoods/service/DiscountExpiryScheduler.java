@@ -0,0 +1,192 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.event.DiscountChangedEvent;
+import com.example.digigoods.event.DiscountExpiringEvent;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountRepository.ExpiringDiscount;
+import com.example.digigoods.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Scheduler firing expiry reminders of announced discounts and archiving discounts once they
+ * expire.
+ * Only discounts expiring within a rolling horizon are loaded, through a range query on the
+ * validity index, into a {@link HierarchicalTimingWheel}; created and updated discounts are
+ * added as they change. Reminders and archiving are claimed with conditional updates, so
+ * several application nodes act on each discount exactly once.
+ */
+@Component
+public class DiscountExpiryScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiscountExpiryScheduler.class);
+  private static final long TICK_MILLIS = Duration.ofMinutes(1).toMillis();
+
+  private final DiscountRepository discountRepository;
+  private final DiscountCache discountCache;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Clock clock;
+  private final long reminderLeadMillis;
+  private final long horizonDays;
+  private final HierarchicalTimingWheel<ExpiryTimer> wheel;
+  private final Counter remindersCounter;
+  private final Counter archivedCounter;
+  private LocalDate loadedThrough;
+
+  /**
+   * Create the discount expiry scheduler.
+   *
+   * @param discountRepository the discount repository
+   * @param discountCache      the cache of discount definitions
+   * @param eventPublisher     the publisher of expiring discount events
+   * @param clock              the time source driving the wheel
+   * @param meterRegistry      the registry receiving scheduler metrics
+   * @param reminderLead       how long before expiry the reminder fires
+   * @param horizon            how far ahead expiring discounts are loaded
+   */
+  public DiscountExpiryScheduler(DiscountRepository discountRepository,
+      DiscountCache discountCache, ApplicationEventPublisher eventPublisher, Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${discount.expiry.reminder-lead:P3D}") Duration reminderLead,
+      @Value("${discount.expiry.horizon:P7D}") Duration horizon) {
+    if (horizon.toDays() <= reminderLead.toDays()) {
+      throw new IllegalArgumentException("Expiry horizon must exceed the reminder lead");
+    }
+    this.discountRepository = discountRepository;
+    this.discountCache = discountCache;
+    this.eventPublisher = eventPublisher;
+    this.clock = clock;
+    this.reminderLeadMillis = reminderLead.toMillis();
+    this.horizonDays = horizon.toDays();
+    this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 6, 4, clock.millis());
+    this.remindersCounter = Counter.builder("discount.expiry.fired")
+        .description("Discount expiry timers acted on")
+        .tag("kind", "reminder")
+        .register(meterRegistry);
+    this.archivedCounter = Counter.builder("discount.expiry.fired")
+        .description("Discount expiry timers acted on")
+        .tag("kind", "archive")
+        .register(meterRegistry);
+    Gauge.builder("discount.expiry.scheduled", this, DiscountExpiryScheduler::getScheduledCount)
+        .description("Discount expiry timers waiting in the timing wheel")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Load every unarchived discount expiring up to the horizon, including overdue ones.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (loadedThrough == null) {
+      load(LocalDate.EPOCH, LocalDate.now(clock).plusDays(horizonDays));
+    }
+  }
+
+  /**
+   * Advance the wheel, extend the loaded horizon and act on every due timer.
+   */
+  @Scheduled(fixedDelayString = "${discount.expiry.tick-interval:PT1M}")
+  public void tick() {
+    List<ExpiryTimer> due;
+    synchronized (this) {
+      if (loadedThrough == null) {
+        return;
+      }
+      LocalDate horizonEnd = LocalDate.now(clock).plusDays(horizonDays);
+      if (horizonEnd.isAfter(loadedThrough)) {
+        load(loadedThrough, horizonEnd);
+      }
+      due = wheel.advanceTo(clock.millis());
+    }
+    for (ExpiryTimer timer : due) {
+      try {
+        fire(timer);
+      } catch (RuntimeException e) {
+        logger.warn("Failed to process {} of discount {}: {}",
+            timer.kind(), timer.code(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Schedule a created or updated discount once its transaction has committed.
+   * Discounts expiring beyond the loaded horizon are picked up when the horizon moves.
+   *
+   * @param event the discount change event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public synchronized void onDiscountChanged(DiscountChangedEvent event) {
+    if (loadedThrough != null && !event.validUntil().isAfter(loadedThrough)) {
+      schedule(event.discountId(), event.code(), event.validUntil(), event.announced());
+    }
+  }
+
+  /**
+   * Get the number of timers waiting in the wheel.
+   *
+   * @return the number of scheduled timers
+   */
+  public synchronized int getScheduledCount() {
+    return wheel.size();
+  }
+
+  private void load(LocalDate after, LocalDate until) {
+    List<ExpiringDiscount> discounts = discountRepository.findExpiringBetween(after, until);
+    for (ExpiringDiscount discount : discounts) {
+      schedule(discount.getId(), discount.getCode(), discount.getValidUntil(),
+          Boolean.TRUE.equals(discount.getAnnounced()));
+    }
+    loadedThrough = until;
+    logger.debug("Loaded {} expiring discounts through {}", discounts.size(), until);
+  }
+
+  private void schedule(Long discountId, String code, LocalDate validUntil, boolean announced) {
+    long expiresAt = validUntil.plusDays(1).atStartOfDay(clock.getZone())
+        .toInstant().toEpochMilli();
+    if (announced && expiresAt > clock.millis()) {
+      wheel.schedule(expiresAt - reminderLeadMillis,
+          new ExpiryTimer(discountId, code, validUntil, TimerKind.REMINDER));
+    }
+    wheel.schedule(expiresAt, new ExpiryTimer(discountId, code, validUntil, TimerKind.EXPIRY));
+  }
+
+  private void fire(ExpiryTimer timer) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    if (timer.kind() == TimerKind.REMINDER) {
+      if (discountRepository.markReminderSent(timer.discountId(), timer.validUntil(), now) == 1) {
+        remindersCounter.increment();
+        eventPublisher.publishEvent(new DiscountExpiringEvent(timer.discountId(), timer.code(),
+            timer.validUntil()));
+      }
+    } else if (discountRepository.archiveExpired(timer.discountId(), now.toLocalDate(),
+        now) == 1) {
+      archivedCounter.increment();
+      discountCache.invalidate(timer.discountId(), timer.code());
+    }
+  }
+
+  private enum TimerKind {
+    REMINDER,
+    EXPIRY
+  }
+
+  private record ExpiryTimer(Long discountId, String code, LocalDate validUntil,
+                             TimerKind kind) {
+  }
+}
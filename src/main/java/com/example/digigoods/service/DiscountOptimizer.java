@@ -0,0 +1,352 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.DiscountRule;
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.PricingCart;
+import com.example.digigoods.model.PricingResult;
+import com.example.digigoods.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optimizer choosing the subset of candidate discounts that gives the lowest price a cart
+ * may have under the maximum discount.
+ * The compiled rules are first reduced to integer line amounts and order rates, so the
+ * search reproduces the rounding of {@link PricingEngine} exactly with long arithmetic.
+ * Stackable discounts are then explored depth first: adding a discount never raises the
+ * price, so a branch ends as soon as its current selection exceeds the cap, when even
+ * taking every remaining discount cannot beat the best price found, or when taking every
+ * remaining discount already stays within the cap. Non-stackable discounts are tried on
+ * their own. The search stops at its time budget and keeps the best selection so far.
+ */
+@Component
+public class DiscountOptimizer {
+
+  private static final long MICROS_PER_CENT = 10_000;
+
+  private final PricingEngine pricingEngine;
+  private final long timeBudgetNanos;
+  private final Timer searchTimer;
+  private final Counter truncatedCounter;
+
+  /**
+   * Create the optimizer.
+   *
+   * @param pricingEngine the engine pricing the chosen selection
+   * @param meterRegistry the registry receiving search metrics
+   * @param timeBudget    the longest time a single search may take
+   */
+  public DiscountOptimizer(PricingEngine pricingEngine, MeterRegistry meterRegistry,
+      @Value("${checkout.optimizer.time-budget:PT0.002S}") Duration timeBudget) {
+    this.pricingEngine = pricingEngine;
+    this.timeBudgetNanos = timeBudget.toNanos();
+    this.searchTimer = Timer.builder("discount.optimizer.duration")
+        .description("Time spent searching for the best discount combination")
+        .register(meterRegistry);
+    this.truncatedCounter = Counter.builder("discount.optimizer.truncated")
+        .description("Discount searches stopped by their time budget")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Find the best admissible subset of the candidate discounts for a cart.
+   * Candidates whose minimum cart value is not reached are left out rather than rejected.
+   *
+   * @param productIds the ordered product IDs, repeated once per item
+   * @param products   the ordered products
+   * @param candidates the candidate discounts, in code order
+   * @return the chosen discounts in code order with their pricing
+   */
+  public Selection optimize(List<Long> productIds, List<Product> products,
+                            List<DiscountSnapshot> candidates) {
+    long started = System.nanoTime();
+    Search search = new Search(productIds, products, candidates, started + timeBudgetNanos);
+    search.run();
+    searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    if (!search.complete) {
+      truncatedCounter.increment();
+    }
+
+    List<DiscountSnapshot> chosen = new ArrayList<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      if (search.bestSelection[i]) {
+        chosen.add(candidates.get(i));
+      }
+    }
+    PricingResult pricing = pricingEngine.price(productIds, products, chosen);
+    return new Selection(chosen, pricing, search.complete);
+  }
+
+  /**
+   * Outcome of a discount search.
+   *
+   * @param discounts the chosen discounts in code order
+   * @param pricing   the pricing of the cart with the chosen discounts
+   * @param complete  false if the time budget ran out before the search space was covered
+   */
+  public record Selection(List<DiscountSnapshot> discounts, PricingResult pricing,
+                          boolean complete) {
+  }
+
+  /**
+   * State of a single search. Prices are kept in cents and unrounded line discounts in
+   * millionths, which is exact for two-decimal prices and percentages.
+   */
+  private final class Search {
+
+    private final long deadline;
+    private final long[] lineCents;
+    private final long originalCents;
+    private final long maxBasisPoints;
+    private final int candidateCount;
+    private final List<Integer> soloIndexes = new ArrayList<>();
+    private final List<long[]> soloLineMicros = new ArrayList<>();
+    private final List<Long> soloRates = new ArrayList<>();
+    private final int[] lineIndexes;
+    private final long[][] lineMicros;
+    private final long[][] remainingLineMicros;
+    private final int[] orderIndexes;
+    private final long[] orderRates;
+    private final long[] accumulatedMicros;
+    private final boolean[] selection;
+    private boolean[] bestSelection;
+    private long bestCents;
+    private int bestCount;
+    private boolean complete = true;
+
+    private Search(List<Long> productIds, List<Product> products,
+                   List<DiscountSnapshot> candidates, long deadline) {
+      this.deadline = deadline;
+      Map<Long, Product> productMap = products.stream()
+          .collect(Collectors.toMap(Product::getId, Function.identity()));
+      PricingCart cart = new PricingCart(productIds, productMap, 1);
+      lineCents = new long[cart.size()];
+      for (int line = 0; line < lineCents.length; line++) {
+        lineCents[line] = toUnits(cart.originalPrice(line), 2);
+      }
+      originalCents = toUnits(cart.originalSubtotal(), 2);
+      maxBasisPoints = pricingEngine.getMaxDiscountPercentage().movePointRight(2)
+          .setScale(0, RoundingMode.FLOOR).longValueExact();
+      candidateCount = candidates.size();
+
+      List<Integer> lines = new ArrayList<>();
+      List<long[]> amounts = new ArrayList<>();
+      List<Integer> orders = new ArrayList<>();
+      List<Long> rates = new ArrayList<>();
+      for (int i = 0; i < candidateCount; i++) {
+        DiscountRule rule = candidates.get(i).rule();
+        BigDecimal minCartValue = rule.minCartValue();
+        if (minCartValue != null && cart.originalSubtotal().compareTo(minCartValue) < 0) {
+          continue;
+        }
+        if (rule instanceof DiscountRule.OrderPercentage order) {
+          long rate = toUnits(order.rate(), 4);
+          if (rate == 0) {
+            continue;
+          }
+          if (rule.stackable()) {
+            orders.add(i);
+            rates.add(rate);
+          } else {
+            soloIndexes.add(i);
+            soloLineMicros.add(null);
+            soloRates.add(rate);
+          }
+        } else {
+          long[] micros = lineMicros(productIds, productMap, rule);
+          if (micros == null) {
+            continue;
+          }
+          if (rule.stackable()) {
+            lines.add(i);
+            amounts.add(micros);
+          } else {
+            soloIndexes.add(i);
+            soloLineMicros.add(micros);
+            soloRates.add(0L);
+          }
+        }
+      }
+
+      lineIndexes = lines.stream().mapToInt(Integer::intValue).toArray();
+      lineMicros = amounts.toArray(long[][]::new);
+      remainingLineMicros = new long[lineIndexes.length + 1][lineCents.length];
+      for (int k = lineIndexes.length - 1; k >= 0; k--) {
+        for (int line = 0; line < lineCents.length; line++) {
+          remainingLineMicros[k][line] = remainingLineMicros[k + 1][line] + lineMicros[k][line];
+        }
+      }
+      orderIndexes = orders.stream().mapToInt(Integer::intValue).toArray();
+      orderRates = rates.stream().mapToLong(Long::longValue).toArray();
+      accumulatedMicros = new long[lineCents.length];
+      selection = new boolean[candidateCount];
+      bestSelection = new boolean[candidateCount];
+      bestCents = originalCents;
+      bestCount = 0;
+    }
+
+    private void run() {
+      for (int s = 0; s < soloIndexes.size(); s++) {
+        long[] micros = soloLineMicros.get(s);
+        long cents = micros != null
+            ? settle(micros, null)
+            : originalCents - orderAmount(originalCents, soloRates.get(s));
+        if (admissible(cents) && improves(cents, 1)) {
+          bestCents = cents;
+          bestCount = 1;
+          bestSelection = new boolean[candidateCount];
+          bestSelection[soloIndexes.get(s)] = true;
+        }
+      }
+      searchLines(0, 0);
+    }
+
+    private void searchLines(int k, int count) {
+      if (System.nanoTime() > deadline) {
+        complete = false;
+        return;
+      }
+      long current = settle(accumulatedMicros, null);
+      if (!admissible(current)) {
+        return;
+      }
+      record(current, count, false, k, orderIndexes.length);
+      long withAll = applyOrders(settle(accumulatedMicros, remainingLineMicros[k]), 0);
+      int countWithAll = count + lineIndexes.length - k + orderIndexes.length;
+      if (!improves(withAll, count)) {
+        return;
+      }
+      if (admissible(withAll)) {
+        record(withAll, countWithAll, true, k, 0);
+        return;
+      }
+      if (k == lineIndexes.length) {
+        searchOrders(0, count, current);
+        return;
+      }
+      long[] micros = lineMicros[k];
+      for (int line = 0; line < micros.length; line++) {
+        accumulatedMicros[line] += micros[line];
+      }
+      selection[lineIndexes[k]] = true;
+      searchLines(k + 1, count + 1);
+      selection[lineIndexes[k]] = false;
+      for (int line = 0; line < micros.length; line++) {
+        accumulatedMicros[line] -= micros[line];
+      }
+      searchLines(k + 1, count);
+    }
+
+    private void searchOrders(int j, int count, long total) {
+      if (System.nanoTime() > deadline) {
+        complete = false;
+        return;
+      }
+      if (!admissible(total)) {
+        return;
+      }
+      record(total, count, false, lineIndexes.length, orderIndexes.length);
+      long withAll = applyOrders(total, j);
+      if (!improves(withAll, count)) {
+        return;
+      }
+      if (admissible(withAll)) {
+        record(withAll, count + orderIndexes.length - j, true, lineIndexes.length, j);
+        return;
+      }
+      if (j == orderIndexes.length) {
+        return;
+      }
+      selection[orderIndexes[j]] = true;
+      searchOrders(j + 1, count + 1, total - orderAmount(total, orderRates[j]));
+      selection[orderIndexes[j]] = false;
+      searchOrders(j + 1, count, total);
+    }
+
+    /**
+     * Record the current selection if it beats the best one, optionally extended by every
+     * line candidate from index k and every order candidate from index j.
+     */
+    private void record(long cents, int count, boolean withRemaining, int k, int j) {
+      if (!improves(cents, count)) {
+        return;
+      }
+      bestCents = cents;
+      bestCount = count;
+      bestSelection = selection.clone();
+      if (withRemaining) {
+        for (int i = k; i < lineIndexes.length; i++) {
+          bestSelection[lineIndexes[i]] = true;
+        }
+        for (int i = j; i < orderIndexes.length; i++) {
+          bestSelection[orderIndexes[i]] = true;
+        }
+      }
+    }
+
+    private boolean improves(long cents, int count) {
+      return cents < bestCents || (cents == bestCents && count < bestCount);
+    }
+
+    private boolean admissible(long cents) {
+      if (originalCents == 0) {
+        return true;
+      }
+      long discount = originalCents - cents;
+      long basisPoints = (discount * 20_000 + originalCents) / (2 * originalCents);
+      return basisPoints <= maxBasisPoints;
+    }
+
+    private long settle(long[] micros, long[] extraMicros) {
+      long total = 0;
+      for (int line = 0; line < lineCents.length; line++) {
+        long sum = extraMicros == null ? micros[line] : micros[line] + extraMicros[line];
+        long discount = Math.min((sum + MICROS_PER_CENT / 2) / MICROS_PER_CENT,
+            lineCents[line]);
+        total += lineCents[line] - discount;
+      }
+      return total;
+    }
+
+    private long applyOrders(long total, int from) {
+      long current = total;
+      for (int j = from; j < orderRates.length; j++) {
+        current -= orderAmount(current, orderRates[j]);
+      }
+      return current;
+    }
+
+    private long orderAmount(long totalCents, long rate) {
+      return (totalCents * rate + MICROS_PER_CENT / 2) / MICROS_PER_CENT;
+    }
+
+    private long[] lineMicros(List<Long> productIds, Map<Long, Product> productMap,
+                              DiscountRule rule) {
+      PricingCart probe = new PricingCart(productIds, productMap, 1);
+      rule.apply(probe, 0);
+      long[] micros = new long[probe.size()];
+      boolean effective = false;
+      for (int line = 0; line < micros.length; line++) {
+        micros[line] = toUnits(probe.lineDiscount(line), 6);
+        effective |= micros[line] > 0;
+      }
+      return effective ? micros : null;
+    }
+
+    private long toUnits(BigDecimal value, int decimals) {
+      return value.movePointRight(decimals).longValueExact();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.NotificationResponse;
+import com.example.digigoods.event.DiscountExpiringEvent;
+import com.example.digigoods.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service fanning expiry reminders of announced discounts out to users.
+ */
+@Service
+public class DiscountReminderService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiscountReminderService.class);
+
+  private final UserRepository userRepository;
+  private final NotificationService notificationService;
+  private final int pageSize;
+
+  /**
+   * Create the discount reminder service.
+   *
+   * @param userRepository      the user repository
+   * @param notificationService the notification service
+   * @param pageSize            the number of users loaded per fan-out page
+   */
+  public DiscountReminderService(UserRepository userRepository,
+                                 NotificationService notificationService,
+                                 @Value("${discount.expiry.fan-out.page-size:500}") int pageSize) {
+    this.userRepository = userRepository;
+    this.notificationService = notificationService;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Fan the expiry reminder of a discount out to every user.
+   * Runs asynchronously so a large user base does not hold up the expiry scheduler.
+   *
+   * @param event the expiring discount event
+   */
+  @Async
+  @EventListener
+  public void onDiscountExpiring(DiscountExpiringEvent event) {
+    int reminded = fanOut(event.code(), event.validUntil());
+    logger.info("Sent expiry reminders for discount {} to {} users", event.code(), reminded);
+  }
+
+  /**
+   * Send the expiry reminder of a discount to every user, one keyset page at a time.
+   *
+   * @param code       the discount code
+   * @param validUntil the last day the discount is valid
+   * @return the number of users successfully reminded
+   */
+  public int fanOut(String code, LocalDate validUntil) {
+    int reminded = 0;
+    long afterUserId = 0L;
+    List<Long> userIds = userRepository.findIdsAfter(afterUserId, PageRequest.ofSize(pageSize));
+
+    while (!userIds.isEmpty()) {
+      List<NotificationResponse> responses = notificationService.sendDiscountExpiryReminders(
+          userIds, code, validUntil.toString());
+      reminded += (int) responses.stream().filter(NotificationResponse::isSuccess).count();
+
+      if (userIds.size() < pageSize) {
+        break;
+      }
+      afterUserId = userIds.get(userIds.size() - 1);
+      userIds = userRepository.findIdsAfter(afterUserId, PageRequest.ofSize(pageSize));
+    }
+    return reminded;
+  }
+}
@@ -1,11 +1,29 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.dto.DiscountResponse;
 import com.example.digigoods.exception.InvalidDiscountException;
 import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountSnapshot;
 import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountRepository.ApplicableProductId;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for discount operations.
@@ -14,42 +32,121 @@ import org.springframework.stereotype.Service;
 public class DiscountService {
 
   private final DiscountRepository discountRepository;
+  private final DiscountCache discountCache;
+  private final DiscountCodeFilter discountCodeFilter;
+  private final RedemptionCounters redemptionCounters;
+  private final Clock clock;
 
-  public DiscountService(DiscountRepository discountRepository) {
+  /**
+   * Create the discount service.
+   *
+   * @param discountRepository the discount repository
+   * @param discountCache      the cache of discount definitions
+   * @param discountCodeFilter the filter of known discount codes
+   * @param redemptionCounters the in-memory counters of sharded discounts
+   * @param clock              the time source deciding validity
+   */
+  public DiscountService(DiscountRepository discountRepository, DiscountCache discountCache,
+                         DiscountCodeFilter discountCodeFilter,
+                         RedemptionCounters redemptionCounters, Clock clock) {
     this.discountRepository = discountRepository;
+    this.discountCache = discountCache;
+    this.discountCodeFilter = discountCodeFilter;
+    this.redemptionCounters = redemptionCounters;
+    this.clock = clock;
   }
 
   /**
-   * Get all discounts from the database.
+   * Rebuild the filter of known discount codes from the discounts table.
+   * Runs once the application is ready and then periodically, which also picks up codes
+   * that committed out of ID order after a catch-up had passed their ID. The highest ID is
+   * read first, so every discount created after it is added by the next catch-up.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${discount.code-filter.rebuild-interval:PT1H}",
+      initialDelayString = "${discount.code-filter.rebuild-interval:PT1H}")
+  @Transactional(readOnly = true)
+  public void rebuildCodeFilter() {
+    long coveredThroughId = discountRepository.findMaxId();
+    try (Stream<String> codes = discountRepository.streamAllCodes()) {
+      discountCodeFilter.rebuild(codes.iterator(), coveredThroughId);
+    }
+  }
+
+  /**
+   * Add the codes of the discounts created since the filter was last built or caught up,
+   * by this or another node. Runs every few seconds and only reads the highest discount ID
+   * when no discount was created.
+   */
+  @Scheduled(fixedDelayString = "${discount.code-filter.refresh-interval:PT5S}")
+  @Transactional(readOnly = true)
+  public void refreshCodeFilter() {
+    if (!discountCodeFilter.isReady()) {
+      return;
+    }
+    long coveredThroughId = discountCodeFilter.getCoveredThroughId();
+    long maxId = discountRepository.findMaxId();
+    if (maxId <= coveredThroughId) {
+      return;
+    }
+    try (Stream<String> codes = discountRepository.streamCodesBetween(coveredThroughId,
+        maxId)) {
+      discountCodeFilter.catchUp(codes.iterator(), maxId);
+    }
+  }
+
+  /**
+   * Get a page of the discounts that are currently valid and have uses left.
    *
-   * @return list of all discounts
+   * @param afterId  the last discount ID of the previous page, or 0 for the first page
+   * @param pageSize the maximum number of discounts to return
+   * @return active discounts in ascending ID order
    */
-  public List<Discount> getAllDiscounts() {
-    return discountRepository.findAll();
+  @Transactional(readOnly = true)
+  public List<DiscountResponse> getActiveDiscounts(Long afterId, int pageSize) {
+    List<Discount> discounts = discountRepository.findActiveAfter(LocalDate.now(clock),
+        afterId, PageRequest.of(0, pageSize));
+    if (discounts.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, List<Long>> productIdsByDiscount = new HashMap<>();
+    List<Long> discountIds = discounts.stream().map(Discount::getId).toList();
+    for (ApplicableProductId row : discountRepository.findApplicableProductIds(discountIds)) {
+      productIdsByDiscount.computeIfAbsent(row.getDiscountId(), id -> new ArrayList<>())
+          .add(row.getProductId());
+    }
+
+    return discounts.stream()
+        .map(discount -> new DiscountResponse(discount.getId(), discount.getCode(),
+            discount.getPercentage(), discount.getType(), discount.getValidFrom(),
+            discount.getValidUntil(), discount.getRemainingUses(),
+            productIdsByDiscount.getOrDefault(discount.getId(), List.of())))
+        .toList();
   }
 
   /**
    * Validate and get discounts by their codes.
+   * Codes are resolved from the discount cache; codes missing from it are loaded from the
+   * database. Codes unknown to the code filter are rejected without any database access.
+   * Remaining uses are not checked here but when the usage is taken.
    *
    * @param discountCodes the list of discount codes
-   * @return list of valid discounts
+   * @return list of valid discounts in the order of the codes
    * @throws InvalidDiscountException if any discount is invalid
    */
-  public List<Discount> validateAndGetDiscounts(List<String> discountCodes) {
+  @Transactional(readOnly = true)
+  public List<DiscountSnapshot> validateAndGetDiscounts(List<String> discountCodes) {
     if (discountCodes == null || discountCodes.isEmpty()) {
       return List.of();
     }
 
-    List<Discount> discounts = discountRepository.findAllByCodeIn(discountCodes);
+    Map<String, DiscountSnapshot> resolved = resolveCodes(discountCodes);
 
     // Check if all codes were found
-    if (discounts.size() != discountCodes.size()) {
-      List<String> foundCodes = discounts.stream()
-          .map(Discount::getCode)
-          .toList();
-
+    if (resolved.size() != discountCodes.size()) {
       String missingCode = discountCodes.stream()
-          .filter(code -> !foundCodes.contains(code))
+          .filter(code -> !resolved.containsKey(code))
           .findFirst()
           .orElse("unknown");
 
@@ -57,39 +154,148 @@ public class DiscountService {
     }
 
     // Validate each discount
-    LocalDate today = LocalDate.now();
-    for (Discount discount : discounts) {
-      validateDiscount(discount, today);
+    LocalDate today = LocalDate.now(clock);
+    List<DiscountSnapshot> discounts = new ArrayList<>(discountCodes.size());
+    for (String code : discountCodes) {
+      DiscountSnapshot discount = resolved.get(code);
+      String reason = invalidReason(discount, today);
+      if (reason != null) {
+        throw new InvalidDiscountException(code, reason);
+      }
+      discounts.add(discount);
     }
 
     return discounts;
   }
 
   /**
-   * Update remaining uses for discounts.
+   * Resolve the candidate discounts of a quote, leaving out invalid codes instead of
+   * rejecting the request. Codes are resolved like {@link #validateAndGetDiscounts} and a
+   * repeated code counts once; on top of that, discounts whose row has no remaining uses are
+   * left out. Sharded discounts are not checked, as their uses are held by the nodes.
+   *
+   * @param discountCodes the list of discount codes
+   * @return the valid discounts and the reason each other code was left out
+   */
+  @Transactional(readOnly = true)
+  public Candidates resolveCandidates(List<String> discountCodes) {
+    if (discountCodes == null || discountCodes.isEmpty()) {
+      return new Candidates(List.of(), Map.of());
+    }
+
+    Map<String, DiscountSnapshot> resolved = resolveCodes(discountCodes);
+    List<Long> rowIds = resolved.values().stream()
+        .filter(discount -> !discount.sharded())
+        .map(DiscountSnapshot::id)
+        .toList();
+    Set<Long> usedUp = rowIds.isEmpty()
+        ? Set.of()
+        : Set.copyOf(discountRepository.findUsedUpIds(rowIds));
+
+    LocalDate today = LocalDate.now(clock);
+    List<DiscountSnapshot> discounts = new ArrayList<>(discountCodes.size());
+    Map<String, String> rejected = new LinkedHashMap<>();
+    Set<String> seen = new HashSet<>();
+    for (String code : discountCodes) {
+      if (!seen.add(code)) {
+        continue;
+      }
+      DiscountSnapshot discount = resolved.get(code);
+      String reason;
+      if (discount == null) {
+        reason = "discount code not found";
+      } else if (usedUp.contains(discount.id())) {
+        reason = "discount has no remaining uses";
+      } else {
+        reason = invalidReason(discount, today);
+      }
+      if (reason == null) {
+        discounts.add(discount);
+      } else {
+        rejected.put(code, reason);
+      }
+    }
+    return new Candidates(discounts, rejected);
+  }
+
+  /**
+   * Get references to the discount entities of snapshots without loading them.
+   * The set compares by identity: hashing a reference would initialize it, and the
+   * persistence context already hands out one reference per discount.
+   *
+   * @param discounts the discount snapshots
+   * @return the discount entity references
+   */
+  public Set<Discount> getDiscountReferences(List<DiscountSnapshot> discounts) {
+    Set<Discount> references = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (DiscountSnapshot discount : discounts) {
+      references.add(discountRepository.getReferenceById(discount.id()));
+    }
+    return references;
+  }
+
+  /**
+   * Take one use of each discount.
+   * Sharded discounts are redeemed from in-memory counters, all others from their row.
    *
    * @param discounts the list of discounts to update
+   * @throws InvalidDiscountException if a discount has no remaining uses
    */
-  public void updateDiscountUsage(List<Discount> discounts) {
-    for (Discount discount : discounts) {
-      discount.setRemainingUses(discount.getRemainingUses() - 1);
-      discountRepository.save(discount);
+  @Transactional
+  public void updateDiscountUsage(List<DiscountSnapshot> discounts) {
+    for (DiscountSnapshot discount : discounts) {
+      boolean redeemed = discount.sharded()
+          ? redemptionCounters.redeem(discount.id())
+          : discountRepository.decrementRemainingUses(discount.id()) == 1;
+      if (!redeemed) {
+        throw new InvalidDiscountException(discount.code(), "discount has no remaining uses");
+      }
     }
   }
 
-  private void validateDiscount(Discount discount, LocalDate today) {
-    // Check if discount is expired
-    if (today.isBefore(discount.getValidFrom())) {
-      throw new InvalidDiscountException(discount.getCode(), "discount is not yet valid");
+  private Map<String, DiscountSnapshot> resolveCodes(List<String> discountCodes) {
+    Map<String, DiscountSnapshot> resolved = new HashMap<>();
+    List<String> missingCodes = new ArrayList<>();
+    for (String code : discountCodes) {
+      DiscountSnapshot snapshot = discountCache.get(code);
+      if (snapshot != null) {
+        resolved.put(code, snapshot);
+      } else if (discountCodeFilter.mightContain(code)) {
+        missingCodes.add(code);
+      }
+    }
+    if (!missingCodes.isEmpty()) {
+      for (Discount discount : discountRepository.findAllByCodeIn(missingCodes)) {
+        resolve(discount, resolved);
+      }
     }
+    return resolved;
+  }
+
+  private void resolve(Discount discount, Map<String, DiscountSnapshot> resolved) {
+    DiscountSnapshot snapshot = DiscountSnapshot.from(discount);
+    discountCache.put(snapshot);
+    resolved.put(snapshot.code(), snapshot);
+  }
 
-    if (today.isAfter(discount.getValidUntil())) {
-      throw new InvalidDiscountException(discount.getCode(), "discount has expired");
+  private static String invalidReason(DiscountSnapshot discount, LocalDate today) {
+    // Check if discount is expired
+    if (today.isBefore(discount.validFrom())) {
+      return "discount is not yet valid";
     }
 
-    // Check if discount has remaining uses
-    if (discount.getRemainingUses() <= 0) {
-      throw new InvalidDiscountException(discount.getCode(), "discount has no remaining uses");
+    if (today.isAfter(discount.validUntil())) {
+      return "discount has expired";
     }
+    return null;
+  }
+
+  /**
+   * Candidate discounts of a quote.
+   *
+   * @param discounts the valid discounts in the order of their codes
+   * @param rejected  the reason each invalid code was left out, in the order of the codes
+   */
+  public record Candidates(List<DiscountSnapshot> discounts, Map<String, String> rejected) {
   }
 }
@@ -0,0 +1,186 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.DiscountStatsResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountUsageHourly;
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountUsageHourlyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the hourly discount usage rollup and reading statistics from it.
+ * As an outbox handler of checkout completed events, it adds each redeemed discount to the
+ * row of the hour the checkout was placed in, within the relay transaction that removes the
+ * events from the outbox, so the order tables are never scanned and no redemption is lost
+ * or counted twice when a node stops. The redemptions of a relay batch are summed per row
+ * and each row is upserted once, in discount and hour order, so concurrent batches lock
+ * the rows they share in the same order.
+ */
+@Service
+public class DiscountUsageService implements OutboxHandler {
+
+  static final String UPSERT_USAGE_SQL = "INSERT INTO discount_usage_hourly (discount_id, "
+      + "hour_start, redemptions, discount_amount) VALUES (?, ?, ?, ?) "
+      + "ON CONFLICT (discount_id, hour_start) DO UPDATE SET "
+      + "redemptions = discount_usage_hourly.redemptions + EXCLUDED.redemptions, "
+      + "discount_amount = discount_usage_hourly.discount_amount + EXCLUDED.discount_amount";
+  static final String MERGE_USAGE_SQL = "MERGE INTO discount_usage_hourly u USING (VALUES "
+      + "(CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), "
+      + "CAST(? AS NUMERIC(14, 2)))) AS s (discount_id, hour_start, redemptions, "
+      + "discount_amount) ON u.discount_id = s.discount_id AND u.hour_start = s.hour_start "
+      + "WHEN MATCHED THEN UPDATE SET redemptions = u.redemptions + s.redemptions, "
+      + "discount_amount = u.discount_amount + s.discount_amount "
+      + "WHEN NOT MATCHED THEN INSERT (discount_id, hour_start, redemptions, discount_amount) "
+      + "VALUES (s.discount_id, s.hour_start, s.redemptions, s.discount_amount)";
+
+  private static final Comparator<UsageKey> KEY_ORDER =
+      Comparator.comparing(UsageKey::discountId).thenComparing(UsageKey::hour);
+
+  private final DiscountUsageHourlyRepository usageRepository;
+  private final DiscountRepository discountRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+  private final ObjectMapper objectMapper;
+  private volatile String upsertSql;
+
+  /**
+   * Create the discount usage service.
+   *
+   * @param usageRepository    the hourly usage rollup repository
+   * @param discountRepository the discount repository
+   * @param jdbcTemplate       the JDBC template adding redemptions to the rollup rows
+   * @param clock              the time source deciding the hours of a statistics range
+   * @param objectMapper       the mapper reading event payloads
+   */
+  public DiscountUsageService(DiscountUsageHourlyRepository usageRepository,
+                              DiscountRepository discountRepository,
+                              JdbcTemplate jdbcTemplate, Clock clock,
+                              ObjectMapper objectMapper) {
+    this.usageRepository = usageRepository;
+    this.discountRepository = discountRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clock;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public String eventType() {
+    return CheckoutCompletedEvent.TYPE;
+  }
+
+  /**
+   * Count the discounts of a committed checkout in the hour it was placed in.
+   *
+   * @param event the outbox event of the checkout
+   */
+  @Override
+  public void handle(OutboxEvent event) {
+    handleBatch(List.of(event));
+  }
+
+  /**
+   * Count the discounts of the committed checkouts of a batch in the hours they were placed
+   * in, with one upsert per discount and hour. On PostgreSQL the upsert is an
+   * {@code INSERT ... ON CONFLICT}, which waits for a row another node is inserting instead
+   * of failing; elsewhere it is a {@code MERGE}.
+   *
+   * @param events the outbox events of the checkouts
+   */
+  @Override
+  public void handleBatch(List<OutboxEvent> events) {
+    Map<UsageKey, Usage> usage = new TreeMap<>(KEY_ORDER);
+    for (OutboxEvent event : events) {
+      CheckoutCompletedEvent checkout = read(event);
+      LocalDateTime hour = event.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+      checkout.discountAmounts().forEach((discountId, amount) ->
+          usage.merge(new UsageKey(discountId, hour), new Usage(1L, amount), Usage::plus));
+    }
+    if (usage.isEmpty()) {
+      return;
+    }
+    List<Object[]> rows = new ArrayList<>(usage.size());
+    usage.forEach((key, total) -> rows.add(new Object[] {key.discountId(), key.hour(),
+        total.redemptions(), total.amount()}));
+    jdbcTemplate.batchUpdate(upsertSql(), rows);
+  }
+
+  /**
+   * Get the usage statistics of a discount over the last hours.
+   *
+   * @param code  the discount code
+   * @param hours the number of hours to cover, ending with the current hour
+   * @return the discount statistics
+   * @throws InvalidDiscountException if the discount code does not exist
+   */
+  @Transactional(readOnly = true)
+  public DiscountStatsResponse getStats(String code, int hours) {
+    Discount discount = discountRepository.findByCode(code)
+        .orElseThrow(() -> new InvalidDiscountException(code, "discount code not found"));
+    LocalDateTime to = currentHour();
+    LocalDateTime from = to.minusHours(hours - 1L);
+
+    List<DiscountUsageHourly> rows = usageRepository
+        .findByDiscountIdAndHourStartBetweenOrderByHourStart(discount.getId(), from, to);
+    List<DiscountStatsResponse.HourlyUsage> usage = new ArrayList<>(rows.size());
+    long totalRedemptions = 0;
+    BigDecimal totalAmount = BigDecimal.ZERO;
+    for (DiscountUsageHourly row : rows) {
+      usage.add(new DiscountStatsResponse.HourlyUsage(row.getHourStart(), row.getRedemptions(),
+          row.getDiscountAmount()));
+      totalRedemptions += row.getRedemptions();
+      totalAmount = totalAmount.add(row.getDiscountAmount());
+    }
+    return new DiscountStatsResponse(discount.getCode(), from, to, totalRedemptions,
+        totalAmount, usage);
+  }
+
+  private LocalDateTime currentHour() {
+    return LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS);
+  }
+
+  private CheckoutCompletedEvent read(OutboxEvent event) {
+    try {
+      return objectMapper.readValue(event.getPayload(), CheckoutCompletedEvent.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to read outbox event: " + event.getId(), e);
+    }
+  }
+
+  private String upsertSql() {
+    String sql = upsertSql;
+    if (sql == null) {
+      String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName());
+      sql = "PostgreSQL".equals(product) ? UPSERT_USAGE_SQL : MERGE_USAGE_SQL;
+      upsertSql = sql;
+    }
+    return sql;
+  }
+
+  private record UsageKey(Long discountId, LocalDateTime hour) {
+  }
+
+  private record Usage(long redemptions, BigDecimal amount) {
+
+    Usage plus(Usage other) {
+      return new Usage(redemptions + other.redemptions, amount.add(other.amount));
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.NotificationException;
+import com.example.digigoods.model.NotificationType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of notification message templates keyed by {@link NotificationType} and locale.
+ * Templates are compiled once at startup into literal and placeholder segments, so
+ * rendering is a single pass of appends into a reused per-thread buffer instead of
+ * re-parsing a format string on every message.
+ */
+@Component
+public class MessageTemplateRegistry {
+
+  private static final String TEMPLATE_BASE_NAME = "notification-templates";
+  private static final int MAX_RETAINED_BUFFER = 4096;
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private final Map<NotificationType, Map<Locale, MessageTemplate>> templates =
+      new EnumMap<>(NotificationType.class);
+  private final Locale defaultLocale;
+
+  /**
+   * Load and compile the templates of the default locale and the given locale variants.
+   *
+   * @param defaultLocale  the locale used when no locale is requested
+   * @param localeVariants the additional locales to load, such as {@code id}
+   */
+  public MessageTemplateRegistry(
+      @Value("${notification.templates.default-locale:en}") Locale defaultLocale,
+      @Value("${notification.templates.locales:id}") List<Locale> localeVariants) {
+    this.defaultLocale = defaultLocale;
+    register(Locale.ROOT, load(TEMPLATE_BASE_NAME + ".properties", true));
+    for (Locale locale : localeVariants) {
+      register(locale, load(TEMPLATE_BASE_NAME + "_" + locale + ".properties", false));
+    }
+  }
+
+  /**
+   * Render the template of a notification type in the default locale.
+   *
+   * @param type the notification type
+   * @param args the positional placeholder values
+   * @return the rendered message
+   * @throws NotificationException if no template is registered for the type
+   */
+  public String render(NotificationType type, Object... args) {
+    return render(type, defaultLocale, args);
+  }
+
+  /**
+   * Render the template of a notification type in the given locale.
+   * Falls back from the full locale to its language and then to the base templates.
+   *
+   * @param type   the notification type
+   * @param locale the requested locale
+   * @param args   the positional placeholder values
+   * @return the rendered message
+   * @throws NotificationException if no template is registered for the type
+   */
+  public String render(NotificationType type, Locale locale, Object... args) {
+    StringBuilder buffer = BUFFER.get();
+    buffer.setLength(0);
+    resolve(type, locale).renderTo(buffer, args);
+    String message = buffer.toString();
+    if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+      BUFFER.remove();
+    }
+    return message;
+  }
+
+  private MessageTemplate resolve(NotificationType type, Locale locale) {
+    Map<Locale, MessageTemplate> variants = templates.get(type);
+    if (variants == null) {
+      throw new NotificationException("No message template registered for " + type);
+    }
+    MessageTemplate template = variants.get(locale);
+    if (template == null && !locale.getCountry().isEmpty()) {
+      template = variants.get(Locale.of(locale.getLanguage()));
+    }
+    return template != null ? template : variants.get(Locale.ROOT);
+  }
+
+  private void register(Locale locale, Properties properties) {
+    for (String name : properties.stringPropertyNames()) {
+      NotificationType type = NotificationType.valueOf(name);
+      templates.computeIfAbsent(type, key -> new HashMap<>())
+          .put(locale, MessageTemplate.compile(properties.getProperty(name)));
+    }
+  }
+
+  private static Properties load(String resourceName, boolean required) {
+    Properties properties = new Properties();
+    InputStream stream = MessageTemplateRegistry.class.getClassLoader()
+        .getResourceAsStream(resourceName);
+    if (stream == null) {
+      if (required) {
+        throw new IllegalStateException("Missing message templates: " + resourceName);
+      }
+      return properties;
+    }
+    try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read message templates: " + resourceName, e);
+    }
+    return properties;
+  }
+
+  /**
+   * Immutable compiled template made of alternating literal and placeholder segments.
+   * Placeholders are written as {@code {0}}, {@code {1}} and so on; any other brace is
+   * kept as literal text.
+   */
+  public static final class MessageTemplate {
+
+    private final String[] literals;
+    private final int[] argumentIndexes;
+
+    private MessageTemplate(String[] literals, int[] argumentIndexes) {
+      this.literals = literals;
+      this.argumentIndexes = argumentIndexes;
+    }
+
+    /**
+     * Compile a template string into segments.
+     *
+     * @param template the template string
+     * @return the compiled template
+     */
+    public static MessageTemplate compile(String template) {
+      List<String> literals = new ArrayList<>();
+      List<Integer> indexes = new ArrayList<>();
+      StringBuilder literal = new StringBuilder();
+      int position = 0;
+      while (position < template.length()) {
+        int close = placeholderEnd(template, position);
+        if (close < 0) {
+          literal.append(template.charAt(position++));
+          continue;
+        }
+        literals.add(literal.toString());
+        literal.setLength(0);
+        indexes.add(Integer.parseInt(template.substring(position + 1, close)));
+        position = close + 1;
+      }
+      literals.add(literal.toString());
+      return new MessageTemplate(literals.toArray(String[]::new),
+          indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Append the rendered template to a buffer.
+     *
+     * @param buffer the target buffer
+     * @param args   the positional placeholder values
+     */
+    public void renderTo(StringBuilder buffer, Object... args) {
+      buffer.append(literals[0]);
+      for (int i = 0; i < argumentIndexes.length; i++) {
+        int index = argumentIndexes[i];
+        buffer.append(index < args.length ? args[index] : "{" + index + "}");
+        buffer.append(literals[i + 1]);
+      }
+    }
+
+    private static int placeholderEnd(String template, int position) {
+      if (template.charAt(position) != '{') {
+        return -1;
+      }
+      int cursor = position + 1;
+      while (cursor < template.length() && Character.isDigit(template.charAt(cursor))) {
+        cursor++;
+      }
+      boolean closed = cursor < template.length() && template.charAt(cursor) == '}';
+      return closed && cursor > position + 1 ? cursor : -1;
+    }
+  }
+}
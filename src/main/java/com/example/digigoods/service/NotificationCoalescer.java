@@ -0,0 +1,187 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time-windowed deduplication and coalescing stage in front of notification delivery.
+ * A notification identified by (user, type, key) is let through once per dedupe window;
+ * digest lines for the same (user, type) are merged until the digest window closes.
+ */
+@Component
+public class NotificationCoalescer {
+
+  /**
+   * Maximum number of lines kept per digest; further lines are only counted.
+   */
+  static final int MAX_DIGEST_LINES = 10;
+
+  private final Clock clock;
+  private final long dedupeWindowMillis;
+  private final long digestWindowMillis;
+  private final ConcurrentHashMap<DedupeKey, Long> dedupeWindows = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<DigestKey, PendingDigest> digests = new ConcurrentHashMap<>();
+  private final Counter suppressedCounter;
+
+  /**
+   * Create the coalescer.
+   *
+   * @param clock          the time source for window bookkeeping
+   * @param meterRegistry  the registry receiving the suppression metric
+   * @param dedupeWindow   how long a (user, type, key) notification suppresses duplicates
+   * @param digestWindow   how long digest lines are collected before being sent together
+   */
+  public NotificationCoalescer(Clock clock, MeterRegistry meterRegistry,
+      @Value("${notification.coalescing.dedupe-window:PT10M}") Duration dedupeWindow,
+      @Value("${notification.coalescing.digest-window:PT1M}") Duration digestWindow) {
+    this.clock = clock;
+    this.dedupeWindowMillis = dedupeWindow.toMillis();
+    this.digestWindowMillis = digestWindow.toMillis();
+    this.suppressedCounter = Counter.builder("notification.coalescing.suppressed")
+        .description("Notifications dropped or merged by the coalescing stage")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Claim the dedupe window of a notification.
+   *
+   * @param userId the user ID
+   * @param type   the notification type
+   * @param key    the notification subject, such as a discount code or product ID
+   * @return true if no identical notification was claimed within the window
+   */
+  public boolean tryAcquire(Long userId, NotificationType type, String key) {
+    long now = clock.millis();
+    boolean[] acquired = new boolean[1];
+    dedupeWindows.compute(new DedupeKey(userId, type, key), (k, expiresAt) -> {
+      if (expiresAt != null && expiresAt > now) {
+        return expiresAt;
+      }
+      acquired[0] = true;
+      return now + dedupeWindowMillis;
+    });
+    if (!acquired[0]) {
+      suppressedCounter.increment();
+    }
+    return acquired[0];
+  }
+
+  /**
+   * Release a dedupe window claimed by {@link #tryAcquire}, so a notification that could
+   * not be delivered is not suppressed for the rest of the window.
+   *
+   * @param userId the user ID
+   * @param type   the notification type
+   * @param key    the notification subject
+   */
+  public void release(Long userId, NotificationType type, String key) {
+    dedupeWindows.remove(new DedupeKey(userId, type, key));
+  }
+
+  /**
+   * Append a line to the pending digest of a user, opening the digest window if needed.
+   *
+   * @param userId the user ID
+   * @param type   the notification type
+   * @param key    the subject of the line, whose dedupe window is released if the digest
+   *               cannot be delivered
+   * @param line   the digest line
+   */
+  public void appendToDigest(Long userId, NotificationType type, String key, String line) {
+    long flushAt = clock.millis() + digestWindowMillis;
+    digests.compute(new DigestKey(userId, type), (k, digest) -> {
+      PendingDigest pending = digest == null ? new PendingDigest(flushAt) : digest;
+      if (digest != null) {
+        suppressedCounter.increment();
+      }
+      pending.add(key, line);
+      return pending;
+    });
+  }
+
+  /**
+   * Remove and return every digest whose window has closed.
+   *
+   * @return the digests ready to be sent
+   */
+  public List<Digest> drainDueDigests() {
+    long now = clock.millis();
+    List<Digest> due = new ArrayList<>();
+    for (DigestKey key : digests.keySet()) {
+      digests.computeIfPresent(key, (k, digest) -> {
+        if (digest.flushAt > now) {
+          return digest;
+        }
+        due.add(new Digest(k.userId(), k.type(), List.copyOf(digest.lines), digest.omitted,
+            List.copyOf(digest.keys)));
+        return null;
+      });
+    }
+    return due;
+  }
+
+  /**
+   * Drop dedupe windows that have expired so idle users do not retain memory.
+   */
+  public void evictExpired() {
+    long now = clock.millis();
+    dedupeWindows.values().removeIf(expiresAt -> expiresAt <= now);
+  }
+
+  /**
+   * Get the number of dedupe windows currently tracked.
+   *
+   * @return the number of tracked windows
+   */
+  public int getTrackedWindowCount() {
+    return dedupeWindows.size();
+  }
+
+  /**
+   * Digest ready to be delivered as a single notification.
+   *
+   * @param userId  the user ID
+   * @param type    the notification type
+   * @param lines   the merged lines, at most {@link #MAX_DIGEST_LINES}
+   * @param omitted the number of lines merged beyond the kept ones
+   * @param keys    the subjects of every merged line, kept and omitted
+   */
+  public record Digest(Long userId, NotificationType type, List<String> lines, int omitted,
+      List<String> keys) {
+  }
+
+  private record DedupeKey(Long userId, NotificationType type, String key) {
+  }
+
+  private record DigestKey(Long userId, NotificationType type) {
+  }
+
+  private static final class PendingDigest {
+
+    private final long flushAt;
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private int omitted;
+
+    private PendingDigest(long flushAt) {
+      this.flushAt = flushAt;
+    }
+
+    private void add(String key, String line) {
+      keys.add(key);
+      if (lines.size() < MAX_DIGEST_LINES) {
+        lines.add(line);
+      } else {
+        omitted++;
+      }
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.NotificationException;
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatcher that delivers notifications through one priority lane per
+ * {@link NotificationType}.
+ * Lanes are drained by a fixed pool of workers using smooth weighted round-robin over the
+ * non-empty lanes, so a deep promotional backlog only consumes the capacity that
+ * transactional lanes leave unused.
+ */
+@Component
+public class NotificationDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+  private final Lane[] lanes;
+  private final int laneCapacity;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final List<Thread> workers = new ArrayList<>();
+  private int queuedTasks;
+  private volatile boolean running = true;
+
+  /**
+   * Create a dispatcher and start its worker threads.
+   *
+   * @param meterRegistry the registry receiving per-lane metrics
+   * @param workerCount   the number of delivery workers
+   * @param laneCapacity  the maximum number of queued notifications per lane
+   */
+  @Autowired
+  public NotificationDispatcher(MeterRegistry meterRegistry,
+      @Value("${notification.dispatcher.workers:4}") int workerCount,
+      @Value("${notification.dispatcher.lane-capacity:10000}") int laneCapacity) {
+    this(meterRegistry, laneCapacity);
+    if (workerCount <= 0) {
+      throw new IllegalArgumentException("Notification dispatcher worker count must be positive");
+    }
+    for (int i = 0; i < workerCount; i++) {
+      Thread worker = new Thread(this::workLoop, "notification-dispatcher-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+      worker.start();
+    }
+  }
+
+  /**
+   * Create a dispatcher without workers, whose lanes are drained by calling
+   * {@link #runNext()}.
+   *
+   * @param meterRegistry the registry receiving per-lane metrics
+   * @param laneCapacity  the maximum number of queued notifications per lane
+   */
+  NotificationDispatcher(MeterRegistry meterRegistry, int laneCapacity) {
+    if (laneCapacity <= 0) {
+      throw new IllegalArgumentException("Lane capacity must be positive");
+    }
+    this.laneCapacity = laneCapacity;
+    NotificationType[] types = NotificationType.values();
+    this.lanes = new Lane[types.length];
+    for (NotificationType type : types) {
+      lanes[type.ordinal()] = new Lane(type, meterRegistry);
+    }
+  }
+
+  /**
+   * Queue a delivery task on the lane of the given notification type.
+   * Blocks while the lane is full, which applies back-pressure to bulk senders.
+   *
+   * @param type the notification type selecting the lane
+   * @param task the delivery task
+   * @param <T>  the task result type
+   * @return future completed with the task result once a worker has run it
+   * @throws NotificationException if the dispatcher is shut down or the caller is interrupted
+   */
+  public <T> CompletableFuture<T> dispatch(NotificationType type, Supplier<T> task) {
+    Lane lane = lanes[type.ordinal()];
+    CompletableFuture<T> future = new CompletableFuture<>();
+    lock.lock();
+    try {
+      while (running && lane.queue.size() >= laneCapacity) {
+        lane.notFull.await();
+      }
+      if (!running) {
+        throw new NotificationException("Notification dispatcher is shut down");
+      }
+      lane.queue.addLast(new Task(() -> future.complete(task.get()), future, System.nanoTime()));
+      queuedTasks++;
+      notEmpty.signal();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new NotificationException("Interrupted while queueing notification", e);
+    } finally {
+      lock.unlock();
+    }
+    return future;
+  }
+
+  /**
+   * Run the next scheduled task on the calling thread, if any is queued.
+   *
+   * @return true if a task was run, false if all lanes were empty
+   */
+  boolean runNext() {
+    Task task;
+    lock.lock();
+    try {
+      task = pollNextLocked();
+    } finally {
+      lock.unlock();
+    }
+    if (task == null) {
+      return false;
+    }
+    task.run();
+    return true;
+  }
+
+  /**
+   * Get the number of notifications waiting in the lane of the given type.
+   *
+   * @param type the notification type
+   * @return the lane depth
+   */
+  public int getQueueDepth(NotificationType type) {
+    lock.lock();
+    try {
+      return lanes[type.ordinal()].queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stop accepting notifications, let workers finish the current task and fail the rest.
+   */
+  @PreDestroy
+  public void shutdown() {
+    List<Task> abandoned = new ArrayList<>();
+    lock.lock();
+    try {
+      running = false;
+      for (Lane lane : lanes) {
+        abandoned.addAll(lane.queue);
+        lane.queue.clear();
+        lane.notFull.signalAll();
+      }
+      queuedTasks = 0;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    abandoned.forEach(task -> task.future.completeExceptionally(
+        new NotificationException("Notification dispatcher is shut down")));
+    for (Thread worker : workers) {
+      try {
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void workLoop() {
+    while (true) {
+      Task task;
+      lock.lock();
+      try {
+        while (running && queuedTasks == 0) {
+          notEmpty.await();
+        }
+        if (!running) {
+          return;
+        }
+        task = pollNextLocked();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        lock.unlock();
+      }
+      task.run();
+    }
+  }
+
+  /**
+   * Pick the next task with smooth weighted round-robin: every non-empty lane earns its
+   * weight, the richest lane is served and pays back the total weight of the contenders.
+   * Empty lanes neither earn nor keep credit, so idle capacity flows to whoever is waiting.
+   */
+  private Task pollNextLocked() {
+    if (queuedTasks == 0) {
+      return null;
+    }
+    Lane selected = null;
+    int totalWeight = 0;
+    for (Lane lane : lanes) {
+      if (lane.queue.isEmpty()) {
+        lane.currentWeight = 0;
+        continue;
+      }
+      lane.currentWeight += lane.weight;
+      totalWeight += lane.weight;
+      if (selected == null || lane.currentWeight > selected.currentWeight) {
+        selected = lane;
+      }
+    }
+    selected.currentWeight -= totalWeight;
+    queuedTasks--;
+    selected.notFull.signal();
+    Task task = selected.queue.pollFirst();
+    selected.dispatched.increment();
+    selected.waitTimer.record(System.nanoTime() - task.enqueuedAt, TimeUnit.NANOSECONDS);
+    return task;
+  }
+
+  private final class Lane {
+
+    private final int weight;
+    private final ArrayDeque<Task> queue = new ArrayDeque<>();
+    private final Condition notFull = lock.newCondition();
+    private final Counter dispatched;
+    private final Timer waitTimer;
+    private int currentWeight;
+
+    private Lane(NotificationType type, MeterRegistry meterRegistry) {
+      this.weight = type.getLaneWeight();
+      String laneName = type.name();
+      this.dispatched = Counter.builder("notification.lane.dispatched")
+          .description("Notifications handed to a delivery worker")
+          .tag("lane", laneName)
+          .register(meterRegistry);
+      this.waitTimer = Timer.builder("notification.lane.wait")
+          .description("Time notifications spent queued in their lane")
+          .tag("lane", laneName)
+          .register(meterRegistry);
+      Gauge.builder("notification.lane.depth", queue, ArrayDeque::size)
+          .description("Notifications waiting in the lane")
+          .tag("lane", laneName)
+          .register(meterRegistry);
+    }
+  }
+
+  private static final class Task {
+
+    private final Runnable action;
+    private final CompletableFuture<?> future;
+    private final long enqueuedAt;
+
+    private Task(Runnable action, CompletableFuture<?> future, long enqueuedAt) {
+      this.action = action;
+      this.future = future;
+      this.enqueuedAt = enqueuedAt;
+    }
+
+    /**
+     * Run the task, completing its future exceptionally whatever it throws so no caller
+     * waits forever. Only errors the VM cannot recover from are rethrown, ending the worker.
+     */
+    private void run() {
+      try {
+        action.run();
+      } catch (Throwable e) {
+        logger.debug("Notification delivery task failed: {}", e.getMessage());
+        future.completeExceptionally(e);
+        if (e instanceof VirtualMachineError fatal) {
+          throw fatal;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user, per-type token bucket limiting how many notifications a user can receive.
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the
+ * generic cell rate form of a token bucket), so acquiring a token is one compare-and-set.
+ * Every notification type keeps its buckets in a store of its own, spread over independent
+ * stripes, each capped in size; a bucket that has refilled completely carries no state and
+ * is evicted. When a stripe is full of active buckets, new senders of that type are
+ * rejected rather than let through untracked, so a runaway campaign touching many users
+ * cannot switch the limit off, while the buckets of transactional types stay unaffected.
+ * The cap is checked before a bucket is added, so concurrent new senders may overshoot it
+ * by a few buckets.
+ */
+@Component
+public class NotificationRateLimiter {
+
+  private static final int STRIPE_COUNT = 16;
+
+  private final Clock clock;
+  private final long emissionIntervalMillis;
+  private final long burstToleranceMillis;
+  private final int maxBucketsPerStripe;
+  private final Map<NotificationType, Stripe[]> stripes = new EnumMap<>(NotificationType.class);
+  private final Map<NotificationType, Counter> throttledCounters =
+      new EnumMap<>(NotificationType.class);
+  private final Map<NotificationType, Counter> overflowCounters =
+      new EnumMap<>(NotificationType.class);
+
+  /**
+   * Create the rate limiter.
+   *
+   * @param clock          the time source for refills
+   * @param meterRegistry  the registry receiving throttling metrics
+   * @param capacity       the maximum burst of notifications per user and type
+   * @param refillInterval the time needed to regain one token
+   * @param maxBuckets     the maximum number of buckets held in memory per notification type
+   */
+  public NotificationRateLimiter(Clock clock, MeterRegistry meterRegistry,
+      @Value("${notification.rate-limit.capacity:20}") int capacity,
+      @Value("${notification.rate-limit.refill-interval:PT3M}") Duration refillInterval,
+      @Value("${notification.rate-limit.max-buckets:100000}") int maxBuckets) {
+    if (capacity <= 0 || refillInterval.isZero() || refillInterval.isNegative()) {
+      throw new IllegalArgumentException("Rate limit capacity and refill interval must be positive");
+    }
+    this.clock = clock;
+    this.emissionIntervalMillis = refillInterval.toMillis();
+    this.burstToleranceMillis = emissionIntervalMillis * (capacity - 1);
+    this.maxBucketsPerStripe = Math.max(1, maxBuckets / STRIPE_COUNT);
+    for (NotificationType type : NotificationType.values()) {
+      Stripe[] typeStripes = new Stripe[STRIPE_COUNT];
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+        typeStripes[i] = new Stripe();
+      }
+      stripes.put(type, typeStripes);
+      throttledCounters.put(type, Counter.builder("notification.rate-limit.throttled")
+          .description("Notifications rejected by the per-user rate limit")
+          .tag("type", type.name())
+          .register(meterRegistry));
+      overflowCounters.put(type, Counter.builder("notification.rate-limit.overflow")
+          .description("Notifications rejected because the bucket store of their type was full")
+          .tag("type", type.name())
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Take one token from the bucket of a user and notification type.
+   *
+   * @param userId the user ID
+   * @param type   the notification type
+   * @return true if the notification may be sent, false if it is throttled or no bucket
+   *         can be tracked for it
+   */
+  public boolean tryAcquire(Long userId, NotificationType type) {
+    long now = clock.millis();
+    BucketKey key = new BucketKey(userId, type);
+    Stripe stripe = stripes.get(type)[(userId.hashCode() & Integer.MAX_VALUE) % STRIPE_COUNT];
+
+    AtomicLong bucket = stripe.buckets.get(key);
+    if (bucket == null) {
+      if (stripe.buckets.size() >= maxBucketsPerStripe) {
+        evictIdle(stripe, now);
+        if (stripe.buckets.size() >= maxBucketsPerStripe) {
+          overflowCounters.get(type).increment();
+          return false;
+        }
+      }
+      bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    while (true) {
+      long arrival = bucket.get();
+      long base = Math.max(arrival, now);
+      if (base - now > burstToleranceMillis) {
+        throttledCounters.get(type).increment();
+        return false;
+      }
+      if (bucket.compareAndSet(arrival, base + emissionIntervalMillis)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Evict every bucket that has refilled completely.
+   */
+  @Scheduled(fixedDelayString = "${notification.rate-limit.eviction-interval:PT1M}")
+  public void evictIdleBuckets() {
+    long now = clock.millis();
+    for (Stripe[] typeStripes : stripes.values()) {
+      for (Stripe stripe : typeStripes) {
+        evictIdle(stripe, now);
+      }
+    }
+  }
+
+  /**
+   * Get the number of buckets currently held in memory.
+   *
+   * @return the number of buckets
+   */
+  public int getBucketCount() {
+    int count = 0;
+    for (Stripe[] typeStripes : stripes.values()) {
+      for (Stripe stripe : typeStripes) {
+        count += stripe.buckets.size();
+      }
+    }
+    return count;
+  }
+
+  private void evictIdle(Stripe stripe, long now) {
+    stripe.buckets.values().removeIf(bucket -> bucket.get() <= now);
+  }
+
+  private record BucketKey(Long userId, NotificationType type) {
+  }
+
+  private static final class Stripe {
+
+    private final ConcurrentHashMap<BucketKey, AtomicLong> buckets = new ConcurrentHashMap<>();
+  }
+}
@@ -1,6 +1,7 @@
 package com.example.digigoods.service;
 
 import com.example.digigoods.dto.NotificationResponse;
+import com.example.digigoods.event.DigestDeliveredEvent;
 import com.example.digigoods.exception.NotificationException;
 import com.example.digigoods.model.NotificationType;
 import com.example.digigoods.model.User;
@@ -8,9 +9,13 @@ import com.example.digigoods.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,9 +30,34 @@ public class NotificationService {
   private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
   private final UserRepository userRepository;
+  private final NotificationDispatcher notificationDispatcher;
+  private final NotificationCoalescer notificationCoalescer;
+  private final MessageTemplateRegistry messageTemplateRegistry;
+  private final NotificationRateLimiter notificationRateLimiter;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public NotificationService(UserRepository userRepository) {
+  /**
+   * Create the notification service.
+   *
+   * @param userRepository          the user repository
+   * @param notificationDispatcher  the dispatcher delivering notifications by lane
+   * @param notificationCoalescer   the stage dropping and merging repeated notifications
+   * @param messageTemplateRegistry the precompiled message templates
+   * @param notificationRateLimiter the per-user notification rate limit
+   * @param eventPublisher          the publisher announcing delivered digests
+   */
+  public NotificationService(UserRepository userRepository,
+      NotificationDispatcher notificationDispatcher,
+      NotificationCoalescer notificationCoalescer,
+      MessageTemplateRegistry messageTemplateRegistry,
+      NotificationRateLimiter notificationRateLimiter,
+      ApplicationEventPublisher eventPublisher) {
     this.userRepository = userRepository;
+    this.notificationDispatcher = notificationDispatcher;
+    this.notificationCoalescer = notificationCoalescer;
+    this.messageTemplateRegistry = messageTemplateRegistry;
+    this.notificationRateLimiter = notificationRateLimiter;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -37,30 +67,17 @@ public class NotificationService {
    * @param type    the type of notification
    * @param message the notification message
    * @return notification response with status
-   * @throws NotificationException if user not found or notification fails
+   * @throws NotificationException if user not found, rate limited or notification fails
    */
   public NotificationResponse sendNotification(@NonNull Long userId, @NonNull NotificationType type,
       @NonNull String message) {
-    // Arrange - validate input parameters
-    validateNotificationInput(userId, type, message);
-
-    // Act - find user and send notification
-    User user = findUserById(userId);
-    String notificationId = generateNotificationId();
-
-    // Simulate sending notification (in real implementation, this would integrate
-    // with email/SMS)
-    boolean success = processNotification(user, type, message, notificationId);
-
-    // Assert - return appropriate response
-    if (success) {
-      return new NotificationResponse(
-          notificationId,
-          "Notification sent successfully",
-          LocalDateTime.now(),
-          true);
-    } else {
-      throw new NotificationException("Failed to send notification to user: " + userId);
+    try {
+      return submitNotification(userId, type, message).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
     }
   }
 
@@ -81,21 +98,28 @@ public class NotificationService {
       throw new NotificationException("User IDs list cannot be null or empty");
     }
 
-    // Act - send notifications to all users
-    return userIds.stream()
+    // Act - queue every notification on its lane first, then collect the results
+    List<CompletableFuture<NotificationResponse>> pending = userIds.stream()
         .map(userId -> {
           try {
-            return sendNotification(userId, type, message);
+            return submitNotification(userId, type, message);
           } catch (NotificationException e) {
-            // Log error but continue with other notifications
-            return new NotificationResponse(
-                null,
-                "Failed to send notification: " + e.getMessage(),
-                LocalDateTime.now(),
-                false);
+            return CompletableFuture.<NotificationResponse>failedFuture(e);
           }
         })
         .toList();
+
+    return pending.stream()
+        .map(future -> future.exceptionally(e -> {
+          // Log error but continue with other notifications
+          Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+          return new NotificationResponse(
+              null,
+              "Failed to send notification: " + cause.getMessage(),
+              LocalDateTime.now(),
+              false);
+        }).join())
+        .toList();
   }
 
   /**
@@ -108,27 +132,110 @@ public class NotificationService {
    * @throws NotificationException if notification fails
    */
   public NotificationResponse sendOrderConfirmation(Long userId, Long orderId, String totalAmount) {
-    String message = String.format(
-        "Your order #%d has been confirmed! Total amount: %s. Thank you for your purchase!",
+    String message = messageTemplateRegistry.render(NotificationType.ORDER_CONFIRMATION,
         orderId, totalAmount);
     return sendNotification(userId, NotificationType.ORDER_CONFIRMATION, message);
   }
 
   /**
    * Send discount expiry reminder notification.
+   * Repeated reminders for the same user and code within the dedupe window are dropped; a
+   * reminder that fails or is throttled releases the window so it can be sent again.
    *
    * @param userId       the user ID
    * @param discountCode the discount code
    * @param expiryDate   the expiry date
-   * @return notification response
+   * @return notification response, without notification ID if the reminder was suppressed
    * @throws NotificationException if notification fails
    */
   public NotificationResponse sendDiscountExpiryReminder(Long userId, String discountCode,
       String expiryDate) {
-    String message = String.format(
-        "Reminder: Your discount code '%s' expires on %s. Use it before it's too late!",
+    if (!notificationCoalescer.tryAcquire(userId, NotificationType.DISCOUNT_REMINDER,
+        discountCode)) {
+      return suppressedResponse();
+    }
+    String message = messageTemplateRegistry.render(NotificationType.DISCOUNT_REMINDER,
+        discountCode, expiryDate);
+    try {
+      return sendNotification(userId, NotificationType.DISCOUNT_REMINDER, message);
+    } catch (RuntimeException e) {
+      notificationCoalescer.release(userId, NotificationType.DISCOUNT_REMINDER, discountCode);
+      throw e;
+    }
+  }
+
+  /**
+   * Send a discount expiry reminder to several users at once.
+   * The message is rendered once; users reminded of the code within the dedupe window are
+   * skipped, and users whose reminder fails can be reminded again.
+   *
+   * @param userIds      the user IDs
+   * @param discountCode the discount code
+   * @param expiryDate   the expiry date
+   * @return notification responses of the reminded users
+   */
+  public List<NotificationResponse> sendDiscountExpiryReminders(List<Long> userIds,
+      String discountCode, String expiryDate) {
+    List<Long> recipients = userIds.stream()
+        .filter(userId -> notificationCoalescer.tryAcquire(userId,
+            NotificationType.DISCOUNT_REMINDER, discountCode))
+        .toList();
+    if (recipients.isEmpty()) {
+      return List.of();
+    }
+    String message = messageTemplateRegistry.render(NotificationType.DISCOUNT_REMINDER,
         discountCode, expiryDate);
-    return sendNotification(userId, NotificationType.DISCOUNT_REMINDER, message);
+    List<NotificationResponse> responses = sendBulkNotifications(recipients,
+        NotificationType.DISCOUNT_REMINDER, message);
+    for (int i = 0; i < responses.size(); i++) {
+      if (!responses.get(i).isSuccess()) {
+        notificationCoalescer.release(recipients.get(i), NotificationType.DISCOUNT_REMINDER,
+            discountCode);
+      }
+    }
+    return responses;
+  }
+
+  /**
+   * Queue a back-in-stock alert for a user.
+   * Alerts are deduplicated per product and merged into a single digest per user, which is
+   * delivered by {@link #flushDigests()} once the digest window closes.
+   *
+   * @param userId      the user ID
+   * @param productId   the restocked product ID
+   * @param productName the restocked product name
+   * @return true if the alert was queued, false if it duplicated a recent alert
+   */
+  public boolean queueStockAlert(Long userId, Long productId, String productName) {
+    String key = String.valueOf(productId);
+    if (!notificationCoalescer.tryAcquire(userId, NotificationType.STOCK_ALERT, key)) {
+      return false;
+    }
+    notificationCoalescer.appendToDigest(userId, NotificationType.STOCK_ALERT, key,
+        messageTemplateRegistry.render(NotificationType.STOCK_ALERT, productName));
+    return true;
+  }
+
+  /**
+   * Deliver every digest whose window has closed and drop expired dedupe windows.
+   * A delivered digest is announced with a {@link DigestDeliveredEvent}; a digest that
+   * cannot be delivered releases the dedupe windows of its lines.
+   */
+  @Scheduled(fixedDelayString = "${notification.coalescing.flush-interval:PT15S}")
+  public void flushDigests() {
+    for (NotificationCoalescer.Digest digest : notificationCoalescer.drainDueDigests()) {
+      try {
+        sendNotification(digest.userId(), digest.type(), buildDigestMessage(digest));
+        eventPublisher.publishEvent(new DigestDeliveredEvent(digest.userId(), digest.type(),
+            digest.keys()));
+      } catch (NotificationException e) {
+        logger.warn("Failed to deliver {} digest to user {}: {}",
+            digest.type(), digest.userId(), e.getMessage());
+        digest.keys().forEach(key ->
+            notificationCoalescer.release(digest.userId(), digest.type(), key));
+      }
+    }
+    notificationCoalescer.evictExpired();
   }
 
   /**
@@ -145,6 +252,59 @@ public class NotificationService {
     return true;
   }
 
+  private NotificationResponse suppressedResponse() {
+    return new NotificationResponse(
+        null,
+        "Duplicate notification suppressed",
+        LocalDateTime.now(),
+        true);
+  }
+
+  private String buildDigestMessage(NotificationCoalescer.Digest digest) {
+    if (digest.lines().size() == 1) {
+      return digest.lines().get(0) + ".";
+    }
+    StringBuilder message = new StringBuilder("You have ")
+        .append(digest.lines().size() + digest.omitted())
+        .append(" new updates:");
+    for (String line : digest.lines()) {
+      message.append("\n- ").append(line);
+    }
+    if (digest.omitted() > 0) {
+      message.append("\n- and ").append(digest.omitted()).append(" more");
+    }
+    return message.toString();
+  }
+
+  private CompletableFuture<NotificationResponse> submitNotification(Long userId,
+      NotificationType type, String message) {
+    // Arrange - validate input parameters
+    validateNotificationInput(userId, type, message);
+    if (!notificationRateLimiter.tryAcquire(userId, type)) {
+      throw new NotificationException("Notification rate limit exceeded for user: " + userId);
+    }
+
+    // Act - find user and hand the delivery to the lane of this notification type
+    User user = findUserById(userId);
+    String notificationId = generateNotificationId();
+
+    // Simulate sending notification (in real implementation, this would integrate
+    // with email/SMS)
+    return notificationDispatcher
+        .dispatch(type, () -> processNotification(user, type, message, notificationId))
+        .thenApply(success -> {
+          // Assert - return appropriate response
+          if (!success) {
+            throw new NotificationException("Failed to send notification to user: " + userId);
+          }
+          return new NotificationResponse(
+              notificationId,
+              "Notification sent successfully",
+              LocalDateTime.now(),
+              true);
+        });
+  }
+
   private void validateNotificationInput(Long userId, NotificationType type, String message) {
     if (userId == null) {
       throw new NotificationException("User ID cannot be null");
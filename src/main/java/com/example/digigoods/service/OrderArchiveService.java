@@ -0,0 +1,361 @@
+package com.example.digigoods.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the orders tables bounded by archiving old months.
+ * On PostgreSQL the orders table is range partitioned by month: partitions are created
+ * ahead of time, and a month past the retention is exported and then detached and dropped
+ * as a whole, so the indexes of the live partitions never carry old orders. Orders of a
+ * month whose partition is missing land in a default partition and are moved into the
+ * month's partition when it is created. Other databases keep a single table and delete
+ * the exported month instead. The link tables are not partitioned; their rows are
+ * exported with their orders and deleted a bounded chunk of orders per transaction before
+ * the month itself goes, together with the order read model rows of the chunk, which are
+ * not exported as the archive holds their source. A month whose export is already on disk
+ * is not exported again, so a run interrupted while deleting resumes without overwriting
+ * the archive with the rows that were left.
+ */
+@Service
+public class OrderArchiveService {
+
+  static final String PARTITION_PREFIX = "orders_p";
+  static final String DEFAULT_PARTITION = PARTITION_PREFIX + "default";
+  static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+  private static final int FETCH_SIZE = 1000;
+  private static final String MONTH_RANGE = "o.order_date >= ? AND o.order_date < ?";
+  private static final String CHUNK_END = "SELECT MAX(c.id) FROM (SELECT o.id FROM orders o "
+      + "WHERE " + MONTH_RANGE + " AND o.id > ? ORDER BY o.id LIMIT ?) c";
+  private static final String ORDERS_OF_CHUNK =
+      "SELECT o.id FROM orders o WHERE " + MONTH_RANGE + " AND o.id > ? AND o.id <= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate exportTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final int retentionMonths;
+  private final int monthsAhead;
+  private final int chunkSize;
+  private final Path directory;
+  private final Counter archivedCounter;
+  private volatile Boolean partitioned;
+
+  /**
+   * Create the order archive service.
+   *
+   * @param jdbcTemplate        the JDBC template
+   * @param transactionTemplate the template running each month removal in a transaction
+   * @param clock               the time source deciding the current month
+   * @param meterRegistry       the registry receiving the archive metric
+   * @param retentionMonths     the number of past months kept besides the current one
+   * @param monthsAhead         the number of future months that must have a partition
+   * @param chunkSize           the number of orders whose rows are deleted per transaction
+   * @param directory           the directory receiving the compressed exports
+   */
+  public OrderArchiveService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             Clock clock, MeterRegistry meterRegistry,
+                             @Value("${order.archive.retention-months:24}") int retentionMonths,
+                             @Value("${order.partition.months-ahead:3}") int monthsAhead,
+                             @Value("${order.archive.chunk-size:1000}") int chunkSize,
+                             @Value("${order.archive.directory:archive/orders}") Path directory) {
+    if (retentionMonths < 1 || monthsAhead < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException(
+          "Order retention, months ahead and chunk size must be positive");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.exportTemplate.setFetchSize(FETCH_SIZE);
+    this.transactionTemplate = transactionTemplate;
+    this.clock = clock;
+    this.retentionMonths = retentionMonths;
+    this.monthsAhead = monthsAhead;
+    this.chunkSize = chunkSize;
+    this.directory = directory;
+    this.archivedCounter = Counter.builder("order.archive.orders")
+        .description("Orders exported and removed by the archive job")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Create the partitions of the current month and the following months if they are missing.
+   * Runs once the application is ready and then daily; does nothing unless the orders table
+   * is partitioned.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${order.partition.cron:0 0 2 * * *}")
+  public void createUpcomingPartitions() {
+    if (!isPartitioned()) {
+      return;
+    }
+    YearMonth current = YearMonth.now(clock);
+    for (int i = 0; i <= monthsAhead; i++) {
+      createPartition(current.plusMonths(i));
+    }
+  }
+
+  /**
+   * Create the partition of a month unless it exists, moving the orders of the month that
+   * landed in the default partition into it. The default partition would reject attaching
+   * a partition for rows it still holds, so the rows move and the partition is attached in
+   * one transaction, under a lock shared by every node creating partitions.
+   */
+  private void createPartition(YearMonth month) {
+    String partition = partitionName(month);
+    LocalDateTime from = month.atDay(1).atStartOfDay();
+    LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class,
+          PARTITION_PREFIX);
+      if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+          Boolean.class, partition))) {
+        return;
+      }
+      jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE orders INCLUDING DEFAULTS)");
+      int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+          + " o WHERE " + MONTH_RANGE + " RETURNING o.*) INSERT INTO " + partition
+          + " SELECT * FROM moved", from, to);
+      jdbcTemplate.execute("ALTER TABLE orders ATTACH PARTITION " + partition
+          + " FOR VALUES FROM ('" + from.toLocalDate() + "') TO ('" + to.toLocalDate() + "')");
+      if (moved > 0) {
+        logger.warn("Moved {} orders of {} out of the default partition", moved, month);
+      }
+    });
+  }
+
+  /**
+   * Export and remove every month of orders older than the retention.
+   *
+   * @return the archived months, oldest first
+   */
+  @Scheduled(cron = "${order.archive.cron:0 30 2 * * *}")
+  public List<YearMonth> archiveExpired() {
+    YearMonth cutoff = YearMonth.now(clock).minusMonths(retentionMonths);
+    List<YearMonth> archived = new ArrayList<>();
+    for (YearMonth month : expiredMonths(cutoff)) {
+      long orders = archive(month);
+      archivedCounter.increment(orders);
+      archived.add(month);
+      logger.info("Archived {} orders of {} to {}", orders, month, directory.resolve(month
+          .toString()));
+    }
+    return archived;
+  }
+
+  private List<YearMonth> expiredMonths(YearMonth cutoff) {
+    List<YearMonth> months = new ArrayList<>();
+    if (isPartitioned()) {
+      List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+          + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+          + "WHERE p.relname = 'orders' ORDER BY c.relname", String.class);
+      for (String partition : partitions) {
+        YearMonth month = partitionMonth(partition);
+        if (month != null && month.isBefore(cutoff)) {
+          months.add(month);
+        }
+      }
+      return months;
+    }
+
+    // Jump from one populated month to the next so gaps in the history cost one query each
+    LocalDateTime from = LocalDateTime.MIN;
+    LocalDateTime to = cutoff.atDay(1).atStartOfDay();
+    LocalDateTime oldest;
+    while ((oldest = jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM orders "
+        + "WHERE order_date >= ? AND order_date < ?", LocalDateTime.class, from, to)) != null) {
+      YearMonth month = YearMonth.from(oldest);
+      months.add(month);
+      from = month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+    return months;
+  }
+
+  private long archive(YearMonth month) {
+    LocalDateTime from = month.atDay(1).atStartOfDay();
+    LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+    Path target = directory.resolve(month.toString());
+
+    final long orders = export(target.resolve("orders.csv.gz"), "SELECT o.id, o.user_id, "
+        + "o.original_subtotal, o.final_price, o.order_date FROM orders o WHERE "
+        + MONTH_RANGE + " ORDER BY o.id", from, to);
+    export(target.resolve("order_products.csv.gz"), "SELECT l.order_id, l.product_id "
+        + "FROM order_products l JOIN orders o ON o.id = l.order_id WHERE " + MONTH_RANGE
+        + " ORDER BY l.order_id, l.product_id", from, to);
+    export(target.resolve("order_applied_discounts.csv.gz"), "SELECT l.order_id, "
+        + "l.discount_id FROM order_applied_discounts l JOIN orders o ON o.id = l.order_id "
+        + "WHERE " + MONTH_RANGE + " ORDER BY l.order_id, l.discount_id", from, to);
+
+    Long afterId = 0L;
+    Long chunkEnd;
+    while ((chunkEnd = jdbcTemplate.queryForObject(CHUNK_END, Long.class, from, to, afterId,
+        chunkSize)) != null) {
+      deleteChunk(from, to, afterId, chunkEnd);
+      afterId = chunkEnd;
+    }
+    if (isPartitioned()) {
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partitionName(month));
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+      });
+    }
+    return orders;
+  }
+
+  /**
+   * Delete the link and read model rows of the orders of a month within an ID range in one
+   * transaction, along with the orders themselves unless their partition is dropped
+   * afterwards.
+   */
+  private void deleteChunk(LocalDateTime from, LocalDateTime to, Long afterId, Long lastId) {
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.update("DELETE FROM order_view WHERE order_id IN (" + ORDERS_OF_CHUNK + ")",
+          from, to, afterId, lastId);
+      jdbcTemplate.update("DELETE FROM order_products WHERE order_id IN (" + ORDERS_OF_CHUNK
+          + ")", from, to, afterId, lastId);
+      jdbcTemplate.update("DELETE FROM order_applied_discounts WHERE order_id IN ("
+          + ORDERS_OF_CHUNK + ")", from, to, afterId, lastId);
+      if (!isPartitioned()) {
+        jdbcTemplate.update("DELETE FROM orders o WHERE " + MONTH_RANGE
+            + " AND o.id > ? AND o.id <= ?", from, to, afterId, lastId);
+      }
+    });
+  }
+
+  /**
+   * Write the rows of a query to a gzip-compressed CSV file with a header line.
+   * The file is written next to its target and moved into place once complete; a file
+   * already in place is kept and its rows are counted instead.
+   */
+  private long export(Path file, String sql, Object... args) {
+    try {
+      if (Files.exists(file)) {
+        return countRows(file);
+      }
+      Files.createDirectories(file.getParent());
+      Path partial = file.resolveSibling(file.getFileName() + ".part");
+      Long rows;
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+          new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+        rows = transactionTemplate.execute(status -> exportTemplate.query(sql,
+            (ResultSetExtractor<Long>) resultSet -> {
+              try {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                writeLine(writer, metaData.getColumnCount(),
+                    column -> metaData.getColumnLabel(column).toLowerCase());
+                long count = 0;
+                while (resultSet.next()) {
+                  writeLine(writer, metaData.getColumnCount(), resultSet::getString);
+                  count++;
+                }
+                return count;
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            }, args));
+      }
+      Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      return rows != null ? rows : 0L;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to write order archive " + file, e);
+    }
+  }
+
+  private long countRows(Path file) throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+      return Math.max(reader.lines().count() - 1, 0);
+    }
+  }
+
+  private void writeLine(Writer writer, int columns, ColumnValue value)
+      throws IOException, SQLException {
+    for (int column = 1; column <= columns; column++) {
+      if (column > 1) {
+        writer.write(',');
+      }
+      String text = value.get(column);
+      writer.write(text != null ? text : "");
+    }
+    writer.write('\n');
+  }
+
+  private boolean isPartitioned() {
+    Boolean known = partitioned;
+    if (known == null) {
+      String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName());
+      known = "PostgreSQL".equals(product) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+          "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table t JOIN pg_class c "
+              + "ON c.oid = t.partrelid WHERE c.relname = 'orders')", Boolean.class));
+      partitioned = known;
+    }
+    return known;
+  }
+
+  /**
+   * Get the month of an orders partition.
+   *
+   * @param partition the partition table name
+   * @return the month, or null if the table is not a monthly orders partition
+   */
+  static YearMonth partitionMonth(String partition) {
+    Matcher matcher = PARTITION_NAME.matcher(partition);
+    if (!matcher.matches()) {
+      return null;
+    }
+    try {
+      return YearMonth.parse(matcher.group(1), PARTITION_SUFFIX);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static String partitionName(YearMonth month) {
+    return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+  }
+
+  @FunctionalInterface
+  private interface ColumnValue {
+
+    String get(int column) throws SQLException;
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.event.OrderCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory cache of placed orders keyed by order ID.
+ * Orders never change once committed, so entries are never invalidated; they are only
+ * evicted least recently used first when the cached line items exceed the maximum weight.
+ * Checkout fills the cache from the in-memory order as soon as it commits, so the reads
+ * that typically follow a purchase are served before the read model is even projected.
+ */
+@Component
+public class OrderCache {
+
+  private final long maxWeight;
+  private final LinkedHashMap<Long, OrderCreatedEvent> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private long weight;
+
+  /**
+   * Create the order cache.
+   *
+   * @param meterRegistry the registry receiving cache metrics
+   * @param maxWeight     the maximum number of line items held across all cached orders
+   */
+  public OrderCache(MeterRegistry meterRegistry,
+      @Value("${order.cache.max-weight:100000}") long maxWeight) {
+    this.maxWeight = maxWeight;
+    this.hitCounter = Counter.builder("order.cache.requests")
+        .description("Order lookups served by the cache")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("order.cache.requests")
+        .description("Order lookups served by the cache")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("order.cache.weight", this, OrderCache::weight)
+        .description("Line items held in the order cache")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Get a cached order.
+   *
+   * @param orderId the order ID
+   * @return the order, or null if it is not cached
+   */
+  public OrderCreatedEvent get(Long orderId) {
+    OrderCreatedEvent order;
+    synchronized (entries) {
+      order = entries.get(orderId);
+    }
+    if (order == null) {
+      missCounter.increment();
+    } else {
+      hitCounter.increment();
+    }
+    return order;
+  }
+
+  /**
+   * Cache an order, evicting the least recently used orders beyond the maximum weight.
+   * Orders heavier than the whole cache are not cached.
+   *
+   * @param order the order
+   */
+  public void put(OrderCreatedEvent order) {
+    long orderWeight = weigh(order);
+    if (order.orderId() == null || orderWeight > maxWeight) {
+      return;
+    }
+    synchronized (entries) {
+      OrderCreatedEvent previous = entries.put(order.orderId(), order);
+      weight += orderWeight - (previous == null ? 0 : weigh(previous));
+      Iterator<Map.Entry<Long, OrderCreatedEvent>> eldest = entries.entrySet().iterator();
+      while (weight > maxWeight) {
+        weight -= weigh(eldest.next().getValue());
+        eldest.remove();
+      }
+    }
+  }
+
+  /**
+   * Cache the order of a committed checkout.
+   *
+   * @param event the order created event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderCreated(OrderCreatedEvent event) {
+    put(event);
+  }
+
+  private double weight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  private static long weigh(OrderCreatedEvent order) {
+    return Math.max(1, order.lines().size());
+  }
+}
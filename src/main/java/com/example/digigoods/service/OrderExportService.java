@@ -0,0 +1,193 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.InvalidExportRangeException;
+import com.example.digigoods.model.OrderExportFormat;
+import com.example.digigoods.util.ColumnarWriter;
+import com.example.digigoods.util.ColumnarWriter.Column;
+import com.example.digigoods.util.ColumnarWriter.ColumnType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service streaming the orders of a date range to a file.
+ * Rows are read through a forward-only JDBC cursor in a read-only transaction and written
+ * as they arrive, so memory stays bounded by the fetch size (and the row group size of
+ * columnar files) whatever the length of the range. The user name is joined in the query
+ * rather than loaded per order.
+ */
+@Service
+public class OrderExportService {
+
+  static final String EXPORT_SQL = "SELECT o.id, o.user_id, u.username, o.original_subtotal, "
+      + "o.final_price, o.order_date FROM orders o JOIN users u ON u.id = o.user_id "
+      + "WHERE o.order_date >= ? AND o.order_date < ?";
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+  private static final List<Column> COLUMNS = List.of(
+      new Column("id", ColumnType.LONG),
+      new Column("user_id", ColumnType.LONG),
+      new Column("username", ColumnType.STRING),
+      new Column("original_subtotal_cents", ColumnType.LONG),
+      new Column("final_price_cents", ColumnType.LONG),
+      new Column("order_date_epoch_millis", ColumnType.LONG));
+  private static final String CSV_HEADER =
+      "id,user_id,username,original_subtotal,final_price,order_date\n";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final int rowGroupSize;
+  private final Counter rowCounter;
+  private final Timer exportTimer;
+
+  /**
+   * Create the order export service.
+   *
+   * @param jdbcTemplate       the JDBC template, whose data source the cursor is opened on
+   * @param transactionManager the transaction manager holding the cursor open
+   * @param clock              the time source of the export rate, whose zone the local
+   *                           order dates were written in
+   * @param meterRegistry      the registry receiving the export metrics
+   * @param fetchSize          the number of rows fetched per round trip
+   * @param rowGroupSize       the number of rows per columnar row group
+   */
+  public OrderExportService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, Clock clock,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.export.fetch-size:1000}") int fetchSize,
+                            @Value("${order.export.row-group-size:8192}") int rowGroupSize) {
+    if (fetchSize <= 0 || rowGroupSize <= 0) {
+      throw new IllegalArgumentException("Order export sizes must be positive");
+    }
+    this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.clock = clock;
+    this.rowGroupSize = rowGroupSize;
+    this.rowCounter = Counter.builder("order.export.rows")
+        .description("Orders written by exports")
+        .register(meterRegistry);
+    this.exportTimer = Timer.builder("order.export")
+        .description("Duration of order exports")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Check an export range before the response is committed.
+   *
+   * @param from the first day of the range
+   * @param to   the day after the range
+   * @throws InvalidExportRangeException if the range is empty or reversed
+   */
+  public void validateRange(LocalDate from, LocalDate to) {
+    if (!to.isAfter(from)) {
+      throw new InvalidExportRangeException(from, to);
+    }
+  }
+
+  /**
+   * Write the orders placed from the start of one day until the start of another.
+   * Orders are written in storage order. The stream is flushed but not closed.
+   *
+   * @param from   the first day of the range
+   * @param to     the day after the range
+   * @param format the file format
+   * @param out    the stream receiving the file
+   * @return the number of orders written
+   * @throws InvalidExportRangeException if the range is empty or reversed
+   */
+  public long export(LocalDate from, LocalDate to, OrderExportFormat format, OutputStream out) {
+    validateRange(from, to);
+    long startedAt = clock.millis();
+    Long rows = transactionTemplate.execute(status -> jdbcTemplate.query(EXPORT_SQL,
+        (ResultSetExtractor<Long>) resultSet -> {
+          try {
+            return format == OrderExportFormat.CSV
+                ? writeCsv(resultSet, out) : writeColumnar(resultSet, out);
+          } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write order export", e);
+          }
+        }, from.atStartOfDay(), to.atStartOfDay()));
+    long written = rows != null ? rows : 0L;
+
+    long elapsed = Math.max(1, clock.millis() - startedAt);
+    rowCounter.increment(written);
+    exportTimer.record(Duration.ofMillis(elapsed));
+    logger.info("Exported {} orders from {} to {} as {} at {} rows/s", written, from, to,
+        format, written * 1000 / elapsed);
+    return written;
+  }
+
+  private long writeCsv(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write(CSV_HEADER);
+    long rows = 0;
+    while (resultSet.next()) {
+      writer.write(resultSet.getString(1));
+      writer.write(',');
+      writer.write(resultSet.getString(2));
+      writer.write(',');
+      writer.write(quote(resultSet.getString(3)));
+      writer.write(',');
+      writer.write(resultSet.getBigDecimal(4).toPlainString());
+      writer.write(',');
+      writer.write(resultSet.getBigDecimal(5).toPlainString());
+      writer.write(',');
+      writer.write(resultSet.getObject(6, LocalDateTime.class).toString());
+      writer.write('\n');
+      rows++;
+    }
+    writer.flush();
+    return rows;
+  }
+
+  private long writeColumnar(ResultSet resultSet, OutputStream out)
+      throws SQLException, IOException {
+    long rows = 0;
+    try (ColumnarWriter writer = new ColumnarWriter(out, COLUMNS, rowGroupSize)) {
+      while (resultSet.next()) {
+        writer.setLong(0, resultSet.getLong(1));
+        writer.setLong(1, resultSet.getLong(2));
+        writer.setString(2, resultSet.getString(3));
+        writer.setLong(3, resultSet.getBigDecimal(4).movePointRight(2).longValueExact());
+        writer.setLong(4, resultSet.getBigDecimal(5).movePointRight(2).longValueExact());
+        writer.setLong(5, resultSet.getObject(6, LocalDateTime.class)
+            .atZone(clock.getZone()).toInstant().toEpochMilli());
+        writer.endRow();
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  private static String quote(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.OrderDetailResponse;
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.event.OrderCreatedEvent;
+import com.example.digigoods.exception.OrderNotFoundException;
+import com.example.digigoods.model.OrderView;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.OrderRepository.OrderItem;
+import com.example.digigoods.repository.OrderRepository.OrderSummary;
+import com.example.digigoods.repository.OrderViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for reading the orders of a user.
+ */
+@Service
+public class OrderService {
+
+  private static final TypeReference<List<OrderCreatedEvent.Line>> LINES =
+      new TypeReference<>() {};
+  private static final TypeReference<Map<String, BigDecimal>> DISCOUNT_AMOUNTS =
+      new TypeReference<>() {};
+
+  private final OrderRepository orderRepository;
+  private final OrderViewRepository orderViewRepository;
+  private final OrderCache orderCache;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Create the order service.
+   *
+   * @param orderRepository     the order repository
+   * @param orderViewRepository the order read model repository
+   * @param orderCache          the cache of placed orders
+   * @param objectMapper        the mapper reading the line items of the read model
+   */
+  public OrderService(OrderRepository orderRepository, OrderViewRepository orderViewRepository,
+                      OrderCache orderCache, ObjectMapper objectMapper) {
+    this.orderRepository = orderRepository;
+    this.orderViewRepository = orderViewRepository;
+    this.orderCache = orderCache;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Get the details of an order of a user.
+   * Orders are served from the order cache, which checkout fills as soon as an order
+   * commits, and otherwise from the order read model, a single row per order that never
+   * joins or locks the order tables. No transaction is opened, so a cache hit never touches
+   * the database. An order of another user is reported as not found, so order IDs cannot
+   * be probed, and is only cached once its owner has read it.
+   *
+   * @param orderId the order ID
+   * @param userId  the ID of the authenticated user
+   * @return the order details
+   * @throws OrderNotFoundException if the order is neither cached nor projected yet, or
+   *                                belongs to another user
+   */
+  public OrderDetailResponse getOrder(Long orderId, Long userId) {
+    OrderCreatedEvent order = orderCache.get(orderId);
+    boolean cached = order != null;
+    if (!cached) {
+      order = readOrderView(orderId);
+    }
+    if (!order.userId().equals(userId)) {
+      throw new OrderNotFoundException(orderId);
+    }
+    if (!cached) {
+      orderCache.put(order);
+    }
+
+    List<OrderDetailResponse.Line> lines = order.lines().stream()
+        .map(line -> new OrderDetailResponse.Line(line.productId(), line.productName(),
+            line.originalPrice(), line.price()))
+        .toList();
+    return new OrderDetailResponse(order.orderId(), order.userId(), order.orderDate(),
+        order.originalSubtotal(), order.finalPrice(), lines,
+        new LinkedHashMap<>(order.discountAmounts()));
+  }
+
+  private OrderCreatedEvent readOrderView(Long orderId) {
+    OrderView view = orderViewRepository.findById(orderId)
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
+    try {
+      return new OrderCreatedEvent(view.getOrderId(), view.getUserId(), view.getOrderDate(),
+          view.getOriginalSubtotal(), view.getFinalPrice(),
+          objectMapper.readValue(view.getLineItems(), LINES),
+          objectMapper.readValue(view.getDiscountAmounts(), DISCOUNT_AMOUNTS));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to read order view: " + orderId, e);
+    }
+  }
+
+  /**
+   * Get a page of the order history of a user, newest first.
+   * Pages are addressed by the keyset (order date, ID) of the last order of the previous
+   * page, so deep pages cost the same as the first one. The items of every order on the
+   * page are loaded with a single query.
+   *
+   * @param userId     the user ID
+   * @param beforeDate the order date of the last order of the previous page, or null
+   * @param beforeId   the ID of the last order of the previous page, or null
+   * @param pageSize   the maximum number of orders to return
+   * @return orders of the user, newest first
+   */
+  @Transactional(readOnly = true)
+  public List<OrderSummaryResponse> getOrderHistory(Long userId, LocalDateTime beforeDate,
+                                                    Long beforeId, int pageSize) {
+    PageRequest page = PageRequest.of(0, pageSize);
+    List<OrderSummary> orders = beforeDate == null || beforeId == null
+        ? orderRepository.findLatestByUserId(userId, page)
+        : orderRepository.findByUserIdBefore(userId, beforeDate, beforeId, page);
+    if (orders.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, List<OrderSummaryResponse.Item>> itemsByOrder = new HashMap<>();
+    List<Long> orderIds = orders.stream().map(OrderSummary::getId).toList();
+    for (OrderItem item : orderRepository.findItemsByOrderIds(orderIds)) {
+      itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>())
+          .add(new OrderSummaryResponse.Item(item.getProductId(), item.getProductName()));
+    }
+
+    return orders.stream()
+        .map(order -> new OrderSummaryResponse(order.getId(), order.getOrderDate(),
+            order.getOriginalSubtotal(), order.getFinalPrice(),
+            itemsByOrder.getOrDefault(order.getId(), List.of())))
+        .toList();
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.event.OrderCreatedEvent;
+import com.example.digigoods.model.OrderView;
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.OrderViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Outbox handler projecting order created events into the order read model.
+ * Projecting the same event twice rewrites the same row, so redelivery is harmless.
+ */
+@Service
+public class OrderViewProjector implements OutboxHandler {
+
+  private final OrderViewRepository orderViewRepository;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Create the order view projector.
+   *
+   * @param orderViewRepository the order read model repository
+   * @param objectMapper        the mapper reading event payloads and writing line items
+   */
+  public OrderViewProjector(OrderViewRepository orderViewRepository, ObjectMapper objectMapper) {
+    this.orderViewRepository = orderViewRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public String eventType() {
+    return OrderCreatedEvent.TYPE;
+  }
+
+  @Override
+  public void handle(OutboxEvent event) {
+    try {
+      OrderCreatedEvent order = objectMapper.readValue(event.getPayload(),
+          OrderCreatedEvent.class);
+      orderViewRepository.save(new OrderView(order.orderId(), order.userId(),
+          order.orderDate(), order.originalSubtotal(), order.finalPrice(), order.lines().size(),
+          objectMapper.writeValueAsString(order.lines()),
+          objectMapper.writeValueAsString(order.discountAmounts())));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to project outbox event: " + event.getId(), e);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.OutboxEvent;
+import java.util.List;
+
+/**
+ * Delivers the outbox events of one type on behalf of the {@link OutboxRelay}.
+ * Events are delivered at least once, in the transaction that removes them from the outbox,
+ * so handlers writing to the database commit together with the removal and handlers with
+ * external effects must tolerate redelivery. Several handlers may deliver the same type;
+ * they share the delivery transaction, so they all commit or all see the event again.
+ * The relay hands a handler all events of its type in a batch at once, so handlers
+ * updating shared rows can combine the updates of the batch.
+ */
+public interface OutboxHandler {
+
+  /**
+   * Get the type of the events delivered by this handler.
+   *
+   * @return the event type
+   */
+  String eventType();
+
+  /**
+   * Deliver one event.
+   *
+   * @param event the event
+   */
+  void handle(OutboxEvent event);
+
+  /**
+   * Deliver the events of one batch, in outbox order. Delivers them one by one unless the
+   * handler combines them.
+   *
+   * @param events the events
+   */
+  default void handleBatch(List<OutboxEvent> events) {
+    for (OutboxEvent event : events) {
+      handle(event);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relay delivering the events of the transactional outbox to their {@link OutboxHandler}s.
+ * Each poll claims batches of the oldest events with {@code FOR UPDATE SKIP LOCKED},
+ * hands the events of each type to the handlers of that type in one call and deletes them
+ * in the same transaction, so any number of nodes can drain the outbox in parallel and an
+ * event is only delivered again if its transaction rolled back. Events of a type are
+ * delivered in order within a node, but not across nodes or types.
+ * When a batch fails, its events are retried one transaction each so a single bad event
+ * does not hold back the others; an event failing {@code maxAttempts} times is given up
+ * and left in the outbox for inspection.
+ */
+@Service
+public class OutboxRelay {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<String, List<OutboxHandler>> handlers = new HashMap<>();
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Counter deliveredCounter;
+  private final Counter failedCounter;
+  private final AtomicLong oldestPendingSeconds = new AtomicLong();
+  private final AtomicLong givenUp = new AtomicLong();
+
+  /**
+   * Create the outbox relay.
+   *
+   * @param outboxEventRepository the outbox event repository
+   * @param transactionTemplate   the template running each delivery transaction
+   * @param handlers              the handlers, any number per event type
+   * @param clock                 the time source of the lag metrics
+   * @param meterRegistry         the registry receiving the relay metrics
+   * @param batchSize             the number of events claimed per transaction
+   * @param maxAttempts           the number of failed deliveries after which an event is
+   *                              given up
+   */
+  public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                     TransactionTemplate transactionTemplate, List<OutboxHandler> handlers,
+                     Clock clock, MeterRegistry meterRegistry,
+                     @Value("${outbox.relay.batch-size:100}") int batchSize,
+                     @Value("${outbox.relay.max-attempts:5}") int maxAttempts) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.clock = clock;
+    this.meterRegistry = meterRegistry;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    for (OutboxHandler handler : handlers) {
+      this.handlers.computeIfAbsent(handler.eventType(), type -> new ArrayList<>())
+          .add(handler);
+    }
+    this.deliveredCounter = Counter.builder("outbox.delivered")
+        .description("Outbox events delivered")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("outbox.failures")
+        .description("Failed outbox event deliveries")
+        .register(meterRegistry);
+    Gauge.builder("outbox.lag", oldestPendingSeconds, AtomicLong::get)
+        .description("Age in seconds of the oldest outbox event waiting for delivery")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder("outbox.given-up", givenUp, AtomicLong::get)
+        .description("Outbox events given up after too many failed deliveries")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Deliver the pending events, one batch per transaction, until a batch comes back short
+   * or fails, then refresh the lag metrics.
+   *
+   * @return the number of events delivered
+   */
+  @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:PT1S}")
+  public int relay() {
+    int delivered = 0;
+    List<OutboxEvent> batch;
+    do {
+      try {
+        batch = transactionTemplate.execute(status -> deliverBatch());
+        recordDelivered(batch);
+        delivered += batch.size();
+      } catch (RuntimeException e) {
+        logger.warn("Outbox batch failed, retrying its events one by one: {}", e.getMessage());
+        delivered += deliverOneByOne();
+        batch = List.of();
+      }
+    } while (batch.size() == batchSize);
+    refreshLag();
+    return delivered;
+  }
+
+  private List<OutboxEvent> deliverBatch() {
+    List<OutboxEvent> events = outboxEventRepository.claimBatch(maxAttempts, batchSize);
+    Map<String, List<OutboxEvent>> eventsByType = new LinkedHashMap<>();
+    for (OutboxEvent event : events) {
+      eventsByType.computeIfAbsent(event.getEventType(), type -> new ArrayList<>()).add(event);
+    }
+    eventsByType.forEach(this::deliver);
+    outboxEventRepository.deleteAllInBatch(events);
+    return events;
+  }
+
+  private int deliverOneByOne() {
+    // The failed batch released its locks, so each event is claimed again on its own
+    List<OutboxEvent> pending = transactionTemplate.execute(status ->
+        outboxEventRepository.claimBatch(maxAttempts, batchSize));
+    int delivered = 0;
+    for (OutboxEvent pendingEvent : pending) {
+      try {
+        List<OutboxEvent> done = transactionTemplate.execute(status ->
+            outboxEventRepository.claimById(pendingEvent.getId())
+                .map(event -> {
+                  deliver(event.getEventType(), List.of(event));
+                  outboxEventRepository.delete(event);
+                  return List.of(event);
+                })
+                .orElse(List.of()));
+        recordDelivered(done);
+        delivered += done.size();
+      } catch (RuntimeException e) {
+        failedCounter.increment();
+        outboxEventRepository.incrementAttempts(pendingEvent.getId());
+        if (pendingEvent.getAttempts() + 1 >= maxAttempts) {
+          logger.error("Giving up outbox event {} of type {} after {} attempts: {}",
+              pendingEvent.getId(), pendingEvent.getEventType(), maxAttempts, e.getMessage());
+        } else {
+          logger.warn("Failed to deliver outbox event {}: {}", pendingEvent.getId(),
+              e.getMessage());
+        }
+      }
+    }
+    return delivered;
+  }
+
+  private void deliver(String eventType, List<OutboxEvent> events) {
+    List<OutboxHandler> typeHandlers = handlers.get(eventType);
+    if (typeHandlers == null) {
+      throw new IllegalStateException("No outbox handler for event type: " + eventType);
+    }
+    for (OutboxHandler handler : typeHandlers) {
+      handler.handleBatch(events);
+    }
+  }
+
+  private void recordDelivered(List<OutboxEvent> events) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    for (OutboxEvent event : events) {
+      deliveredCounter.increment();
+      Timer.builder("outbox.delivery.lag")
+          .description("Time from writing an outbox event to delivering it")
+          .tag("type", event.getEventType())
+          .register(meterRegistry)
+          .record(Duration.between(event.getCreatedAt(), now));
+    }
+  }
+
+  private void refreshLag() {
+    LocalDateTime now = LocalDateTime.now(clock);
+    oldestPendingSeconds.set(outboxEventRepository.findFirstByAttemptsLessThanOrderById(
+            maxAttempts)
+        .map(event -> Math.max(0, Duration.between(event.getCreatedAt(), now).toSeconds()))
+        .orElse(0L));
+    givenUp.set(outboxEventRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+  }
+}
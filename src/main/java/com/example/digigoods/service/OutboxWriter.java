@@ -0,0 +1,58 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service appending events to the transactional outbox.
+ * Events are written in the transaction of the change they describe, so they are stored if
+ * and only if that change commits, and a relay delivers them afterwards.
+ */
+@Service
+public class OutboxWriter {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+
+  /**
+   * Create the outbox writer.
+   *
+   * @param outboxEventRepository the outbox event repository
+   * @param objectMapper          the mapper serializing event payloads to JSON
+   * @param clock                 the time source of the event timestamps
+   */
+  public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                      Clock clock) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+  }
+
+  /**
+   * Append an event to the outbox within the current transaction.
+   *
+   * @param eventType   the event type, selecting how the relay delivers it
+   * @param aggregateId the ID of the entity the event is about
+   * @param payload     the event, serialized to JSON
+   * @return the stored outbox event
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public OutboxEvent append(String eventType, Long aggregateId, Object payload) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize outbox event: " + eventType, e);
+    }
+    return outboxEventRepository.save(new OutboxEvent(null, eventType, aggregateId, json,
+        LocalDateTime.now(clock), 0));
+  }
+}
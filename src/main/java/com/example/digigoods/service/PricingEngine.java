@@ -0,0 +1,104 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.DiscountRule;
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.PricingCart;
+import com.example.digigoods.model.PricingResult;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engine pricing a cart against the compiled rules of its discounts.
+ * Stacking and minimum cart value restrictions are checked first; line rules then run in
+ * code order, the lines are settled, and order rules compound on the discounted subtotal.
+ */
+@Component
+public class PricingEngine {
+
+  private final BigDecimal maxDiscountPercentage;
+
+  /**
+   * Create the pricing engine.
+   *
+   * @param maxDiscountPercentage the largest share of the original subtotal discounts may take
+   */
+  public PricingEngine(
+      @Value("${checkout.max-discount-percentage:75.00}") BigDecimal maxDiscountPercentage) {
+    this.maxDiscountPercentage = maxDiscountPercentage;
+  }
+
+  /**
+   * Price a cart.
+   *
+   * @param productIds the ordered product IDs, repeated once per item
+   * @param products   the ordered products
+   * @param discounts  the discounts to apply, in code order
+   * @return the pricing result
+   * @throws InvalidDiscountException if a discount cannot be used with this cart
+   */
+  public PricingResult price(List<Long> productIds, List<Product> products,
+                             List<DiscountSnapshot> discounts) {
+    Map<Long, Product> productMap = products.stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+    PricingCart cart = new PricingCart(productIds, productMap, discounts.size());
+
+    for (DiscountSnapshot discount : discounts) {
+      DiscountRule rule = discount.rule();
+      if (!rule.stackable() && discounts.size() > 1) {
+        throw new InvalidDiscountException(discount.code(),
+            "discount cannot be combined with other discounts");
+      }
+      BigDecimal minCartValue = rule.minCartValue();
+      if (minCartValue != null && cart.originalSubtotal().compareTo(minCartValue) < 0) {
+        throw new InvalidDiscountException(discount.code(),
+            "cart total is below the minimum of " + minCartValue);
+      }
+    }
+
+    applyPhase(cart, discounts, DiscountRule.Phase.LINE);
+    cart.settleLines();
+    applyPhase(cart, discounts, DiscountRule.Phase.ORDER);
+    return cart.toResult(discounts);
+  }
+
+  /**
+   * Get the largest share of the original subtotal discounts may take.
+   *
+   * @return the maximum discount percentage
+   */
+  public BigDecimal getMaxDiscountPercentage() {
+    return maxDiscountPercentage;
+  }
+
+  /**
+   * Check that a pricing result stays within the maximum discount.
+   *
+   * @param result the pricing result
+   * @throws ExcessiveDiscountException if the discounts take off too much
+   */
+  public void validateMaximumDiscount(PricingResult result) {
+    if (result.discountPercentage().compareTo(maxDiscountPercentage) > 0) {
+      throw new ExcessiveDiscountException("Total discount exceeds the maximum allowed "
+          + maxDiscountPercentage.stripTrailingZeros().toPlainString()
+          + "% of the original subtotal");
+    }
+  }
+
+  private void applyPhase(PricingCart cart, List<DiscountSnapshot> discounts,
+                          DiscountRule.Phase phase) {
+    for (int i = 0; i < discounts.size(); i++) {
+      DiscountRule rule = discounts.get(i).rule();
+      if (rule.phase() == phase) {
+        rule.apply(cart, i);
+      }
+    }
+  }
+}
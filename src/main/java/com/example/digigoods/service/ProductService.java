@@ -1,5 +1,6 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.event.ProductRestockedEvent;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
@@ -8,7 +9,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for product operations.
@@ -17,9 +20,12 @@ import org.springframework.stereotype.Service;
 public class ProductService {
 
   private final ProductRepository productRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public ProductService(ProductRepository productRepository) {
+  public ProductService(ProductRepository productRepository,
+                        ApplicationEventPublisher eventPublisher) {
     this.productRepository = productRepository;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -91,4 +97,32 @@ public class ProductService {
       productRepository.save(product);
     }
   }
+
+  /**
+   * Add stock to a product.
+   * The stock is incremented in the database rather than overwritten, so concurrent
+   * restocks and checkouts are not lost. When the product was out of stock, a
+   * {@link ProductRestockedEvent} is published so subscribers can be alerted once the
+   * restock has been committed.
+   *
+   * @param productId the product ID
+   * @param quantity  the quantity to add
+   * @return the updated product
+   * @throws ProductNotFoundException if the product is not found
+   */
+  @Transactional
+  public Product restock(Long productId, int quantity) {
+    if (productRepository.addStock(productId, quantity) == 0) {
+      throw new ProductNotFoundException(productId);
+    }
+    Product product = productRepository.findById(productId)
+        .orElseThrow(() -> new ProductNotFoundException(productId));
+
+    // The increment keeps the row locked, so no other stock change lies between the two
+    int previousStock = product.getStock() - quantity;
+    if (previousStock == 0 && product.getStock() > 0) {
+      eventPublisher.publishEvent(new ProductRestockedEvent(product.getId(), product.getName()));
+    }
+    return product;
+  }
 }
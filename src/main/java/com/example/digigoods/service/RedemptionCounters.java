@@ -0,0 +1,265 @@
+package com.example.digigoods.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lock-free redemption counters for discounts flagged as sharded.
+ * Instead of decrementing the discount row once per checkout, this node leases a block of
+ * uses from the row with one committed conditional update and spreads it over striped
+ * counters that checkouts decrement without locks. A dry stripe takes from its siblings
+ * before a new block is leased. Leased uses are already subtracted from the row, so all
+ * nodes together can never redeem more than the configured total; uses still held when a
+ * discount goes idle, or when the node stops, are given back to the row. Blocks are leased
+ * through the {@link RedemptionLeaseStore}, whose connections never come from the pool
+ * the redeeming checkout already holds one of.
+ */
+@Component
+public class RedemptionCounters {
+
+  private static final Logger logger = LoggerFactory.getLogger(RedemptionCounters.class);
+
+  /**
+   * Spacing between stripes in longs, keeping every stripe on its own cache line.
+   */
+  private static final int STRIPE_SPACING = 16;
+  private static final int LEASE_ATTEMPTS = 3;
+
+  private final RedemptionLeaseStore leaseStore;
+  private final Clock clock;
+  private final int stripeCount;
+  private final int leaseSize;
+  private final long idleTimeoutMillis;
+  private final Map<Long, Allotment> allotments = new ConcurrentHashMap<>();
+  private final Counter leasesCounter;
+
+  /**
+   * Create the redemption counters.
+   *
+   * @param leaseStore         the store leasing uses from the discount rows
+   * @param clock              the time source deciding idleness
+   * @param meterRegistry      the registry receiving redemption metrics
+   * @param stripes            the number of stripes per discount; 0 uses one per processor
+   * @param leaseSize          the number of uses leased from the database at once
+   * @param idleTimeout        how long a discount may go unredeemed before its uses return
+   */
+  public RedemptionCounters(RedemptionLeaseStore leaseStore, Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${discount.redemption.stripes:0}") int stripes,
+      @Value("${discount.redemption.lease-size:256}") int leaseSize,
+      @Value("${discount.redemption.idle-timeout:PT1M}") Duration idleTimeout) {
+    if (leaseSize <= 0) {
+      throw new IllegalArgumentException("Redemption lease size must be positive");
+    }
+    this.leaseStore = leaseStore;
+    this.clock = clock;
+    this.stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    this.leaseSize = leaseSize;
+    this.idleTimeoutMillis = idleTimeout.toMillis();
+    this.leasesCounter = Counter.builder("discount.redemption.leases")
+        .description("Blocks of discount uses leased from the database")
+        .register(meterRegistry);
+    Gauge.builder("discount.redemption.held", this, RedemptionCounters::getHeldUses)
+        .description("Leased discount uses held in memory and not yet redeemed")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Redeem one use of a sharded discount.
+   * When called inside a transaction, the use is handed back if the transaction rolls back.
+   *
+   * @param discountId the discount ID
+   * @return true if a use was redeemed, false if the discount has no uses left
+   */
+  public boolean redeem(Long discountId) {
+    int firstStripe = (int) (Thread.currentThread().threadId() % stripeCount);
+    while (true) {
+      Allotment allotment = allotments.computeIfAbsent(discountId, id -> new Allotment());
+      allotment.lastUsedAt = clock.millis();
+      if (allotment.tryTake(firstStripe)) {
+        compensateOnRollback(discountId);
+        return true;
+      }
+      synchronized (allotment) {
+        if (allotment.retired) {
+          continue;
+        }
+        if (allotment.tryTake(firstStripe)) {
+          compensateOnRollback(discountId);
+          return true;
+        }
+        int leased = lease(discountId);
+        if (leased == 0) {
+          return false;
+        }
+        allotment.fill(leased - 1);
+      }
+      compensateOnRollback(discountId);
+      return true;
+    }
+  }
+
+  /**
+   * Hand redeemed uses back, for example when the redeeming checkout failed.
+   *
+   * @param discountId the discount ID
+   * @param uses       the number of uses to hand back
+   */
+  public void release(Long discountId, int uses) {
+    Allotment allotment = allotments.get(discountId);
+    if (allotment != null) {
+      synchronized (allotment) {
+        if (!allotment.retired) {
+          allotment.fill(uses);
+          return;
+        }
+      }
+    }
+    leaseStore.returnUses(discountId, uses);
+  }
+
+  /**
+   * Give the held uses of every discount that has gone idle back to the database.
+   */
+  @Scheduled(fixedDelayString = "${discount.redemption.write-back-interval:PT30S}")
+  public void writeBackIdle() {
+    long idleSince = clock.millis() - idleTimeoutMillis;
+    allotments.forEach((discountId, allotment) -> {
+      if (allotment.lastUsedAt <= idleSince) {
+        retire(discountId, allotment);
+      }
+    });
+  }
+
+  /**
+   * Give the held uses of every discount back to the database.
+   */
+  @PreDestroy
+  public void writeBackAll() {
+    allotments.forEach(this::retire);
+  }
+
+  /**
+   * Get the number of leased uses held in memory across all discounts.
+   *
+   * @return the number of held uses
+   */
+  public long getHeldUses() {
+    long held = 0;
+    for (Allotment allotment : allotments.values()) {
+      held += allotment.held();
+    }
+    return held;
+  }
+
+  private void retire(Long discountId, Allotment allotment) {
+    long held;
+    synchronized (allotment) {
+      allotment.retired = true;
+      allotments.remove(discountId, allotment);
+      held = allotment.drain();
+    }
+    if (held > 0) {
+      try {
+        leaseStore.returnUses(discountId, (int) held);
+      } catch (RuntimeException e) {
+        logger.warn("Failed to return {} uses of discount {}: {}", held, discountId,
+            e.getMessage());
+      }
+    }
+  }
+
+  private int lease(Long discountId) {
+    for (int attempt = 0; attempt < LEASE_ATTEMPTS; attempt++) {
+      if (leaseStore.takeUses(discountId, leaseSize) == 1) {
+        leasesCounter.increment();
+        return leaseSize;
+      }
+      Integer remaining = leaseStore.findRemainingUses(discountId);
+      if (remaining == null || remaining <= 0) {
+        return 0;
+      }
+      int uses = Math.min(remaining, leaseSize);
+      if (leaseStore.takeUses(discountId, uses) == 1) {
+        leasesCounter.increment();
+        return uses;
+      }
+    }
+    return 0;
+  }
+
+  private void compensateOnRollback(Long discountId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_ROLLED_BACK) {
+            release(discountId, 1);
+          }
+        }
+      });
+    }
+  }
+
+  private final class Allotment {
+
+    private final AtomicLongArray stripes = new AtomicLongArray(stripeCount * STRIPE_SPACING);
+    private volatile long lastUsedAt;
+    private boolean retired;
+
+    private boolean tryTake(int firstStripe) {
+      for (int i = 0; i < stripeCount; i++) {
+        int index = ((firstStripe + i) % stripeCount) * STRIPE_SPACING;
+        long available = stripes.get(index);
+        while (available > 0) {
+          if (stripes.compareAndSet(index, available, available - 1)) {
+            return true;
+          }
+          available = stripes.get(index);
+        }
+      }
+      return false;
+    }
+
+    private void fill(long uses) {
+      long share = uses / stripeCount;
+      long rest = uses % stripeCount;
+      for (int i = 0; i < stripeCount; i++) {
+        long amount = share + (i < rest ? 1 : 0);
+        if (amount > 0) {
+          stripes.addAndGet(i * STRIPE_SPACING, amount);
+        }
+      }
+    }
+
+    private long drain() {
+      long drained = 0;
+      for (int i = 0; i < stripeCount; i++) {
+        drained += stripes.getAndSet(i * STRIPE_SPACING, 0);
+      }
+      return drained;
+    }
+
+    private long held() {
+      long held = 0;
+      for (int i = 0; i < stripeCount; i++) {
+        held += stripes.get(i * STRIPE_SPACING);
+      }
+      return held;
+    }
+  }
+}
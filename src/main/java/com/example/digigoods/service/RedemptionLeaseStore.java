@@ -0,0 +1,89 @@
+package com.example.digigoods.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store leasing the uses of sharded discounts from their rows over a small connection pool
+ * of its own. Leases are taken while a checkout transaction holds a connection from the
+ * main pool; drawing the lease connection from that same pool could leave every checkout
+ * waiting for a connection only another checkout can give back. Each statement commits on
+ * its own, so taken uses stay taken whatever happens to the checkout.
+ */
+@Component
+public class RedemptionLeaseStore {
+
+  static final String TAKE_USES_SQL = "UPDATE discounts SET remaining_uses = remaining_uses - ? "
+      + "WHERE id = ? AND remaining_uses >= ?";
+  static final String RETURN_USES_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses + ? WHERE id = ?";
+  static final String REMAINING_USES_SQL = "SELECT remaining_uses FROM discounts WHERE id = ?";
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Create the lease store.
+   *
+   * @param dataSourceProperties the connection settings of the main data source
+   * @param poolSize             the number of connections dedicated to leasing
+   */
+  public RedemptionLeaseStore(DataSourceProperties dataSourceProperties,
+                              @Value("${discount.redemption.lease-pool-size:2}") int poolSize) {
+    if (poolSize <= 0) {
+      throw new IllegalArgumentException("Redemption lease pool size must be positive");
+    }
+    this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    this.dataSource.setPoolName("redemption-leases");
+    this.dataSource.setMaximumPoolSize(poolSize);
+    this.dataSource.setMinimumIdle(0);
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  /**
+   * Take several uses of a discount at once if that many are left.
+   *
+   * @param discountId the discount ID
+   * @param uses       the number of uses to take
+   * @return 1 if the uses were taken, 0 if fewer are left
+   */
+  public int takeUses(Long discountId, int uses) {
+    return jdbcTemplate.update(TAKE_USES_SQL, uses, discountId, uses);
+  }
+
+  /**
+   * Give previously taken uses of a discount back.
+   *
+   * @param discountId the discount ID
+   * @param uses       the number of uses to give back
+   * @return 1 if the discount exists, 0 otherwise
+   */
+  public int returnUses(Long discountId, int uses) {
+    return jdbcTemplate.update(RETURN_USES_SQL, uses, discountId);
+  }
+
+  /**
+   * Find the remaining uses of a discount.
+   *
+   * @param discountId the discount ID
+   * @return the remaining uses, or null if the discount does not exist
+   */
+  public Integer findRemainingUses(Long discountId) {
+    return jdbcTemplate.query(REMAINING_USES_SQL,
+        rs -> rs.next() ? rs.getInt(1) : null, discountId);
+  }
+
+  /**
+   * Close the lease connections.
+   */
+  @PreDestroy
+  public void close() {
+    dataSource.close();
+  }
+}
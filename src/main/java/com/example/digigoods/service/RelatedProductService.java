@@ -0,0 +1,266 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.RelatedProductResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.util.CooccurrenceIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service recommending products frequently bought together.
+ * Every committed checkout adds its basket to an in-memory {@link CooccurrenceIndex}, so
+ * lookups never read the order tables. The index is rebuilt from {@code order_products}
+ * on startup and nightly by a fork-join job, which also bounds the drift of counts lost on
+ * restarts. Checkouts committed while a rebuild runs are replayed onto the rebuilt index
+ * when their order lies past the rebuild cutoff; an order still uncommitted when the cutoff
+ * is read may be missed until the next rebuild.
+ */
+@Service
+public class RelatedProductService {
+
+  static final String ORDER_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM orders";
+  static final String BASKETS_SQL = "SELECT order_id, product_id FROM order_products "
+      + "WHERE order_id BETWEEN ? AND ? ORDER BY order_id";
+
+  private static final Logger logger = LoggerFactory.getLogger(RelatedProductService.class);
+
+  private final ProductRepository productRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final int topN;
+  private final int maxBasketSize;
+  private final int parallelism;
+  private final long chunkSize;
+  private final Timer rebuildTimer;
+  private final Object lock = new Object();
+  private CooccurrenceIndex index;
+  private List<CheckoutCompletedEvent> pendingDuringRebuild;
+
+  /**
+   * Create the related product service.
+   *
+   * @param productRepository the product repository
+   * @param jdbcTemplate      the JDBC template reading the order baskets
+   * @param meterRegistry     the registry receiving the index metrics
+   * @param topN              the number of related products kept per product
+   * @param maxBasketSize     the largest order counted, bigger ones being bulk purchases
+   * @param parallelism       the number of threads of the rebuild
+   * @param chunkSize         the number of order IDs read by one rebuild task
+   */
+  public RelatedProductService(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.related.top-n:20}") int topN,
+                               @Value("${product.related.max-basket-size:50}") int maxBasketSize,
+                               @Value("${product.related.rebuild-parallelism:4}") int parallelism,
+                               @Value("${product.related.rebuild-chunk-size:10000}")
+                               long chunkSize) {
+    this.productRepository = productRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.topN = topN;
+    this.maxBasketSize = maxBasketSize;
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+    this.index = new CooccurrenceIndex(topN);
+    this.rebuildTimer = Timer.builder("product.related.rebuild")
+        .description("Time taken to rebuild the co-occurrence index")
+        .register(meterRegistry);
+    Gauge.builder("product.related.products", this, RelatedProductService::indexedProducts)
+        .description("Products with related products")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Add the basket of a committed checkout to the co-occurrence index.
+   *
+   * @param event the checkout completed event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCheckoutCompleted(CheckoutCompletedEvent event) {
+    long[] basket = basketOf(event);
+    if (basket == null) {
+      return;
+    }
+    synchronized (lock) {
+      index.addBasket(basket);
+      if (pendingDuringRebuild != null) {
+        pendingDuringRebuild.add(event);
+      }
+    }
+  }
+
+  /**
+   * Get the products most often bought together with a product.
+   *
+   * @param productId the product ID
+   * @param limit     the maximum number of products
+   * @return the related products, most frequent first
+   */
+  public List<RelatedProductResponse> getRelated(Long productId, int limit) {
+    List<CooccurrenceIndex.Related> related;
+    synchronized (lock) {
+      related = index.related(productId, Math.min(limit, topN));
+    }
+    if (related.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Product> products = productRepository
+        .findAllById(related.stream().map(CooccurrenceIndex.Related::productId).toList())
+        .stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+    List<RelatedProductResponse> response = new ArrayList<>(related.size());
+    for (CooccurrenceIndex.Related entry : related) {
+      Product product = products.get(entry.productId());
+      if (product != null) {
+        response.add(new RelatedProductResponse(product.getId(), product.getName(),
+            product.getPrice(), entry.count()));
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Build the index from the stored orders once the application has started.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildOnStartup() {
+    rebuild();
+  }
+
+  /**
+   * Rebuild the index from every stored order, splitting the order ID range across a
+   * fork-join pool and merging the partial indexes. Does nothing if a rebuild is running.
+   */
+  @Scheduled(cron = "${product.related.rebuild-cron:0 0 3 * * *}")
+  public void rebuild() {
+    synchronized (lock) {
+      if (pendingDuringRebuild != null) {
+        logger.info("Related products rebuild already running");
+        return;
+      }
+      pendingDuringRebuild = new ArrayList<>();
+    }
+    try {
+      long started = System.currentTimeMillis();
+      // Both bounds read as zero when there are no orders
+      long[] range = jdbcTemplate.queryForObject(ORDER_RANGE_SQL,
+          (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)});
+      final long cutoff = range[1];
+      CooccurrenceIndex rebuilt = cutoff == 0L
+          ? new CooccurrenceIndex(topN)
+          : build(range[0], cutoff);
+
+      int replayed = 0;
+      synchronized (lock) {
+        for (CheckoutCompletedEvent event : pendingDuringRebuild) {
+          // Orders up to the cutoff were read by the rebuild
+          if (event.orderId() != null && event.orderId() > cutoff) {
+            rebuilt.addBasket(basketOf(event));
+            replayed++;
+          }
+        }
+        index = rebuilt;
+      }
+      long elapsed = System.currentTimeMillis() - started;
+      rebuildTimer.record(Duration.ofMillis(elapsed));
+      logger.info("Rebuilt related products of {} products up to order {} in {} ms, "
+          + "replayed {} checkouts", rebuilt.size(), cutoff, elapsed, replayed);
+    } finally {
+      synchronized (lock) {
+        pendingDuringRebuild = null;
+      }
+    }
+  }
+
+  private CooccurrenceIndex build(long fromOrderId, long toOrderId) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.invoke(new BuildTask(fromOrderId, toOrderId));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private long[] basketOf(CheckoutCompletedEvent event) {
+    long[] basket = event.productIds().stream().mapToLong(Long::longValue).distinct().toArray();
+    return basket.length < 2 || basket.length > maxBasketSize ? null : basket;
+  }
+
+  private double indexedProducts() {
+    synchronized (lock) {
+      return index.size();
+    }
+  }
+
+  /**
+   * Task counting the baskets of an order ID range, split in halves above the chunk size.
+   */
+  private final class BuildTask extends RecursiveTask<CooccurrenceIndex> {
+
+    private final long fromOrderId;
+    private final long toOrderId;
+
+    private BuildTask(long fromOrderId, long toOrderId) {
+      this.fromOrderId = fromOrderId;
+      this.toOrderId = toOrderId;
+    }
+
+    @Override
+    protected CooccurrenceIndex compute() {
+      if (toOrderId - fromOrderId < chunkSize) {
+        return scan();
+      }
+      long middle = fromOrderId + (toOrderId - fromOrderId) / 2;
+      BuildTask upper = new BuildTask(middle + 1, toOrderId);
+      upper.fork();
+      CooccurrenceIndex lower = new BuildTask(fromOrderId, middle).compute();
+      lower.merge(upper.join());
+      return lower;
+    }
+
+    private CooccurrenceIndex scan() {
+      CooccurrenceIndex partial = new CooccurrenceIndex(topN);
+      List<Long> basket = new ArrayList<>();
+      long[] currentOrder = {-1L};
+      jdbcTemplate.query(BASKETS_SQL, rs -> {
+        long orderId = rs.getLong(1);
+        if (orderId != currentOrder[0]) {
+          addBasket(partial, basket);
+          currentOrder[0] = orderId;
+        }
+        basket.add(rs.getLong(2));
+      }, fromOrderId, toOrderId);
+      addBasket(partial, basket);
+      return partial;
+    }
+
+    private void addBasket(CooccurrenceIndex partial, List<Long> basket) {
+      if (basket.size() >= 2 && basket.size() <= maxBasketSize) {
+        partial.addBasket(basket.stream().mapToLong(Long::longValue).toArray());
+      }
+      basket.clear();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.RevenueResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.exception.InvalidRevenueRangeException;
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.model.RevenuePeriod;
+import com.example.digigoods.model.RevenueRollup;
+import com.example.digigoods.repository.RevenueRollupRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the hourly and daily revenue rollups and reading reports from them.
+ * As the outbox handler of checkout completed events, it adds each checkout to the rows of
+ * the hour and day it was placed in. The checkouts of a relay batch are summed per row
+ * first and each row is then upserted once, in period and start order, so concurrent
+ * batches on several nodes lock the rows they share in the same order and cannot
+ * deadlock. The rows are written in the relay transaction that removes the events from
+ * the outbox, so no checkout is lost or counted twice when a node stops. A report reads
+ * one row per hour or day of its range and never aggregates the orders table.
+ */
+@Service
+public class RevenueService implements OutboxHandler {
+
+  /**
+   * Maximum number of days an hourly report may cover.
+   */
+  public static final int MAX_HOURLY_DAYS = 31;
+
+  /**
+   * Maximum number of days a daily report may cover.
+   */
+  public static final int MAX_DAILY_DAYS = 3660;
+
+  static final String UPSERT_REVENUE_SQL = "INSERT INTO revenue_rollups (period, "
+      + "period_start, orders, gross_amount, net_amount, discount_amount) "
+      + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (period, period_start) DO UPDATE SET "
+      + "orders = revenue_rollups.orders + EXCLUDED.orders, "
+      + "gross_amount = revenue_rollups.gross_amount + EXCLUDED.gross_amount, "
+      + "net_amount = revenue_rollups.net_amount + EXCLUDED.net_amount, "
+      + "discount_amount = revenue_rollups.discount_amount + EXCLUDED.discount_amount";
+  static final String MERGE_REVENUE_SQL = "MERGE INTO revenue_rollups r USING (VALUES "
+      + "(CAST(? AS VARCHAR(8)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), "
+      + "CAST(? AS NUMERIC(16, 2)), CAST(? AS NUMERIC(16, 2)), CAST(? AS NUMERIC(16, 2)))) "
+      + "AS s (period, period_start, orders, gross_amount, net_amount, discount_amount) "
+      + "ON r.period = s.period AND r.period_start = s.period_start "
+      + "WHEN MATCHED THEN UPDATE SET orders = r.orders + s.orders, "
+      + "gross_amount = r.gross_amount + s.gross_amount, "
+      + "net_amount = r.net_amount + s.net_amount, "
+      + "discount_amount = r.discount_amount + s.discount_amount "
+      + "WHEN NOT MATCHED THEN INSERT (period, period_start, orders, gross_amount, net_amount, "
+      + "discount_amount) VALUES (s.period, s.period_start, s.orders, s.gross_amount, "
+      + "s.net_amount, s.discount_amount)";
+
+  private static final Comparator<RollupKey> KEY_ORDER =
+      Comparator.comparing(RollupKey::period).thenComparing(RollupKey::start);
+
+  private final RevenueRollupRepository rollupRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private volatile String upsertSql;
+
+  /**
+   * Create the revenue service.
+   *
+   * @param rollupRepository the revenue rollup repository
+   * @param jdbcTemplate     the JDBC template adding checkouts to the rollup rows
+   * @param objectMapper     the mapper reading event payloads
+   */
+  public RevenueService(RevenueRollupRepository rollupRepository, JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper) {
+    this.rollupRepository = rollupRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public String eventType() {
+    return CheckoutCompletedEvent.TYPE;
+  }
+
+  /**
+   * Add a committed checkout to the hour and day it was placed in.
+   *
+   * @param event the outbox event of the checkout
+   */
+  @Override
+  public void handle(OutboxEvent event) {
+    handleBatch(List.of(event));
+  }
+
+  /**
+   * Add the committed checkouts of a batch to the hours and days they were placed in, with
+   * one upsert per row. On PostgreSQL the upsert is an {@code INSERT ... ON CONFLICT}, which
+   * waits for a row another node is inserting instead of failing; elsewhere it is a
+   * {@code MERGE}.
+   *
+   * @param events the outbox events of the checkouts
+   */
+  @Override
+  public void handleBatch(List<OutboxEvent> events) {
+    Map<RollupKey, Totals> totals = new TreeMap<>(KEY_ORDER);
+    for (OutboxEvent event : events) {
+      CheckoutCompletedEvent checkout = read(event);
+      Totals added = new Totals(1L, checkout.originalSubtotal(), checkout.finalPrice(),
+          checkout.originalSubtotal().subtract(checkout.finalPrice()));
+      for (RevenuePeriod period : RevenuePeriod.values()) {
+        totals.merge(new RollupKey(period, period.startOf(event.getCreatedAt())), added,
+            Totals::plus);
+      }
+    }
+    List<Object[]> rows = new ArrayList<>(totals.size());
+    totals.forEach((key, total) -> rows.add(new Object[] {key.period().name(), key.start(),
+        total.orders(), total.gross(), total.net(), total.discount()}));
+    jdbcTemplate.batchUpdate(upsertSql(), rows);
+  }
+
+  /**
+   * Get the revenue of a range of days.
+   *
+   * @param from   the first day of the range
+   * @param to     the last day of the range, inclusive
+   * @param period the breakdown of the report
+   * @return the revenue report
+   * @throws InvalidRevenueRangeException if the range is reversed or too long for the period
+   */
+  @Transactional(readOnly = true)
+  public RevenueResponse getRevenue(LocalDate from, LocalDate to, RevenuePeriod period) {
+    if (to.isBefore(from)) {
+      throw new InvalidRevenueRangeException(
+          "Revenue range must not end before it starts: " + from + " to " + to);
+    }
+    int maxDays = period == RevenuePeriod.HOUR ? MAX_HOURLY_DAYS : MAX_DAILY_DAYS;
+    if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+      throw new InvalidRevenueRangeException(
+          "Revenue range by " + period + " must not exceed " + maxDays + " days");
+    }
+    LocalDateTime first = from.atStartOfDay();
+    LocalDateTime last = period.startOf(to.atTime(23, 59, 59));
+
+    List<RevenueRollup> rows = rollupRepository
+        .findByPeriodAndPeriodStartBetweenOrderByPeriodStart(period, first, last);
+    List<RevenueResponse.PeriodRevenue> periods = new ArrayList<>(rows.size());
+    long orders = 0;
+    BigDecimal gross = BigDecimal.ZERO;
+    BigDecimal net = BigDecimal.ZERO;
+    BigDecimal discount = BigDecimal.ZERO;
+    for (RevenueRollup row : rows) {
+      periods.add(new RevenueResponse.PeriodRevenue(row.getPeriodStart(), row.getOrders(),
+          row.getGrossAmount(), row.getNetAmount(), row.getDiscountAmount()));
+      orders += row.getOrders();
+      gross = gross.add(row.getGrossAmount());
+      net = net.add(row.getNetAmount());
+      discount = discount.add(row.getDiscountAmount());
+    }
+    return new RevenueResponse(from, to, period, orders, gross, net, discount, periods);
+  }
+
+  private CheckoutCompletedEvent read(OutboxEvent event) {
+    try {
+      return objectMapper.readValue(event.getPayload(), CheckoutCompletedEvent.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to read outbox event: " + event.getId(), e);
+    }
+  }
+
+  private String upsertSql() {
+    String sql = upsertSql;
+    if (sql == null) {
+      String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName());
+      sql = "PostgreSQL".equals(product) ? UPSERT_REVENUE_SQL : MERGE_REVENUE_SQL;
+      upsertSql = sql;
+    }
+    return sql;
+  }
+
+  private record RollupKey(RevenuePeriod period, LocalDateTime start) {
+  }
+
+  private record Totals(long orders, BigDecimal gross, BigDecimal net, BigDecimal discount) {
+
+    Totals plus(Totals other) {
+      return new Totals(orders + other.orders, gross.add(other.gross), net.add(other.net),
+          discount.add(other.discount));
+    }
+  }
+}
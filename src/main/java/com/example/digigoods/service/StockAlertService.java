@@ -0,0 +1,152 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.StockSubscriptionResponse;
+import com.example.digigoods.event.DigestDeliveredEvent;
+import com.example.digigoods.event.ProductRestockedEvent;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.NotificationType;
+import com.example.digigoods.model.StockSubscription;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockSubscriptionRepository;
+import com.example.digigoods.repository.UserRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service for back-in-stock subscriptions and the stock alert fan-out.
+ * Alerts are one-shot, but a subscription is only removed once the digest carrying its
+ * alert has been delivered, so alerts still waiting in a digest when a node stops are sent
+ * again on the next restock.
+ */
+@Service
+public class StockAlertService {
+
+  private static final Logger logger = LoggerFactory.getLogger(StockAlertService.class);
+
+  private final StockSubscriptionRepository stockSubscriptionRepository;
+  private final ProductRepository productRepository;
+  private final UserRepository userRepository;
+  private final NotificationService notificationService;
+  private final int pageSize;
+
+  /**
+   * Create the stock alert service.
+   *
+   * @param stockSubscriptionRepository the subscription repository
+   * @param productRepository           the product repository
+   * @param userRepository              the user repository
+   * @param notificationService         the notification service
+   * @param pageSize                    the number of subscribers loaded per fan-out page
+   */
+  public StockAlertService(StockSubscriptionRepository stockSubscriptionRepository,
+                           ProductRepository productRepository,
+                           UserRepository userRepository,
+                           NotificationService notificationService,
+                           @Value("${stock-alert.fan-out.page-size:500}") int pageSize) {
+    this.stockSubscriptionRepository = stockSubscriptionRepository;
+    this.productRepository = productRepository;
+    this.userRepository = userRepository;
+    this.notificationService = notificationService;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Subscribe a user to the back-in-stock alert of a product.
+   * Subscribing twice to the same product has no further effect.
+   *
+   * @param userId    the ID of the subscribing user
+   * @param productId the product ID
+   * @return subscription response
+   * @throws ProductNotFoundException if the product is not found
+   */
+  @Transactional
+  public StockSubscriptionResponse subscribe(Long userId, Long productId) {
+    if (!productRepository.existsById(productId)) {
+      throw new ProductNotFoundException(productId);
+    }
+
+    if (!stockSubscriptionRepository.existsByUserIdAndProductId(userId, productId)) {
+      StockSubscription subscription = new StockSubscription();
+      subscription.setUser(userRepository.getReferenceById(userId));
+      subscription.setProduct(productRepository.getReferenceById(productId));
+      stockSubscriptionRepository.save(subscription);
+    }
+
+    return new StockSubscriptionResponse(productId, userId,
+        "You will be notified when the product is back in stock");
+  }
+
+  /**
+   * Fan the restock of a product out to its subscribers.
+   * Runs asynchronously after the restock transaction has committed, so neither the
+   * subscriber scan nor notification delivery holds the product row lock.
+   *
+   * @param event the restock event
+   */
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onProductRestocked(ProductRestockedEvent event) {
+    int notified = fanOut(event.productId(), event.productName());
+    logger.info("Queued stock alerts for product {} to {} subscribers",
+        event.productId(), notified);
+  }
+
+  /**
+   * Queue a stock alert for every subscriber of a product, one keyset page at a time.
+   *
+   * @param productId   the restocked product ID
+   * @param productName the restocked product name
+   * @return the number of subscribers processed
+   */
+  public int fanOut(Long productId, String productName) {
+    int processed = 0;
+    long afterUserId = 0L;
+    List<Long> userIds = stockSubscriptionRepository.findSubscriberIds(productId, afterUserId,
+        PageRequest.ofSize(pageSize));
+
+    while (!userIds.isEmpty()) {
+      for (Long userId : userIds) {
+        notificationService.queueStockAlert(userId, productId, productName);
+      }
+      processed += userIds.size();
+
+      if (userIds.size() < pageSize) {
+        break;
+      }
+      afterUserId = userIds.get(userIds.size() - 1);
+      userIds = stockSubscriptionRepository.findSubscriberIds(productId, afterUserId,
+          PageRequest.ofSize(pageSize));
+    }
+    return processed;
+  }
+
+  /**
+   * Remove the subscriptions whose alerts a delivered stock alert digest carried.
+   * A subscription that cannot be removed is kept and alerted again on the next restock.
+   *
+   * @param event the delivered digest
+   */
+  @EventListener
+  public void onDigestDelivered(DigestDeliveredEvent event) {
+    if (event.type() != NotificationType.STOCK_ALERT) {
+      return;
+    }
+    List<Long> productIds = event.keys().stream().map(Long::valueOf).toList();
+    try {
+      stockSubscriptionRepository.deleteByUserIdAndProductIds(event.userId(), productIds);
+    } catch (DataAccessException e) {
+      logger.warn("Failed to remove the alerted subscriptions of user {}: {}",
+          event.userId(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.TopProductResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ProductSalesScore;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductSalesScoreRepository;
+import com.example.digigoods.util.DecayingLeaderboard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the best sellers leaderboard in memory.
+ * Every committed checkout adds its items to the decaying sales score of their products,
+ * so the leaderboard favours recent sales and never reads the order tables. Scores are
+ * snapshotted periodically and restored on startup; sales made after the last snapshot of
+ * a stopped instance are lost, which only makes the ranking briefly less accurate.
+ */
+@Service
+public class TopSellerService {
+
+  static final String DELETE_SNAPSHOT_SQL = "DELETE FROM product_sales_scores";
+  static final String INSERT_SNAPSHOT_SQL =
+      "INSERT INTO product_sales_scores (product_id, score, as_of) VALUES (?, ?, ?)";
+
+  private static final Logger logger = LoggerFactory.getLogger(TopSellerService.class);
+
+  private final ProductSalesScoreRepository scoreRepository;
+  private final ProductRepository productRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final DecayingLeaderboard leaderboard;
+  private final int capacity;
+  private final double minScore;
+
+  /**
+   * Create the top seller service.
+   *
+   * @param scoreRepository     the sales score snapshot repository
+   * @param productRepository   the product repository
+   * @param jdbcTemplate        the JDBC template writing the snapshot
+   * @param transactionTemplate the template replacing the snapshot in one transaction
+   * @param clock               the time source of the decay
+   * @param meterRegistry       the registry receiving the leaderboard metrics
+   * @param halfLife            the time after which a sale counts half
+   * @param capacity            the number of best sellers tracked
+   * @param minScore            the score under which a product is forgotten
+   */
+  public TopSellerService(ProductSalesScoreRepository scoreRepository,
+                          ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate, Clock clock,
+                          MeterRegistry meterRegistry,
+                          @Value("${product.top-sellers.half-life:P7D}") Duration halfLife,
+                          @Value("${product.top-sellers.capacity:100}") int capacity,
+                          @Value("${product.top-sellers.min-score:0.01}") double minScore) {
+    this.scoreRepository = scoreRepository;
+    this.productRepository = productRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.clock = clock;
+    this.capacity = capacity;
+    this.minScore = minScore;
+    this.leaderboard = new DecayingLeaderboard(halfLife.toMillis(), capacity, clock.millis());
+    Gauge.builder("product.top-sellers.tracked", this, TopSellerService::trackedProducts)
+        .description("Products with a sales score")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Restore the scores of the last snapshot, decayed to the current time.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void restore() {
+    List<ProductSalesScore> snapshot = scoreRepository.findAll();
+    long now = clock.millis();
+    synchronized (leaderboard) {
+      for (ProductSalesScore row : snapshot) {
+        // Decay from the snapshot time by adding the score as if it was earned back then
+        long asOf = row.getAsOf().atZone(clock.getZone()).toInstant().toEpochMilli();
+        leaderboard.add(row.getProductId(), row.getScore(), Math.min(asOf, now));
+      }
+    }
+    logger.info("Restored sales scores of {} products", snapshot.size());
+  }
+
+  /**
+   * Add the items of a committed checkout to the sales scores.
+   *
+   * @param event the checkout completed event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCheckoutCompleted(CheckoutCompletedEvent event) {
+    long now = clock.millis();
+    synchronized (leaderboard) {
+      for (Long productId : event.productIds()) {
+        leaderboard.add(productId, 1, now);
+      }
+    }
+  }
+
+  /**
+   * Get the best selling products, best first.
+   *
+   * @param limit the maximum number of products
+   * @return the best sellers with their decayed sales scores
+   */
+  public List<TopProductResponse> getTopProducts(int limit) {
+    List<DecayingLeaderboard.Score> top;
+    synchronized (leaderboard) {
+      top = leaderboard.top(Math.min(limit, capacity), clock.millis());
+    }
+    if (top.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Product> products = productRepository
+        .findAllById(top.stream().map(DecayingLeaderboard.Score::key).toList()).stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+    List<TopProductResponse> response = new ArrayList<>(top.size());
+    for (DecayingLeaderboard.Score score : top) {
+      Product product = products.get(score.key());
+      if (product != null) {
+        response.add(new TopProductResponse(product.getId(), product.getName(),
+            product.getPrice(), score.score()));
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Drop the products whose score decayed away and replace the stored snapshot with the
+   * current scores.
+   */
+  @Scheduled(fixedDelayString = "${product.top-sellers.snapshot-interval:PT5M}",
+      initialDelayString = "${product.top-sellers.snapshot-interval:PT5M}")
+  public void snapshot() {
+    long now = clock.millis();
+    Timestamp asOf = Timestamp.valueOf(
+        LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone()));
+    List<Object[]> rows = new ArrayList<>();
+    synchronized (leaderboard) {
+      leaderboard.compact(now, minScore);
+      leaderboard.forEach(now, (productId, score) ->
+          rows.add(new Object[] {productId, score, asOf}));
+    }
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.update(DELETE_SNAPSHOT_SQL);
+      jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, rows);
+    });
+  }
+
+  /**
+   * Snapshot the scores before shutdown.
+   */
+  @PreDestroy
+  public void snapshotOnShutdown() {
+    try {
+      snapshot();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to snapshot sales scores on shutdown: {}", e.getMessage());
+    }
+  }
+
+  private double trackedProducts() {
+    synchronized (leaderboard) {
+      return leaderboard.size();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.digigoods.util;
+
+/**
+ * Bounded min-heap of the long keys with the highest values.
+ * Suited to values that only grow: a key outside the heap can only overtake the heap
+ * minimum when its own value grows, so offering every new value of a key keeps the heap
+ * exact without rescanning the other keys. Looking a key up in the heap is a linear scan,
+ * which is cheaper than an index for the small capacities it is meant for. Not thread safe.
+ */
+public final class BoundedTopHeap {
+
+  private final long[] keys;
+  private final double[] values;
+  private int size;
+
+  /**
+   * Create an empty heap.
+   *
+   * @param capacity the number of keys kept
+   */
+  public BoundedTopHeap(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Heap capacity must be positive");
+    }
+    this.keys = new long[capacity];
+    this.values = new double[capacity];
+  }
+
+  /**
+   * Get the number of keys in the heap.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the key at a position of the heap, in no particular order.
+   *
+   * @param index the position, below the size
+   * @return the key
+   */
+  public long keyAt(int index) {
+    return keys[index];
+  }
+
+  /**
+   * Get the value at a position of the heap, in no particular order.
+   *
+   * @param index the position, below the size
+   * @return the value
+   */
+  public double valueAt(int index) {
+    return values[index];
+  }
+
+  /**
+   * Offer the new value of a key, which must not be lower than a value offered before.
+   *
+   * @param key   the key
+   * @param value the current value of the key
+   */
+  public void offer(long key, double value) {
+    for (int i = 0; i < size; i++) {
+      if (keys[i] == key) {
+        values[i] = value;
+        siftDown(i);
+        return;
+      }
+    }
+    if (size < keys.length) {
+      keys[size] = key;
+      values[size] = value;
+      siftUp(size++);
+    } else if (value > values[0]) {
+      keys[0] = key;
+      values[0] = value;
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Remove every key.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  private void siftUp(int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (values[parent] <= values[index]) {
+        return;
+      }
+      swap(parent, index);
+      index = parent;
+    }
+  }
+
+  private void siftDown(int index) {
+    while (true) {
+      int smallest = index;
+      int left = 2 * index + 1;
+      if (left < size && values[left] < values[smallest]) {
+        smallest = left;
+      }
+      if (left + 1 < size && values[left + 1] < values[smallest]) {
+        smallest = left + 1;
+      }
+      if (smallest == index) {
+        return;
+      }
+      swap(index, smallest);
+      index = smallest;
+    }
+  }
+
+  private void swap(int first, int second) {
+    final long key = keys[first];
+    final double value = values[first];
+    keys[first] = keys[second];
+    values[first] = values[second];
+    keys[second] = key;
+    values[second] = value;
+  }
+}
@@ -0,0 +1,210 @@
+package com.example.digigoods.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writer of a simple column-oriented binary format.
+ * Rows are buffered into row groups of a fixed size; each full group is written column by
+ * column, every column compressed on its own, so memory is bounded by one row group
+ * whatever the number of rows. Integer columns hold zigzag varints of the difference to the
+ * previous row, which keeps sorted or slowly changing values (IDs, timestamps, amounts in
+ * cents) down to a byte or two before compression.
+ *
+ * <p>Layout, all counts and lengths being unsigned varints:
+ * <pre>
+ * "DGCOL" version(1)
+ * columnCount, then per column: type(0 = long, 1 = string), nameLength, name (UTF-8)
+ * per row group: rowCount (&gt; 0), then per column: compressedLength, deflated values
+ * rowCount 0 as end marker
+ * </pre>
+ * String values are written as length + 1 followed by their UTF-8 bytes, 0 meaning null.
+ */
+public final class ColumnarWriter implements AutoCloseable {
+
+  /**
+   * Magic bytes starting every file, followed by the format version.
+   */
+  public static final byte[] MAGIC = "DGCOL".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Version of the layout written by this class.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * Type of the values of a column.
+   */
+  public enum ColumnType {
+    LONG,
+    STRING
+  }
+
+  /**
+   * Name and type of a column.
+   *
+   * @param name the column name
+   * @param type the value type
+   */
+  public record Column(String name, ColumnType type) {
+  }
+
+  private final OutputStream out;
+  private final List<Column> columns;
+  private final int rowGroupSize;
+  private final long[][] longValues;
+  private final String[][] stringValues;
+  private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final byte[] deflateBuffer = new byte[8192];
+  private int rows;
+  private boolean closed;
+
+  /**
+   * Create a writer and write the file header.
+   *
+   * @param out          the stream receiving the file, left open on close
+   * @param columns      the columns of every row
+   * @param rowGroupSize the number of rows buffered before a group is written
+   * @throws IOException if the header cannot be written
+   */
+  public ColumnarWriter(OutputStream out, List<Column> columns, int rowGroupSize)
+      throws IOException {
+    if (columns.isEmpty() || rowGroupSize <= 0) {
+      throw new IllegalArgumentException("Columnar files need columns and a positive group size");
+    }
+    this.out = out;
+    this.columns = List.copyOf(columns);
+    this.rowGroupSize = rowGroupSize;
+    this.longValues = new long[columns.size()][];
+    this.stringValues = new String[columns.size()][];
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).type() == ColumnType.LONG) {
+        longValues[i] = new long[rowGroupSize];
+      } else {
+        stringValues[i] = new String[rowGroupSize];
+      }
+    }
+
+    out.write(MAGIC);
+    out.write(VERSION);
+    writeVarint(out, columns.size());
+    for (Column column : columns) {
+      byte[] name = column.name().getBytes(StandardCharsets.UTF_8);
+      out.write(column.type().ordinal());
+      writeVarint(out, name.length);
+      out.write(name);
+    }
+  }
+
+  /**
+   * Set a long value of the current row.
+   *
+   * @param column the column index
+   * @param value  the value
+   */
+  public void setLong(int column, long value) {
+    longValues[column][rows] = value;
+  }
+
+  /**
+   * Set a string value of the current row.
+   *
+   * @param column the column index
+   * @param value  the value, possibly null
+   */
+  public void setString(int column, String value) {
+    stringValues[column][rows] = value;
+  }
+
+  /**
+   * Complete the current row, writing the row group once it is full.
+   *
+   * @throws IOException if the row group cannot be written
+   */
+  public void endRow() throws IOException {
+    rows++;
+    if (rows == rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  /**
+   * Write the buffered rows and the end marker. The underlying stream is flushed, not closed.
+   *
+   * @throws IOException if the remaining rows cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      flushRowGroup();
+      writeVarint(out, 0);
+      out.flush();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private void flushRowGroup() throws IOException {
+    if (rows == 0) {
+      return;
+    }
+    writeVarint(out, rows);
+    for (int column = 0; column < columns.size(); column++) {
+      encoded.reset();
+      if (longValues[column] != null) {
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+          long delta = longValues[column][row] - previous;
+          writeVarint(encoded, (delta << 1) ^ (delta >> 63));
+          previous = longValues[column][row];
+        }
+      } else {
+        String[] values = stringValues[column];
+        for (int row = 0; row < rows; row++) {
+          if (values[row] == null) {
+            writeVarint(encoded, 0);
+          } else {
+            byte[] bytes = values[row].getBytes(StandardCharsets.UTF_8);
+            writeVarint(encoded, bytes.length + 1L);
+            encoded.write(bytes);
+          }
+        }
+        Arrays.fill(values, 0, rows, null);
+      }
+      deflate();
+      writeVarint(out, compressed.size());
+      compressed.writeTo(out);
+    }
+    rows = 0;
+  }
+
+  private void deflate() {
+    compressed.reset();
+    deflater.reset();
+    deflater.setInput(encoded.toByteArray());
+    deflater.finish();
+    while (!deflater.finished()) {
+      int length = deflater.deflate(deflateBuffer);
+      compressed.write(deflateBuffer, 0, length);
+    }
+  }
+
+  private static void writeVarint(OutputStream target, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      target.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    target.write((int) value);
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.digigoods.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse matrix counting how often two products were bought in the same order.
+ * Each product has a row holding its pair counts in a {@link LongDoubleHashMap} and the
+ * products it was bought with most in a {@link BoundedTopHeap}. Counts only grow, so adding
+ * a basket of k products costs O(k²) map and heap updates and reading the related products
+ * of one product only sorts its heap, whatever the number of orders. Not thread safe.
+ */
+public final class CooccurrenceIndex {
+
+  /**
+   * Product bought together with another one, and how often.
+   *
+   * @param productId the related product
+   * @param count     the number of orders containing both products
+   */
+  public record Related(long productId, long count) {
+  }
+
+  private static final class Row {
+
+    private final LongDoubleHashMap counts = new LongDoubleHashMap(8);
+    private final BoundedTopHeap top;
+
+    private Row(int topN) {
+      this.top = new BoundedTopHeap(topN);
+    }
+
+    private void add(long productId, double count) {
+      top.offer(productId, counts.addTo(productId, count));
+    }
+  }
+
+  private final int topN;
+  private final Map<Long, Row> rows = new HashMap<>();
+
+  /**
+   * Create an empty index.
+   *
+   * @param topN the number of related products kept per product
+   */
+  public CooccurrenceIndex(int topN) {
+    if (topN <= 0) {
+      throw new IllegalArgumentException("Related product count must be positive");
+    }
+    this.topN = topN;
+  }
+
+  /**
+   * Get the number of products bought with at least one other product.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * Count every pair of distinct products of one order.
+   *
+   * @param productIds the products of the order; duplicates are counted once
+   */
+  public void addBasket(long[] productIds) {
+    long[] basket = Arrays.stream(productIds).distinct().toArray();
+    if (basket.length < 2) {
+      return;
+    }
+    for (long productId : basket) {
+      Row row = rows.computeIfAbsent(productId, id -> new Row(topN));
+      for (long other : basket) {
+        if (other != productId) {
+          row.add(other, 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add the counts of another index to this one.
+   *
+   * @param other the index to merge, left unchanged
+   */
+  public void merge(CooccurrenceIndex other) {
+    other.rows.forEach((productId, otherRow) -> {
+      Row row = rows.computeIfAbsent(productId, id -> new Row(topN));
+      otherRow.counts.forEach(row::add);
+    });
+  }
+
+  /**
+   * Get the products most often bought with a product, most frequent first.
+   *
+   * @param productId the product
+   * @param limit     the maximum number of products, at most the top N of the index
+   * @return the related products with their pair counts
+   */
+  public List<Related> related(long productId, int limit) {
+    Row row = rows.get(productId);
+    if (row == null) {
+      return List.of();
+    }
+    List<Related> related = new ArrayList<>(row.top.size());
+    for (int i = 0; i < row.top.size(); i++) {
+      related.add(new Related(row.top.keyAt(i), (long) row.top.valueAt(i)));
+    }
+    related.sort(Comparator.comparingLong(Related::count).reversed()
+        .thenComparingLong(Related::productId));
+    return related.subList(0, Math.min(limit, related.size()));
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.digigoods.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exponentially decaying scores per long key, with the highest scores kept in a bounded heap.
+ * Scores use forward decay: an amount added at time t is stored multiplied by
+ * {@code 2^((t - landmark) / halfLife)} and every stored value is divided by the same factor
+ * of the current time when read. Stored values therefore only grow, so the order between
+ * keys never has to be recomputed as time passes and a {@link BoundedTopHeap} of the top
+ * keys stays exact when updated on each addition. The landmark is moved forward by
+ * {@link #compact}, which keeps stored values in range and drops keys whose score has
+ * decayed away. Not thread safe.
+ */
+public final class DecayingLeaderboard {
+
+  /**
+   * Key and its decayed score.
+   *
+   * @param key   the key
+   * @param score the score at the time it was read
+   */
+  public record Score(long key, double score) {
+  }
+
+  private static final double MAX_WEIGHT = 1e150;
+
+  private final double decayPerMilli;
+  private final LongDoubleHashMap scores;
+  private final BoundedTopHeap top;
+  private long landmarkMillis;
+
+  /**
+   * Create an empty leaderboard.
+   *
+   * @param halfLifeMillis the time after which a score has lost half its value
+   * @param capacity       the number of top keys tracked
+   * @param nowMillis      the current time, used as the first landmark
+   */
+  public DecayingLeaderboard(long halfLifeMillis, int capacity, long nowMillis) {
+    if (halfLifeMillis <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Half life and capacity must be positive");
+    }
+    this.decayPerMilli = Math.log(2) / halfLifeMillis;
+    this.scores = new LongDoubleHashMap(capacity * 4);
+    this.top = new BoundedTopHeap(capacity);
+    this.landmarkMillis = nowMillis;
+  }
+
+  /**
+   * Get the number of keys with a score.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    return scores.size();
+  }
+
+  /**
+   * Add to the score of a key.
+   *
+   * @param key       the key
+   * @param amount    the amount to add, not negative
+   * @param nowMillis the current time
+   */
+  public void add(long key, double amount, long nowMillis) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("Leaderboard amounts must not be negative");
+    }
+    double weight = weight(nowMillis);
+    if (weight > MAX_WEIGHT) {
+      compact(nowMillis, 0);
+      weight = weight(nowMillis);
+    }
+    top.offer(key, scores.addTo(key, amount * weight));
+  }
+
+  /**
+   * Get the keys with the highest scores, highest first.
+   *
+   * @param limit     the maximum number of keys, at most the capacity
+   * @param nowMillis the current time
+   * @return the top keys with their decayed scores
+   */
+  public List<Score> top(int limit, long nowMillis) {
+    double weight = weight(nowMillis);
+    List<Score> ranked = new ArrayList<>(top.size());
+    for (int i = 0; i < top.size(); i++) {
+      ranked.add(new Score(top.keyAt(i), top.valueAt(i) / weight));
+    }
+    ranked.sort(Comparator.comparingDouble(Score::score).reversed()
+        .thenComparingLong(Score::key));
+    return ranked.subList(0, Math.min(limit, ranked.size()));
+  }
+
+  /**
+   * Pass every key and its decayed score to a consumer.
+   *
+   * @param nowMillis the current time
+   * @param consumer  the consumer
+   */
+  public void forEach(long nowMillis, LongDoubleHashMap.EntryConsumer consumer) {
+    double weight = weight(nowMillis);
+    scores.forEach((key, value) -> consumer.accept(key, value / weight));
+  }
+
+  /**
+   * Move the landmark to the current time and drop the keys whose score fell below a minimum.
+   *
+   * @param nowMillis the current time
+   * @param minScore  the lowest decayed score kept
+   * @return the number of keys dropped
+   */
+  public int compact(long nowMillis, double minScore) {
+    double factor = 1 / weight(nowMillis);
+    landmarkMillis = nowMillis;
+    scores.scaleAll(factor);
+    int dropped = scores.removeIf((key, value) -> value < minScore);
+    top.clear();
+    scores.forEach(top::offer);
+    return dropped;
+  }
+
+  private double weight(long nowMillis) {
+    return Math.exp(decayPerMilli * (nowMillis - landmarkMillis));
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.digigoods.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding items until their deadline.
+ * Level 0 has one slot per tick; every further level has slots as wide as a full turn of
+ * the level below it, so scheduling and expiry cost O(1) per item regardless of how far
+ * away the deadline is. Items of a higher level are moved down when the wheel reaches
+ * their slot. Items are released at the first tick boundary at or after their deadline.
+ * Not thread-safe; callers synchronize externally.
+ *
+ * @param <T> the item type
+ */
+public final class HierarchicalTimingWheel<T> {
+
+  private final long tickMillis;
+  private final int slotBits;
+  private final int slotMask;
+  private final ArrayDeque<Entry<T>>[][] levels;
+  private final List<T> due = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  /**
+   * Create a timing wheel.
+   *
+   * @param tickMillis  the width of a level 0 slot in milliseconds
+   * @param slotBits    the number of slots per level as a power of two
+   * @param levelCount  the number of levels
+   * @param startMillis the time the wheel starts at
+   */
+  @SuppressWarnings("unchecked")
+  public HierarchicalTimingWheel(long tickMillis, int slotBits, int levelCount,
+      long startMillis) {
+    if (tickMillis <= 0 || slotBits <= 0 || levelCount <= 0 || slotBits * levelCount > 62) {
+      throw new IllegalArgumentException("Invalid timing wheel dimensions");
+    }
+    this.tickMillis = tickMillis;
+    this.slotBits = slotBits;
+    this.slotMask = (1 << slotBits) - 1;
+    this.levels = new ArrayDeque[levelCount][1 << slotBits];
+    this.currentTick = Math.floorDiv(startMillis, tickMillis);
+  }
+
+  /**
+   * Schedule an item; an item whose deadline has passed is released by the next advance.
+   *
+   * @param deadlineMillis the deadline in milliseconds
+   * @param item           the item
+   */
+  public void schedule(long deadlineMillis, T item) {
+    place(new Entry<>(-Math.floorDiv(-deadlineMillis, tickMillis), item));
+    size++;
+  }
+
+  /**
+   * Advance the wheel to the given time and release every item whose deadline has passed.
+   *
+   * @param nowMillis the current time in milliseconds
+   * @return the released items
+   */
+  public List<T> advanceTo(long nowMillis) {
+    long targetTick = Math.floorDiv(nowMillis, tickMillis);
+    while (currentTick < targetTick) {
+      currentTick++;
+      for (int level = levels.length - 1; level > 0; level--) {
+        if ((currentTick & ((1L << (slotBits * level)) - 1)) == 0) {
+          cascade(level);
+        }
+      }
+      drain(levels[0], (int) (currentTick & slotMask));
+    }
+    List<T> released = new ArrayList<>(due);
+    size -= released.size();
+    due.clear();
+    return released;
+  }
+
+  /**
+   * Get the number of scheduled items not yet released.
+   *
+   * @return the number of items
+   */
+  public int size() {
+    return size;
+  }
+
+  private void place(Entry<T> entry) {
+    for (int level = 0; level < levels.length; level++) {
+      int shift = slotBits * level;
+      long distance = (entry.deadlineTick >> shift) - (currentTick >> shift);
+      if (level == 0 && distance <= 0) {
+        due.add(entry.item);
+        return;
+      }
+      if (distance <= slotMask) {
+        slot(level, (int) ((entry.deadlineTick >> shift) & slotMask)).add(entry);
+        return;
+      }
+    }
+    // Beyond the top level: park in its furthest slot and re-place on the way down
+    int top = levels.length - 1;
+    slot(top, (int) (((currentTick >> (slotBits * top)) + slotMask) & slotMask)).add(entry);
+  }
+
+  private void cascade(int level) {
+    int index = (int) ((currentTick >> (slotBits * level)) & slotMask);
+    ArrayDeque<Entry<T>> slot = levels[level][index];
+    if (slot == null || slot.isEmpty()) {
+      return;
+    }
+    levels[level][index] = null;
+    for (Entry<T> entry : slot) {
+      place(entry);
+    }
+  }
+
+  private void drain(ArrayDeque<Entry<T>>[] level, int index) {
+    ArrayDeque<Entry<T>> slot = level[index];
+    if (slot == null) {
+      return;
+    }
+    level[index] = null;
+    for (Entry<T> entry : slot) {
+      due.add(entry.item);
+    }
+  }
+
+  private ArrayDeque<Entry<T>> slot(int level, int index) {
+    ArrayDeque<Entry<T>> slot = levels[level][index];
+    if (slot == null) {
+      slot = new ArrayDeque<>();
+      levels[level][index] = slot;
+    }
+    return slot;
+  }
+
+  private record Entry<T>(long deadlineTick, T item) {
+  }
+}
@@ -0,0 +1,261 @@
+package com.example.digigoods.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys to primitive double values.
+ * Open addressing with linear probing over parallel arrays, so an entry costs sixteen bytes
+ * and no object, and lookups do not box. Removal uses backward shifting, which keeps probe
+ * sequences intact without tombstones. Not thread safe.
+ */
+public final class LongDoubleHashMap {
+
+  /**
+   * Receiver of the entries of a map.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Accept one entry.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void accept(long key, double value);
+  }
+
+  /**
+   * Test applied to the entries of a map.
+   */
+  @FunctionalInterface
+  public interface EntryPredicate {
+
+    /**
+     * Test one entry.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the entry matches
+     */
+    boolean test(long key, double value);
+  }
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private double[] values;
+  private boolean[] used;
+  private int size;
+  private int mask;
+
+  /**
+   * Create a map sized for the expected number of entries.
+   *
+   * @param expectedSize the number of entries the map holds without resizing
+   */
+  public LongDoubleHashMap(int expectedSize) {
+    int capacity = 4;
+    while (capacity * LOAD_FACTOR < expectedSize) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   * Get the number of entries.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the value of a key.
+   *
+   * @param key          the key
+   * @param defaultValue the value returned when the key is absent
+   * @return the value, or the default value
+   */
+  public double get(long key, double defaultValue) {
+    int slot = find(key);
+    return slot >= 0 ? values[slot] : defaultValue;
+  }
+
+  /**
+   * Check whether a key is present.
+   *
+   * @param key the key
+   * @return true if the map holds the key
+   */
+  public boolean containsKey(long key) {
+    return find(key) >= 0;
+  }
+
+  /**
+   * Set the value of a key.
+   *
+   * @param key   the key
+   * @param value the value
+   */
+  public void put(long key, double value) {
+    int slot = slotFor(key);
+    values[slot] = value;
+  }
+
+  /**
+   * Add to the value of a key, starting from zero when the key is absent.
+   *
+   * @param key   the key
+   * @param delta the amount to add
+   * @return the new value
+   */
+  public double addTo(long key, double delta) {
+    int slot = slotFor(key);
+    values[slot] += delta;
+    return values[slot];
+  }
+
+  /**
+   * Remove a key.
+   *
+   * @param key the key
+   * @return true if the key was present
+   */
+  public boolean remove(long key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return false;
+    }
+    removeSlot(slot);
+    return true;
+  }
+
+  /**
+   * Multiply every value by the same factor.
+   *
+   * @param factor the factor
+   */
+  public void scaleAll(double factor) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        values[slot] *= factor;
+      }
+    }
+  }
+
+  /**
+   * Remove every entry matching a predicate.
+   *
+   * @param predicate the test selecting the entries to remove
+   * @return the number of entries removed
+   */
+  public int removeIf(EntryPredicate predicate) {
+    int removed = 0;
+    int slot = 0;
+    while (slot < keys.length) {
+      if (used[slot] && predicate.test(keys[slot], values[slot])) {
+        // The shift may move a later entry into this slot, so test the slot again
+        removeSlot(slot);
+        removed++;
+      } else {
+        slot++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Pass every entry to a consumer, in no particular order.
+   *
+   * @param consumer the consumer
+   */
+  public void forEach(EntryConsumer consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        consumer.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  /**
+   * Remove every entry, keeping the allocated capacity.
+   */
+  public void clear() {
+    Arrays.fill(used, false);
+    size = 0;
+  }
+
+  private int find(long key) {
+    int slot = hash(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int slotFor(long key) {
+    int slot = hash(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (size + 1 > keys.length * LOAD_FACTOR) {
+      grow();
+      return slotFor(key);
+    }
+    used[slot] = true;
+    keys[slot] = key;
+    values[slot] = 0;
+    size++;
+    return slot;
+  }
+
+  private void removeSlot(int slot) {
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (used[next]) {
+      int home = hash(keys[next]) & mask;
+      // Move the entry back into the gap unless its home lies cyclically in (gap, next]
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    used[gap] = false;
+    size--;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    double[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(oldKeys.length << 1);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldUsed[slot]) {
+        put(oldKeys[slot], oldValues[slot]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new double[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+    size = 0;
+  }
+
+  private static int hash(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.digigoods.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Sequence of distinct, non-sequential codes under a common prefix.
+ * The n-th code is a keyed permutation of n over a 40-bit domain (a four-round balanced
+ * Feistel network), written as eight Crockford base32 characters. Since the permutation
+ * is a bijection, codes never repeat within a sequence and need no memory to deduplicate,
+ * while consecutive codes look unrelated. The permutation is not a cipher; it only keeps
+ * the codes from being enumerated by counting.
+ */
+public final class UniqueCodeSequence {
+
+  /**
+   * Number of codes a sequence can produce before repeating.
+   */
+  public static final long CAPACITY = 1L << 40;
+
+  /**
+   * Number of characters following the prefix and separator.
+   */
+  public static final int SUFFIX_LENGTH = 8;
+
+  private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final int HALF_BITS = 20;
+  private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+  private static final int ROUNDS = 4;
+
+  private final String prefix;
+  private final long[] roundKeys = new long[ROUNDS];
+
+  /**
+   * Create a sequence with round keys drawn from the given generator.
+   *
+   * @param prefix the prefix every code starts with, followed by a dash
+   * @param random the source of the round keys
+   */
+  public UniqueCodeSequence(String prefix, RandomGenerator random) {
+    this.prefix = prefix + "-";
+    for (int i = 0; i < ROUNDS; i++) {
+      roundKeys[i] = random.nextLong();
+    }
+  }
+
+  /**
+   * Get the code at a position of the sequence.
+   *
+   * @param index the position, from 0 to {@link #CAPACITY} exclusive
+   * @return the code, unique among every position of this sequence
+   */
+  public String codeAt(long index) {
+    if (index < 0 || index >= CAPACITY) {
+      throw new IllegalArgumentException("Code index out of range: " + index);
+    }
+    long left = index >>> HALF_BITS;
+    long right = index & HALF_MASK;
+    for (long key : roundKeys) {
+      long next = left ^ round(right, key);
+      left = right;
+      right = next;
+    }
+    long permuted = (left << HALF_BITS) | right;
+
+    char[] code = new char[prefix.length() + SUFFIX_LENGTH];
+    prefix.getChars(0, prefix.length(), code, 0);
+    for (int i = code.length - 1; i >= prefix.length(); i--) {
+      code[i] = ALPHABET[(int) (permuted & 31)];
+      permuted >>>= 5;
+    }
+    return new String(code);
+  }
+
+  private static long round(long half, long key) {
+    long mixed = (half ^ key) * 0x9E3779B97F4A7C15L;
+    mixed ^= mixed >>> 29;
+    mixed *= 0xBF58476D1CE4E5B9L;
+    return (mixed ^ (mixed >>> 32)) & HALF_MASK;
+  }
+}
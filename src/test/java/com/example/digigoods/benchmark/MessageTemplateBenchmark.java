@@ -0,0 +1,82 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.model.NotificationType;
+import com.example.digigoods.service.MessageTemplateRegistry;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares rendering an order confirmation with {@link String#format} against the
+ * precompiled {@link MessageTemplateRegistry}.
+ * Run with {@code ./mvnw test-compile} followed by the {@link #main(String[])} method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+  private MessageTemplateRegistry registry;
+  private long orderId;
+  private String totalAmount;
+
+  /**
+   * Compile the templates once, as the application does at startup.
+   */
+  @Setup
+  public void setUp() {
+    registry = new MessageTemplateRegistry(Locale.ENGLISH, List.of(Locale.of("id")));
+    orderId = 123456L;
+    totalAmount = "$149.99";
+  }
+
+  /**
+   * Baseline that parses the format string on every call.
+   *
+   * @return the rendered message
+   */
+  @Benchmark
+  public String stringFormat() {
+    return String.format(
+        "Your order #%d has been confirmed! Total amount: %s. Thank you for your purchase!",
+        orderId, totalAmount);
+  }
+
+  /**
+   * Precompiled template rendered into the reused buffer.
+   *
+   * @return the rendered message
+   */
+  @Benchmark
+  public String precompiledTemplate() {
+    return registry.render(NotificationType.ORDER_CONFIRMATION, orderId, totalAmount);
+  }
+
+  /**
+   * Run the benchmark from the IDE or the command line.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MessageTemplateBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
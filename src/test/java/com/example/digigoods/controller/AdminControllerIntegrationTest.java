@@ -0,0 +1,194 @@
+package com.example.digigoods.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.OrderExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Integration tests for AdminController.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.mvc.async.request-timeout=PT0.1S")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class AdminControllerIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @MockitoSpyBean
+  private OrderExportService orderExportService;
+
+  private String bearerToken;
+  private String adminToken;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(springSecurity())
+        .build();
+
+    // Users are committed so requests served by the embedded server can load them
+    bearerToken = token(new User(null, "admin.test.customer", "password"));
+    adminToken = token(new User(null, "admin.test.admin", "password", true));
+  }
+
+  private String token(User user) {
+    User stored = userRepository.findByUsername(user.getUsername())
+        .orElseGet(() -> userRepository.save(user));
+    return "Bearer " + jwtService.generateToken(stored.getId(), stored.getUsername());
+  }
+
+  @Test
+  @DisplayName("Given a date range, when exporting orders as CSV, "
+      + "then stream a CSV attachment starting with the header")
+  void givenDateRange_whenExportingOrdersAsCsv_thenStreamCsvAttachment() throws Exception {
+    // Act
+    MvcResult result = mockMvc.perform(get("/admin/orders/export")
+            .header("Authorization", adminToken)
+            .param("from", "1999-01-01")
+            .param("to", "1999-02-01"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"orders-1999-01-01-1999-02-01.csv\""))
+        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+        .andExpect(content().string(
+            "id,user_id,username,original_subtotal,final_price,order_date\n"));
+  }
+
+  @Test
+  @DisplayName("Given an export slower than the default async timeout, when exporting, "
+      + "then stream the whole file under the export timeout")
+  void givenExportSlowerThanDefaultAsyncTimeout_whenExporting_thenStreamWholeFile() {
+    // Arrange
+    doAnswer(call -> {
+      Thread.sleep(2000);
+      return call.callRealMethod();
+    }).when(orderExportService).export(any(), any(), any(), any());
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.AUTHORIZATION, adminToken);
+
+    // Act
+    ResponseEntity<String> response = restTemplate.exchange(
+        "/admin/orders/export?from=1999-01-01&to=1999-02-01", HttpMethod.GET,
+        new HttpEntity<>(headers), String.class);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("id,user_id,username,original_subtotal,final_price,order_date\n",
+        response.getBody());
+  }
+
+  @Test
+  @DisplayName("Given a customer token, when exporting orders, then return forbidden")
+  void givenCustomerToken_whenExportingOrders_thenReturnForbidden() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/admin/orders/export")
+            .header("Authorization", bearerToken)
+            .param("from", "1999-01-01")
+            .param("to", "1999-02-01"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @DisplayName("Given a reversed date range, when exporting orders, then return bad request")
+  void givenReversedDateRange_whenExportingOrders_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/admin/orders/export")
+            .header("Authorization", adminToken)
+            .param("from", "2025-07-01")
+            .param("to", "2025-06-01")
+            .param("format", "COLUMNAR"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message")
+            .value("Export range must end after it starts: 2025-07-01 to 2025-06-01"));
+  }
+
+  @Test
+  @DisplayName("Given a range without orders, when getting daily revenue, "
+      + "then return zero totals and no periods")
+  void givenRangeWithoutOrders_whenGettingDailyRevenue_thenReturnZeroTotals() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/admin/revenue")
+            .header("Authorization", adminToken)
+            .param("from", "1999-01-01")
+            .param("to", "1999-01-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.period").value("DAY"))
+        .andExpect(jsonPath("$.totalOrders").value(0))
+        .andExpect(jsonPath("$.periods").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given a customer token, when getting revenue, then return forbidden")
+  void givenCustomerToken_whenGettingRevenue_thenReturnForbidden() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/admin/revenue")
+            .header("Authorization", bearerToken)
+            .param("from", "1999-01-01")
+            .param("to", "1999-01-31"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @DisplayName("Given an hourly range over the limit, when getting revenue, "
+      + "then return bad request")
+  void givenHourlyRangeOverLimit_whenGettingRevenue_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/admin/revenue")
+            .header("Authorization", adminToken)
+            .param("from", "2025-01-01")
+            .param("to", "2025-03-01")
+            .param("period", "HOUR"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message")
+            .value("Revenue range by HOUR must not exceed 31 days"));
+  }
+}
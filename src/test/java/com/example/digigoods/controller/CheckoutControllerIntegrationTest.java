@@ -0,0 +1,230 @@
+package com.example.digigoods.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.DiscountUsageHourly;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountUsageHourlyRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.OutboxRelay;
+import com.jayway.jsonpath.JsonPath;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class CheckoutControllerIntegrationTest {
+
+  private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 15, 12, 0);
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private OutboxRelay outboxRelay;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private DiscountUsageHourlyRepository usageRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Product product;
+  private User user;
+  private String bearerToken;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+    product = productRepository.save(new Product(null, "History Product",
+        new BigDecimal("20.00"), 10));
+    user = userRepository.save(new User(null, "order.history", "password"));
+    bearerToken = "Bearer " + jwtService.generateToken(user.getId(), user.getUsername());
+  }
+
+  @Test
+  @DisplayName("Given orders sharing a date, when paging order history, "
+      + "then return each order once newest first")
+  void givenOrdersSharingDate_whenPagingOrderHistory_thenReturnEachOrderOnceNewestFirst()
+      throws Exception {
+    // Arrange
+    Order oldest = saveOrder(user, NOON.minusDays(1));
+    Order first = saveOrder(user, NOON);
+    Order second = saveOrder(user, NOON);
+    saveOrder(userRepository.save(new User(null, "someone.else", "password")), NOON);
+
+    // Act & Assert
+    MvcResult firstPage = mockMvc.perform(get("/orders").param("limit", "2")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].orderId").value(second.getId()))
+        .andExpect(jsonPath("$[1].orderId").value(first.getId()))
+        .andExpect(jsonPath("$[0].items[0].productName").value("History Product"))
+        .andExpect(header().exists(CheckoutController.NEXT_CURSOR_HEADER))
+        .andReturn();
+
+    String cursor = firstPage.getResponse().getHeader(CheckoutController.NEXT_CURSOR_HEADER);
+    mockMvc.perform(get("/orders").param("limit", "2").param("cursor", cursor)
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].orderId").value(oldest.getId()))
+        .andExpect(header().doesNotExist(CheckoutController.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @DisplayName("Given malformed cursor, when getting order history, then return bad request")
+  void givenMalformedCursor_whenGettingOrderHistory_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/orders").param("cursor", "not-a-cursor")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given a checkout projected by the relay, when getting the order, "
+      + "then return it from the read model only to its owner")
+  void givenProjectedCheckout_whenGettingOrder_thenReturnItOnlyToOwner() throws Exception {
+    // Arrange
+    Product second = productRepository.save(new Product(null, "Second Product",
+        new BigDecimal("5.00"), 10));
+    MvcResult checkout = mockMvc.perform(post("/orders")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"userId\": " + user.getId() + ", \"productIds\": ["
+            + product.getId() + ", " + second.getId() + "], \"discountCodes\": []}"))
+        .andExpect(status().isOk())
+        .andReturn();
+    long orderId = ((Number) JsonPath.read(checkout.getResponse().getContentAsString(),
+        "$.orderId")).longValue();
+    mockMvc.perform(get("/orders/" + orderId)
+        .header("Authorization", bearerToken))
+        .andExpect(status().isNotFound());
+    User other = userRepository.save(new User(null, "someone.else", "password"));
+
+    // Act
+    outboxRelay.relay();
+
+    // Assert
+    mockMvc.perform(get("/orders/" + orderId)
+        .header("Authorization", bearerToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orderId").value(orderId))
+        .andExpect(jsonPath("$.finalPrice").value(25.00))
+        .andExpect(jsonPath("$.lines.length()").value(2))
+        .andExpect(jsonPath("$.lines[0].productName").value("History Product"))
+        .andExpect(jsonPath("$.lines[0].price").value(20.00))
+        .andExpect(jsonPath("$.lines[1].productName").value("Second Product"));
+    mockMvc.perform(get("/orders/" + orderId)
+        .header("Authorization",
+            "Bearer " + jwtService.generateToken(other.getId(), other.getUsername())))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Order not found with ID: " + orderId));
+  }
+
+  @Test
+  @DisplayName("Given a discounted checkout, when relaying the outbox, "
+      + "then add it to the revenue and discount usage rollups")
+  void givenDiscountedCheckout_whenRelaying_thenAddItToRevenueAndUsageRollups()
+      throws Exception {
+    // Arrange
+    Discount discount = new Discount();
+    discount.setCode("ROLLUP10");
+    discount.setPercentage(new BigDecimal("10.00"));
+    discount.setType(DiscountType.GENERAL);
+    discount.setValidFrom(LocalDate.now().minusDays(1));
+    discount.setValidUntil(LocalDate.now().plusDays(30));
+    discount.setRemainingUses(10);
+    discount = discountRepository.save(discount);
+    final long dailyOrders = dailyRevenueOrders();
+    mockMvc.perform(post("/orders")
+            .header("Authorization", bearerToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"userId\": " + user.getId() + ", \"productIds\": ["
+                + product.getId() + "], \"discountCodes\": [\"ROLLUP10\"]}"))
+        .andExpect(status().isOk());
+
+    // Act
+    outboxRelay.relay();
+
+    // Assert
+    assertEquals(dailyOrders + 1, dailyRevenueOrders());
+    List<DiscountUsageHourly> usage = usageRepository
+        .findByDiscountIdAndHourStartBetweenOrderByHourStart(discount.getId(),
+            NOON.minusYears(100), NOON.plusYears(100));
+    assertEquals(1, usage.size());
+    assertEquals(1L, usage.get(0).getRedemptions());
+    assertEquals(0, new BigDecimal("2.00").compareTo(usage.get(0).getDiscountAmount()));
+  }
+
+  private long dailyRevenueOrders() {
+    return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(orders), 0) FROM revenue_rollups "
+        + "WHERE period = 'DAY'", Long.class);
+  }
+
+  private Order saveOrder(User owner, LocalDateTime orderDate) {
+    Order order = new Order();
+    order.setUser(owner);
+    order.setProducts(new HashSet<>(Set.of(product)));
+    order.setOriginalSubtotal(new BigDecimal("20.00"));
+    order.setFinalPrice(new BigDecimal("20.00"));
+    order = orderRepository.saveAndFlush(order);
+    order.setOrderDate(orderDate);
+    return orderRepository.saveAndFlush(order);
+  }
+}
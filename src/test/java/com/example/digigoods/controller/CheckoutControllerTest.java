@@ -2,20 +2,28 @@ package com.example.digigoods.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.exception.InvalidCursorException;
 import com.example.digigoods.exception.MissingJwtTokenException;
 import com.example.digigoods.service.CheckoutService;
 import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.OrderService;
 import jakarta.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,6 +41,9 @@ class CheckoutControllerTest {
   @Mock
   private CheckoutService checkoutService;
 
+  @Mock
+  private OrderService orderService;
+
   @Mock
   private JwtService jwtService;
 
@@ -213,4 +224,112 @@ class CheckoutControllerTest {
       verify(jwtService).extractUserId(" " + token);
     }
   }
+
+  @Nested
+  @DisplayName("Quote Order Tests")
+  class QuoteOrderTests {
+
+    @Test
+    @DisplayName("Given valid request with Bearer token, when quoting order, "
+        + "then return quote response")
+    void givenValidRequestWithBearerToken_whenQuotingOrder_thenReturnQuoteResponse() {
+      // Arrange
+      String token = "valid.jwt.token";
+      Long userId = 123L;
+      QuoteResponse quote = new QuoteResponse(new BigDecimal("100.00"),
+          new BigDecimal("90.00"), List.of("SAVE10"), List.of(), Map.of(),
+          Map.of("SAVE10", new BigDecimal("10.00")), true);
+
+      when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer " + token);
+      when(jwtService.extractUserId(token)).thenReturn(userId);
+      when(checkoutService.quote(validCheckoutRequest, userId)).thenReturn(quote);
+
+      // Act
+      ResponseEntity<QuoteResponse> response = checkoutController.quoteOrder(
+          validCheckoutRequest, httpServletRequest);
+
+      // Assert
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(quote, response.getBody());
+      verify(checkoutService, never()).processCheckout(any(), any());
+    }
+
+    @Test
+    @DisplayName("Given request without Authorization header, when quoting order, "
+        + "then throw MissingJwtTokenException")
+    void givenRequestWithoutAuthorizationHeader_whenQuotingOrder_thenThrowException() {
+      // Arrange
+      when(httpServletRequest.getHeader("Authorization")).thenReturn(null);
+
+      // Act & Assert
+      assertThrows(MissingJwtTokenException.class,
+          () -> checkoutController.quoteOrder(validCheckoutRequest, httpServletRequest));
+    }
+  }
+
+  @Nested
+  @DisplayName("Order History Tests")
+  class OrderHistoryTests {
+
+    private OrderSummaryResponse order(Long id, LocalDateTime orderDate) {
+      return new OrderSummaryResponse(id, orderDate, new BigDecimal("20.00"),
+          new BigDecimal("18.00"), List.of());
+    }
+
+    @Test
+    @DisplayName("Given full page, when getting order history, "
+        + "then return cursor of the last order")
+    void givenFullPage_whenGettingOrderHistory_thenReturnCursorOfLastOrder() {
+      // Arrange
+      LocalDateTime orderDate = LocalDateTime.of(2025, 6, 15, 10, 30, 0, 123_456_000);
+      when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer token");
+      when(jwtService.extractUserId("token")).thenReturn(7L);
+      when(orderService.getOrderHistory(7L, null, null, 2))
+          .thenReturn(List.of(order(9L, orderDate.plusHours(1)), order(8L, orderDate)));
+
+      // Act
+      ResponseEntity<List<OrderSummaryResponse>> response =
+          checkoutController.getOrderHistory(null, 2, httpServletRequest);
+
+      // Assert
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(2, response.getBody().size());
+      assertEquals("2025-06-15T10:30:00.123456_8",
+          response.getHeaders().getFirst(CheckoutController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("Given cursor, when getting order history, "
+        + "then continue after its order and omit cursor on partial page")
+    void givenCursor_whenGettingOrderHistory_thenContinueAfterItsOrder() {
+      // Arrange
+      LocalDateTime orderDate = LocalDateTime.of(2025, 6, 15, 10, 30);
+      when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer token");
+      when(jwtService.extractUserId("token")).thenReturn(7L);
+      when(orderService.getOrderHistory(7L, orderDate, 8L, 20))
+          .thenReturn(List.of(order(5L, orderDate.minusDays(1))));
+
+      // Act
+      ResponseEntity<List<OrderSummaryResponse>> response =
+          checkoutController.getOrderHistory("2025-06-15T10:30_8", 20, httpServletRequest);
+
+      // Assert
+      assertEquals(1, response.getBody().size());
+      assertNull(response.getHeaders().getFirst(CheckoutController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("Given malformed cursor, when getting order history, "
+        + "then throw InvalidCursorException")
+    void givenMalformedCursor_whenGettingOrderHistory_thenThrowInvalidCursorException() {
+      // Arrange
+      when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer token");
+      when(jwtService.extractUserId("token")).thenReturn(7L);
+
+      // Act & Assert
+      assertThrows(InvalidCursorException.class,
+          () -> checkoutController.getOrderHistory("yesterday", 20, httpServletRequest));
+      verify(orderService, never()).getOrderHistory(any(), any(), any(), eq(20));
+    }
+  }
 }
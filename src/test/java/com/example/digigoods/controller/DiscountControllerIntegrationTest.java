@@ -1,16 +1,30 @@
 package com.example.digigoods.controller;
 
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.digigoods.model.Discount;
 import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.DiscountUsageHourly;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
 import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountUsageHourlyRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,18 +55,44 @@ class DiscountControllerIntegrationTest {
   @Autowired
   private DiscountRepository discountRepository;
 
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountUsageHourlyRepository usageRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private Clock clock;
+
+  private Product product;
   private Discount discount1;
   private Discount discount2;
+  private String bearerToken;
+  private String adminToken;
 
   @BeforeEach
   void setUp() {
     // Set up MockMvc
-    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(springSecurity())
+        .build();
 
     // Clear and set up test data
     discountRepository.deleteAll();
 
     // Create test discounts
+    product = new Product();
+    product.setName("Test Product");
+    product.setPrice(new BigDecimal("10.00"));
+    product.setStock(5);
+    product = productRepository.save(product);
+
     discount1 = new Discount();
     discount1.setCode("TEST20");
     discount1.setPercentage(new BigDecimal("20.00"));
@@ -70,18 +110,26 @@ class DiscountControllerIntegrationTest {
     discount2.setValidFrom(LocalDate.now().minusDays(5));
     discount2.setValidUntil(LocalDate.now().plusDays(60));
     discount2.setRemainingUses(5);
-    discount2.setApplicableProducts(new HashSet<>());
+    discount2.setApplicableProducts(new HashSet<>(Set.of(product)));
     discount2 = discountRepository.save(discount2);
+
+    // Create a customer and an admin
+    User user = userRepository.save(new User(null, "discount.customer", "password"));
+    bearerToken = "Bearer " + jwtService.generateToken(user.getId(), user.getUsername());
+    User admin = userRepository.save(new User(null, "discount.admin", "password", true));
+    adminToken = "Bearer " + jwtService.generateToken(admin.getId(), admin.getUsername());
   }
 
   @Test
-  @DisplayName("Given discounts in database, when getting all discounts, then return list")
-  void givenDiscountsInDatabase_whenGettingAllDiscounts_thenReturnDiscountsList() throws Exception {
+  @DisplayName("Given active discounts in database, when getting discounts, then return list")
+  void givenActiveDiscountsInDatabase_whenGettingDiscounts_thenReturnDiscountsList()
+      throws Exception {
     // Act & Assert
     mockMvc.perform(get("/discounts")
         .contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(2))
         .andExpect(jsonPath("$[0].id").value(discount1.getId()))
@@ -89,16 +137,55 @@ class DiscountControllerIntegrationTest {
         .andExpect(jsonPath("$[0].percentage").value(20.00))
         .andExpect(jsonPath("$[0].type").value("GENERAL"))
         .andExpect(jsonPath("$[0].remainingUses").value(10))
+        .andExpect(jsonPath("$[0].applicableProductIds.length()").value(0))
         .andExpect(jsonPath("$[1].id").value(discount2.getId()))
         .andExpect(jsonPath("$[1].code").value("PRODUCT15"))
         .andExpect(jsonPath("$[1].percentage").value(15.00))
         .andExpect(jsonPath("$[1].type").value("PRODUCT_SPECIFIC"))
-        .andExpect(jsonPath("$[1].remainingUses").value(5));
+        .andExpect(jsonPath("$[1].remainingUses").value(5))
+        .andExpect(jsonPath("$[1].applicableProductIds[0]").value(product.getId()));
   }
 
   @Test
-  @DisplayName("Given no discounts in database, when getting all discounts, then return empty list")
-  void givenNoDiscountsInDatabase_whenGettingAllDiscounts_thenReturnEmptyList() throws Exception {
+  @DisplayName("Given expired, future and used up discounts, when getting discounts, "
+      + "then return only active ones")
+  void givenInactiveDiscounts_whenGettingDiscounts_thenReturnOnlyActiveOnes() throws Exception {
+    // Arrange
+    saveDiscount("EXPIRED10", LocalDate.now().minusDays(10), LocalDate.now().minusDays(1), 5);
+    saveDiscount("FUTURE10", LocalDate.now().plusDays(1), LocalDate.now().plusDays(10), 5);
+    saveDiscount("USEDUP10", LocalDate.now().minusDays(1), LocalDate.now().plusDays(10), 0);
+
+    // Act & Assert
+    mockMvc.perform(get("/discounts")
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].code").value("TEST20"))
+        .andExpect(jsonPath("$[1].code").value("PRODUCT15"));
+  }
+
+  @Test
+  @DisplayName("Given full page, when getting discounts, then return next cursor to follow")
+  void givenFullPage_whenGettingDiscounts_thenReturnNextCursorToFollow() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/discounts").param("limit", "1")
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", String.valueOf(discount1.getId())))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].code").value("TEST20"));
+
+    mockMvc.perform(get("/discounts").param("limit", "1")
+        .param("after", String.valueOf(discount1.getId()))
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].code").value("PRODUCT15"));
+  }
+
+  @Test
+  @DisplayName("Given no discounts in database, when getting discounts, then return empty list")
+  void givenNoDiscountsInDatabase_whenGettingDiscounts_thenReturnEmptyList() throws Exception {
     // Arrange
     discountRepository.deleteAll();
 
@@ -120,4 +207,134 @@ class DiscountControllerIntegrationTest {
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
   }
+
+  @Test
+  @DisplayName("Given hourly usage rollup, when getting discount stats, "
+      + "then return totals of the window")
+  void givenHourlyUsageRollup_whenGettingDiscountStats_thenReturnWindowTotals()
+      throws Exception {
+    // Arrange
+    LocalDateTime hour = LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS);
+    usageRepository.save(new DiscountUsageHourly(null, discount1.getId(), hour.minusHours(3),
+        4L, new BigDecimal("8.00")));
+    usageRepository.save(new DiscountUsageHourly(null, discount1.getId(), hour,
+        2L, new BigDecimal("4.00")));
+    usageRepository.save(new DiscountUsageHourly(null, discount1.getId(), hour.minusDays(30),
+        9L, new BigDecimal("18.00")));
+
+    // Act & Assert
+    mockMvc.perform(get("/discounts/TEST20/stats").param("hours", "24")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value("TEST20"))
+        .andExpect(jsonPath("$.totalRedemptions").value(6))
+        .andExpect(jsonPath("$.totalDiscountAmount").value(12.00))
+        .andExpect(jsonPath("$.hours.length()").value(2))
+        .andExpect(jsonPath("$.hours[0].redemptions").value(4));
+  }
+
+  @Test
+  @DisplayName("Given unknown code, when getting discount stats, then return bad request")
+  void givenUnknownCode_whenGettingDiscountStats_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/discounts/UNKNOWN/stats")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given a customer token, when getting discount stats, then return forbidden")
+  void givenCustomerToken_whenGettingDiscountStats_thenReturnForbidden() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/discounts/TEST20/stats")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @DisplayName("Given prefix already used by a code, when starting a batch, "
+      + "then return bad request")
+  void givenPrefixAlreadyUsed_whenStartingBatch_thenReturnBadRequest() throws Exception {
+    // Arrange
+    saveDiscount("SPRING-0000ABCD", LocalDate.now(clock), LocalDate.now(clock).plusDays(30), 1);
+
+    // Act & Assert
+    mockMvc.perform(post("/discounts/batches")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(batchRequest("SPRING")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message")
+            .value("Discount code prefix 'SPRING' is already in use"));
+  }
+
+  @Test
+  @DisplayName("Given lowercase prefix, when starting a batch, then return bad request")
+  void givenLowercasePrefix_whenStartingBatch_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/discounts/batches")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(batchRequest("spring")))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given a customer token, when starting a batch, then return forbidden")
+  void givenCustomerToken_whenStartingBatch_thenReturnForbidden() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/discounts/batches")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(batchRequest("SUMMER")))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @DisplayName("Given percentage above the checkout maximum, when starting a batch, "
+      + "then return bad request")
+  void givenPercentageAboveCheckoutMaximum_whenStartingBatch_thenReturnBadRequest()
+      throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/discounts/batches")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(batchRequest("SUMMER").replace("15.00", "90.00")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(
+            "Discount batch percentage must not exceed 75%, the most a checkout accepts"));
+  }
+
+  @Test
+  @DisplayName("Given unknown batch, when getting batch progress, then return not found")
+  void givenUnknownBatch_whenGettingBatchProgress_thenReturnNotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/discounts/batches/00000000-0000-0000-0000-000000000000")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isNotFound());
+  }
+
+  private String batchRequest(String prefix) {
+    return """
+        {"prefix": "%s", "count": 10, "percentage": 15.00, "type": "GENERAL",
+         "validFrom": "%s", "validUntil": "%s"}
+        """.formatted(prefix, LocalDate.now(clock), LocalDate.now(clock).plusDays(30));
+  }
+
+  private void saveDiscount(String code, LocalDate validFrom, LocalDate validUntil,
+      int remainingUses) {
+    Discount discount = new Discount();
+    discount.setCode(code);
+    discount.setPercentage(new BigDecimal("10.00"));
+    discount.setType(DiscountType.GENERAL);
+    discount.setValidFrom(validFrom);
+    discount.setValidUntil(validUntil);
+    discount.setRemainingUses(remainingUses);
+    discount.setApplicableProducts(new HashSet<>());
+    discountRepository.save(discount);
+  }
 }
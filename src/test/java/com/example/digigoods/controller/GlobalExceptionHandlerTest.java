@@ -24,6 +24,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -184,6 +185,22 @@ class GlobalExceptionHandlerTest {
       assertEquals("Access denied", response.getBody().getMessage());
       assertEquals(TEST_REQUEST_URI, response.getBody().getPath());
     }
+
+    @Test
+    @DisplayName("Given AccessDeniedException, when handling exception, then return 403 response")
+    void givenAccessDeniedException_whenHandlingException_thenReturn403Response() {
+      // Arrange
+      AccessDeniedException exception = new AccessDeniedException("Access Denied");
+
+      // Act
+      ResponseEntity<ErrorResponse> response = globalExceptionHandler
+          .handleAccessDeniedException(exception, httpServletRequest);
+
+      // Assert
+      assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+      assertEquals("Forbidden", response.getBody().getError());
+      assertEquals(TEST_REQUEST_URI, response.getBody().getPath());
+    }
   }
 
   @Nested
@@ -1,13 +1,25 @@
 package com.example.digigoods.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.digigoods.event.CheckoutCompletedEvent;
 import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
 import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockSubscriptionRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.RelatedProductService;
+import com.example.digigoods.service.TopSellerService;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,13 +50,32 @@ class ProductControllerIntegrationTest {
   @Autowired
   private ProductRepository productRepository;
 
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private StockSubscriptionRepository stockSubscriptionRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private TopSellerService topSellerService;
+
+  @Autowired
+  private RelatedProductService relatedProductService;
+
   private Product product1;
   private Product product2;
+  private String bearerToken;
+  private String adminToken;
 
   @BeforeEach
   void setUp() {
     // Set up MockMvc
-    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(springSecurity())
+        .build();
 
     // Clear and set up test data
     productRepository.deleteAll();
@@ -61,6 +92,12 @@ class ProductControllerIntegrationTest {
     product2.setPrice(new BigDecimal("50.00"));
     product2.setStock(5);
     product2 = productRepository.save(product2);
+
+    // Create an authenticated user
+    User user = userRepository.save(new User(null, "stock.watcher", "password"));
+    bearerToken = "Bearer " + jwtService.generateToken(user.getId(), user.getUsername());
+    User admin = userRepository.save(new User(null, "stock.admin", "password", true));
+    adminToken = "Bearer " + jwtService.generateToken(admin.getId(), admin.getUsername());
   }
 
   @Test
@@ -97,4 +134,103 @@ class ProductControllerIntegrationTest {
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(0));
   }
+
+  @Test
+  @DisplayName("Given authenticated user, when subscribing to product, then store subscription")
+  void givenAuthenticatedUser_whenSubscribingToProduct_thenStoreSubscription() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/products/" + product1.getId() + "/subscriptions")
+        .header("Authorization", bearerToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.productId").value(product1.getId()));
+
+    assertEquals(1, stockSubscriptionRepository.count());
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when subscribing, then return not found")
+  void givenUnknownProduct_whenSubscribing_thenReturnNotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/products/999999/subscriptions")
+        .header("Authorization", bearerToken))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Given restock request, when restocking product, then return increased stock")
+  void givenRestockRequest_whenRestockingProduct_thenReturnIncreasedStock() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/products/" + product2.getId() + "/restock")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"quantity\": 3}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.stock").value(8));
+  }
+
+  @Test
+  @DisplayName("Given a customer token, when restocking product, then return forbidden")
+  void givenCustomerToken_whenRestockingProduct_thenReturnForbidden() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/products/" + product2.getId() + "/restock")
+        .header("Authorization", bearerToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"quantity\": 3}"))
+        .andExpect(status().isForbidden());
+    assertEquals(5, productRepository.findById(product2.getId()).orElseThrow().getStock());
+  }
+
+  @Test
+  @DisplayName("Given non-positive quantity, when restocking product, then return bad request")
+  void givenNonPositiveQuantity_whenRestockingProduct_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/products/" + product2.getId() + "/restock")
+        .header("Authorization", adminToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"quantity\": 0}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given committed checkouts, when getting top products, "
+      + "then return best sellers first")
+  void givenCommittedCheckouts_whenGettingTopProducts_thenReturnBestSellersFirst()
+      throws Exception {
+    // Arrange
+    topSellerService.onCheckoutCompleted(new CheckoutCompletedEvent(1L, 1L,
+        List.of(product2.getId(), product2.getId(), product1.getId()), BigDecimal.TEN,
+        BigDecimal.TEN, Map.of()));
+    topSellerService.onCheckoutCompleted(new CheckoutCompletedEvent(2L, 1L,
+        List.of(product2.getId()), BigDecimal.TEN, BigDecimal.TEN, Map.of()));
+
+    // Act & Assert
+    mockMvc.perform(get("/products/top").param("limit", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].productId").value(product2.getId()))
+        .andExpect(jsonPath("$[0].name").value("Test Product 2"))
+        .andExpect(jsonPath("$[1].productId").value(product1.getId()));
+  }
+
+  @Test
+  @DisplayName("Given committed checkouts, when getting related products, "
+      + "then return products bought together with their count")
+  void givenCommittedCheckouts_whenGettingRelatedProducts_thenReturnProductsBoughtTogether()
+      throws Exception {
+    // Arrange
+    // Order IDs past any stored order survive a concurrent startup rebuild
+    for (long orderId = Long.MAX_VALUE - 2; orderId < Long.MAX_VALUE; orderId++) {
+      relatedProductService.onCheckoutCompleted(new CheckoutCompletedEvent(orderId, 1L,
+          List.of(product1.getId(), product2.getId()), BigDecimal.TEN, BigDecimal.TEN,
+          Map.of()));
+    }
+
+    // Act & Assert
+    mockMvc.perform(get("/products/" + product1.getId() + "/related"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].productId").value(product2.getId()))
+        .andExpect(jsonPath("$[0].name").value("Test Product 2"))
+        .andExpect(jsonPath("$[0].count").value(2));
+  }
 }
@@ -136,6 +136,22 @@ class UserDetailsServiceImplTest {
       assertEquals(differentPassword, userDetails.getPassword());
       verify(userRepository).findByUsername(differentUsername);
     }
+
+    @Test
+    @DisplayName("Given an admin user, when loading user, then grant the admin authority")
+    void givenAdminUser_whenLoadingUser_thenGrantAdminAuthority() {
+      // Arrange
+      testUser.setAdmin(true);
+      when(userRepository.findByUsername(testUsername)).thenReturn(Optional.of(testUser));
+
+      // Act
+      UserDetails userDetails = userDetailsService.loadUserByUsername(testUsername);
+
+      // Assert
+      assertEquals(1, userDetails.getAuthorities().size());
+      assertEquals(UserDetailsServiceImpl.ADMIN_AUTHORITY,
+          userDetails.getAuthorities().iterator().next().getAuthority());
+    }
   }
 
   @Nested
@@ -0,0 +1,110 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class CheckoutServiceIntegrationTest {
+
+  @Autowired
+  private CheckoutService checkoutService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private Clock clock;
+
+  private User user;
+  private List<Long> productIds;
+  private List<String> discountCodes;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User(null, "statements", "password"));
+    productIds = new ArrayList<>();
+    discountCodes = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      Product product = productRepository.save(
+          new Product(null, "Product " + i, new BigDecimal("20.00"), 10));
+      productIds.add(product.getId());
+
+      Discount discount = new Discount();
+      discount.setCode("FETCH" + i);
+      discount.setPercentage(new BigDecimal("10.00"));
+      discount.setType(DiscountType.PRODUCT_SPECIFIC);
+      discount.setValidFrom(LocalDate.now(clock).minusDays(1));
+      discount.setValidUntil(LocalDate.now(clock).plusDays(30));
+      discount.setRemainingUses(10);
+      discount.setApplicableProducts(Set.of(product));
+      discountRepository.save(discount);
+      discountCodes.add(discount.getCode());
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  @DisplayName("Given five product specific codes, when checking out, "
+      + "then load the discounts with their products in one query")
+  void givenFiveProductSpecificCodes_whenCheckingOut_thenLoadDiscountsInOneQuery() {
+    // Arrange
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // Act
+    OrderResponse response = checkoutService.processCheckout(
+        new CheckoutRequest(user.getId(), productIds, discountCodes), user.getId());
+    entityManager.flush();
+
+    // Assert - user, products and discounts are one select each; the order is one insert
+    // plus five product and five discount links; stock takes one select and five updates;
+    // each discount takes one use; the read model and rollup events are one outbox insert each
+    assertEquals(new BigDecimal("90.00"), response.getFinalPrice());
+    assertNotNull(response.getOrderId());
+    assertEquals(5, response.getLines().size());
+    assertEquals(0, statistics.getCollectionFetchCount());
+    assertEquals(27, statistics.getPrepareStatementCount());
+  }
+}
@@ -3,25 +3,36 @@ package com.example.digigoods.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.event.OrderCreatedEvent;
 import com.example.digigoods.exception.ExcessiveDiscountException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
 import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountSnapshot;
 import com.example.digigoods.model.DiscountType;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.OrderRepository;
 import com.example.digigoods.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,9 +40,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class CheckoutServiceTest {
@@ -48,6 +62,19 @@ class CheckoutServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private OutboxWriter outboxWriter;
+
+  @Spy
+  private PricingEngine pricingEngine = new PricingEngine(new BigDecimal("75.00"));
+
+  @Spy
+  private DiscountOptimizer discountOptimizer = new DiscountOptimizer(pricingEngine,
+      new SimpleMeterRegistry(), Duration.ofSeconds(1));
+
   @InjectMocks
   private CheckoutService checkoutService;
 
@@ -111,7 +138,7 @@ class CheckoutServiceTest {
     void givenValidCheckoutRequest_whenProcessingCheckout_thenReturnSuccessResponse() {
       // Arrange
       List<Product> products = List.of(product1, product2);
-      List<Discount> discounts = List.of(generalDiscount);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount));
       
       when(productService.getProductsByIds(anyList())).thenReturn(products);
       when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
@@ -128,6 +155,21 @@ class CheckoutServiceTest {
       
       verify(productService).validateAndUpdateStock(checkoutRequest.getProductIds());
       verify(discountService).updateDiscountUsage(discounts);
+      CheckoutCompletedEvent completed = new CheckoutCompletedEvent(null, 1L, List.of(1L, 2L),
+          new BigDecimal("150.00"), new BigDecimal("135.00"),
+          Map.of(1L, new BigDecimal("15.00")));
+      verify(outboxWriter).append(CheckoutCompletedEvent.TYPE, null, completed);
+      verify(eventPublisher).publishEvent(completed);
+      ArgumentCaptor<OrderCreatedEvent> created = ArgumentCaptor.forClass(OrderCreatedEvent.class);
+      verify(outboxWriter).append(eq(OrderCreatedEvent.TYPE), isNull(), created.capture());
+      assertEquals(List.of(
+          new OrderCreatedEvent.Line(1L, "Product 1", new BigDecimal("100.00"),
+              new BigDecimal("100.00")),
+          new OrderCreatedEvent.Line(2L, "Product 2", new BigDecimal("50.00"),
+              new BigDecimal("50.00"))), created.getValue().lines());
+      assertEquals(Map.of("GENERAL10", new BigDecimal("15.00")),
+          created.getValue().discountAmounts());
+      verify(eventPublisher).publishEvent(created.getValue());
     }
 
     @Test
@@ -152,7 +194,7 @@ class CheckoutServiceTest {
       excessiveDiscount.setType(DiscountType.GENERAL);
       
       List<Product> products = List.of(product1, product2);
-      List<Discount> discounts = List.of(excessiveDiscount);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(excessiveDiscount));
       
       when(productService.getProductsByIds(anyList())).thenReturn(products);
       when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
@@ -168,7 +210,7 @@ class CheckoutServiceTest {
       // Arrange
       checkoutRequest.setDiscountCodes(List.of("PRODUCT20"));
       List<Product> products = List.of(product1, product2);
-      List<Discount> discounts = List.of(productSpecificDiscount);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(productSpecificDiscount));
       
       when(productService.getProductsByIds(anyList())).thenReturn(products);
       when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
@@ -190,7 +232,8 @@ class CheckoutServiceTest {
       // Arrange
       checkoutRequest.setDiscountCodes(List.of("GENERAL10", "PRODUCT20"));
       List<Product> products = List.of(product1, product2);
-      List<Discount> discounts = List.of(generalDiscount, productSpecificDiscount);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount),
+          DiscountSnapshot.from(productSpecificDiscount));
       
       when(productService.getProductsByIds(anyList())).thenReturn(products);
       when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
@@ -206,13 +249,44 @@ class CheckoutServiceTest {
       assertEquals(new BigDecimal("117.00"), response.getFinalPrice());
     }
 
+    @Test
+    @DisplayName("Given mixed discounts, when processing checkout, "
+        + "then return line prices and discount amounts from pricing")
+    void givenMixedDiscounts_whenProcessingCheckout_thenReturnLinePricesAndDiscountAmounts() {
+      // Arrange
+      checkoutRequest.setDiscountCodes(List.of("GENERAL10", "PRODUCT20"));
+      List<Product> products = List.of(product1, product2);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount),
+          DiscountSnapshot.from(productSpecificDiscount));
+
+      when(productService.getProductsByIds(anyList())).thenReturn(products);
+      when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+      // Act
+      OrderResponse response = checkoutService.processCheckout(checkoutRequest, 1L);
+
+      // Assert
+      assertEquals(new BigDecimal("150.00"), response.getOriginalSubtotal());
+      assertEquals(List.of(
+          new OrderResponse.Line(1L, new BigDecimal("100.00"), new BigDecimal("80.00")),
+          new OrderResponse.Line(2L, new BigDecimal("50.00"), new BigDecimal("50.00"))),
+          response.getLines());
+      assertEquals(List.of("GENERAL10", "PRODUCT20"),
+          List.copyOf(response.getDiscountAmounts().keySet()));
+      assertEquals(new BigDecimal("13.00"), response.getDiscountAmounts().get("GENERAL10"));
+      assertEquals(new BigDecimal("20.00"), response.getDiscountAmounts().get("PRODUCT20"));
+      verify(orderRepository).save(any());
+      verify(orderRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("Given no discounts, when processing checkout, then return original price")
     void givenNoDiscounts_whenProcessingCheckout_thenReturnOriginalPrice() {
       // Arrange
       checkoutRequest.setDiscountCodes(List.of());
       List<Product> products = List.of(product1, product2);
-      List<Discount> discounts = List.of();
+      List<DiscountSnapshot> discounts = List.of();
       
       when(productService.getProductsByIds(anyList())).thenReturn(products);
       when(discountService.validateAndGetDiscounts(anyList())).thenReturn(discounts);
@@ -227,4 +301,90 @@ class CheckoutServiceTest {
       assertEquals(new BigDecimal("150.00"), response.getFinalPrice()); // 100 + 50
     }
   }
+
+  @Nested
+  @DisplayName("Quote Tests")
+  class QuoteTests {
+
+    @Test
+    @DisplayName("Given codes within the cap together, when quoting, then apply all of them")
+    void givenCodesWithinCapTogether_whenQuoting_thenApplyAllOfThem() {
+      // Arrange
+      Discount deepDiscount = new Discount();
+      deepDiscount.setId(3L);
+      deepDiscount.setCode("GENERAL70");
+      deepDiscount.setPercentage(new BigDecimal("70.00"));
+      deepDiscount.setType(DiscountType.GENERAL);
+      checkoutRequest.setDiscountCodes(List.of("GENERAL10", "GENERAL70"));
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount),
+          DiscountSnapshot.from(deepDiscount));
+
+      when(productService.getProductsByIds(anyList())).thenReturn(List.of(product1, product2));
+      when(discountService.resolveCandidates(anyList()))
+          .thenReturn(new DiscountService.Candidates(discounts, Map.of()));
+
+      // Act
+      QuoteResponse response = checkoutService.quote(checkoutRequest, 1L);
+
+      // Assert
+      // 150 - 10% = 135, 135 - 70% = 40.50, which takes 73%
+      assertEquals(new BigDecimal("150.00"), response.getOriginalSubtotal());
+      assertEquals(new BigDecimal("40.50"), response.getFinalPrice());
+      assertEquals(List.of("GENERAL10", "GENERAL70"), response.getAppliedDiscountCodes());
+      assertEquals(List.of(), response.getDroppedDiscountCodes());
+    }
+
+    @Test
+    @DisplayName("Given codes above the cap, when quoting, then drop the excess code")
+    void givenCodesAboveCap_whenQuoting_thenDropExcessCode() {
+      // Arrange
+      Discount deepDiscount = new Discount();
+      deepDiscount.setId(3L);
+      deepDiscount.setCode("GENERAL80");
+      deepDiscount.setPercentage(new BigDecimal("80.00"));
+      deepDiscount.setType(DiscountType.GENERAL);
+      checkoutRequest.setDiscountCodes(List.of("GENERAL10", "GENERAL80"));
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount),
+          DiscountSnapshot.from(deepDiscount));
+
+      when(productService.getProductsByIds(anyList())).thenReturn(List.of(product1, product2));
+      when(discountService.resolveCandidates(anyList()))
+          .thenReturn(new DiscountService.Candidates(discounts, Map.of()));
+
+      // Act
+      QuoteResponse response = checkoutService.quote(checkoutRequest, 1L);
+
+      // Assert
+      assertEquals(new BigDecimal("135.00"), response.getFinalPrice());
+      assertEquals(List.of("GENERAL10"), response.getAppliedDiscountCodes());
+      assertEquals(List.of("GENERAL80"), response.getDroppedDiscountCodes());
+      assertTrue(response.isOptimal());
+      verify(discountService, never()).updateDiscountUsage(anyList());
+    }
+
+    @Test
+    @DisplayName("Given an invalid code among valid ones, when quoting, "
+        + "then apply the valid codes and drop the invalid one with its reason")
+    void givenInvalidCodeAmongValidOnes_whenQuoting_thenDropInvalidCodeWithReason() {
+      // Arrange
+      checkoutRequest.setDiscountCodes(List.of("GENERAL10", "EXPIRED5"));
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(generalDiscount));
+
+      when(productService.getProductsByIds(anyList())).thenReturn(List.of(product1, product2));
+      when(discountService.resolveCandidates(anyList()))
+          .thenReturn(new DiscountService.Candidates(discounts,
+              Map.of("EXPIRED5", "discount has expired")));
+
+      // Act
+      QuoteResponse response = checkoutService.quote(checkoutRequest, 1L);
+
+      // Assert
+      assertEquals(new BigDecimal("135.00"), response.getFinalPrice());
+      assertEquals(List.of("GENERAL10"), response.getAppliedDiscountCodes());
+      assertEquals(List.of("EXPIRED5"), response.getDroppedDiscountCodes());
+      assertEquals(Map.of("EXPIRED5", "discount has expired"),
+          response.getRejectedDiscountCodes());
+      verify(discountService, never()).validateAndGetDiscounts(anyList());
+    }
+  }
 }
@@ -0,0 +1,209 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.DiscountBatchRequest;
+import com.example.digigoods.dto.DiscountBatchResponse;
+import com.example.digigoods.exception.DiscountBatchNotFoundException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountBatchServiceTest {
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private DiscountBatchWriter discountBatchWriter;
+
+  private MutableClock clock;
+  private DiscountBatchService discountBatchService;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    discountBatchService = new DiscountBatchService(discountRepository, productRepository,
+        discountBatchWriter, new PricingEngine(new BigDecimal("75.00")), clock,
+        Duration.ofDays(1));
+  }
+
+  private DiscountBatchRequest request(String prefix, DiscountType type, List<Long> productIds) {
+    return new DiscountBatchRequest(prefix, 1000, new BigDecimal("15.00"), type,
+        LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), 1, productIds);
+  }
+
+  private Product product(Long id) {
+    Product product = new Product();
+    product.setId(id);
+    return product;
+  }
+
+  @Nested
+  @DisplayName("Starting")
+  class StartTests {
+
+    @Test
+    @DisplayName("Given valid request, when starting, "
+        + "then hand a running batch with distinct products to the writer")
+    void givenValidRequest_whenStarting_thenHandRunningBatchToWriter() {
+      // Arrange
+      when(productRepository.findAllById(List.of(1L, 2L)))
+          .thenReturn(List.of(product(1L), product(2L)));
+      ArgumentCaptor<DiscountBatchJob> job = ArgumentCaptor.forClass(DiscountBatchJob.class);
+
+      // Act
+      DiscountBatchResponse response = discountBatchService.start(
+          request("SPRING", DiscountType.PRODUCT_SPECIFIC, List.of(1L, 2L, 1L)));
+
+      // Assert
+      verify(discountBatchWriter).write(job.capture());
+      assertEquals(List.of(1L, 2L), job.getValue().getProductIds());
+      assertEquals("RUNNING", response.getStatus());
+      assertEquals(1000, response.getRequested());
+      assertEquals(response, discountBatchService.getBatch(response.getBatchId()));
+    }
+
+    @Test
+    @DisplayName("Given percentage above the checkout maximum, when starting, "
+        + "then reject the batch")
+    void givenPercentageAboveCheckoutMaximum_whenStarting_thenRejectBatch() {
+      // Arrange
+      DiscountBatchRequest request = request("SPRING", DiscountType.GENERAL, null);
+      request.setPercentage(new BigDecimal("80.00"));
+
+      // Act & Assert
+      InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+          () -> discountBatchService.start(request));
+      assertEquals("Discount batch percentage must not exceed 75%, the most a checkout accepts",
+          exception.getMessage());
+      verify(discountBatchWriter, never()).write(any());
+    }
+
+    @Test
+    @DisplayName("Given prefix used by a stored code, when starting, then reject the batch")
+    void givenPrefixUsedByStoredCode_whenStarting_thenRejectBatch() {
+      // Arrange
+      when(discountRepository.existsByCodeStartingWith("SPRING-")).thenReturn(true);
+
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class,
+          () -> discountBatchService.start(request("SPRING", DiscountType.GENERAL, null)));
+      verify(discountBatchWriter, never()).write(any());
+    }
+
+    @Test
+    @DisplayName("Given prefix used by a running batch, when starting, then reject the batch")
+    void givenPrefixUsedByRunningBatch_whenStarting_thenRejectBatch() {
+      // Arrange
+      discountBatchService.start(request("SPRING", DiscountType.GENERAL, null));
+
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class,
+          () -> discountBatchService.start(request("SPRING", DiscountType.GENERAL, null)));
+    }
+
+    @Test
+    @DisplayName("Given product specific batch without products, when starting, "
+        + "then reject the batch")
+    void givenProductSpecificBatchWithoutProducts_whenStarting_thenRejectBatch() {
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class, () -> discountBatchService.start(
+          request("SPRING", DiscountType.PRODUCT_SPECIFIC, List.of())));
+    }
+
+    @Test
+    @DisplayName("Given buy-get batch, when starting, then reject the batch")
+    void givenBuyGetBatch_whenStarting_thenRejectBatch() {
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class, () -> discountBatchService.start(
+          request("SPRING", DiscountType.BUY_X_GET_Y, List.of(1L))));
+    }
+
+    @Test
+    @DisplayName("Given unknown product, when starting, then reject the batch")
+    void givenUnknownProduct_whenStarting_thenRejectBatch() {
+      // Arrange
+      when(productRepository.findAllById(List.of(1L, 9L))).thenReturn(List.of(product(1L)));
+
+      // Act & Assert
+      ProductNotFoundException exception = assertThrows(ProductNotFoundException.class,
+          () -> discountBatchService.start(
+              request("SPRING", DiscountType.PRODUCT_SPECIFIC, List.of(1L, 9L))));
+      assertEquals("Product not found with ID: 9", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given end before start, when starting, then reject the batch")
+    void givenEndBeforeStart_whenStarting_thenRejectBatch() {
+      // Arrange
+      DiscountBatchRequest request = request("SPRING", DiscountType.GENERAL, null);
+      request.setValidUntil(LocalDate.of(2025, 5, 31));
+
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class, () -> discountBatchService.start(request));
+    }
+  }
+
+  @Nested
+  @DisplayName("Progress")
+  class ProgressTests {
+
+    @Test
+    @DisplayName("Given unknown batch, when getting progress, then throw not found")
+    void givenUnknownBatch_whenGettingProgress_thenThrowNotFound() {
+      // Act & Assert
+      assertThrows(DiscountBatchNotFoundException.class,
+          () -> discountBatchService.getBatch(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Given batch finished before the retention, when evicting, then forget it")
+    void givenBatchFinishedBeforeRetention_whenEvicting_thenForgetIt() {
+      // Arrange
+      ArgumentCaptor<DiscountBatchJob> job = ArgumentCaptor.forClass(DiscountBatchJob.class);
+      final UUID batchId = discountBatchService.start(
+          request("SPRING", DiscountType.GENERAL, null)).getBatchId();
+      verify(discountBatchWriter).write(job.capture());
+      job.getValue().complete(clock.millis());
+
+      // Act
+      clock.advance(Duration.ofHours(23));
+      discountBatchService.evictFinished();
+      String statusBeforeRetention = discountBatchService.getBatch(batchId).getStatus();
+      clock.advance(Duration.ofHours(2));
+      discountBatchService.evictFinished();
+
+      // Assert
+      assertEquals("COMPLETED", statusBeforeRetention);
+      assertThrows(DiscountBatchNotFoundException.class,
+          () -> discountBatchService.getBatch(batchId));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.DiscountBatchRequest;
+import com.example.digigoods.model.DiscountType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountBatchWriterTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private DiscountCodeFilter discountCodeFilter;
+
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private DiscountBatchWriter discountBatchWriter;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    meterRegistry = new SimpleMeterRegistry();
+    discountBatchWriter = new DiscountBatchWriter(jdbcTemplate,
+        new TransactionTemplate(transactionManager), discountCodeFilter, clock, meterRegistry, 5);
+  }
+
+  private DiscountBatchJob job(int count, List<Long> productIds) {
+    DiscountBatchRequest request = new DiscountBatchRequest("SPRING", count,
+        new BigDecimal("15.00"), DiscountType.PRODUCT_SPECIFIC, LocalDate.of(2025, 6, 1),
+        LocalDate.of(2025, 6, 30), 1, productIds);
+    return new DiscountBatchJob(UUID.randomUUID(), request, productIds, clock.millis());
+  }
+
+  @Nested
+  @DisplayName("Writing")
+  class WriteTests {
+
+    @Test
+    @DisplayName("Given count above chunk size, when writing, "
+        + "then insert distinct prefixed codes one chunk per batch")
+    @SuppressWarnings("unchecked")
+    void givenCountAboveChunkSize_whenWriting_thenInsertDistinctCodesOneChunkPerBatch() {
+      // Arrange
+      DiscountBatchJob job = job(12, List.of());
+      ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+
+      // Act
+      discountBatchWriter.write(job);
+
+      // Assert
+      verify(jdbcTemplate, times(3)).batchUpdate(eq(DiscountBatchWriter.INSERT_DISCOUNT_SQL),
+          rows.capture());
+      assertEquals(List.of(5, 5, 2), rows.getAllValues().stream().map(List::size).toList());
+      Set<Object> codes = new HashSet<>();
+      rows.getAllValues().forEach(chunk -> chunk.forEach(row -> codes.add(row[0])));
+      assertEquals(12, codes.size());
+      assertTrue(codes.stream().allMatch(code -> code.toString().startsWith("SPRING-")));
+      verify(discountCodeFilter, times(12)).addCommitted(anyString());
+      verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+      assertEquals(DiscountBatchJob.Status.COMPLETED, job.getStatus());
+      assertEquals(12, job.getInserted());
+      assertEquals(12.0, meterRegistry.get("discount.batch.inserted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given applicable products, when writing, "
+        + "then link every chunk after the last linked discount ID")
+    void givenApplicableProducts_whenWriting_thenLinkEveryChunkAfterLastLinkedId() {
+      // Arrange
+      final DiscountBatchJob job = job(10, List.of(1L, 2L));
+      String linkSql = String.format(DiscountBatchWriter.LINK_PRODUCTS_SQL, "?, ?");
+      when(jdbcTemplate.queryForObject(DiscountBatchWriter.MAX_ID_SQL, Long.class))
+          .thenReturn(100L);
+      when(jdbcTemplate.update(eq(linkSql), any(Object[].class))).thenReturn(10);
+      when(jdbcTemplate.queryForObject(eq(DiscountBatchWriter.MAX_PREFIX_ID_SQL),
+          eq(Long.class), any(Object[].class))).thenReturn(105L, 110L);
+
+      // Act
+      discountBatchWriter.write(job);
+
+      // Assert
+      verify(jdbcTemplate).update(linkSql, 100L, "SPRING-%", 1L, 2L);
+      verify(jdbcTemplate).update(linkSql, 105L, "SPRING-%", 1L, 2L);
+      assertEquals(DiscountBatchJob.Status.COMPLETED, job.getStatus());
+      assertEquals(20, job.getProductLinks());
+    }
+
+    @Test
+    @DisplayName("Given failing chunk, when writing, "
+        + "then fail the batch and keep the committed chunks counted")
+    void givenFailingChunk_whenWriting_thenFailBatchAndKeepCommittedChunks() {
+      // Arrange
+      DiscountBatchJob job = job(12, List.of());
+      when(jdbcTemplate.batchUpdate(eq(DiscountBatchWriter.INSERT_DISCOUNT_SQL), anyList()))
+          .thenReturn(new int[5])
+          .thenThrow(new DataIntegrityViolationException("duplicate code"));
+
+      // Act
+      discountBatchWriter.write(job);
+
+      // Assert
+      assertEquals(DiscountBatchJob.Status.FAILED, job.getStatus());
+      assertEquals(5, job.getInserted());
+      assertEquals("duplicate code", job.getError());
+      verify(discountCodeFilter, times(5)).addCommitted(anyString());
+    }
+
+    @Test
+    @DisplayName("Given running batch, when computing throughput, "
+        + "then divide inserted codes by elapsed time")
+    void givenRunningBatch_whenComputingThroughput_thenDivideInsertedByElapsedTime() {
+      // Arrange
+      DiscountBatchJob job = job(12, List.of());
+      job.recordChunk(5000, 0);
+
+      // Act
+      long rate = job.codesPerSecond(clock.millis() + 2000);
+
+      // Assert
+      assertEquals(2500, rate);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.DiscountType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class DiscountCacheTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private DiscountCache discountCache;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    meterRegistry = new SimpleMeterRegistry();
+    discountCache = new DiscountCache(clock, meterRegistry, 2);
+  }
+
+  private DiscountSnapshot snapshot(Long id, String code, LocalDate validUntil) {
+    return new DiscountSnapshot(id, code, new BigDecimal("10.00"), DiscountType.GENERAL,
+        TODAY.minusDays(10), validUntil, Set.of(), false);
+  }
+
+  @Nested
+  @DisplayName("Lookup Tests")
+  class LookupTests {
+
+    @Test
+    @DisplayName("Given cached discount, when getting by code, then return snapshot and count hit")
+    void givenCachedDiscount_whenGettingByCode_thenReturnSnapshotAndCountHit() {
+      // Arrange
+      DiscountSnapshot snapshot = snapshot(1L, "SAVE10", TODAY.plusDays(5));
+      discountCache.put(snapshot);
+
+      // Act
+      DiscountSnapshot result = discountCache.get("SAVE10");
+
+      // Assert
+      assertSame(snapshot, result);
+      assertEquals(1.0, meterRegistry.get("discount.cache.requests")
+          .tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given unknown code, when getting by code, then return null and count miss")
+    void givenUnknownCode_whenGettingByCode_thenReturnNullAndCountMiss() {
+      // Act
+      DiscountSnapshot result = discountCache.get("UNKNOWN");
+
+      // Assert
+      assertNull(result);
+      assertEquals(1.0, meterRegistry.get("discount.cache.requests")
+          .tag("result", "miss").counter().count());
+    }
+  }
+
+  @Nested
+  @DisplayName("Expiry Tests")
+  class ExpiryTests {
+
+    @Test
+    @DisplayName("Given discount valid until today, when the day ends, then evict exactly then")
+    void givenDiscountValidUntilToday_whenDayEnds_thenEvictExactlyThen() {
+      // Arrange
+      discountCache.put(snapshot(1L, "TODAY10", TODAY));
+      clock.advance(Duration.ofHours(14).minusMillis(1));
+
+      // Act & Assert
+      assertNotNull(discountCache.get("TODAY10"));
+      clock.advance(Duration.ofMillis(1));
+      assertNull(discountCache.get("TODAY10"));
+      assertEquals(0, discountCache.size());
+    }
+
+    @Test
+    @DisplayName("Given expired snapshot, when putting, then do not cache it")
+    void givenExpiredSnapshot_whenPutting_thenDoNotCacheIt() {
+      // Act
+      discountCache.put(snapshot(1L, "OLD10", TODAY.minusDays(1)));
+
+      // Assert
+      assertEquals(0, discountCache.size());
+    }
+
+    @Test
+    @DisplayName("Given full cache with expired entry, when putting, then evict expired entry")
+    void givenFullCacheWithExpiredEntry_whenPutting_thenEvictExpiredEntry() {
+      // Arrange
+      discountCache.put(snapshot(1L, "TODAY10", TODAY));
+      discountCache.put(snapshot(2L, "LATER10", TODAY.plusDays(5)));
+      clock.advance(Duration.ofDays(1));
+
+      // Act
+      discountCache.put(snapshot(3L, "NEW10", TODAY.plusDays(5)));
+
+      // Assert
+      assertEquals(2, discountCache.size());
+      assertNotNull(discountCache.get("NEW10"));
+    }
+
+    @Test
+    @DisplayName("Given full cache of live entries, when putting new code, then skip caching")
+    void givenFullCacheOfLiveEntries_whenPuttingNewCode_thenSkipCaching() {
+      // Arrange
+      discountCache.put(snapshot(1L, "A10", TODAY.plusDays(5)));
+      discountCache.put(snapshot(2L, "B10", TODAY.plusDays(5)));
+
+      // Act
+      discountCache.put(snapshot(3L, "C10", TODAY.plusDays(5)));
+
+      // Assert
+      assertEquals(2, discountCache.size());
+      assertNull(discountCache.get("C10"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Invalidation Tests")
+  class InvalidationTests {
+
+    @Test
+    @DisplayName("Given discount whose code changed, when invalidating, then drop the old code")
+    void givenDiscountWhoseCodeChanged_whenInvalidating_thenDropOldCode() {
+      // Arrange
+      discountCache.put(snapshot(1L, "OLD10", TODAY.plusDays(5)));
+
+      // Act
+      discountCache.invalidate(1L, "NEW10");
+
+      // Assert
+      assertNull(discountCache.get("OLD10"));
+      assertEquals(0, discountCache.size());
+    }
+  }
+}
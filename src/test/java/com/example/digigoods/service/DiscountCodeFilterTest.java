@@ -0,0 +1,191 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class DiscountCodeFilterTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private DiscountCodeFilter discountCodeFilter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    discountCodeFilter = new DiscountCodeFilter(meterRegistry, 10_000, 0.01);
+  }
+
+  private List<String> codes(String prefix, int count) {
+    return IntStream.range(0, count).mapToObj(i -> prefix + i).toList();
+  }
+
+  @Nested
+  @DisplayName("Membership Tests")
+  class MembershipTests {
+
+    @Test
+    @DisplayName("Given filter not built yet, when checking any code, then report possibly known")
+    void givenFilterNotBuiltYet_whenCheckingAnyCode_thenReportPossiblyKnown() {
+      // Act & Assert
+      assertFalse(discountCodeFilter.isReady());
+      assertTrue(discountCodeFilter.mightContain("ANYTHING"));
+    }
+
+    @Test
+    @DisplayName("Given built filter, when checking stored codes, then never reject them")
+    void givenBuiltFilter_whenCheckingStoredCodes_thenNeverRejectThem() {
+      // Arrange
+      List<String> stored = codes("SAVE", 10_000);
+      discountCodeFilter.rebuild(stored.iterator(), 0);
+
+      // Act & Assert
+      assertTrue(discountCodeFilter.isReady());
+      assertTrue(stored.stream().allMatch(discountCodeFilter::mightContain));
+    }
+
+    @Test
+    @DisplayName("Given built filter at capacity, when checking unknown codes, "
+        + "then keep false positives near the configured rate")
+    void givenBuiltFilterAtCapacity_whenCheckingUnknownCodes_thenKeepFalsePositivesNearRate() {
+      // Arrange
+      discountCodeFilter.rebuild(codes("SAVE", 10_000).iterator(), 0);
+
+      // Act
+      long falsePositives = codes("GUESS", 100_000).stream()
+          .filter(discountCodeFilter::mightContain)
+          .count();
+
+      // Assert
+      assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+      assertEquals(100_000 - falsePositives,
+          meterRegistry.get("discount.code-filter.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given built filter, when adding a code, then report it as possibly known")
+    void givenBuiltFilter_whenAddingCode_thenReportItAsPossiblyKnown() {
+      // Arrange
+      discountCodeFilter.rebuild(List.<String>of().iterator(), 0);
+
+      // Act
+      discountCodeFilter.add("NEW10");
+
+      // Assert
+      assertTrue(discountCodeFilter.mightContain("NEW10"));
+      assertFalse(discountCodeFilter.mightContain("OTHER10"));
+    }
+
+    @Test
+    @DisplayName("Given committed code added, when rebuilding without it, "
+        + "then do not carry it over")
+    void givenCommittedCodeAdded_whenRebuildingWithoutIt_thenDoNotCarryItOver() {
+      // Arrange
+      discountCodeFilter.rebuild(List.<String>of().iterator(), 0);
+      discountCodeFilter.addCommitted("BULK-0000");
+
+      // Act
+      boolean knownBeforeRebuild = discountCodeFilter.mightContain("BULK-0000");
+      discountCodeFilter.rebuild(List.<String>of().iterator(), 0);
+
+      // Assert
+      assertTrue(knownBeforeRebuild);
+      assertFalse(discountCodeFilter.mightContain("BULK-0000"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Rebuild Tests")
+  class RebuildTests {
+
+    @Test
+    @DisplayName("Given code added before rebuild but not yet stored, when rebuilding, "
+        + "then keep the code")
+    void givenCodeAddedBeforeRebuildButNotYetStored_whenRebuilding_thenKeepCode() {
+      // Arrange
+      discountCodeFilter.add("UNCOMMITTED10");
+
+      // Act
+      discountCodeFilter.rebuild(List.of("STORED10").iterator(), 0);
+
+      // Assert
+      assertTrue(discountCodeFilter.mightContain("UNCOMMITTED10"));
+      assertTrue(discountCodeFilter.mightContain("STORED10"));
+    }
+
+    @Test
+    @DisplayName("Given more local codes than the carry-over limit, when adding, "
+        + "then keep only the latest ones")
+    void givenMoreLocalCodesThanCarryOverLimit_whenAdding_thenKeepOnlyLatest() {
+      // Arrange
+      List<String> added = codes("LOCAL", DiscountCodeFilter.MAX_CARRY_OVER + 5);
+
+      // Act
+      added.forEach(discountCodeFilter::add);
+
+      // Assert
+      assertEquals(DiscountCodeFilter.MAX_CARRY_OVER, discountCodeFilter.getCarryOverSize());
+      discountCodeFilter.rebuild(List.<String>of().iterator(), 42);
+      assertEquals(0, discountCodeFilter.getCarryOverSize());
+      assertTrue(discountCodeFilter.mightContain(added.get(added.size() - 1)));
+      assertEquals(42, discountCodeFilter.getCoveredThroughId());
+    }
+
+    @Test
+    @DisplayName("Given code added while rebuilding, when rebuild completes, then keep the code")
+    void givenCodeAddedWhileRebuilding_whenRebuildCompletes_thenKeepCode() {
+      // Arrange
+      Iterator<String> iterator = List.of("STORED10").iterator();
+      Iterator<String> addingIterator = new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+          discountCodeFilter.add("CONCURRENT10");
+          return iterator.next();
+        }
+      };
+
+      // Act
+      discountCodeFilter.rebuild(addingIterator, 0);
+
+      // Assert
+      assertTrue(discountCodeFilter.mightContain("CONCURRENT10"));
+    }
+
+    @Test
+    @DisplayName("Given codes created after the build, when catching up, "
+        + "then know them and cover their IDs")
+    void givenCodesCreatedAfterBuild_whenCatchingUp_thenKnowThemAndCoverTheirIds() {
+      // Arrange
+      discountCodeFilter.rebuild(List.of("STORED10").iterator(), 5);
+
+      // Act
+      discountCodeFilter.catchUp(List.of("REMOTE10").iterator(), 9);
+
+      // Assert
+      assertTrue(discountCodeFilter.mightContain("REMOTE10"));
+      assertEquals(9, discountCodeFilter.getCoveredThroughId());
+    }
+
+    @Test
+    @DisplayName("Given invalid false positive rate, when creating filter, then reject sizing")
+    void givenInvalidFalsePositiveRate_whenCreatingFilter_thenRejectSizing() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> new DiscountCodeFilter(meterRegistry, 10_000, 1.0));
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.event.DiscountChangedEvent;
+import com.example.digigoods.event.DiscountExpiringEvent;
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountRepository.ExpiringDiscount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountExpirySchedulerTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private MutableClock clock;
+  private DiscountCache discountCache;
+  private SimpleMeterRegistry meterRegistry;
+  private DiscountExpiryScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    meterRegistry = new SimpleMeterRegistry();
+    discountCache = new DiscountCache(clock, meterRegistry, 100);
+    scheduler = new DiscountExpiryScheduler(discountRepository, discountCache, eventPublisher,
+        clock, meterRegistry, Duration.ofDays(3), Duration.ofDays(7));
+  }
+
+  private ExpiringDiscount expiring(Long id, String code, LocalDate validUntil) {
+    return expiring(id, code, validUntil, true);
+  }
+
+  private ExpiringDiscount expiring(Long id, String code, LocalDate validUntil,
+                                    boolean announced) {
+    return new ExpiringDiscount() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public String getCode() {
+        return code;
+      }
+
+      @Override
+      public LocalDate getValidUntil() {
+        return validUntil;
+      }
+
+      @Override
+      public Boolean getAnnounced() {
+        return announced;
+      }
+    };
+  }
+
+  @Nested
+  @DisplayName("Reminder Tests")
+  class ReminderTests {
+
+    @Test
+    @DisplayName("Given discount expiring in five days, when reminder lead is reached, "
+        + "then claim reminder and publish event")
+    void givenDiscountExpiringInFiveDays_whenReminderLeadReached_thenClaimAndPublish() {
+      // Arrange - expires at the start of June 21st, reminder due at the start of June 18th
+      when(discountRepository.findExpiringBetween(LocalDate.EPOCH, TODAY.plusDays(7)))
+          .thenReturn(List.of(expiring(1L, "SAVE10", TODAY.plusDays(5))));
+      when(discountRepository.markReminderSent(eq(1L), eq(TODAY.plusDays(5)),
+          any(LocalDateTime.class))).thenReturn(1);
+      scheduler.start();
+
+      // Act
+      clock.advance(Duration.ofHours(61));
+      scheduler.tick();
+      verify(eventPublisher, never()).publishEvent(any(DiscountExpiringEvent.class));
+      clock.advance(Duration.ofHours(1));
+      scheduler.tick();
+
+      // Assert
+      verify(eventPublisher).publishEvent(
+          new DiscountExpiringEvent(1L, "SAVE10", TODAY.plusDays(5)));
+      assertEquals(1.0, meterRegistry.get("discount.expiry.fired")
+          .tag("kind", "reminder").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given reminder claimed by another node, when reminder is due, "
+        + "then do not publish event")
+    void givenReminderClaimedByAnotherNode_whenReminderDue_thenDoNotPublishEvent() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(LocalDate.EPOCH, TODAY.plusDays(7)))
+          .thenReturn(List.of(expiring(1L, "SAVE10", TODAY.plusDays(1))));
+      when(discountRepository.markReminderSent(anyLong(), any(), any())).thenReturn(0);
+      scheduler.start();
+
+      // Act
+      scheduler.tick();
+
+      // Assert
+      verify(discountRepository).markReminderSent(eq(1L), eq(TODAY.plusDays(1)), any());
+      verify(eventPublisher, never()).publishEvent(any(DiscountExpiringEvent.class));
+    }
+
+    @Test
+    @DisplayName("Given batch generated code expiring soon, when the day ends, "
+        + "then archive it without a reminder")
+    void givenBatchGeneratedCodeExpiringSoon_whenDayEnds_thenArchiveWithoutReminder() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(LocalDate.EPOCH, TODAY.plusDays(7)))
+          .thenReturn(List.of(expiring(1L, "SPRING-7K2M", TODAY, false)));
+      when(discountRepository.archiveExpired(eq(1L), eq(TODAY.plusDays(1)), any()))
+          .thenReturn(1);
+      scheduler.start();
+
+      // Act
+      scheduler.tick();
+      clock.advance(Duration.ofHours(14));
+      scheduler.tick();
+
+      // Assert
+      verify(discountRepository, never()).markReminderSent(anyLong(), any(), any());
+      verify(eventPublisher, never()).publishEvent(any(DiscountExpiringEvent.class));
+      verify(discountRepository).archiveExpired(eq(1L), eq(TODAY.plusDays(1)), any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Archive Tests")
+  class ArchiveTests {
+
+    @Test
+    @DisplayName("Given discount expiring today, when the day ends, "
+        + "then archive it and drop it from the cache")
+    void givenDiscountExpiringToday_whenDayEnds_thenArchiveAndDropFromCache() {
+      // Arrange
+      discountCache.put(new DiscountSnapshot(1L, "TODAY10", new BigDecimal("10.00"),
+          DiscountType.GENERAL, TODAY.minusDays(5), TODAY, Set.of(), false));
+      when(discountRepository.findExpiringBetween(LocalDate.EPOCH, TODAY.plusDays(7)))
+          .thenReturn(List.of(expiring(1L, "TODAY10", TODAY)));
+      when(discountRepository.markReminderSent(anyLong(), any(), any())).thenReturn(0);
+      when(discountRepository.archiveExpired(eq(1L), eq(TODAY.plusDays(1)), any()))
+          .thenReturn(1);
+      scheduler.start();
+
+      // Act
+      clock.advance(Duration.ofHours(14));
+      scheduler.tick();
+
+      // Assert
+      verify(discountRepository).archiveExpired(eq(1L), eq(TODAY.plusDays(1)), any());
+      assertEquals(0, discountCache.size());
+      assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("Given overdue unarchived discount, when starting, "
+        + "then archive it on the first tick without a reminder")
+    void givenOverdueUnarchivedDiscount_whenStarting_thenArchiveOnFirstTickWithoutReminder() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(LocalDate.EPOCH, TODAY.plusDays(7)))
+          .thenReturn(List.of(expiring(1L, "OLD10", TODAY.minusDays(3))));
+      when(discountRepository.archiveExpired(eq(1L), eq(TODAY), any())).thenReturn(1);
+      scheduler.start();
+
+      // Act
+      scheduler.tick();
+
+      // Assert
+      verify(discountRepository).archiveExpired(eq(1L), eq(TODAY), any());
+      verify(discountRepository, never()).markReminderSent(anyLong(), any(), any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Horizon Tests")
+  class HorizonTests {
+
+    @Test
+    @DisplayName("Given a day has passed, when ticking, then load only the next day")
+    void givenDayHasPassed_whenTicking_thenLoadOnlyNextDay() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(any(), any())).thenReturn(List.of());
+      scheduler.start();
+
+      // Act
+      clock.advance(Duration.ofDays(1));
+      scheduler.tick();
+
+      // Assert
+      verify(discountRepository).findExpiringBetween(TODAY.plusDays(7), TODAY.plusDays(8));
+    }
+
+    @Test
+    @DisplayName("Given discount changed within the horizon, when committed, then schedule it")
+    void givenDiscountChangedWithinHorizon_whenCommitted_thenScheduleIt() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(any(), any())).thenReturn(List.of());
+      scheduler.start();
+
+      // Act
+      scheduler.onDiscountChanged(new DiscountChangedEvent(1L, "NEW10", TODAY.plusDays(2),
+          true));
+      scheduler.onDiscountChanged(new DiscountChangedEvent(2L, "LATER10", TODAY.plusDays(30),
+          true));
+
+      // Assert - reminder and expiry of the first discount only
+      assertEquals(2, scheduler.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("Given unannounced discount changed within the horizon, when committed, "
+        + "then schedule only its expiry")
+    void givenUnannouncedDiscountChanged_whenCommitted_thenScheduleOnlyExpiry() {
+      // Arrange
+      when(discountRepository.findExpiringBetween(any(), any())).thenReturn(List.of());
+      scheduler.start();
+
+      // Act
+      scheduler.onDiscountChanged(new DiscountChangedEvent(1L, "SPRING-7K2M",
+          TODAY.plusDays(2), false));
+
+      // Assert
+      assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("Given horizon not beyond reminder lead, when creating scheduler, "
+        + "then reject configuration")
+    void givenHorizonNotBeyondReminderLead_whenCreatingScheduler_thenRejectConfiguration() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> new DiscountExpiryScheduler(discountRepository, discountCache, eventPublisher,
+              clock, meterRegistry, Duration.ofDays(3), Duration.ofDays(3)));
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.PricingResult;
+import com.example.digigoods.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class DiscountOptimizerTest {
+
+  private PricingEngine pricingEngine;
+  private DiscountOptimizer discountOptimizer;
+  private Product product1;
+  private Product product2;
+  private Product product3;
+  private List<Product> products;
+  private List<Long> cart;
+
+  @BeforeEach
+  void setUp() {
+    pricingEngine = new PricingEngine(new BigDecimal("75.00"));
+    discountOptimizer = new DiscountOptimizer(pricingEngine, new SimpleMeterRegistry(),
+        Duration.ofSeconds(1));
+
+    product1 = product(1L, "100.00");
+    product2 = product(2L, "50.00");
+    product3 = product(3L, "19.99");
+    products = List.of(product1, product2, product3);
+    cart = List.of(1L, 2L);
+  }
+
+  private Product product(long id, String price) {
+    Product product = new Product();
+    product.setId(id);
+    product.setName("Product " + id);
+    product.setPrice(new BigDecimal(price));
+    return product;
+  }
+
+  private Discount discount(String code, String percentage, DiscountType type,
+                            Product... applicableProducts) {
+    Discount discount = new Discount();
+    discount.setId((long) code.hashCode());
+    discount.setCode(code);
+    discount.setPercentage(new BigDecimal(percentage));
+    discount.setType(type);
+    discount.setValidFrom(LocalDate.of(2025, 1, 1));
+    discount.setValidUntil(LocalDate.of(2025, 12, 31));
+    discount.setRemainingUses(10);
+    discount.setApplicableProducts(Set.of(applicableProducts));
+    return discount;
+  }
+
+  private DiscountSnapshot snapshot(String code, String percentage, DiscountType type,
+                                    Product... applicableProducts) {
+    return DiscountSnapshot.from(discount(code, percentage, type, applicableProducts));
+  }
+
+  private List<String> codes(DiscountOptimizer.Selection selection) {
+    return selection.discounts().stream().map(DiscountSnapshot::code).toList();
+  }
+
+  @Nested
+  @DisplayName("Subset selection")
+  class SubsetSelectionTests {
+
+    @Test
+    @DisplayName("Given codes exceeding the cap together, when optimizing, "
+        + "then choose the best subset under the cap")
+    void givenCodesExceedingCapTogether_whenOptimizing_thenChooseBestSubsetUnderCap() {
+      // Arrange
+      List<DiscountSnapshot> candidates = List.of(
+          snapshot("GENERAL50", "50.00", DiscountType.GENERAL),
+          snapshot("GENERAL40", "40.00", DiscountType.GENERAL),
+          snapshot("GENERAL30", "30.00", DiscountType.GENERAL));
+
+      // Act
+      DiscountOptimizer.Selection selection =
+          discountOptimizer.optimize(cart, products, candidates);
+
+      // Assert
+      // All three take 79%; 150 - 50% - 40% = 45 takes 70%
+      assertEquals(List.of("GENERAL50", "GENERAL40"), codes(selection));
+      assertEquals(new BigDecimal("45.00"), selection.pricing().finalPrice());
+      assertTrue(selection.complete());
+    }
+
+    @Test
+    @DisplayName("Given non-stackable code beating the stack, when optimizing, "
+        + "then choose it alone")
+    void givenNonStackableCodeBeatingStack_whenOptimizing_thenChooseItAlone() {
+      // Arrange
+      Discount solo = discount("SOLO60", "60.00", DiscountType.GENERAL);
+      solo.setStackable(false);
+      List<DiscountSnapshot> candidates = List.of(
+          snapshot("GENERAL10", "10.00", DiscountType.GENERAL),
+          DiscountSnapshot.from(solo),
+          snapshot("GENERAL20", "20.00", DiscountType.GENERAL));
+
+      // Act
+      DiscountOptimizer.Selection selection =
+          discountOptimizer.optimize(cart, products, candidates);
+
+      // Assert
+      assertEquals(List.of("SOLO60"), codes(selection));
+      assertEquals(new BigDecimal("60.00"), selection.pricing().finalPrice());
+    }
+
+    @Test
+    @DisplayName("Given codes without effect or below minimum, when optimizing, "
+        + "then leave them out")
+    void givenCodesWithoutEffectOrBelowMinimum_whenOptimizing_thenLeaveThemOut() {
+      // Arrange
+      Discount minimum = discount("BIG20", "20.00", DiscountType.GENERAL);
+      minimum.setMinCartValue(new BigDecimal("500.00"));
+      List<DiscountSnapshot> candidates = List.of(
+          snapshot("OTHER30", "30.00", DiscountType.PRODUCT_SPECIFIC, product3),
+          DiscountSnapshot.from(minimum),
+          snapshot("GENERAL10", "10.00", DiscountType.GENERAL));
+
+      // Act
+      DiscountOptimizer.Selection selection =
+          discountOptimizer.optimize(cart, products, candidates);
+
+      // Assert
+      assertEquals(List.of("GENERAL10"), codes(selection));
+      assertEquals(new BigDecimal("135.00"), selection.pricing().finalPrice());
+    }
+
+    @Test
+    @DisplayName("Given no candidates, when optimizing, then return the original price")
+    void givenNoCandidates_whenOptimizing_thenReturnOriginalPrice() {
+      // Act
+      DiscountOptimizer.Selection selection =
+          discountOptimizer.optimize(cart, products, List.of());
+
+      // Assert
+      assertTrue(selection.discounts().isEmpty());
+      assertEquals(new BigDecimal("150.00"), selection.pricing().finalPrice());
+    }
+  }
+
+  @Nested
+  @DisplayName("Search bounds")
+  class SearchBoundTests {
+
+    @Test
+    @DisplayName("Given mixed candidates, when optimizing, "
+        + "then match the best subset found by pricing every subset")
+    void givenMixedCandidates_whenOptimizing_thenMatchExhaustiveSearch() {
+      // Arrange
+      Discount bogo = discount("BOGO", "100.00", DiscountType.BUY_X_GET_Y, product3);
+      bogo.setBuyQuantity(1);
+      bogo.setGetQuantity(1);
+      Discount capped = discount("CAP35", "35.00", DiscountType.PRODUCT_SPECIFIC, product1);
+      capped.setMaxDiscountPerItem(new BigDecimal("30.00"));
+      List<DiscountSnapshot> candidates = List.of(
+          snapshot("GENERAL15", "15.00", DiscountType.GENERAL),
+          snapshot("PRODUCT25", "25.00", DiscountType.PRODUCT_SPECIFIC, product1, product3),
+          DiscountSnapshot.from(bogo),
+          snapshot("GENERAL33", "33.33", DiscountType.GENERAL),
+          DiscountSnapshot.from(capped),
+          snapshot("PRODUCT12", "12.50", DiscountType.PRODUCT_SPECIFIC, product2),
+          snapshot("GENERAL7", "7.00", DiscountType.GENERAL),
+          snapshot("GENERAL21", "21.00", DiscountType.GENERAL));
+      List<Long> mixedCart = List.of(1L, 3L, 2L, 3L, 1L, 3L);
+
+      // Act
+      DiscountOptimizer.Selection selection =
+          discountOptimizer.optimize(mixedCart, products, candidates);
+
+      // Assert
+      BigDecimal best = null;
+      for (int mask = 0; mask < 1 << candidates.size(); mask++) {
+        List<DiscountSnapshot> subset = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+          if ((mask & 1 << i) != 0) {
+            subset.add(candidates.get(i));
+          }
+        }
+        PricingResult result = pricingEngine.price(mixedCart, products, subset);
+        try {
+          pricingEngine.validateMaximumDiscount(result);
+        } catch (ExcessiveDiscountException e) {
+          continue;
+        }
+        if (best == null || result.finalPrice().compareTo(best) < 0) {
+          best = result.finalPrice();
+        }
+      }
+      assertEquals(best, selection.pricing().finalPrice());
+      assertTrue(selection.pricing().discountPercentage()
+          .compareTo(pricingEngine.getMaxDiscountPercentage()) <= 0);
+    }
+
+    @Test
+    @DisplayName("Given exhausted time budget, when optimizing, "
+        + "then return an admissible selection marked incomplete")
+    void givenExhaustedTimeBudget_whenOptimizing_thenReturnIncompleteAdmissibleSelection() {
+      // Arrange
+      DiscountOptimizer hurried = new DiscountOptimizer(pricingEngine,
+          new SimpleMeterRegistry(), Duration.ZERO);
+      List<DiscountSnapshot> candidates = List.of(
+          snapshot("GENERAL50", "50.00", DiscountType.GENERAL),
+          snapshot("GENERAL40", "40.00", DiscountType.GENERAL));
+
+      // Act
+      DiscountOptimizer.Selection selection = hurried.optimize(cart, products, candidates);
+
+      // Assert
+      assertFalse(selection.complete());
+      assertTrue(selection.pricing().discountPercentage()
+          .compareTo(pricingEngine.getMaxDiscountPercentage()) <= 0);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.NotificationResponse;
+import com.example.digigoods.event.DiscountExpiringEvent;
+import com.example.digigoods.repository.UserRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountReminderServiceTest {
+
+  private static final LocalDate VALID_UNTIL = LocalDate.of(2025, 6, 20);
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private NotificationService notificationService;
+
+  private DiscountReminderService discountReminderService;
+
+  @BeforeEach
+  void setUp() {
+    discountReminderService = new DiscountReminderService(userRepository, notificationService,
+        2);
+  }
+
+  private NotificationResponse response(boolean success) {
+    return new NotificationResponse(null, "message", LocalDateTime.now(), success);
+  }
+
+  @Test
+  @DisplayName("Given users over several pages, when fanning out, then remind every page")
+  void givenUsersOverSeveralPages_whenFanningOut_thenRemindEveryPage() {
+    // Arrange
+    when(userRepository.findIdsAfter(0L, PageRequest.ofSize(2))).thenReturn(List.of(1L, 2L));
+    when(userRepository.findIdsAfter(2L, PageRequest.ofSize(2))).thenReturn(List.of(3L));
+    when(notificationService.sendDiscountExpiryReminders(List.of(1L, 2L), "SAVE10",
+        "2025-06-20")).thenReturn(List.of(response(true), response(false)));
+    when(notificationService.sendDiscountExpiryReminders(List.of(3L), "SAVE10", "2025-06-20"))
+        .thenReturn(List.of(response(true)));
+
+    // Act
+    int reminded = discountReminderService.fanOut("SAVE10", VALID_UNTIL);
+
+    // Assert
+    assertEquals(2, reminded);
+  }
+
+  @Test
+  @DisplayName("Given no users, when discount is expiring, then send nothing")
+  void givenNoUsers_whenDiscountIsExpiring_thenSendNothing() {
+    // Arrange
+    when(userRepository.findIdsAfter(0L, PageRequest.ofSize(2))).thenReturn(List.of());
+
+    // Act
+    discountReminderService.onDiscountExpiring(
+        new DiscountExpiringEvent(1L, "SAVE10", VALID_UNTIL));
+
+    // Assert
+    verify(notificationService, never()).sendDiscountExpiryReminders(any(), any(), any());
+  }
+}
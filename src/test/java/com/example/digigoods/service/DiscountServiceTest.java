@@ -2,27 +2,41 @@ package com.example.digigoods.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.digigoods.dto.DiscountResponse;
 import com.example.digigoods.exception.InvalidDiscountException;
 import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountSnapshot;
 import com.example.digigoods.model.DiscountType;
 import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountRepository.ApplicableProductId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 @ExtendWith(MockitoExtension.class)
 class DiscountServiceTest {
@@ -30,21 +44,37 @@ class DiscountServiceTest {
   @Mock
   private DiscountRepository discountRepository;
 
-  @InjectMocks
+  @Mock
+  private RedemptionLeaseStore leaseStore;
+
+  private MutableClock clock;
+  private DiscountCache discountCache;
+  private DiscountCodeFilter discountCodeFilter;
+  private RedemptionCounters redemptionCounters;
   private DiscountService discountService;
+  private LocalDate today;
 
   private Discount validDiscount;
   private Discount expiredDiscount;
 
   @BeforeEach
   void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    today = LocalDate.of(2025, 6, 15);
+    discountCache = new DiscountCache(clock, new SimpleMeterRegistry(), 1000);
+    discountCodeFilter = new DiscountCodeFilter(new SimpleMeterRegistry(), 1000, 0.01);
+    redemptionCounters = new RedemptionCounters(leaseStore, clock,
+        new SimpleMeterRegistry(), 2, 10, Duration.ofMinutes(1));
+    discountService = new DiscountService(discountRepository, discountCache,
+        discountCodeFilter, redemptionCounters, clock);
+
     validDiscount = new Discount();
     validDiscount.setId(1L);
     validDiscount.setCode("VALID10");
     validDiscount.setPercentage(new BigDecimal("10.00"));
     validDiscount.setType(DiscountType.GENERAL);
-    validDiscount.setValidFrom(LocalDate.now().minusDays(1));
-    validDiscount.setValidUntil(LocalDate.now().plusDays(30));
+    validDiscount.setValidFrom(today.minusDays(1));
+    validDiscount.setValidUntil(today.plusDays(30));
     validDiscount.setRemainingUses(5);
 
     expiredDiscount = new Discount();
@@ -52,33 +82,54 @@ class DiscountServiceTest {
     expiredDiscount.setCode("EXPIRED10");
     expiredDiscount.setPercentage(new BigDecimal("10.00"));
     expiredDiscount.setType(DiscountType.GENERAL);
-    expiredDiscount.setValidFrom(LocalDate.now().minusDays(30));
-    expiredDiscount.setValidUntil(LocalDate.now().minusDays(1)); // Expired
+    expiredDiscount.setValidFrom(today.minusDays(30));
+    expiredDiscount.setValidUntil(today.minusDays(1)); // Expired
     expiredDiscount.setRemainingUses(5);
   }
 
   @Test
-  @DisplayName("Given discounts exist, when getting all discounts, then return all discounts")
-  void givenDiscountsExist_whenGettingAllDiscounts_thenReturnAllDiscounts() {
+  @DisplayName("Given active discounts, when getting active discounts, "
+      + "then attach product ids from one query")
+  void givenActiveDiscounts_whenGettingActiveDiscounts_thenAttachProductIdsFromOneQuery() {
     // Arrange
-    List<Discount> expectedDiscounts = List.of(validDiscount, expiredDiscount);
-    when(discountRepository.findAll()).thenReturn(expectedDiscounts);
+    when(discountRepository.findActiveAfter(today, 0L, PageRequest.of(0, 10)))
+        .thenReturn(List.of(validDiscount, expiredDiscount));
+    ApplicableProductId row = mock(ApplicableProductId.class);
+    when(row.getDiscountId()).thenReturn(2L);
+    when(row.getProductId()).thenReturn(7L);
+    when(discountRepository.findApplicableProductIds(List.of(1L, 2L))).thenReturn(List.of(row));
 
     // Act
-    List<Discount> actualDiscounts = discountService.getAllDiscounts();
+    List<DiscountResponse> result = discountService.getActiveDiscounts(0L, 10);
 
     // Assert
-    assertNotNull(actualDiscounts);
-    assertEquals(2, actualDiscounts.size());
-    assertEquals(expectedDiscounts, actualDiscounts);
-    verify(discountRepository).findAll();
+    assertEquals(2, result.size());
+    assertEquals("VALID10", result.get(0).getCode());
+    assertTrue(result.get(0).getApplicableProductIds().isEmpty());
+    assertEquals(List.of(7L), result.get(1).getApplicableProductIds());
+    verify(discountRepository, times(1)).findApplicableProductIds(any());
+  }
+
+  @Test
+  @DisplayName("Given no active discounts, when getting active discounts, then skip product query")
+  void givenNoActiveDiscounts_whenGettingActiveDiscounts_thenSkipProductQuery() {
+    // Arrange
+    when(discountRepository.findActiveAfter(today, 5L, PageRequest.of(0, 10)))
+        .thenReturn(List.of());
+
+    // Act
+    List<DiscountResponse> result = discountService.getActiveDiscounts(5L, 10);
+
+    // Assert
+    assertTrue(result.isEmpty());
+    verify(discountRepository, never()).findApplicableProductIds(any());
   }
 
   @Test
   @DisplayName("Given null discount codes, when validating, then return empty list")
   void givenNullDiscountCodes_whenValidating_thenReturnEmptyList() {
     // Act
-    List<Discount> result = discountService.validateAndGetDiscounts(null);
+    List<DiscountSnapshot> result = discountService.validateAndGetDiscounts(null);
 
     // Assert
     assertNotNull(result);
@@ -89,7 +140,7 @@ class DiscountServiceTest {
   @DisplayName("Given empty discount codes, when validating, then return empty list")
   void givenEmptyDiscountCodes_whenValidating_thenReturnEmptyList() {
     // Act
-    List<Discount> result = discountService.validateAndGetDiscounts(List.of());
+    List<DiscountSnapshot> result = discountService.validateAndGetDiscounts(List.of());
 
     // Assert
     assertNotNull(result);
@@ -104,12 +155,127 @@ class DiscountServiceTest {
     when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
 
     // Act
-    List<Discount> result = discountService.validateAndGetDiscounts(discountCodes);
+    List<DiscountSnapshot> result = discountService.validateAndGetDiscounts(discountCodes);
 
     // Assert
     assertNotNull(result);
     assertEquals(1, result.size());
-    assertEquals(validDiscount, result.get(0));
+    assertEquals(DiscountSnapshot.from(validDiscount), result.get(0));
+  }
+
+  @Test
+  @DisplayName("Given cached discount code, when validating again, then skip the repository")
+  void givenCachedDiscountCode_whenValidatingAgain_thenSkipRepository() {
+    // Arrange
+    List<String> discountCodes = List.of("VALID10");
+    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
+    DiscountSnapshot first = discountService.validateAndGetDiscounts(discountCodes).get(0);
+
+    // Act
+    DiscountSnapshot second = discountService.validateAndGetDiscounts(discountCodes).get(0);
+
+    // Assert
+    assertSame(first, second);
+    verify(discountRepository, times(1)).findAllByCodeIn(any());
+  }
+
+  @Test
+  @DisplayName("Given cached discount past its last valid day, when validating, "
+      + "then reload it and throw InvalidDiscountException")
+  void givenCachedDiscountPastLastValidDay_whenValidating_thenReloadAndThrow() {
+    // Arrange
+    validDiscount.setValidUntil(today);
+    List<String> discountCodes = List.of("VALID10");
+    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
+    discountService.validateAndGetDiscounts(discountCodes);
+    clock.advance(Duration.ofHours(14));
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(discountCodes));
+    assertTrue(exception.getMessage().contains("discount has expired"));
+    verify(discountRepository, times(2)).findAllByCodeIn(any());
+    assertEquals(0, discountCache.size());
+  }
+
+  @Test
+  @DisplayName("Given code unknown to the built code filter, when validating, "
+      + "then throw InvalidDiscountException without a repository lookup")
+  void givenCodeUnknownToBuiltCodeFilter_whenValidating_thenThrowWithoutRepositoryLookup() {
+    // Arrange
+    when(discountRepository.streamAllCodes()).thenReturn(Stream.of("VALID10"));
+    discountService.rebuildCodeFilter();
+
+    // Act & Assert
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(List.of("GUESS123")));
+    assertTrue(exception.getMessage().contains("discount code not found"));
+    verify(discountRepository, never()).findAllByCodeIn(any());
+  }
+
+  @Test
+  @DisplayName("Given code created on another node after the filter was built, "
+      + "when validating after a refresh, then load it")
+  void givenCodeCreatedAfterFilterBuilt_whenValidatingAfterRefresh_thenLoadIt() {
+    // Arrange
+    when(discountRepository.findMaxId()).thenReturn(0L, 7L);
+    when(discountRepository.streamAllCodes()).thenReturn(Stream.empty());
+    discountService.rebuildCodeFilter();
+    when(discountRepository.streamCodesBetween(0L, 7L)).thenReturn(Stream.of("VALID10"));
+    List<String> discountCodes = List.of("VALID10");
+    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
+
+    // Act
+    discountService.refreshCodeFilter();
+    List<DiscountSnapshot> result = discountService.validateAndGetDiscounts(discountCodes);
+
+    // Assert
+    assertEquals(1, result.size());
+    assertEquals(7L, discountCodeFilter.getCoveredThroughId());
+  }
+
+  @Test
+  @DisplayName("Given no discount created since the filter was built, when refreshing, "
+      + "then read no codes")
+  void givenNoDiscountCreatedSinceBuild_whenRefreshing_thenReadNoCodes() {
+    // Arrange
+    when(discountRepository.findMaxId()).thenReturn(7L);
+    when(discountRepository.streamAllCodes()).thenReturn(Stream.empty());
+    discountService.rebuildCodeFilter();
+
+    // Act
+    discountService.refreshCodeFilter();
+
+    // Assert
+    verify(discountRepository, never()).streamCodesBetween(anyLong(), anyLong());
+  }
+
+  @Test
+  @DisplayName("Given code known to the built code filter, when validating, then load it")
+  void givenCodeKnownToBuiltCodeFilter_whenValidating_thenLoadIt() {
+    // Arrange
+    when(discountRepository.streamAllCodes()).thenReturn(Stream.of("VALID10"));
+    discountService.rebuildCodeFilter();
+    List<String> discountCodes = List.of("VALID10");
+    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
+
+    // Act
+    List<DiscountSnapshot> result = discountService.validateAndGetDiscounts(discountCodes);
+
+    // Assert
+    assertEquals(1, result.size());
+  }
+
+  @Test
+  @DisplayName("Given repeated discount code, when validating, then throw InvalidDiscountException")
+  void givenRepeatedDiscountCode_whenValidating_thenThrowInvalidDiscountException() {
+    // Arrange
+    List<String> discountCodes = List.of("VALID10", "VALID10");
+    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(validDiscount));
+
+    // Act & Assert
+    assertThrows(InvalidDiscountException.class,
+        () -> discountService.validateAndGetDiscounts(discountCodes));
   }
 
   @Test
@@ -140,24 +306,85 @@ class DiscountServiceTest {
     assertTrue(exception.getMessage().contains("discount has expired"));
   }
 
+  @Test
+  @DisplayName("Given invalid codes among valid ones, when resolving candidates, "
+      + "then keep the valid discounts and reject the others with their reason")
+  void givenInvalidCodesAmongValidOnes_whenResolvingCandidates_thenRejectOthersWithReason() {
+    // Arrange
+    Discount usedUpDiscount = new Discount();
+    usedUpDiscount.setId(3L);
+    usedUpDiscount.setCode("USEDUP10");
+    usedUpDiscount.setPercentage(new BigDecimal("10.00"));
+    usedUpDiscount.setType(DiscountType.GENERAL);
+    usedUpDiscount.setValidFrom(today.minusDays(1));
+    usedUpDiscount.setValidUntil(today.plusDays(30));
+    usedUpDiscount.setRemainingUses(0);
+    List<String> discountCodes = List.of("EXPIRED10", "VALID10", "NONEXISTENT", "USEDUP10",
+        "VALID10");
+    when(discountRepository.findAllByCodeIn(anyList()))
+        .thenReturn(List.of(validDiscount, expiredDiscount, usedUpDiscount));
+    when(discountRepository.findUsedUpIds(anyCollection())).thenReturn(List.of(3L));
+
+    // Act
+    DiscountService.Candidates result = discountService.resolveCandidates(discountCodes);
+
+    // Assert
+    assertEquals(List.of("VALID10"),
+        result.discounts().stream().map(DiscountSnapshot::code).toList());
+    assertEquals(List.of("EXPIRED10", "NONEXISTENT", "USEDUP10"),
+        List.copyOf(result.rejected().keySet()));
+    assertEquals("discount has expired", result.rejected().get("EXPIRED10"));
+    assertEquals("discount code not found", result.rejected().get("NONEXISTENT"));
+    assertEquals("discount has no remaining uses", result.rejected().get("USEDUP10"));
+  }
+
+  @Test
+  @DisplayName("Given no discount codes, when resolving candidates, then query nothing")
+  void givenNoDiscountCodes_whenResolvingCandidates_thenQueryNothing() {
+    // Act
+    DiscountService.Candidates result = discountService.resolveCandidates(List.of());
+
+    // Assert
+    assertTrue(result.discounts().isEmpty());
+    assertTrue(result.rejected().isEmpty());
+    verify(discountRepository, never()).findUsedUpIds(any());
+  }
+
   @Test
   @DisplayName("Given valid discounts, when updating usage, then decrement remaining uses")
   void givenValidDiscounts_whenUpdatingUsage_thenDecrementRemainingUses() {
     // Arrange
-    Discount discount1 = new Discount();
-    discount1.setRemainingUses(5);
-    Discount discount2 = new Discount();
-    discount2.setRemainingUses(3);
-
-    List<Discount> discounts = List.of(discount1, discount2);
+    List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(validDiscount),
+        DiscountSnapshot.from(expiredDiscount));
+    when(discountRepository.decrementRemainingUses(anyLong())).thenReturn(1);
 
     // Act
     discountService.updateDiscountUsage(discounts);
 
     // Assert
-    assertEquals(4, discount1.getRemainingUses());
-    assertEquals(2, discount2.getRemainingUses());
-    verify(discountRepository, times(2)).save(any(Discount.class));
+    verify(discountRepository).decrementRemainingUses(1L);
+    verify(discountRepository).decrementRemainingUses(2L);
+    verify(discountRepository, never()).save(any(Discount.class));
+  }
+
+  @Test
+  @DisplayName("Given sharded discount, when updating usage, "
+      + "then redeem from leased counters instead of the row")
+  void givenShardedDiscount_whenUpdatingUsage_thenRedeemFromLeasedCounters() {
+    // Arrange
+    DiscountSnapshot sharded = new DiscountSnapshot(5L, "MEGA10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, today.minusDays(1), today.plusDays(30), Set.of(), true);
+    when(leaseStore.takeUses(5L, 10)).thenReturn(1);
+
+    // Act
+    for (int i = 0; i < 10; i++) {
+      discountService.updateDiscountUsage(List.of(sharded));
+    }
+
+    // Assert
+    verify(leaseStore, times(1)).takeUses(5L, 10);
+    verify(discountRepository, never()).decrementRemainingUses(anyLong());
+    assertEquals(0, redemptionCounters.getHeldUses());
   }
 
   @Test
@@ -167,7 +394,7 @@ class DiscountServiceTest {
     discountService.updateDiscountUsage(List.of());
 
     // Assert
-    verify(discountRepository, times(0)).save(any(Discount.class));
+    verify(discountRepository, times(0)).decrementRemainingUses(anyLong());
   }
 
   @Test
@@ -175,9 +402,12 @@ class DiscountServiceTest {
   void givenDiscountNotYetValid_whenValidating_thenThrowInvalidDiscountException() {
     // Arrange
     Discount futureDiscount = new Discount();
+    futureDiscount.setId(4L);
     futureDiscount.setCode("FUTURE10");
-    futureDiscount.setValidFrom(LocalDate.now().plusDays(1));
-    futureDiscount.setValidUntil(LocalDate.now().plusDays(30));
+    futureDiscount.setPercentage(new BigDecimal("10.00"));
+    futureDiscount.setType(DiscountType.GENERAL);
+    futureDiscount.setValidFrom(today.plusDays(1));
+    futureDiscount.setValidUntil(today.plusDays(30));
     futureDiscount.setRemainingUses(5);
 
     List<String> discountCodes = List.of("FUTURE10");
@@ -191,21 +421,17 @@ class DiscountServiceTest {
   }
 
   @Test
-  @DisplayName("Given discount with no remaining uses, when validating, then throw InvalidDiscountException")
-  void givenDiscountWithNoRemainingUses_whenValidating_thenThrowInvalidDiscountException() {
+  @DisplayName("Given discount with no remaining uses, when updating usage, then throw InvalidDiscountException")
+  void givenDiscountWithNoRemainingUses_whenUpdatingUsage_thenThrowInvalidDiscountException() {
     // Arrange
-    Discount noUsesDiscount = new Discount();
-    noUsesDiscount.setCode("NOUSES10");
-    noUsesDiscount.setValidFrom(LocalDate.now().minusDays(1));
-    noUsesDiscount.setValidUntil(LocalDate.now().plusDays(30));
-    noUsesDiscount.setRemainingUses(0);
-
-    List<String> discountCodes = List.of("NOUSES10");
-    when(discountRepository.findAllByCodeIn(discountCodes)).thenReturn(List.of(noUsesDiscount));
+    DiscountSnapshot noUsesDiscount = new DiscountSnapshot(3L, "NOUSES10",
+        new BigDecimal("10.00"), DiscountType.GENERAL, today.minusDays(1),
+        today.plusDays(30), Set.of(), false);
+    when(discountRepository.decrementRemainingUses(3L)).thenReturn(0);
 
     // Act & Assert
     InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
-        () -> discountService.validateAndGetDiscounts(discountCodes));
+        () -> discountService.updateDiscountUsage(List.of(noUsesDiscount)));
     assertTrue(exception.getMessage().contains("NOUSES10"));
     assertTrue(exception.getMessage().contains("discount has no remaining uses"));
   }
@@ -0,0 +1,173 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.DiscountStatsResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountUsageHourly;
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.DiscountUsageHourlyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountUsageServiceTest {
+
+  private static final LocalDateTime HOUR = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+  @Mock
+  private DiscountUsageHourlyRepository usageRepository;
+
+  @Mock
+  private DiscountRepository discountRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Captor
+  private ArgumentCaptor<List<Object[]>> rows;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private DiscountUsageService discountUsageService;
+
+  @BeforeEach
+  void setUp() {
+    discountUsageService = new DiscountUsageService(usageRepository, discountRepository,
+        jdbcTemplate, new MutableClock(Instant.parse("2025-06-15T10:20:00Z")), objectMapper);
+  }
+
+  private OutboxEvent checkout(LocalDateTime createdAt, Map<Long, BigDecimal> discountAmounts)
+      throws Exception {
+    CheckoutCompletedEvent checkout = new CheckoutCompletedEvent(1L, 1L, List.of(1L),
+        new BigDecimal("100.00"), new BigDecimal("90.00"), discountAmounts);
+    return new OutboxEvent(1L, CheckoutCompletedEvent.TYPE, 1L,
+        objectMapper.writeValueAsString(checkout), createdAt, 0);
+  }
+
+  @Nested
+  @DisplayName("Handling")
+  class HandleTests {
+
+    @Test
+    @DisplayName("Given checkouts sharing a discount and hour, when handling the batch, "
+        + "then upsert each row once in discount and hour order")
+    void givenCheckoutsSharingRow_whenHandlingBatch_thenUpsertEachRowOnceInOrder()
+        throws Exception {
+      // Arrange
+      List<OutboxEvent> events = List.of(
+          checkout(HOUR.plusMinutes(20), Map.of(7L, new BigDecimal("5.00"),
+              5L, new BigDecimal("10.00"))),
+          checkout(HOUR.plusMinutes(40), Map.of(5L, new BigDecimal("10.00"))),
+          checkout(HOUR.plusMinutes(70), Map.of(5L, new BigDecimal("2.00"))));
+
+      // Act
+      discountUsageService.handleBatch(events);
+
+      // Assert
+      verify(jdbcTemplate).batchUpdate(eq(DiscountUsageService.MERGE_USAGE_SQL),
+          rows.capture());
+      List<Object[]> upserted = rows.getValue();
+      assertEquals(3, upserted.size());
+      assertArrayEquals(new Object[] {5L, HOUR, 2L, new BigDecimal("20.00")}, upserted.get(0));
+      assertArrayEquals(new Object[] {5L, HOUR.plusHours(1), 1L, new BigDecimal("2.00")},
+          upserted.get(1));
+      assertArrayEquals(new Object[] {7L, HOUR, 1L, new BigDecimal("5.00")}, upserted.get(2));
+    }
+
+    @Test
+    @DisplayName("Given PostgreSQL, when handling a checkout, then upsert with ON CONFLICT")
+    void givenPostgresql_whenHandlingCheckout_thenUpsertWithOnConflict() throws Exception {
+      // Arrange
+      when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+
+      // Act
+      discountUsageService.handle(checkout(HOUR.plusMinutes(59),
+          Map.of(5L, new BigDecimal("10.00"))));
+
+      // Assert
+      verify(jdbcTemplate).batchUpdate(eq(DiscountUsageService.UPSERT_USAGE_SQL),
+          rows.capture());
+      assertArrayEquals(new Object[] {5L, HOUR, 1L, new BigDecimal("10.00")},
+          rows.getValue().get(0));
+    }
+
+    @Test
+    @DisplayName("Given a checkout without discounts, when handling it, then write nothing")
+    void givenCheckoutWithoutDiscounts_whenHandlingIt_thenWriteNothing() throws Exception {
+      // Act
+      discountUsageService.handle(checkout(HOUR, Map.of()));
+
+      // Assert
+      verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+  }
+
+  @Nested
+  @DisplayName("Statistics")
+  class StatsTests {
+
+    @Test
+    @DisplayName("Given rollup rows, when getting stats, then list them and total the range")
+    void givenRollupRows_whenGettingStats_thenListThemAndTotalRange() {
+      // Arrange
+      Discount discount = new Discount();
+      discount.setId(5L);
+      discount.setCode("SAVE10");
+      when(discountRepository.findByCode("SAVE10")).thenReturn(Optional.of(discount));
+      when(usageRepository.findByDiscountIdAndHourStartBetweenOrderByHourStart(5L,
+          HOUR.minusHours(23), HOUR)).thenReturn(List.of(
+              new DiscountUsageHourly(1L, 5L, HOUR.minusHours(2), 3L, new BigDecimal("30.00")),
+              new DiscountUsageHourly(2L, 5L, HOUR, 1L, new BigDecimal("10.00"))));
+
+      // Act
+      DiscountStatsResponse stats = discountUsageService.getStats("SAVE10", 24);
+
+      // Assert
+      assertEquals(HOUR.minusHours(23), stats.getFrom());
+      assertEquals(HOUR, stats.getTo());
+      assertEquals(4, stats.getTotalRedemptions());
+      assertEquals(new BigDecimal("40.00"), stats.getTotalDiscountAmount());
+      assertEquals(2, stats.getHours().size());
+      assertEquals(1, stats.getHours().get(1).getRedemptions());
+    }
+
+    @Test
+    @DisplayName("Given unknown code, when getting stats, then throw InvalidDiscountException")
+    void givenUnknownCode_whenGettingStats_thenThrowException() {
+      // Arrange
+      when(discountRepository.findByCode("NOPE")).thenReturn(Optional.empty());
+
+      // Act & Assert
+      assertThrows(InvalidDiscountException.class,
+          () -> discountUsageService.getStats("NOPE", 24));
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.NotificationException;
+import com.example.digigoods.model.NotificationType;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateRegistryTest {
+
+  private MessageTemplateRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new MessageTemplateRegistry(Locale.ENGLISH, List.of(Locale.of("id")));
+  }
+
+  @Nested
+  @DisplayName("Render Tests")
+  class RenderTests {
+
+    @Test
+    @DisplayName("Given order confirmation, when rendering, then match previous String.format")
+    void givenOrderConfirmation_whenRendering_thenMatchPreviousStringFormat() {
+      // Arrange
+      String expected = String.format(
+          "Your order #%d has been confirmed! Total amount: %s. Thank you for your purchase!",
+          42L, "$99.99");
+
+      // Act
+      String message = registry.render(NotificationType.ORDER_CONFIRMATION, 42L, "$99.99");
+
+      // Assert
+      assertEquals(expected, message);
+    }
+
+    @Test
+    @DisplayName("Given discount reminder, when rendering, then keep apostrophes literal")
+    void givenDiscountReminder_whenRendering_thenKeepApostrophesLiteral() {
+      // Act
+      String message = registry.render(NotificationType.DISCOUNT_REMINDER, "SAVE20",
+          "2024-12-31");
+
+      // Assert
+      assertEquals("Reminder: Your discount code 'SAVE20' expires on 2024-12-31. "
+          + "Use it before it's too late!", message);
+    }
+
+    @Test
+    @DisplayName("Given regional locale, when rendering, then fall back to language variant")
+    void givenRegionalLocale_whenRendering_thenFallBackToLanguageVariant() {
+      // Act
+      String message = registry.render(NotificationType.STOCK_ALERT, Locale.of("id", "ID"),
+          "Digital Book");
+
+      // Assert
+      assertEquals("Digital Book sudah tersedia kembali", message);
+    }
+
+    @Test
+    @DisplayName("Given unknown locale, when rendering, then fall back to base template")
+    void givenUnknownLocale_whenRendering_thenFallBackToBaseTemplate() {
+      // Act
+      String message = registry.render(NotificationType.STOCK_ALERT, Locale.FRENCH,
+          "Digital Book");
+
+      // Assert
+      assertEquals("Digital Book is back in stock", message);
+    }
+
+    @Test
+    @DisplayName("Given type without template, when rendering, then throw NotificationException")
+    void givenTypeWithoutTemplate_whenRendering_thenThrowNotificationException() {
+      // Act & Assert
+      assertThrows(NotificationException.class,
+          () -> registry.render(NotificationType.PROMOTIONAL_OFFER, "anything"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Compile Tests")
+  class CompileTests {
+
+    @Test
+    @DisplayName("Given reordered and repeated placeholders, when rendering, then resolve each")
+    void givenReorderedAndRepeatedPlaceholders_whenRendering_thenResolveEach() {
+      // Arrange
+      MessageTemplateRegistry.MessageTemplate template =
+          MessageTemplateRegistry.MessageTemplate.compile("{1}-{0}-{1}");
+      StringBuilder buffer = new StringBuilder();
+
+      // Act
+      template.renderTo(buffer, "a", "b");
+
+      // Assert
+      assertEquals("b-a-b", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("Given braces that are not placeholders, when rendering, then keep them")
+    void givenBracesThatAreNotPlaceholders_whenRendering_thenKeepThem() {
+      // Arrange
+      MessageTemplateRegistry.MessageTemplate template =
+          MessageTemplateRegistry.MessageTemplate.compile("{x} {} {0} {2");
+      StringBuilder buffer = new StringBuilder();
+
+      // Act
+      template.renderTo(buffer, "value");
+
+      // Assert
+      assertEquals("{x} {} value {2", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("Given missing argument, when rendering, then keep the placeholder")
+    void givenMissingArgument_whenRendering_thenKeepPlaceholder() {
+      // Arrange
+      MessageTemplateRegistry.MessageTemplate template =
+          MessageTemplateRegistry.MessageTemplate.compile("{0} and {1}");
+      StringBuilder buffer = new StringBuilder();
+
+      // Act
+      template.renderTo(buffer, "first");
+
+      // Assert
+      assertEquals("first and {1}", buffer.toString());
+    }
+  }
+}
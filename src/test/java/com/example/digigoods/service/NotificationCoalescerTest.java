@@ -0,0 +1,160 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class NotificationCoalescerTest {
+
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationCoalescer coalescer;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    meterRegistry = new SimpleMeterRegistry();
+    coalescer = new NotificationCoalescer(clock, meterRegistry, Duration.ofMinutes(10),
+        Duration.ofMinutes(1));
+  }
+
+  @Nested
+  @DisplayName("Deduplication Tests")
+  class DeduplicationTests {
+
+    @Test
+    @DisplayName("Given claimed key, when acquiring again inside window, then reject")
+    void givenClaimedKey_whenAcquiringAgainInsideWindow_thenReject() {
+      // Arrange
+      assertTrue(coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20"));
+      clock.advance(Duration.ofMinutes(9));
+
+      // Act
+      boolean acquired = coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+
+      // Assert
+      assertFalse(acquired);
+      assertEquals(1.0, meterRegistry.get("notification.coalescing.suppressed")
+          .counter().count());
+    }
+
+    @Test
+    @DisplayName("Given claimed key, when acquiring after window, then accept")
+    void givenClaimedKey_whenAcquiringAfterWindow_thenAccept() {
+      // Arrange
+      coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+      clock.advance(Duration.ofMinutes(10));
+
+      // Act & Assert
+      assertTrue(coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20"));
+    }
+
+    @Test
+    @DisplayName("Given different user, type or key, when acquiring, then accept each")
+    void givenDifferentUserTypeOrKey_whenAcquiring_thenAcceptEach() {
+      // Arrange
+      coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+
+      // Act & Assert
+      assertTrue(coalescer.tryAcquire(2L, NotificationType.DISCOUNT_REMINDER, "SAVE20"));
+      assertTrue(coalescer.tryAcquire(1L, NotificationType.STOCK_ALERT, "SAVE20"));
+      assertTrue(coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE30"));
+    }
+
+    @Test
+    @DisplayName("Given released key, when acquiring again inside window, then accept")
+    void givenReleasedKey_whenAcquiringAgainInsideWindow_thenAccept() {
+      // Arrange
+      coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+      coalescer.release(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+
+      // Act & Assert
+      assertTrue(coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20"));
+    }
+
+    @Test
+    @DisplayName("Given expired windows, when evicting, then forget them")
+    void givenExpiredWindows_whenEvicting_thenForgetThem() {
+      // Arrange
+      coalescer.tryAcquire(1L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+      clock.advance(Duration.ofMinutes(5));
+      coalescer.tryAcquire(2L, NotificationType.DISCOUNT_REMINDER, "SAVE20");
+      clock.advance(Duration.ofMinutes(6));
+
+      // Act
+      coalescer.evictExpired();
+
+      // Assert
+      assertEquals(1, coalescer.getTrackedWindowCount());
+    }
+  }
+
+  @Nested
+  @DisplayName("Digest Tests")
+  class DigestTests {
+
+    @Test
+    @DisplayName("Given open digest window, when draining, then keep digest pending")
+    void givenOpenDigestWindow_whenDraining_thenKeepDigestPending() {
+      // Arrange
+      coalescer.appendToDigest(1L, NotificationType.STOCK_ALERT, "10", "Digital Book");
+
+      // Act
+      List<NotificationCoalescer.Digest> due = coalescer.drainDueDigests();
+
+      // Assert
+      assertTrue(due.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given lines for one user, when window closes, then drain one merged digest")
+    void givenLinesForOneUser_whenWindowCloses_thenDrainOneMergedDigest() {
+      // Arrange
+      coalescer.appendToDigest(1L, NotificationType.STOCK_ALERT, "10", "Digital Book");
+      coalescer.appendToDigest(1L, NotificationType.STOCK_ALERT, "11", "Online Course");
+      coalescer.appendToDigest(2L, NotificationType.STOCK_ALERT, "10", "Digital Book");
+      clock.advance(Duration.ofMinutes(1));
+
+      // Act
+      List<NotificationCoalescer.Digest> due = coalescer.drainDueDigests();
+
+      // Assert
+      assertEquals(2, due.size());
+      NotificationCoalescer.Digest first = due.stream()
+          .filter(digest -> digest.userId().equals(1L))
+          .findFirst()
+          .orElseThrow();
+      assertEquals(List.of("Digital Book", "Online Course"), first.lines());
+      assertTrue(coalescer.drainDueDigests().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given more lines than the limit, when draining, then count the overflow")
+    void givenMoreLinesThanLimit_whenDraining_thenCountOverflow() {
+      // Arrange
+      for (int i = 0; i < NotificationCoalescer.MAX_DIGEST_LINES + 3; i++) {
+        coalescer.appendToDigest(1L, NotificationType.STOCK_ALERT, String.valueOf(i),
+            "Product " + i);
+      }
+      clock.advance(Duration.ofMinutes(1));
+
+      // Act
+      NotificationCoalescer.Digest digest = coalescer.drainDueDigests().get(0);
+
+      // Assert
+      assertEquals(NotificationCoalescer.MAX_DIGEST_LINES, digest.lines().size());
+      assertEquals(3, digest.omitted());
+      assertEquals(NotificationCoalescer.MAX_DIGEST_LINES + 3, digest.keys().size());
+    }
+  }
+}
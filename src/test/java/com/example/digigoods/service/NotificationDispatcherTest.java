@@ -0,0 +1,215 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.exception.NotificationException;
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class NotificationDispatcherTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationDispatcher dispatcher;
+  private List<NotificationType> deliveryOrder;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    // No workers: the test drains the lanes itself to observe the scheduling order
+    dispatcher = new NotificationDispatcher(meterRegistry, 1000);
+    deliveryOrder = new ArrayList<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  private void enqueue(NotificationType type, int count) {
+    for (int i = 0; i < count; i++) {
+      dispatcher.dispatch(type, () -> deliveryOrder.add(type));
+    }
+  }
+
+  private void drain(int count) {
+    for (int i = 0; i < count; i++) {
+      assertTrue(dispatcher.runNext(), "Expected a queued notification");
+    }
+  }
+
+  @Nested
+  @DisplayName("Lane Scheduling Tests")
+  class LaneSchedulingTests {
+
+    @Test
+    @DisplayName("Given promotional backlog, when order confirmation arrives, "
+        + "then confirmation is delivered within the next slot")
+    void givenPromotionalBacklog_whenOrderConfirmationArrives_thenDeliveredWithinNextSlot() {
+      // Arrange
+      enqueue(NotificationType.PROMOTIONAL_OFFER, 500);
+      drain(10);
+      enqueue(NotificationType.ORDER_CONFIRMATION, 1);
+
+      // Act
+      drain(1);
+
+      // Assert
+      assertEquals(NotificationType.ORDER_CONFIRMATION, deliveryOrder.get(10));
+      assertEquals(490, dispatcher.getQueueDepth(NotificationType.PROMOTIONAL_OFFER));
+    }
+
+    @Test
+    @DisplayName("Given both lanes saturated, when draining, then capacity is split by weight")
+    void givenBothLanesSaturated_whenDraining_thenCapacitySplitByWeight() {
+      // Arrange
+      enqueue(NotificationType.PROMOTIONAL_OFFER, 100);
+      enqueue(NotificationType.ORDER_CONFIRMATION, 100);
+
+      // Act
+      drain(90);
+
+      // Assert - weights 8:1 give 80 confirmations and 10 promotions
+      long confirmations = deliveryOrder.stream()
+          .filter(type -> type == NotificationType.ORDER_CONFIRMATION)
+          .count();
+      assertEquals(80, confirmations);
+      assertEquals(10, deliveryOrder.size() - confirmations);
+    }
+
+    @Test
+    @DisplayName("Given only promotional lane busy, when draining, then it uses all capacity")
+    void givenOnlyPromotionalLaneBusy_whenDraining_thenUsesAllCapacity() {
+      // Arrange
+      enqueue(NotificationType.PROMOTIONAL_OFFER, 20);
+
+      // Act
+      drain(20);
+
+      // Assert
+      assertFalse(dispatcher.runNext());
+      assertEquals(0, dispatcher.getQueueDepth(NotificationType.PROMOTIONAL_OFFER));
+    }
+  }
+
+  @Nested
+  @DisplayName("Metrics Tests")
+  class MetricsTests {
+
+    @Test
+    @DisplayName("Given delivered notifications, when reading metrics, then count per lane")
+    void givenDeliveredNotifications_whenReadingMetrics_thenCountPerLane() {
+      // Arrange
+      enqueue(NotificationType.STOCK_ALERT, 3);
+      enqueue(NotificationType.SYSTEM_NOTIFICATION, 2);
+
+      // Act
+      drain(5);
+
+      // Assert
+      assertEquals(3.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "STOCK_ALERT").counter().count());
+      assertEquals(2.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "SYSTEM_NOTIFICATION").counter().count());
+      assertEquals(3, meterRegistry.get("notification.lane.wait")
+          .tag("lane", "STOCK_ALERT").timer().count());
+    }
+  }
+
+  @Nested
+  @DisplayName("Lifecycle Tests")
+  class LifecycleTests {
+
+    @Test
+    @DisplayName("Given worker threads, when dispatching, then future completes with result")
+    void givenWorkerThreads_whenDispatching_thenFutureCompletesWithResult() throws Exception {
+      // Arrange
+      NotificationDispatcher threaded = new NotificationDispatcher(meterRegistry, 2, 10);
+
+      try {
+        // Act
+        CompletableFuture<String> future = threaded.dispatch(
+            NotificationType.ORDER_CONFIRMATION, () -> "sent");
+
+        // Assert
+        assertEquals("sent", future.get(5, TimeUnit.SECONDS));
+      } finally {
+        threaded.shutdown();
+      }
+    }
+
+    @Test
+    @DisplayName("Given no workers, when creating a threaded dispatcher, "
+        + "then throw IllegalArgumentException")
+    void givenNoWorkers_whenCreatingThreadedDispatcher_thenThrowIllegalArgumentException() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> new NotificationDispatcher(meterRegistry, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Given failing task, when run, then future completes exceptionally")
+    void givenFailingTask_whenRun_thenFutureCompletesExceptionally() {
+      // Arrange
+      CompletableFuture<Object> future = dispatcher.dispatch(NotificationType.SYSTEM_NOTIFICATION,
+          () -> {
+            throw new IllegalStateException("transport down");
+          });
+
+      // Act
+      drain(1);
+
+      // Assert
+      CompletionException exception = assertThrows(CompletionException.class, future::join);
+      assertEquals("transport down", exception.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Given task throwing an error, when run, "
+        + "then future completes exceptionally and the dispatcher keeps going")
+    void givenTaskThrowingError_whenRun_thenFutureCompletesExceptionally() {
+      // Arrange
+      CompletableFuture<Object> failing = dispatcher.dispatch(
+          NotificationType.SYSTEM_NOTIFICATION, () -> {
+            throw new AssertionError("template missing");
+          });
+      CompletableFuture<String> next = dispatcher.dispatch(
+          NotificationType.SYSTEM_NOTIFICATION, () -> "sent");
+
+      // Act
+      drain(2);
+
+      // Assert
+      CompletionException exception = assertThrows(CompletionException.class, failing::join);
+      assertInstanceOf(AssertionError.class, exception.getCause());
+      assertEquals("sent", next.join());
+    }
+
+    @Test
+    @DisplayName("Given shut down dispatcher, when dispatching, then throw NotificationException")
+    void givenShutDownDispatcher_whenDispatching_thenThrowNotificationException() {
+      // Arrange
+      CompletableFuture<Boolean> queued = dispatcher.dispatch(
+          NotificationType.PROMOTIONAL_OFFER, () -> true);
+      dispatcher.shutdown();
+
+      // Act & Assert
+      assertThrows(NotificationException.class,
+          () -> dispatcher.dispatch(NotificationType.ORDER_CONFIRMATION, () -> true));
+      assertTrue(queued.isCompletedExceptionally());
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class NotificationRateLimiterTest {
+
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = new NotificationRateLimiter(clock, meterRegistry, 3, Duration.ofMinutes(1),
+        1600);
+  }
+
+  private int acquireMany(Long userId, NotificationType type, int attempts) {
+    int granted = 0;
+    for (int i = 0; i < attempts; i++) {
+      if (rateLimiter.tryAcquire(userId, type)) {
+        granted++;
+      }
+    }
+    return granted;
+  }
+
+  @Nested
+  @DisplayName("Token Bucket Tests")
+  class TokenBucketTests {
+
+    @Test
+    @DisplayName("Given full bucket, when bursting, then grant only the capacity")
+    void givenFullBucket_whenBursting_thenGrantOnlyCapacity() {
+      // Act
+      int granted = acquireMany(1L, NotificationType.PROMOTIONAL_OFFER, 10);
+
+      // Assert
+      assertEquals(3, granted);
+      assertEquals(7.0, meterRegistry.get("notification.rate-limit.throttled")
+          .tag("type", "PROMOTIONAL_OFFER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given empty bucket, when one interval passes, then grant one more token")
+    void givenEmptyBucket_whenOneIntervalPasses_thenGrantOneMoreToken() {
+      // Arrange
+      acquireMany(1L, NotificationType.PROMOTIONAL_OFFER, 3);
+      clock.advance(Duration.ofMinutes(1));
+
+      // Act
+      int granted = acquireMany(1L, NotificationType.PROMOTIONAL_OFFER, 3);
+
+      // Assert
+      assertEquals(1, granted);
+    }
+
+    @Test
+    @DisplayName("Given exhausted type, when sending another type, then use separate bucket")
+    void givenExhaustedType_whenSendingAnotherType_thenUseSeparateBucket() {
+      // Arrange
+      acquireMany(1L, NotificationType.PROMOTIONAL_OFFER, 3);
+
+      // Act & Assert
+      assertTrue(rateLimiter.tryAcquire(1L, NotificationType.ORDER_CONFIRMATION));
+      assertTrue(rateLimiter.tryAcquire(2L, NotificationType.PROMOTIONAL_OFFER));
+      assertFalse(rateLimiter.tryAcquire(1L, NotificationType.PROMOTIONAL_OFFER));
+    }
+
+    @Test
+    @DisplayName("Given concurrent senders, when acquiring, then never exceed capacity")
+    void givenConcurrentSenders_whenAcquiring_thenNeverExceedCapacity() throws Exception {
+      // Arrange
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      AtomicInteger granted = new AtomicInteger();
+      List<Future<?>> futures = new ArrayList<>();
+
+      // Act
+      for (int i = 0; i < 200; i++) {
+        futures.add(executor.submit(() -> {
+          if (rateLimiter.tryAcquire(1L, NotificationType.PROMOTIONAL_OFFER)) {
+            granted.incrementAndGet();
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+
+      // Assert
+      assertEquals(3, granted.get());
+    }
+  }
+
+  @Nested
+  @DisplayName("Eviction Tests")
+  class EvictionTests {
+
+    @Test
+    @DisplayName("Given refilled buckets, when evicting, then drop them")
+    void givenRefilledBuckets_whenEvicting_thenDropThem() {
+      // Arrange
+      acquireMany(1L, NotificationType.PROMOTIONAL_OFFER, 3);
+      acquireMany(2L, NotificationType.PROMOTIONAL_OFFER, 1);
+      clock.advance(Duration.ofMinutes(2));
+
+      // Act
+      rateLimiter.evictIdleBuckets();
+
+      // Assert - user 2 refilled after one interval, user 1 still owes one interval
+      assertEquals(1, rateLimiter.getBucketCount());
+    }
+
+    @Test
+    @DisplayName("Given bucket store full of active buckets, when new users send, "
+        + "then reject them until buckets refill")
+    void givenBucketStoreFullOfActiveBuckets_whenNewUsersSend_thenRejectUntilRefill() {
+      // Arrange
+      NotificationRateLimiter tiny = new NotificationRateLimiter(clock, meterRegistry, 3,
+          Duration.ofMinutes(1), 16);
+      int granted = 0;
+      for (long userId = 0; userId < 200; userId++) {
+        if (tiny.tryAcquire(userId, NotificationType.PROMOTIONAL_OFFER)) {
+          granted++;
+        }
+      }
+
+      // Act
+      clock.advance(Duration.ofMinutes(1));
+      boolean grantedAfterRefill = tiny.tryAcquire(1000L, NotificationType.PROMOTIONAL_OFFER);
+
+      // Assert
+      assertEquals(16, granted);
+      assertEquals(184.0, meterRegistry.get("notification.rate-limit.overflow")
+          .tag("type", "PROMOTIONAL_OFFER").counter().count());
+      assertTrue(grantedAfterRefill);
+      assertTrue(tiny.getBucketCount() <= 16);
+    }
+
+    @Test
+    @DisplayName("Given bucket store full of promotional buckets, when an order confirmation "
+        + "is sent to a new user, then let it through")
+    void givenStoreFullOfPromotionalBuckets_whenOrderConfirmationSent_thenLetItThrough() {
+      // Arrange
+      NotificationRateLimiter tiny = new NotificationRateLimiter(clock, meterRegistry, 3,
+          Duration.ofMinutes(1), 16);
+      for (long userId = 0; userId < 200; userId++) {
+        tiny.tryAcquire(userId, NotificationType.PROMOTIONAL_OFFER);
+      }
+
+      // Act
+      boolean promotionGranted = tiny.tryAcquire(1000L, NotificationType.PROMOTIONAL_OFFER);
+      boolean confirmationGranted = tiny.tryAcquire(1000L, NotificationType.ORDER_CONFIRMATION);
+
+      // Assert
+      assertFalse(promotionGranted);
+      assertTrue(confirmationGranted);
+      assertEquals(0.0, meterRegistry.get("notification.rate-limit.overflow")
+          .tag("type", "ORDER_CONFIRMATION").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given non-positive capacity, when creating limiter, then reject configuration")
+    void givenNonPositiveCapacity_whenCreatingLimiter_thenRejectConfiguration() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class, () -> new NotificationRateLimiter(clock,
+          meterRegistry, 0, Duration.ofMinutes(1), 16));
+    }
+  }
+}
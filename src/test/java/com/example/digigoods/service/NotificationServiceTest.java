@@ -3,25 +3,35 @@ package com.example.digigoods.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.digigoods.dto.NotificationResponse;
+import com.example.digigoods.event.DigestDeliveredEvent;
 import com.example.digigoods.exception.NotificationException;
 import com.example.digigoods.model.NotificationType;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationServiceTest {
@@ -29,7 +39,12 @@ class NotificationServiceTest {
   @Mock
   private UserRepository userRepository;
 
-  @InjectMocks
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationDispatcher notificationDispatcher;
+
   private NotificationService notificationService;
 
   private User testUser;
@@ -37,10 +52,25 @@ class NotificationServiceTest {
 
   @BeforeEach
   void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    notificationDispatcher = new NotificationDispatcher(meterRegistry, 2, 100);
+    NotificationCoalescer notificationCoalescer = new NotificationCoalescer(Clock.systemUTC(),
+        meterRegistry, Duration.ofMinutes(10), Duration.ZERO);
+    MessageTemplateRegistry messageTemplateRegistry = new MessageTemplateRegistry(Locale.ENGLISH,
+        List.of(Locale.of("id")));
+    NotificationRateLimiter notificationRateLimiter = new NotificationRateLimiter(
+        Clock.systemUTC(), meterRegistry, 3, Duration.ofHours(1), 1000);
+    notificationService = new NotificationService(userRepository, notificationDispatcher,
+        notificationCoalescer, messageTemplateRegistry, notificationRateLimiter, eventPublisher);
     testUser = new User(1L, "john.smith", "password123");
     anotherUser = new User(2L, "maria.garcia", "password456");
   }
 
+  @AfterEach
+  void tearDown() {
+    notificationDispatcher.shutdown();
+  }
+
   @Nested
   @DisplayName("Send Notification Tests")
   class SendNotificationTests {
@@ -307,6 +337,182 @@ class NotificationServiceTest {
     }
   }
 
+  @Nested
+  @DisplayName("Coalescing Tests")
+  class CoalescingTests {
+
+    @Test
+    @DisplayName("Given reminder already sent, when sending same reminder again, "
+        + "then suppress duplicate")
+    void givenReminderAlreadySent_whenSendingSameReminderAgain_thenSuppressDuplicate() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      notificationService.sendDiscountExpiryReminder(1L, "SAVE20", "2024-12-31");
+
+      // Act
+      NotificationResponse response = notificationService.sendDiscountExpiryReminder(1L,
+          "SAVE20", "2024-12-31");
+
+      // Assert
+      assertTrue(response.isSuccess());
+      assertNull(response.getNotificationId());
+      assertEquals("Duplicate notification suppressed", response.getMessage());
+      assertEquals(1.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "DISCOUNT_REMINDER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given one user already reminded, when sending reminders to several users, "
+        + "then skip that user")
+    void givenOneUserAlreadyReminded_whenSendingRemindersToSeveralUsers_thenSkipThatUser() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      when(userRepository.findById(2L)).thenReturn(Optional.of(anotherUser));
+      notificationService.sendDiscountExpiryReminder(1L, "SAVE20", "2024-12-31");
+
+      // Act
+      List<NotificationResponse> responses = notificationService.sendDiscountExpiryReminders(
+          List.of(1L, 2L), "SAVE20", "2024-12-31");
+
+      // Assert
+      assertEquals(1, responses.size());
+      assertTrue(responses.get(0).isSuccess());
+      assertEquals(2.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "DISCOUNT_REMINDER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given several stock alerts for a user, when flushing digests, "
+        + "then deliver one notification")
+    void givenSeveralStockAlertsForUser_whenFlushingDigests_thenDeliverOneNotification() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      assertTrue(notificationService.queueStockAlert(1L, 10L, "Digital Book"));
+      assertTrue(notificationService.queueStockAlert(1L, 11L, "Online Course"));
+      assertFalse(notificationService.queueStockAlert(1L, 10L, "Digital Book"));
+
+      // Act
+      notificationService.flushDigests();
+      notificationService.flushDigests();
+
+      // Assert
+      assertEquals(1.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "STOCK_ALERT").counter().count());
+      verify(eventPublisher).publishEvent(new DigestDeliveredEvent(1L,
+          NotificationType.STOCK_ALERT, List.of("10", "11")));
+    }
+
+    @Test
+    @DisplayName("Given digest for missing user, when flushing digests, then keep flushing")
+    void givenDigestForMissingUser_whenFlushingDigests_thenKeepFlushing() {
+      // Arrange
+      when(userRepository.findById(999L)).thenReturn(Optional.empty());
+      notificationService.queueStockAlert(999L, 10L, "Digital Book");
+
+      // Act
+      notificationService.flushDigests();
+
+      // Assert
+      assertEquals(0.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "STOCK_ALERT").counter().count());
+      verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Given failed reminder, when sending same reminder again, then send it")
+    void givenFailedReminder_whenSendingSameReminderAgain_thenSendIt() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(testUser));
+      assertThrows(NotificationException.class,
+          () -> notificationService.sendDiscountExpiryReminder(1L, "SAVE20", "2024-12-31"));
+
+      // Act
+      NotificationResponse response = notificationService.sendDiscountExpiryReminder(1L,
+          "SAVE20", "2024-12-31");
+
+      // Assert
+      assertNotNull(response.getNotificationId());
+      assertEquals(1.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "DISCOUNT_REMINDER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given failed reminder in a bulk send, when sending reminders again, "
+        + "then remind only the user it failed for")
+    void givenFailedReminderInBulkSend_whenSendingAgain_thenRemindOnlyFailedUser() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      when(userRepository.findById(2L)).thenReturn(Optional.empty(), Optional.of(anotherUser));
+      notificationService.sendDiscountExpiryReminders(List.of(1L, 2L), "SAVE20", "2024-12-31");
+
+      // Act
+      List<NotificationResponse> responses = notificationService.sendDiscountExpiryReminders(
+          List.of(1L, 2L), "SAVE20", "2024-12-31");
+
+      // Assert
+      assertEquals(1, responses.size());
+      assertTrue(responses.get(0).isSuccess());
+      assertEquals(2.0, meterRegistry.get("notification.lane.dispatched")
+          .tag("lane", "DISCOUNT_REMINDER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given undelivered digest, when queueing the same stock alert, then accept it")
+    void givenUndeliveredDigest_whenQueueingSameStockAlert_thenAcceptIt() {
+      // Arrange
+      when(userRepository.findById(999L)).thenReturn(Optional.empty());
+      notificationService.queueStockAlert(999L, 10L, "Digital Book");
+      notificationService.flushDigests();
+
+      // Act & Assert
+      assertTrue(notificationService.queueStockAlert(999L, 10L, "Digital Book"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Rate Limit Tests")
+  class RateLimitTests {
+
+    @Test
+    @DisplayName("Given user at rate limit, when sending notification, "
+        + "then throw NotificationException")
+    void givenUserAtRateLimit_whenSendingNotification_thenThrowNotificationException() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      for (int i = 0; i < 3; i++) {
+        notificationService.sendNotification(1L, NotificationType.PROMOTIONAL_OFFER, "Sale!");
+      }
+
+      // Act & Assert
+      NotificationException exception = assertThrows(NotificationException.class,
+          () -> notificationService.sendNotification(1L, NotificationType.PROMOTIONAL_OFFER,
+              "Sale!"));
+      assertEquals("Notification rate limit exceeded for user: 1", exception.getMessage());
+      assertEquals(1.0, meterRegistry.get("notification.rate-limit.throttled")
+          .tag("type", "PROMOTIONAL_OFFER").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given throttled user in bulk send, when sending bulk notifications, "
+        + "then report failure for that user only")
+    void givenThrottledUserInBulkSend_whenSendingBulk_thenReportFailureForThatUserOnly() {
+      // Arrange
+      when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+      when(userRepository.findById(2L)).thenReturn(Optional.of(anotherUser));
+      notificationService.sendBulkNotifications(List.of(1L, 1L, 1L),
+          NotificationType.PROMOTIONAL_OFFER, "Sale!");
+
+      // Act
+      List<NotificationResponse> responses = notificationService.sendBulkNotifications(
+          List.of(1L, 2L), NotificationType.PROMOTIONAL_OFFER, "Sale!");
+
+      // Assert
+      assertFalse(responses.get(0).isSuccess());
+      assertTrue(responses.get(0).getMessage().contains("rate limit exceeded"));
+      assertTrue(responses.get(1).isSuccess());
+    }
+  }
+
   @Nested
   @DisplayName("Are Notifications Enabled Tests")
   class AreNotificationsEnabledTests {
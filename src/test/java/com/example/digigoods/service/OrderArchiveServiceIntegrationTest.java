@@ -0,0 +1,208 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OrderArchiveServiceIntegrationTest {
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @TempDir
+  private Path directory;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderArchiveService orderArchiveService;
+  private User user;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    MutableClock clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    orderArchiveService = new OrderArchiveService(jdbcTemplate, transactionTemplate, clock,
+        meterRegistry, 24, 3, 2, directory);
+    user = userRepository.save(new User(null, "archive.user", "password"));
+    product = productRepository.save(new Product(null, "Archived Product",
+        new BigDecimal("20.00"), 10));
+  }
+
+  private Order saveOrder(LocalDateTime orderDate) {
+    Order order = new Order();
+    order.setUser(user);
+    order.setProducts(new HashSet<>(Set.of(product)));
+    order.setOriginalSubtotal(new BigDecimal("20.00"));
+    order.setFinalPrice(new BigDecimal("18.00"));
+    order = orderRepository.saveAndFlush(order);
+    order.setOrderDate(orderDate);
+    return orderRepository.saveAndFlush(order);
+  }
+
+  private void saveOrderView(Order order) {
+    jdbcTemplate.update("INSERT INTO order_view (order_id, user_id, order_date, "
+        + "original_subtotal, final_price, item_count, line_items, discount_amounts) "
+        + "VALUES (?, ?, ?, ?, ?, 1, '[]', '{}')", order.getId(), user.getId(),
+        order.getOrderDate(), order.getOriginalSubtotal(), order.getFinalPrice());
+  }
+
+  private List<String> readLines(Path file) throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+      return reader.lines().toList();
+    }
+  }
+
+  @Test
+  @DisplayName("Given orders past the retention, when archiving, "
+      + "then export their month and remove them with their product links")
+  void givenOrdersPastRetention_whenArchiving_thenExportMonthAndRemoveOrders()
+      throws IOException {
+    // Arrange
+    final Order expired = saveOrder(LocalDateTime.of(2023, 4, 10, 9, 30));
+    final Order kept = saveOrder(LocalDateTime.of(2023, 6, 1, 0, 0));
+
+    // Act
+    List<YearMonth> archived = orderArchiveService.archiveExpired();
+
+    // Assert
+    assertEquals(List.of(YearMonth.of(2023, 4)), archived);
+    List<String> orders = readLines(directory.resolve("2023-04").resolve("orders.csv.gz"));
+    assertEquals(2, orders.size());
+    assertEquals("id,user_id,original_subtotal,final_price,order_date", orders.get(0));
+    assertTrue(orders.get(1).startsWith(expired.getId() + "," + user.getId() + ",20.00,18.00,"));
+    assertEquals(List.of("order_id,product_id", expired.getId() + "," + product.getId()),
+        readLines(directory.resolve("2023-04").resolve("order_products.csv.gz")));
+    assertEquals(List.of("order_id,discount_id"),
+        readLines(directory.resolve("2023-04").resolve("order_applied_discounts.csv.gz")));
+
+    assertFalse(orderRepository.existsById(expired.getId()));
+    assertTrue(orderRepository.existsById(kept.getId()));
+    assertEquals(0, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM order_products WHERE order_id = ?", Integer.class,
+        expired.getId()));
+    assertEquals(1.0, meterRegistry.get("order.archive.orders").counter().count());
+  }
+
+  @Test
+  @DisplayName("Given only orders within the retention, when archiving, "
+      + "then keep them and write nothing")
+  void givenOnlyRecentOrders_whenArchiving_thenKeepOrdersAndWriteNothing() throws IOException {
+    // Arrange
+    Order recent = saveOrder(LocalDateTime.of(2025, 5, 20, 8, 0));
+
+    // Act
+    List<YearMonth> archived = orderArchiveService.archiveExpired();
+
+    // Assert
+    assertTrue(archived.isEmpty());
+    assertTrue(orderRepository.existsById(recent.getId()));
+    try (var files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  @DisplayName("Given more expired orders than the chunk size, when archiving, "
+      + "then remove every order and link of the month chunk by chunk")
+  void givenMoreExpiredOrdersThanChunkSize_whenArchiving_thenRemoveEveryOrder()
+      throws IOException {
+    // Arrange
+    List<Order> expired = List.of(saveOrder(LocalDateTime.of(2023, 4, 1, 0, 0)),
+        saveOrder(LocalDateTime.of(2023, 4, 15, 12, 0)),
+        saveOrder(LocalDateTime.of(2023, 4, 30, 23, 59)));
+    final Order kept = saveOrder(LocalDateTime.of(2023, 6, 1, 0, 0));
+
+    // Act
+    orderArchiveService.archiveExpired();
+
+    // Assert
+    assertEquals(4, readLines(directory.resolve("2023-04").resolve("orders.csv.gz")).size());
+    expired.forEach(order -> assertFalse(orderRepository.existsById(order.getId())));
+    assertTrue(orderRepository.existsById(kept.getId()));
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM order_products WHERE order_id IN (?, ?, ?, ?)", Integer.class,
+        expired.get(0).getId(), expired.get(1).getId(), expired.get(2).getId(), kept.getId()));
+    assertEquals(3.0, meterRegistry.get("order.archive.orders").counter().count());
+  }
+
+  @Test
+  @DisplayName("Given read model rows of expired and kept orders, when archiving, "
+      + "then remove only the rows of the archived month")
+  void givenReadModelRows_whenArchiving_thenRemoveOnlyRowsOfArchivedMonth() {
+    // Arrange
+    List<Order> expired = List.of(saveOrder(LocalDateTime.of(2023, 4, 1, 0, 0)),
+        saveOrder(LocalDateTime.of(2023, 4, 15, 12, 0)),
+        saveOrder(LocalDateTime.of(2023, 4, 30, 23, 59)));
+    final Order kept = saveOrder(LocalDateTime.of(2023, 6, 1, 0, 0));
+    expired.forEach(this::saveOrderView);
+    saveOrderView(kept);
+
+    // Act
+    orderArchiveService.archiveExpired();
+
+    // Assert
+    assertEquals(List.of(kept.getId()), jdbcTemplate.queryForList(
+        "SELECT order_id FROM order_view WHERE order_id IN (?, ?, ?, ?)", Long.class,
+        expired.get(0).getId(), expired.get(1).getId(), expired.get(2).getId(), kept.getId()));
+  }
+
+  @Test
+  @DisplayName("Given partition names, when reading their month, "
+      + "then skip tables that are not monthly partitions")
+  void givenPartitionNames_whenReadingTheirMonth_thenSkipOtherTables() {
+    // Act & Assert
+    assertEquals(YearMonth.of(2023, 4), OrderArchiveService.partitionMonth("orders_p202304"));
+    assertNull(OrderArchiveService.partitionMonth("orders_pdefault"));
+    assertNull(OrderArchiveService.partitionMonth("orders_p202313"));
+    assertNull(OrderArchiveService.partitionMonth("orders_p2023041"));
+  }
+}
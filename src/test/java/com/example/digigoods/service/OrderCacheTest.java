@@ -0,0 +1,122 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.event.OrderCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class OrderCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderCache orderCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    orderCache = new OrderCache(meterRegistry, 5);
+  }
+
+  private OrderCreatedEvent order(Long orderId, int lineCount) {
+    List<OrderCreatedEvent.Line> lines = new ArrayList<>();
+    for (int i = 0; i < lineCount; i++) {
+      lines.add(new OrderCreatedEvent.Line((long) i, "Product " + i, BigDecimal.TEN,
+          BigDecimal.TEN));
+    }
+    return new OrderCreatedEvent(orderId, 7L, LocalDateTime.of(2025, 6, 15, 12, 0),
+        BigDecimal.TEN, BigDecimal.TEN, lines, Map.of());
+  }
+
+  @Nested
+  @DisplayName("Lookup Tests")
+  class LookupTests {
+
+    @Test
+    @DisplayName("Given a committed order, when getting it, then return it and count a hit")
+    void givenCommittedOrder_whenGettingIt_thenReturnItAndCountHit() {
+      // Arrange
+      OrderCreatedEvent order = order(1L, 2);
+      orderCache.onOrderCreated(order);
+
+      // Act
+      OrderCreatedEvent result = orderCache.get(1L);
+
+      // Assert
+      assertSame(order, result);
+      assertEquals(1.0, meterRegistry.get("order.cache.requests")
+          .tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given an unknown order, when getting it, then return null and count a miss")
+    void givenUnknownOrder_whenGettingIt_thenReturnNullAndCountMiss() {
+      // Act
+      OrderCreatedEvent result = orderCache.get(1L);
+
+      // Assert
+      assertNull(result);
+      assertEquals(1.0, meterRegistry.get("order.cache.requests")
+          .tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given a cached order, when changing its lines, then refuse the change")
+    void givenCachedOrder_whenChangingItsLines_thenRefuseChange() {
+      // Arrange
+      orderCache.put(order(1L, 1));
+
+      // Act & Assert
+      assertThrows(UnsupportedOperationException.class,
+          () -> orderCache.get(1L).lines().clear());
+    }
+  }
+
+  @Nested
+  @DisplayName("Eviction Tests")
+  class EvictionTests {
+
+    @Test
+    @DisplayName("Given orders over the maximum weight, when caching, "
+        + "then evict the least recently used orders by line count")
+    void givenOrdersOverMaximumWeight_whenCaching_thenEvictLeastRecentlyUsed() {
+      // Arrange
+      orderCache.put(order(1L, 2));
+      orderCache.put(order(2L, 2));
+      orderCache.get(1L);
+
+      // Act
+      orderCache.put(order(3L, 3));
+
+      // Assert
+      assertNull(orderCache.get(2L));
+      assertEquals(2, orderCache.get(1L).lines().size());
+      assertEquals(3, orderCache.get(3L).lines().size());
+      assertEquals(5.0, meterRegistry.get("order.cache.weight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Given an order heavier than the cache, when caching, then keep the others")
+    void givenOrderHeavierThanCache_whenCaching_thenKeepOthers() {
+      // Arrange
+      orderCache.put(order(1L, 2));
+
+      // Act
+      orderCache.put(order(2L, 6));
+
+      // Assert
+      assertNull(orderCache.get(2L));
+      assertEquals(2, orderCache.get(1L).lines().size());
+    }
+  }
+}
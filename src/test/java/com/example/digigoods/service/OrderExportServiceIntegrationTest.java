@@ -0,0 +1,135 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.InvalidExportRangeException;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderExportFormat;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.util.ColumnarWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OrderExportServiceIntegrationTest {
+
+  @Autowired
+  private OrderExportService orderExportService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private User user;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User(null, "export, \"finance\"", "password"));
+    product = productRepository.save(new Product(null, "Exported Product",
+        new BigDecimal("20.00"), 10));
+  }
+
+  private Order saveOrder(LocalDateTime orderDate, String finalPrice) {
+    Order order = new Order();
+    order.setUser(user);
+    order.setProducts(new HashSet<>(Set.of(product)));
+    order.setOriginalSubtotal(new BigDecimal("20.00"));
+    order.setFinalPrice(new BigDecimal(finalPrice));
+    order = orderRepository.saveAndFlush(order);
+    order.setOrderDate(orderDate);
+    return orderRepository.saveAndFlush(order);
+  }
+
+  @Test
+  @DisplayName("Given orders inside and outside the range, when exporting CSV, "
+      + "then write a header and one escaped line per order in range")
+  void givenOrdersAroundRange_whenExportingCsv_thenWriteHeaderAndOrdersInRange() {
+    // Arrange
+    final Order first = saveOrder(LocalDateTime.of(2025, 6, 1, 0, 0), "18.00");
+    final Order last = saveOrder(LocalDateTime.of(2025, 6, 30, 23, 59, 59), "15.50");
+    saveOrder(LocalDateTime.of(2025, 7, 1, 0, 0), "10.00");
+    saveOrder(LocalDateTime.of(2025, 5, 31, 23, 59), "10.00");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    double exportedBefore = meterRegistry.get("order.export.rows").counter().count();
+
+    // Act
+    long rows = orderExportService.export(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 7, 1),
+        OrderExportFormat.CSV, out);
+
+    // Assert
+    assertEquals(2, rows);
+    List<String> lines = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+        .sorted()
+        .toList();
+    String userColumns = "," + user.getId() + ",\"export, \"\"finance\"\"\",20.00,";
+    assertEquals(List.of(
+        first.getId() + userColumns + "18.00,2025-06-01T00:00",
+        last.getId() + userColumns + "15.50,2025-06-30T23:59:59",
+        "id,user_id,username,original_subtotal,final_price,order_date").stream().sorted()
+        .toList(), lines);
+    assertEquals(exportedBefore + 2,
+        meterRegistry.get("order.export.rows").counter().count());
+  }
+
+  @Test
+  @DisplayName("Given orders in range, when exporting columnar, "
+      + "then write the columnar header and a single row group")
+  void givenOrdersInRange_whenExportingColumnar_thenWriteColumnarFile() {
+    // Arrange
+    saveOrder(LocalDateTime.of(2025, 6, 10, 12, 0), "18.00");
+    saveOrder(LocalDateTime.of(2025, 6, 11, 12, 0), "17.00");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    long rows = orderExportService.export(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 7, 1),
+        OrderExportFormat.COLUMNAR, out);
+
+    // Assert
+    assertEquals(2, rows);
+    byte[] file = out.toByteArray();
+    assertArrayEquals(ColumnarWriter.MAGIC,
+        Arrays.copyOf(file, ColumnarWriter.MAGIC.length));
+    assertEquals(0, file[file.length - 1]);
+  }
+
+  @Test
+  @DisplayName("Given a reversed range, when exporting, then throw InvalidExportRangeException")
+  void givenReversedRange_whenExporting_thenThrowInvalidExportRangeException() {
+    // Act & Assert
+    assertThrows(InvalidExportRangeException.class,
+        () -> orderExportService.export(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 6, 1),
+            OrderExportFormat.CSV, new ByteArrayOutputStream()));
+  }
+}
@@ -0,0 +1,244 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.OrderDetailResponse;
+import com.example.digigoods.dto.OrderSummaryResponse;
+import com.example.digigoods.event.OrderCreatedEvent;
+import com.example.digigoods.exception.OrderNotFoundException;
+import com.example.digigoods.model.OrderView;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.OrderRepository.OrderItem;
+import com.example.digigoods.repository.OrderRepository.OrderSummary;
+import com.example.digigoods.repository.OrderViewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+  private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 15, 12, 0);
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  @Mock
+  private OrderViewRepository orderViewRepository;
+
+  @Spy
+  private OrderCache orderCache = new OrderCache(new SimpleMeterRegistry(), 100);
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @InjectMocks
+  private OrderService orderService;
+
+  private OrderSummary summary(Long id, LocalDateTime orderDate) {
+    return new OrderSummary() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public LocalDateTime getOrderDate() {
+        return orderDate;
+      }
+
+      @Override
+      public BigDecimal getOriginalSubtotal() {
+        return new BigDecimal("30.00");
+      }
+
+      @Override
+      public BigDecimal getFinalPrice() {
+        return new BigDecimal("27.00");
+      }
+    };
+  }
+
+  private OrderItem item(Long orderId, Long productId, String productName) {
+    return new OrderItem() {
+      @Override
+      public Long getOrderId() {
+        return orderId;
+      }
+
+      @Override
+      public Long getProductId() {
+        return productId;
+      }
+
+      @Override
+      public String getProductName() {
+        return productName;
+      }
+    };
+  }
+
+  @Nested
+  @DisplayName("Order History")
+  class OrderHistoryTests {
+
+    @Test
+    @DisplayName("Given first page, when getting order history, "
+        + "then load the items of every order with one query")
+    void givenFirstPage_whenGettingOrderHistory_thenLoadItemsWithOneQuery() {
+      // Arrange
+      when(orderRepository.findLatestByUserId(7L, PageRequest.of(0, 2)))
+          .thenReturn(List.of(summary(2L, NOON), summary(1L, NOON.minusDays(1))));
+      when(orderRepository.findItemsByOrderIds(List.of(2L, 1L))).thenReturn(List.of(
+          item(1L, 10L, "Ebook"), item(2L, 10L, "Ebook"), item(2L, 11L, "Course")));
+
+      // Act
+      List<OrderSummaryResponse> history = orderService.getOrderHistory(7L, null, null, 2);
+
+      // Assert
+      assertEquals(List.of(2L, 1L),
+          history.stream().map(OrderSummaryResponse::getOrderId).toList());
+      assertEquals(List.of(new OrderSummaryResponse.Item(10L, "Ebook"),
+          new OrderSummaryResponse.Item(11L, "Course")), history.get(0).getItems());
+      assertEquals(1, history.get(1).getItems().size());
+      assertEquals(new BigDecimal("27.00"), history.get(0).getFinalPrice());
+    }
+
+    @Test
+    @DisplayName("Given cursor, when getting order history, then query after its keyset")
+    void givenCursor_whenGettingOrderHistory_thenQueryAfterItsKeyset() {
+      // Arrange
+      when(orderRepository.findByUserIdBefore(7L, NOON, 2L, PageRequest.of(0, 20)))
+          .thenReturn(List.of());
+
+      // Act
+      List<OrderSummaryResponse> history = orderService.getOrderHistory(7L, NOON, 2L, 20);
+
+      // Assert
+      assertTrue(history.isEmpty());
+      verify(orderRepository, never()).findLatestByUserId(any(), any());
+      verify(orderRepository, never()).findItemsByOrderIds(any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Order Detail Tests")
+  class OrderDetailTests {
+
+    private OrderView view() {
+      return new OrderView(5L, 7L, NOON, new BigDecimal("30.00"), new BigDecimal("27.00"), 1,
+          "[{\"productId\":1,\"productName\":\"Product 1\","
+              + "\"originalPrice\":30.00,\"price\":30.00}]",
+          "{\"GENERAL10\":3.00}");
+    }
+
+    @Test
+    @DisplayName("Given a projected order, when getting it as its owner, "
+        + "then read the lines from the single view row")
+    void givenProjectedOrder_whenGettingAsOwner_thenReadLinesFromViewRow() {
+      // Arrange
+      when(orderViewRepository.findById(5L)).thenReturn(Optional.of(view()));
+
+      // Act
+      OrderDetailResponse order = orderService.getOrder(5L, 7L);
+
+      // Assert
+      assertEquals(NOON, order.getOrderDate());
+      assertEquals(new BigDecimal("27.00"), order.getFinalPrice());
+      assertEquals(List.of(new OrderDetailResponse.Line(1L, "Product 1",
+          new BigDecimal("30.00"), new BigDecimal("30.00"))), order.getLines());
+      assertEquals(Map.of("GENERAL10", new BigDecimal("3.00")), order.getDiscountAmounts());
+      verify(orderRepository, never()).findItemsByOrderIds(any());
+    }
+
+    @Test
+    @DisplayName("Given an order of another user, when getting it, "
+        + "then throw OrderNotFoundException without caching it")
+    void givenOrderOfAnotherUser_whenGettingIt_thenThrowOrderNotFoundWithoutCaching() {
+      // Arrange
+      when(orderViewRepository.findById(5L)).thenReturn(Optional.of(view()));
+
+      // Act & Assert
+      assertThrows(OrderNotFoundException.class, () -> orderService.getOrder(5L, 8L));
+      assertNull(orderCache.get(5L));
+    }
+
+    @Test
+    @DisplayName("Given an order not in the read model, when getting it, "
+        + "then throw OrderNotFoundException")
+    void givenOrderNotInReadModel_whenGettingIt_thenThrowOrderNotFoundException() {
+      // Arrange
+      when(orderViewRepository.findById(5L)).thenReturn(Optional.empty());
+
+      // Act & Assert
+      assertThrows(OrderNotFoundException.class, () -> orderService.getOrder(5L, 7L));
+    }
+
+    @Test
+    @DisplayName("Given a projected order read once, when getting it again, "
+        + "then serve it from the cache")
+    void givenProjectedOrderReadOnce_whenGettingItAgain_thenServeFromCache() {
+      // Arrange
+      when(orderViewRepository.findById(5L)).thenReturn(Optional.of(view()));
+      orderService.getOrder(5L, 7L);
+
+      // Act
+      OrderDetailResponse order = orderService.getOrder(5L, 7L);
+
+      // Assert
+      assertEquals(new BigDecimal("27.00"), order.getFinalPrice());
+      verify(orderViewRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    @DisplayName("Given a committed order not yet projected, when getting it, "
+        + "then serve it from the cache without reading the view")
+    void givenCommittedOrderNotYetProjected_whenGettingIt_thenServeFromCache() {
+      // Arrange
+      orderCache.onOrderCreated(new OrderCreatedEvent(6L, 7L, NOON, new BigDecimal("10.00"),
+          new BigDecimal("10.00"), List.of(new OrderCreatedEvent.Line(2L, "Product 2",
+              new BigDecimal("10.00"), new BigDecimal("10.00"))), Map.of()));
+
+      // Act
+      OrderDetailResponse order = orderService.getOrder(6L, 7L);
+
+      // Assert
+      assertEquals(6L, order.getOrderId());
+      assertEquals("Product 2", order.getLines().get(0).getProductName());
+      verify(orderViewRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Given a cached order of another user, when getting it, "
+        + "then throw OrderNotFoundException")
+    void givenCachedOrderOfAnotherUser_whenGettingIt_thenThrowOrderNotFoundException() {
+      // Arrange
+      orderCache.onOrderCreated(new OrderCreatedEvent(6L, 7L, NOON, BigDecimal.ZERO,
+          BigDecimal.ZERO, List.of(), Map.of()));
+
+      // Act & Assert
+      assertThrows(OrderNotFoundException.class, () -> orderService.getOrder(6L, 8L));
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-15T10:00:00Z");
+  private static final String TYPE = "TEST_EVENT";
+
+  @Mock
+  private OutboxEventRepository outboxEventRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private OutboxHandler handler;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxRelay outboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    when(handler.eventType()).thenReturn(TYPE);
+    outboxRelay = new OutboxRelay(outboxEventRepository,
+        new TransactionTemplate(transactionManager), List.of(handler), new MutableClock(NOW),
+        meterRegistry, 2, 3);
+  }
+
+  private OutboxEvent event(long id, String type, long ageSeconds, int attempts) {
+    return new OutboxEvent(id, type, id, "{}",
+        LocalDateTime.ofInstant(NOW.minusSeconds(ageSeconds), ZoneOffset.UTC), attempts);
+  }
+
+  @Nested
+  @DisplayName("Delivery")
+  class DeliveryTests {
+
+    @Test
+    @DisplayName("Given a full batch followed by a short one, when relaying, "
+        + "then deliver and delete both batches and record their lag")
+    void givenFullThenShortBatch_whenRelaying_thenDeliverBothAndRecordLag() {
+      // Arrange
+      OutboxEvent first = event(1L, TYPE, 4, 0);
+      OutboxEvent second = event(2L, TYPE, 2, 0);
+      OutboxEvent third = event(3L, TYPE, 0, 0);
+      when(outboxEventRepository.claimBatch(3, 2))
+          .thenReturn(List.of(first, second), List.of(third));
+
+      // Act
+      int delivered = outboxRelay.relay();
+
+      // Assert
+      assertEquals(3, delivered);
+      verify(handler).handleBatch(List.of(first, second));
+      verify(handler).handleBatch(List.of(third));
+      verify(outboxEventRepository).deleteAllInBatch(List.of(first, second));
+      verify(outboxEventRepository).deleteAllInBatch(List.of(third));
+      assertEquals(3.0, meterRegistry.get("outbox.delivered").counter().count());
+      assertEquals(3, meterRegistry.get("outbox.delivery.lag").tag("type", TYPE).timer()
+          .count());
+      assertEquals(0.0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Given a failing event in a batch, when relaying, "
+        + "then deliver the others one by one and count an attempt for the failing one")
+    void givenFailingEventInBatch_whenRelaying_thenDeliverOthersAndCountAttempt() {
+      // Arrange
+      OutboxEvent failing = event(1L, TYPE, 30, 0);
+      OutboxEvent healthy = event(2L, TYPE, 20, 0);
+      when(outboxEventRepository.claimBatch(3, 2)).thenReturn(List.of(failing, healthy));
+      when(outboxEventRepository.claimById(1L)).thenReturn(Optional.of(failing));
+      when(outboxEventRepository.claimById(2L)).thenReturn(Optional.of(healthy));
+      doThrow(new IllegalStateException("broken")).when(handler)
+          .handleBatch(List.of(failing, healthy));
+      doThrow(new IllegalStateException("broken")).when(handler).handleBatch(List.of(failing));
+      when(outboxEventRepository.findFirstByAttemptsLessThanOrderById(3))
+          .thenReturn(Optional.of(failing));
+
+      // Act
+      int delivered = outboxRelay.relay();
+
+      // Assert
+      assertEquals(1, delivered);
+      verify(outboxEventRepository).delete(healthy);
+      verify(outboxEventRepository, never()).delete(failing);
+      verify(outboxEventRepository).incrementAttempts(1L);
+      verify(outboxEventRepository, never()).incrementAttempts(2L);
+      assertEquals(1.0, meterRegistry.get("outbox.failures").counter().count());
+      assertEquals(30.0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Given an event without a handler, when relaying, "
+        + "then count a failed attempt instead of delivering it")
+    void givenEventWithoutHandler_whenRelaying_thenCountFailedAttempt() {
+      // Arrange
+      OutboxEvent unknown = event(1L, "UNKNOWN", 0, 2);
+      when(outboxEventRepository.claimBatch(3, 2)).thenReturn(List.of(unknown));
+      when(outboxEventRepository.claimById(1L)).thenReturn(Optional.of(unknown));
+      when(outboxEventRepository.countByAttemptsGreaterThanEqual(3)).thenReturn(1L);
+
+      // Act
+      int delivered = outboxRelay.relay();
+
+      // Assert
+      assertEquals(0, delivered);
+      verify(outboxEventRepository).incrementAttempts(1L);
+      assertEquals(1.0, meterRegistry.get("outbox.given-up").gauge().value());
+    }
+  }
+
+  @Test
+  @DisplayName("Given a batch mixing event types, when relaying, "
+      + "then hand each handler the events of its type in one call")
+  void givenBatchMixingTypes_whenRelaying_thenHandEachHandlerItsEventsInOneCall() {
+    // Arrange
+    OutboxHandler other = mock(OutboxHandler.class);
+    when(other.eventType()).thenReturn("OTHER_EVENT");
+    outboxRelay = new OutboxRelay(outboxEventRepository,
+        new TransactionTemplate(transactionManager), List.of(handler, other),
+        new MutableClock(NOW), new SimpleMeterRegistry(), 3, 3);
+    OutboxEvent first = event(1L, TYPE, 0, 0);
+    OutboxEvent second = event(2L, "OTHER_EVENT", 0, 0);
+    OutboxEvent third = event(3L, TYPE, 0, 0);
+    when(outboxEventRepository.claimBatch(3, 3)).thenReturn(List.of(first, second, third),
+        List.of());
+
+    // Act
+    int delivered = outboxRelay.relay();
+
+    // Assert
+    assertEquals(3, delivered);
+    verify(handler).handleBatch(List.of(first, third));
+    verify(other).handleBatch(List.of(second));
+    verify(outboxEventRepository).deleteAllInBatch(List.of(first, second, third));
+  }
+
+  @Test
+  @DisplayName("Given two handlers of the same type, when relaying, "
+      + "then deliver each event to both in its transaction")
+  void givenTwoHandlersOfSameType_whenRelaying_thenDeliverEventToBoth() {
+    // Arrange
+    OutboxHandler second = mock(OutboxHandler.class);
+    when(second.eventType()).thenReturn(TYPE);
+    outboxRelay = new OutboxRelay(outboxEventRepository,
+        new TransactionTemplate(transactionManager), List.of(handler, second),
+        new MutableClock(NOW), new SimpleMeterRegistry(), 2, 3);
+    OutboxEvent event = event(1L, TYPE, 0, 0);
+    when(outboxEventRepository.claimBatch(3, 2)).thenReturn(List.of(event));
+
+    // Act
+    int delivered = outboxRelay.relay();
+
+    // Assert
+    assertEquals(1, delivered);
+    verify(handler).handleBatch(List.of(event));
+    verify(second).handleBatch(List.of(event));
+    verify(outboxEventRepository).deleteAllInBatch(List.of(event));
+  }
+}
@@ -0,0 +1,281 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountSnapshot;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.PricingResult;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PricingEngineTest {
+
+  private PricingEngine pricingEngine;
+  private Product product1;
+  private Product product2;
+  private List<Product> products;
+
+  @BeforeEach
+  void setUp() {
+    pricingEngine = new PricingEngine(new BigDecimal("75.00"));
+
+    product1 = new Product();
+    product1.setId(1L);
+    product1.setName("Product 1");
+    product1.setPrice(new BigDecimal("100.00"));
+
+    product2 = new Product();
+    product2.setId(2L);
+    product2.setName("Product 2");
+    product2.setPrice(new BigDecimal("50.00"));
+
+    products = List.of(product1, product2);
+  }
+
+  private Discount discount(long id, String code, String percentage, DiscountType type,
+                            Product... applicableProducts) {
+    Discount discount = new Discount();
+    discount.setId(id);
+    discount.setCode(code);
+    discount.setPercentage(new BigDecimal(percentage));
+    discount.setType(type);
+    discount.setValidFrom(LocalDate.of(2025, 1, 1));
+    discount.setValidUntil(LocalDate.of(2025, 12, 31));
+    discount.setRemainingUses(10);
+    discount.setApplicableProducts(Set.of(applicableProducts));
+    return discount;
+  }
+
+  @Nested
+  @DisplayName("Stacking")
+  class StackingTests {
+
+    @Test
+    @DisplayName("Given two general discounts, when pricing, then compound them in code order")
+    void givenTwoGeneralDiscounts_whenPricing_thenCompoundInCodeOrder() {
+      // Arrange
+      List<DiscountSnapshot> discounts = List.of(
+          DiscountSnapshot.from(discount(1L, "GENERAL10", "10.00", DiscountType.GENERAL)),
+          DiscountSnapshot.from(discount(2L, "GENERAL20", "20.00", DiscountType.GENERAL)));
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 2L), products, discounts);
+
+      // Assert
+      // 150 - 10% = 135, 135 - 20% = 108
+      assertEquals(new BigDecimal("150.00"), result.originalSubtotal());
+      assertEquals(new BigDecimal("108.00"), result.finalPrice());
+      assertEquals(Map.of("GENERAL10", new BigDecimal("15.00"),
+          "GENERAL20", new BigDecimal("27.00")), result.discountAmounts());
+    }
+
+    @Test
+    @DisplayName("Given product and general discounts, when pricing, "
+        + "then apply line discounts before the general one")
+    void givenProductAndGeneralDiscounts_whenPricing_thenApplyLineDiscountsFirst() {
+      // Arrange
+      List<DiscountSnapshot> discounts = List.of(
+          DiscountSnapshot.from(discount(1L, "GENERAL10", "10.00", DiscountType.GENERAL)),
+          DiscountSnapshot.from(
+              discount(2L, "PRODUCT20", "20.00", DiscountType.PRODUCT_SPECIFIC, product1)),
+          DiscountSnapshot.from(
+              discount(3L, "PRODUCT5", "5.00", DiscountType.PRODUCT_SPECIFIC, product1)));
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 2L), products, discounts);
+
+      // Assert
+      // Product1: 100 - 25% = 75, Product2: 50, Subtotal: 125, General 10%: 125 - 12.50
+      assertEquals(List.of(new BigDecimal("75.00"), new BigDecimal("50.00")),
+          result.linePrices());
+      assertEquals(new BigDecimal("112.50"), result.finalPrice());
+      assertEquals(new BigDecimal("12.50"), result.discountAmounts().get("GENERAL10"));
+      assertEquals(new BigDecimal("20.00"), result.discountAmounts().get("PRODUCT20"));
+      assertEquals(new BigDecimal("5.00"), result.discountAmounts().get("PRODUCT5"));
+    }
+
+    @Test
+    @DisplayName("Given non-stackable discount with another code, when pricing, "
+        + "then throw InvalidDiscountException")
+    void givenNonStackableDiscountWithAnotherCode_whenPricing_thenThrowException() {
+      // Arrange
+      Discount exclusive = discount(1L, "SOLO30", "30.00", DiscountType.GENERAL);
+      exclusive.setStackable(false);
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(exclusive),
+          DiscountSnapshot.from(discount(2L, "GENERAL10", "10.00", DiscountType.GENERAL)));
+
+      // Act & Assert
+      InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+          () -> pricingEngine.price(List.of(1L, 2L), products, discounts));
+      assertEquals("Invalid discount code 'SOLO30': discount cannot be combined with other "
+          + "discounts", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given non-stackable discount alone, when pricing, then apply it")
+    void givenNonStackableDiscountAlone_whenPricing_thenApplyIt() {
+      // Arrange
+      Discount exclusive = discount(1L, "SOLO30", "30.00", DiscountType.GENERAL);
+      exclusive.setStackable(false);
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 2L), products,
+          List.of(DiscountSnapshot.from(exclusive)));
+
+      // Assert
+      assertEquals(new BigDecimal("105.00"), result.finalPrice());
+    }
+  }
+
+  @Nested
+  @DisplayName("Rule restrictions")
+  class RestrictionTests {
+
+    @Test
+    @DisplayName("Given per-item cap, when pricing, then cap the discount of every item")
+    void givenPerItemCap_whenPricing_thenCapEveryItem() {
+      // Arrange
+      Discount capped = discount(1L, "PRODUCT20", "20.00", DiscountType.PRODUCT_SPECIFIC,
+          product1);
+      capped.setMaxDiscountPerItem(new BigDecimal("5.00"));
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 1L, 2L), products,
+          List.of(DiscountSnapshot.from(capped)));
+
+      // Assert
+      assertEquals(new BigDecimal("240.00"), result.finalPrice());
+      assertEquals(new BigDecimal("10.00"), result.discountAmounts().get("PRODUCT20"));
+    }
+
+    @Test
+    @DisplayName("Given cart below minimum value, when pricing, "
+        + "then throw InvalidDiscountException")
+    void givenCartBelowMinimumValue_whenPricing_thenThrowException() {
+      // Arrange
+      Discount minimum = discount(1L, "BIG10", "10.00", DiscountType.GENERAL);
+      minimum.setMinCartValue(new BigDecimal("200.00"));
+      List<DiscountSnapshot> discounts = List.of(DiscountSnapshot.from(minimum));
+
+      // Act & Assert
+      InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+          () -> pricingEngine.price(List.of(1L, 2L), products, discounts));
+      assertEquals("Invalid discount code 'BIG10': cart total is below the minimum of 200.00",
+          exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given cart reaching minimum value, when pricing, then apply the discount")
+    void givenCartReachingMinimumValue_whenPricing_thenApplyDiscount() {
+      // Arrange
+      Discount minimum = discount(1L, "BIG10", "10.00", DiscountType.GENERAL);
+      minimum.setMinCartValue(new BigDecimal("200.00"));
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 1L), products,
+          List.of(DiscountSnapshot.from(minimum)));
+
+      // Assert
+      assertEquals(new BigDecimal("180.00"), result.finalPrice());
+    }
+  }
+
+  @Nested
+  @DisplayName("Buy X get Y")
+  class BuyGetTests {
+
+    @Test
+    @DisplayName("Given buy one get one free, when pricing, "
+        + "then give the cheaper item of each full group away")
+    void givenBuyOneGetOneFree_whenPricing_thenGiveCheaperItemOfEachGroupAway() {
+      // Arrange
+      Discount bogo = discount(1L, "BOGO", "100.00", DiscountType.BUY_X_GET_Y);
+      bogo.setBuyQuantity(1);
+      bogo.setGetQuantity(1);
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(2L, 1L, 2L), products,
+          List.of(DiscountSnapshot.from(bogo)));
+
+      // Assert
+      // Sorted 100, 50, 50: the first group gives the 50 away, the last item is incomplete
+      assertEquals(List.of(new BigDecimal("0.00"), new BigDecimal("100.00"),
+          new BigDecimal("50.00")), result.linePrices());
+      assertEquals(new BigDecimal("150.00"), result.finalPrice());
+      assertEquals(new BigDecimal("50.00"), result.discountAmounts().get("BOGO"));
+    }
+
+    @Test
+    @DisplayName("Given buy-X-get-Y limited to products, when pricing, "
+        + "then only group applicable items")
+    void givenBuyGetLimitedToProducts_whenPricing_thenOnlyGroupApplicableItems() {
+      // Arrange
+      Discount halfOff = discount(1L, "TWOFOR", "50.00", DiscountType.BUY_X_GET_Y, product2);
+      halfOff.setBuyQuantity(1);
+      halfOff.setGetQuantity(1);
+
+      // Act
+      PricingResult result = pricingEngine.price(List.of(1L, 2L, 2L), products,
+          List.of(DiscountSnapshot.from(halfOff)));
+
+      // Assert
+      assertEquals(new BigDecimal("175.00"), result.finalPrice());
+    }
+
+    @Test
+    @DisplayName("Given buy-X-get-Y without quantities, when compiling, "
+        + "then throw IllegalStateException")
+    void givenBuyGetWithoutQuantities_whenCompiling_thenThrowException() {
+      // Arrange
+      Discount broken = discount(1L, "BROKEN", "100.00", DiscountType.BUY_X_GET_Y);
+
+      // Act & Assert
+      assertThrows(IllegalStateException.class, () -> DiscountSnapshot.from(broken));
+    }
+  }
+
+  @Nested
+  @DisplayName("Maximum discount")
+  class MaximumDiscountTests {
+
+    @Test
+    @DisplayName("Given discount above configured maximum, when validating, "
+        + "then throw ExcessiveDiscountException")
+    void givenDiscountAboveMaximum_whenValidating_thenThrowException() {
+      // Arrange
+      PricingEngine strictEngine = new PricingEngine(new BigDecimal("50.00"));
+      PricingResult result = strictEngine.price(List.of(1L, 2L), products, List.of(
+          DiscountSnapshot.from(discount(1L, "GENERAL60", "60.00", DiscountType.GENERAL))));
+
+      // Act & Assert
+      ExcessiveDiscountException exception = assertThrows(ExcessiveDiscountException.class,
+          () -> strictEngine.validateMaximumDiscount(result));
+      assertEquals("Total discount exceeds the maximum allowed 50% of the original subtotal",
+          exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given empty cart, when validating, then accept it")
+    void givenEmptyCart_whenValidating_thenAcceptIt() {
+      // Arrange
+      PricingResult result = pricingEngine.price(List.of(), products, List.of());
+
+      // Act & Assert
+      assertEquals(BigDecimal.ZERO, result.discountPercentage());
+      assertDoesNotThrow(() -> pricingEngine.validateMaximumDiscount(result));
+    }
+  }
+}
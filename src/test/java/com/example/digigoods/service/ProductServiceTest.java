@@ -4,16 +4,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.digigoods.event.ProductRestockedEvent;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -28,6 +32,9 @@ class ProductServiceTest {
   @Mock
   private ProductRepository productRepository;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private ProductService productService;
 
@@ -99,4 +106,47 @@ class ProductServiceTest {
     assertThrows(InsufficientStockException.class,
         () -> productService.validateAndUpdateStock(productIds));
   }
+
+  @Test
+  @DisplayName("Given out of stock product, when restocking, then publish restocked event")
+  void givenOutOfStockProduct_whenRestocking_thenPublishRestockedEvent() {
+    // Arrange
+    product1.setStock(7);
+    when(productRepository.addStock(1L, 7)).thenReturn(1);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+    // Act
+    Product restocked = productService.restock(1L, 7);
+
+    // Assert
+    assertEquals(7, restocked.getStock());
+    verify(eventPublisher).publishEvent(new ProductRestockedEvent(1L, "Product 1"));
+  }
+
+  @Test
+  @DisplayName("Given product in stock, when restocking, then do not publish restocked event")
+  void givenProductInStock_whenRestocking_thenDoNotPublishRestockedEvent() {
+    // Arrange
+    product1.setStock(7);
+    when(productRepository.addStock(1L, 2)).thenReturn(1);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+    // Act
+    Product restocked = productService.restock(1L, 2);
+
+    // Assert
+    assertEquals(7, restocked.getStock());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  @DisplayName("Given unknown product, when restocking, then throw ProductNotFoundException")
+  void givenUnknownProduct_whenRestocking_thenThrowProductNotFoundException() {
+    // Arrange
+    when(productRepository.addStock(99L, 1)).thenReturn(0);
+
+    // Act & Assert
+    assertThrows(ProductNotFoundException.class, () -> productService.restock(99L, 1));
+    verify(productRepository, never()).findById(any());
+  }
 }
@@ -0,0 +1,107 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.repository.DiscountRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:redemption",
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "spring.datasource.hikari.connection-timeout=2000",
+    "discount.redemption.lease-size=3"
+})
+@ActiveProfiles("test")
+class RedemptionCountersIntegrationTest {
+
+  private static final int THREADS = 8;
+  private static final int TOTAL_USES = 40;
+
+  @Autowired
+  private RedemptionCounters redemptionCounters;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Long discountId;
+
+  @BeforeEach
+  void setUp() {
+    Discount discount = new Discount();
+    discount.setCode("POOL10");
+    discount.setPercentage(new BigDecimal("10.00"));
+    discount.setType(DiscountType.GENERAL);
+    discount.setValidFrom(LocalDate.now().minusDays(1));
+    discount.setValidUntil(LocalDate.now().plusDays(30));
+    discount.setRemainingUses(TOTAL_USES);
+    discount.setSharded(true);
+    discountId = discountRepository.save(discount).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    redemptionCounters.writeBackAll();
+    discountRepository.deleteById(discountId);
+  }
+
+  @Test
+  @DisplayName("Given more checkout transactions than pooled connections, "
+      + "when redeeming concurrently, then lease without waiting on the main pool")
+  void givenMoreTransactionsThanPooledConnections_whenRedeeming_thenLeaseWithoutWaiting()
+      throws Exception {
+    // Arrange
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+
+    // Act - every redemption runs in a transaction already holding a main pool connection
+    for (int t = 0; t < THREADS; t++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        int redeemed = 0;
+        for (int i = 0; i < 10; i++) {
+          Boolean taken = transactionTemplate.execute(status -> {
+            discountRepository.findById(discountId);
+            return redemptionCounters.redeem(discountId);
+          });
+          if (Boolean.TRUE.equals(taken)) {
+            redeemed++;
+          }
+        }
+        return redeemed;
+      }));
+    }
+    start.countDown();
+    int total = 0;
+    for (Future<Integer> result : results) {
+      total += result.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    // Assert
+    assertEquals(TOTAL_USES, total);
+    assertEquals(0, redemptionCounters.getHeldUses());
+    assertEquals(0, discountRepository.findById(discountId).orElseThrow().getRemainingUses());
+  }
+}
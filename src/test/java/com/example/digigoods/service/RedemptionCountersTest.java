@@ -0,0 +1,271 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class RedemptionCountersTest {
+
+  private static final Long DISCOUNT_ID = 7L;
+
+  @Mock
+  private RedemptionLeaseStore leaseStore;
+
+  private MutableClock clock;
+  private AtomicInteger remainingUses;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-06-15T10:00:00Z"));
+    remainingUses = new AtomicInteger();
+    // Simulate the conditional updates of the discount row
+    lenient().when(leaseStore.takeUses(eq(DISCOUNT_ID), anyInt()))
+        .thenAnswer(call -> takeUses(call.getArgument(1)));
+    lenient().when(leaseStore.findRemainingUses(DISCOUNT_ID))
+        .thenAnswer(call -> remainingUses.get());
+    lenient().when(leaseStore.returnUses(eq(DISCOUNT_ID), anyInt()))
+        .thenAnswer(call -> remainingUses.addAndGet(call.getArgument(1)) >= 0 ? 1 : 0);
+  }
+
+  @Nested
+  @DisplayName("Redeeming")
+  class RedeemTests {
+
+    @Test
+    @DisplayName("Given leased block, when redeeming repeatedly, "
+        + "then lease once until block runs out")
+    void givenLeasedBlock_whenRedeemingRepeatedly_thenLeaseOnceUntilBlockRunsOut() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(4, 10);
+
+      // Act
+      for (int i = 0; i < 10; i++) {
+        assertTrue(counters.redeem(DISCOUNT_ID));
+      }
+
+      // Assert
+      verify(leaseStore, times(1)).takeUses(DISCOUNT_ID, 10);
+      assertEquals(90, remainingUses.get());
+      assertEquals(0, counters.getHeldUses());
+    }
+
+    @Test
+    @DisplayName("Given fewer uses than lease size, when redeeming, then lease the remainder")
+    void givenFewerUsesThanLeaseSize_whenRedeeming_thenLeaseRemainder() {
+      // Arrange
+      remainingUses.set(3);
+      RedemptionCounters counters = counters(2, 10);
+
+      // Act
+      boolean first = counters.redeem(DISCOUNT_ID);
+      boolean second = counters.redeem(DISCOUNT_ID);
+      boolean third = counters.redeem(DISCOUNT_ID);
+      boolean fourth = counters.redeem(DISCOUNT_ID);
+
+      // Assert
+      assertTrue(first && second && third);
+      assertFalse(fourth);
+      assertEquals(0, remainingUses.get());
+    }
+
+    @Test
+    @DisplayName("Given many threads, when redeeming concurrently, "
+        + "then never redeem more than the total")
+    void givenManyThreads_whenRedeemingConcurrently_thenNeverRedeemMoreThanTotal()
+        throws Exception {
+      // Arrange
+      remainingUses.set(1000);
+      RedemptionCounters counters = counters(4, 64);
+      int threads = 8;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> results = new ArrayList<>();
+
+      // Act
+      for (int t = 0; t < threads; t++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          int redeemed = 0;
+          for (int i = 0; i < 500; i++) {
+            if (counters.redeem(DISCOUNT_ID)) {
+              redeemed++;
+            }
+          }
+          return redeemed;
+        }));
+      }
+      start.countDown();
+      int total = 0;
+      for (Future<Integer> result : results) {
+        total += result.get();
+      }
+      executor.shutdown();
+
+      // Assert
+      assertEquals(1000, total);
+      assertEquals(0, remainingUses.get());
+      assertEquals(0, counters.getHeldUses());
+    }
+
+    @Test
+    @DisplayName("Given zero lease size, when creating counters, then throw exception")
+    void givenZeroLeaseSize_whenCreatingCounters_thenThrowException() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class, () -> counters(2, 0));
+    }
+  }
+
+  @Nested
+  @DisplayName("Write-back")
+  class WriteBackTests {
+
+    @Test
+    @DisplayName("Given idle discount, when writing back, then return held uses to the row")
+    void givenIdleDiscount_whenWritingBack_thenReturnHeldUses() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(2, 10);
+      counters.redeem(DISCOUNT_ID);
+      clock.advance(Duration.ofMinutes(2));
+
+      // Act
+      counters.writeBackIdle();
+
+      // Assert
+      assertEquals(99, remainingUses.get());
+      assertEquals(0, counters.getHeldUses());
+    }
+
+    @Test
+    @DisplayName("Given recently used discount, when writing back, then keep held uses")
+    void givenRecentlyUsedDiscount_whenWritingBack_thenKeepHeldUses() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(2, 10);
+      counters.redeem(DISCOUNT_ID);
+
+      // Act
+      counters.writeBackIdle();
+
+      // Assert
+      verify(leaseStore, never()).returnUses(eq(DISCOUNT_ID), anyInt());
+      assertEquals(9, counters.getHeldUses());
+    }
+
+    @Test
+    @DisplayName("Given retired discount, when redeeming again, then lease a fresh block")
+    void givenRetiredDiscount_whenRedeemingAgain_thenLeaseFreshBlock() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(2, 10);
+      counters.redeem(DISCOUNT_ID);
+      counters.writeBackAll();
+
+      // Act
+      boolean redeemed = counters.redeem(DISCOUNT_ID);
+
+      // Assert
+      assertTrue(redeemed);
+      assertEquals(89, remainingUses.get());
+      assertEquals(9, counters.getHeldUses());
+    }
+  }
+
+  @Nested
+  @DisplayName("Rollback compensation")
+  class RollbackTests {
+
+    @Test
+    @DisplayName("Given rolled back transaction, when completing, then hand the use back")
+    void givenRolledBackTransaction_whenCompleting_thenHandUseBack() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(2, 10);
+      TransactionSynchronizationManager.initSynchronization();
+      List<TransactionSynchronization> synchronizations;
+      try {
+        counters.redeem(DISCOUNT_ID);
+        synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+
+      // Act
+      synchronizations.forEach(synchronization ->
+          synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+      // Assert
+      assertEquals(10, counters.getHeldUses());
+      assertEquals(90, remainingUses.get());
+    }
+
+    @Test
+    @DisplayName("Given committed transaction, when completing, then keep the use redeemed")
+    void givenCommittedTransaction_whenCompleting_thenKeepUseRedeemed() {
+      // Arrange
+      remainingUses.set(100);
+      RedemptionCounters counters = counters(2, 10);
+      TransactionSynchronizationManager.initSynchronization();
+      List<TransactionSynchronization> synchronizations;
+      try {
+        counters.redeem(DISCOUNT_ID);
+        synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+
+      // Act
+      synchronizations.forEach(synchronization ->
+          synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+      // Assert
+      assertEquals(9, counters.getHeldUses());
+    }
+  }
+
+  private int takeUses(int uses) {
+    while (true) {
+      int remaining = remainingUses.get();
+      if (remaining < uses) {
+        return 0;
+      }
+      if (remainingUses.compareAndSet(remaining, remaining - uses)) {
+        return 1;
+      }
+    }
+  }
+
+  private RedemptionCounters counters(int stripes, int leaseSize) {
+    return new RedemptionCounters(leaseStore, clock, new SimpleMeterRegistry(),
+        stripes, leaseSize, Duration.ofMinutes(1));
+  }
+}
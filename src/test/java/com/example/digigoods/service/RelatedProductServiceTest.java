@@ -0,0 +1,180 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.RelatedProductResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+class RelatedProductServiceTest {
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private RelatedProductService relatedProductService;
+
+  @BeforeEach
+  void setUp() {
+    relatedProductService = new RelatedProductService(productRepository, jdbcTemplate,
+        new SimpleMeterRegistry(), 5, 3, 2, 1);
+  }
+
+  private CheckoutCompletedEvent checkout(long orderId, Long... productIds) {
+    return new CheckoutCompletedEvent(orderId, 1L, List.of(productIds), BigDecimal.TEN,
+        BigDecimal.TEN, Map.of());
+  }
+
+  private Product product(long id) {
+    return new Product(id, "Product " + id, new BigDecimal("10.00"), 5);
+  }
+
+  private ResultSet row(long orderId, long productId) throws SQLException {
+    ResultSet row = mock(ResultSet.class);
+    when(row.getLong(1)).thenReturn(orderId);
+    when(row.getLong(2)).thenReturn(productId);
+    return row;
+  }
+
+  @Nested
+  @DisplayName("Incremental updates")
+  class IncrementalTests {
+
+    @Test
+    @DisplayName("Given committed checkouts, when getting related products, "
+        + "then rank products by orders bought together")
+    void givenCommittedCheckouts_whenGettingRelated_thenRankByOrdersBoughtTogether() {
+      // Arrange
+      relatedProductService.onCheckoutCompleted(checkout(1L, 1L, 2L, 3L));
+      relatedProductService.onCheckoutCompleted(checkout(2L, 1L, 3L, 3L));
+      when(productRepository.findAllById(List.of(3L, 2L)))
+          .thenReturn(List.of(product(2L), product(3L)));
+
+      // Act
+      List<RelatedProductResponse> related = relatedProductService.getRelated(1L, 10);
+
+      // Assert
+      assertEquals(2, related.size());
+      assertEquals(3L, related.get(0).getProductId());
+      assertEquals("Product 3", related.get(0).getName());
+      assertEquals(2, related.get(0).getCount());
+      assertEquals(2L, related.get(1).getProductId());
+      assertEquals(1, related.get(1).getCount());
+    }
+
+    @Test
+    @DisplayName("Given a basket over the size limit, when getting related products, "
+        + "then ignore it without reading products")
+    void givenBasketOverSizeLimit_whenGettingRelated_thenIgnoreIt() {
+      // Arrange
+      relatedProductService.onCheckoutCompleted(checkout(1L, 1L, 2L, 3L, 4L));
+
+      // Act
+      List<RelatedProductResponse> related = relatedProductService.getRelated(1L, 10);
+
+      // Assert
+      assertTrue(related.isEmpty());
+      verify(productRepository, never()).findAllById(any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Rebuilding")
+  class RebuildTests {
+
+    @Test
+    @DisplayName("Given stored orders and checkouts during the rebuild, when rebuilding, "
+        + "then merge every chunk and replay only checkouts past the cutoff")
+    @SuppressWarnings("unchecked")
+    void givenCheckoutsDuringRebuild_whenRebuilding_thenReplayOnlyCheckoutsPastCutoff()
+        throws SQLException {
+      // Arrange
+      relatedProductService.onCheckoutCompleted(checkout(9L, 1L, 9L));
+      when(jdbcTemplate.queryForObject(eq(RelatedProductService.ORDER_RANGE_SQL),
+          any(RowMapper.class))).thenReturn(new long[] {10L, 11L});
+      Map<Long, List<ResultSet>> rowsByOrder = Map.of(
+          10L, List.of(row(10L, 1L), row(10L, 2L)),
+          11L, List.of(row(11L, 1L), row(11L, 2L), row(11L, 3L)));
+      List<Object[]> ranges = new ArrayList<>();
+      doAnswer(invocation -> {
+        long from = invocation.getArgument(2);
+        long to = invocation.getArgument(3);
+        synchronized (ranges) {
+          ranges.add(new Object[] {from, to});
+        }
+        if (from == 11L) {
+          // Order 11 is read by the rebuild, order 12 committed after the cutoff
+          relatedProductService.onCheckoutCompleted(checkout(11L, 1L, 2L, 3L));
+          relatedProductService.onCheckoutCompleted(checkout(12L, 1L, 3L));
+        }
+        RowCallbackHandler handler = invocation.getArgument(1);
+        for (ResultSet row : rowsByOrder.get(from)) {
+          handler.processRow(row);
+        }
+        return null;
+      }).when(jdbcTemplate).query(eq(RelatedProductService.BASKETS_SQL),
+          any(RowCallbackHandler.class), any(), any());
+      when(productRepository.findAllById(List.of(2L, 3L)))
+          .thenReturn(List.of(product(2L), product(3L)));
+
+      // Act
+      relatedProductService.rebuild();
+
+      // Assert
+      assertEquals(2, ranges.size());
+      List<RelatedProductResponse> related = relatedProductService.getRelated(1L, 10);
+      assertEquals(2, related.size());
+      assertEquals(2L, related.get(0).getProductId());
+      assertEquals(2, related.get(0).getCount());
+      assertEquals(3L, related.get(1).getProductId());
+      assertEquals(2, related.get(1).getCount());
+    }
+
+    @Test
+    @DisplayName("Given no stored orders, when rebuilding, then clear the index")
+    @SuppressWarnings("unchecked")
+    void givenNoStoredOrders_whenRebuilding_thenClearIndex() {
+      // Arrange
+      relatedProductService.onCheckoutCompleted(checkout(1L, 1L, 2L));
+      when(jdbcTemplate.queryForObject(eq(RelatedProductService.ORDER_RANGE_SQL),
+          any(RowMapper.class))).thenReturn(new long[] {0L, 0L});
+
+      // Act
+      relatedProductService.rebuild();
+
+      // Assert
+      assertTrue(relatedProductService.getRelated(1L, 10).isEmpty());
+      verify(jdbcTemplate, never()).query(eq(RelatedProductService.BASKETS_SQL),
+          any(RowCallbackHandler.class), any(), any());
+    }
+  }
+}
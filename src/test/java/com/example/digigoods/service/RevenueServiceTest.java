@@ -0,0 +1,183 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.RevenueResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.exception.InvalidRevenueRangeException;
+import com.example.digigoods.model.OutboxEvent;
+import com.example.digigoods.model.RevenuePeriod;
+import com.example.digigoods.model.RevenueRollup;
+import com.example.digigoods.repository.RevenueRollupRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueServiceTest {
+
+  private static final LocalDateTime HOUR = LocalDateTime.of(2025, 6, 15, 10, 0);
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 6, 15, 0, 0);
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 15, 10, 20);
+
+  @Mock
+  private RevenueRollupRepository rollupRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Captor
+  private ArgumentCaptor<List<Object[]>> rows;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private RevenueService revenueService;
+
+  @BeforeEach
+  void setUp() {
+    revenueService = new RevenueService(rollupRepository, jdbcTemplate, objectMapper);
+  }
+
+  private CheckoutCompletedEvent checkout(String originalSubtotal, String finalPrice) {
+    return new CheckoutCompletedEvent(1L, 1L, List.of(1L), new BigDecimal(originalSubtotal),
+        new BigDecimal(finalPrice), Map.of());
+  }
+
+  private OutboxEvent outboxEvent(CheckoutCompletedEvent checkout, LocalDateTime createdAt)
+      throws Exception {
+    return new OutboxEvent(1L, CheckoutCompletedEvent.TYPE, checkout.orderId(),
+        objectMapper.writeValueAsString(checkout), createdAt, 0);
+  }
+
+  @Nested
+  @DisplayName("Handling")
+  class HandleTests {
+
+    @Test
+    @DisplayName("Given checkouts of a batch, when handling the batch, "
+        + "then upsert each hour and day once in period and start order")
+    void givenCheckoutsOfBatch_whenHandlingBatch_thenUpsertEachRowOnceInOrder()
+        throws Exception {
+      // Arrange
+      List<OutboxEvent> events = List.of(
+          outboxEvent(checkout("100.00", "90.00"), CREATED_AT),
+          outboxEvent(checkout("50.00", "50.00"), CREATED_AT.minusHours(1)),
+          outboxEvent(checkout("20.00", "15.00"), CREATED_AT.plusMinutes(10)));
+
+      // Act
+      revenueService.handleBatch(events);
+
+      // Assert
+      verify(jdbcTemplate).batchUpdate(eq(RevenueService.MERGE_REVENUE_SQL), rows.capture());
+      List<Object[]> upserted = rows.getValue();
+      assertEquals(3, upserted.size());
+      assertArrayEquals(new Object[] {"HOUR", HOUR.minusHours(1), 1L, new BigDecimal("50.00"),
+          new BigDecimal("50.00"), new BigDecimal("0.00")}, upserted.get(0));
+      assertArrayEquals(new Object[] {"HOUR", HOUR, 2L, new BigDecimal("120.00"),
+          new BigDecimal("105.00"), new BigDecimal("15.00")}, upserted.get(1));
+      assertArrayEquals(new Object[] {"DAY", DAY, 3L, new BigDecimal("170.00"),
+          new BigDecimal("155.00"), new BigDecimal("15.00")}, upserted.get(2));
+    }
+
+    @Test
+    @DisplayName("Given PostgreSQL, when handling a checkout, then upsert with ON CONFLICT")
+    void givenPostgresql_whenHandlingCheckout_thenUpsertWithOnConflict() throws Exception {
+      // Arrange
+      when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+
+      // Act
+      revenueService.handle(outboxEvent(checkout("100.00", "90.00"), CREATED_AT));
+
+      // Assert
+      verify(jdbcTemplate).batchUpdate(eq(RevenueService.UPSERT_REVENUE_SQL), rows.capture());
+      assertArrayEquals(new Object[] {"HOUR", HOUR, 1L, new BigDecimal("100.00"),
+          new BigDecimal("90.00"), new BigDecimal("10.00")}, rows.getValue().get(0));
+    }
+
+    @Test
+    @DisplayName("Given an unreadable payload, when handling, then throw so the relay retries")
+    void givenUnreadablePayload_whenHandling_thenThrow() {
+      // Arrange
+      OutboxEvent event = new OutboxEvent(1L, CheckoutCompletedEvent.TYPE, 1L, "{",
+          CREATED_AT, 0);
+
+      // Act & Assert
+      assertThrows(IllegalStateException.class, () -> revenueService.handle(event));
+      verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+  }
+
+  @Nested
+  @DisplayName("Reporting")
+  class ReportTests {
+
+    @Test
+    @DisplayName("Given rollup rows, when reporting by day, then list them and total the range")
+    void givenRollupRows_whenReportingByDay_thenListThemAndTotalRange() {
+      // Arrange
+      LocalDateTime previousDay = DAY.minusDays(1);
+      when(rollupRepository.findByPeriodAndPeriodStartBetweenOrderByPeriodStart(
+          RevenuePeriod.DAY, LocalDateTime.of(2025, 6, 14, 0, 0), DAY))
+          .thenReturn(List.of(
+              new RevenueRollup(1L, RevenuePeriod.DAY, previousDay, 3L,
+                  new BigDecimal("300.00"), new BigDecimal("270.00"), new BigDecimal("30.00")),
+              new RevenueRollup(2L, RevenuePeriod.DAY, DAY, 1L,
+                  new BigDecimal("40.00"), new BigDecimal("40.00"), BigDecimal.ZERO)));
+
+      // Act
+      RevenueResponse response = revenueService.getRevenue(LocalDate.of(2025, 6, 14),
+          LocalDate.of(2025, 6, 15), RevenuePeriod.DAY);
+
+      // Assert
+      assertEquals(4, response.getTotalOrders());
+      assertEquals(new BigDecimal("340.00"), response.getTotalGross());
+      assertEquals(new BigDecimal("310.00"), response.getTotalNet());
+      assertEquals(new BigDecimal("30.00"), response.getTotalDiscount());
+      assertEquals(2, response.getPeriods().size());
+      assertEquals(DAY, response.getPeriods().get(1).getStart());
+      assertEquals(1, response.getPeriods().get(1).getOrders());
+    }
+
+    @Test
+    @DisplayName("Given an hourly range over the limit, when reporting, "
+        + "then throw InvalidRevenueRangeException")
+    void givenHourlyRangeOverLimit_whenReporting_thenThrowInvalidRevenueRangeException() {
+      // Act & Assert
+      assertThrows(InvalidRevenueRangeException.class,
+          () -> revenueService.getRevenue(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1),
+              RevenuePeriod.HOUR));
+    }
+
+    @Test
+    @DisplayName("Given a reversed range, when reporting, "
+        + "then throw InvalidRevenueRangeException")
+    void givenReversedRange_whenReporting_thenThrowInvalidRevenueRangeException() {
+      // Act & Assert
+      assertThrows(InvalidRevenueRangeException.class,
+          () -> revenueService.getRevenue(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 1),
+              RevenuePeriod.DAY));
+    }
+  }
+}
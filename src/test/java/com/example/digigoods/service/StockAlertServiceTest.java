@@ -0,0 +1,192 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.StockSubscriptionResponse;
+import com.example.digigoods.event.DigestDeliveredEvent;
+import com.example.digigoods.event.ProductRestockedEvent;
+import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.model.NotificationType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.StockSubscription;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockSubscriptionRepository;
+import com.example.digigoods.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class StockAlertServiceTest {
+
+  private static final int PAGE_SIZE = 2;
+
+  @Mock
+  private StockSubscriptionRepository stockSubscriptionRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private NotificationService notificationService;
+
+  private StockAlertService stockAlertService;
+
+  @BeforeEach
+  void setUp() {
+    stockAlertService = new StockAlertService(stockSubscriptionRepository, productRepository,
+        userRepository, notificationService, PAGE_SIZE);
+  }
+
+  @Nested
+  @DisplayName("Subscribe Tests")
+  class SubscribeTests {
+
+    @Test
+    @DisplayName("Given new subscription, when subscribing, then save subscription")
+    void givenNewSubscription_whenSubscribing_thenSaveSubscription() {
+      // Arrange
+      when(productRepository.existsById(10L)).thenReturn(true);
+      when(stockSubscriptionRepository.existsByUserIdAndProductId(1L, 10L)).thenReturn(false);
+      when(userRepository.getReferenceById(1L)).thenReturn(new User());
+      when(productRepository.getReferenceById(10L)).thenReturn(new Product());
+
+      // Act
+      StockSubscriptionResponse response = stockAlertService.subscribe(1L, 10L);
+
+      // Assert
+      assertEquals(10L, response.getProductId());
+      assertEquals(1L, response.getUserId());
+      verify(stockSubscriptionRepository).save(any(StockSubscription.class));
+    }
+
+    @Test
+    @DisplayName("Given existing subscription, when subscribing again, then do not save twice")
+    void givenExistingSubscription_whenSubscribingAgain_thenDoNotSaveTwice() {
+      // Arrange
+      when(productRepository.existsById(10L)).thenReturn(true);
+      when(stockSubscriptionRepository.existsByUserIdAndProductId(1L, 10L)).thenReturn(true);
+
+      // Act
+      stockAlertService.subscribe(1L, 10L);
+
+      // Assert
+      verify(stockSubscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Given unknown product, when subscribing, then throw ProductNotFoundException")
+    void givenUnknownProduct_whenSubscribing_thenThrowProductNotFoundException() {
+      // Arrange
+      when(productRepository.existsById(99L)).thenReturn(false);
+
+      // Act & Assert
+      assertThrows(ProductNotFoundException.class, () -> stockAlertService.subscribe(1L, 99L));
+    }
+  }
+
+  @Nested
+  @DisplayName("Fan-out Tests")
+  class FanOutTests {
+
+    @Test
+    @DisplayName("Given subscribers over several pages, when fanning out, "
+        + "then page by last user ID and alert everyone")
+    void givenSubscribersOverSeveralPages_whenFanningOut_thenPageByLastUserIdAndAlertEveryone() {
+      // Arrange
+      when(stockSubscriptionRepository.findSubscriberIds(eq(10L), eq(0L), any(Pageable.class)))
+          .thenReturn(List.of(1L, 4L));
+      when(stockSubscriptionRepository.findSubscriberIds(eq(10L), eq(4L), any(Pageable.class)))
+          .thenReturn(List.of(7L));
+
+      // Act
+      stockAlertService.onProductRestocked(new ProductRestockedEvent(10L, "Digital Book"));
+
+      // Assert
+      verify(notificationService).queueStockAlert(1L, 10L, "Digital Book");
+      verify(notificationService).queueStockAlert(4L, 10L, "Digital Book");
+      verify(notificationService).queueStockAlert(7L, 10L, "Digital Book");
+      verify(stockSubscriptionRepository, never()).deleteByUserIdAndProductIds(anyLong(),
+          anyList());
+    }
+
+    @Test
+    @DisplayName("Given full last page, when fanning out, then stop at first empty page")
+    void givenFullLastPage_whenFanningOut_thenStopAtFirstEmptyPage() {
+      // Arrange
+      when(stockSubscriptionRepository.findSubscriberIds(eq(10L), eq(0L), any(Pageable.class)))
+          .thenReturn(List.of(1L, 2L));
+      when(stockSubscriptionRepository.findSubscriberIds(eq(10L), eq(2L), any(Pageable.class)))
+          .thenReturn(List.of());
+
+      // Act
+      int processed = stockAlertService.fanOut(10L, "Digital Book");
+
+      // Assert
+      assertEquals(2, processed);
+    }
+
+    @Test
+    @DisplayName("Given no subscribers, when fanning out, then send nothing")
+    void givenNoSubscribers_whenFanningOut_thenSendNothing() {
+      // Arrange
+      when(stockSubscriptionRepository.findSubscriberIds(eq(10L), anyLong(), any(Pageable.class)))
+          .thenReturn(List.of());
+
+      // Act
+      int processed = stockAlertService.fanOut(10L, "Digital Book");
+
+      // Assert
+      assertEquals(0, processed);
+      verify(notificationService, never()).queueStockAlert(anyLong(), anyLong(), any());
+    }
+  }
+
+  @Nested
+  @DisplayName("Delivered Digest Tests")
+  class DeliveredDigestTests {
+
+    @Test
+    @DisplayName("Given a delivered stock alert digest, when handling it, "
+        + "then remove the alerted subscriptions")
+    void givenDeliveredStockAlertDigest_whenHandlingIt_thenRemoveAlertedSubscriptions() {
+      // Act
+      stockAlertService.onDigestDelivered(new DigestDeliveredEvent(1L,
+          NotificationType.STOCK_ALERT, List.of("10", "11")));
+
+      // Assert
+      verify(stockSubscriptionRepository).deleteByUserIdAndProductIds(1L, List.of(10L, 11L));
+    }
+
+    @Test
+    @DisplayName("Given a delivered digest of another type, when handling it, "
+        + "then keep every subscription")
+    void givenDeliveredDigestOfAnotherType_whenHandlingIt_thenKeepEverySubscription() {
+      // Act
+      stockAlertService.onDigestDelivered(new DigestDeliveredEvent(1L,
+          NotificationType.DISCOUNT_REMINDER, List.of("SAVE20")));
+
+      // Assert
+      verify(stockSubscriptionRepository, never()).deleteByUserIdAndProductIds(anyLong(),
+          anyList());
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.TopProductResponse;
+import com.example.digigoods.event.CheckoutCompletedEvent;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ProductSalesScore;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.ProductSalesScoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TopSellerServiceTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-15T10:00:00Z");
+
+  @Mock
+  private ProductSalesScoreRepository scoreRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private MutableClock clock;
+  private TopSellerService topSellerService;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(NOW);
+    topSellerService = new TopSellerService(scoreRepository, productRepository, jdbcTemplate,
+        new TransactionTemplate(transactionManager), clock, new SimpleMeterRegistry(),
+        Duration.ofDays(1), 3, 0.01);
+  }
+
+  private CheckoutCompletedEvent checkout(Long... productIds) {
+    return new CheckoutCompletedEvent(1L, 1L, List.of(productIds), BigDecimal.TEN,
+        BigDecimal.TEN, Map.of());
+  }
+
+  private Product product(long id) {
+    return new Product(id, "Product " + id, new BigDecimal("10.00"), 5);
+  }
+
+  @Nested
+  @DisplayName("Ranking")
+  class RankingTests {
+
+    @Test
+    @DisplayName("Given checkouts, when getting top products, "
+        + "then rank products by sales counting each item")
+    void givenCheckouts_whenGettingTopProducts_thenRankBySalesPerItem() {
+      // Arrange
+      topSellerService.onCheckoutCompleted(checkout(1L, 2L, 2L));
+      topSellerService.onCheckoutCompleted(checkout(2L, 3L));
+      when(productRepository.findAllById(List.of(2L, 1L, 3L)))
+          .thenReturn(List.of(product(1L), product(2L), product(3L)));
+
+      // Act
+      List<TopProductResponse> top = topSellerService.getTopProducts(10);
+
+      // Assert
+      assertEquals(List.of(2L, 1L, 3L),
+          top.stream().map(TopProductResponse::getProductId).toList());
+      assertEquals(3.0, top.get(0).getScore(), 1e-9);
+      assertEquals("Product 2", top.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Given sales a day apart, when getting top products, "
+        + "then count the older sale at half weight")
+    void givenSalesOneHalfLifeApart_whenGettingTopProducts_thenHalveOlderSales() {
+      // Arrange
+      topSellerService.onCheckoutCompleted(checkout(1L, 1L, 1L));
+      clock.advance(Duration.ofDays(1));
+      topSellerService.onCheckoutCompleted(checkout(2L, 2L));
+      when(productRepository.findAllById(List.of(2L, 1L)))
+          .thenReturn(List.of(product(1L), product(2L)));
+
+      // Act
+      List<TopProductResponse> top = topSellerService.getTopProducts(10);
+
+      // Assert
+      assertEquals(2L, top.get(0).getProductId());
+      assertEquals(1.5, top.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given no sales, when getting top products, then return an empty list")
+    void givenNoSales_whenGettingTopProducts_thenReturnEmptyList() {
+      // Act
+      List<TopProductResponse> top = topSellerService.getTopProducts(10);
+
+      // Assert
+      assertTrue(top.isEmpty());
+      verify(productRepository, never()).findAllById(anyList());
+    }
+  }
+
+  @Nested
+  @DisplayName("Snapshots")
+  class SnapshotTests {
+
+    @Test
+    @DisplayName("Given sales, when snapshotting, then replace the stored scores")
+    @SuppressWarnings("unchecked")
+    void givenSales_whenSnapshotting_thenReplaceStoredScores() {
+      // Arrange
+      topSellerService.onCheckoutCompleted(checkout(4L, 4L));
+
+      // Act
+      topSellerService.snapshot();
+
+      // Assert
+      verify(jdbcTemplate).update(TopSellerService.DELETE_SNAPSHOT_SQL);
+      ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+      verify(jdbcTemplate).batchUpdate(eq(TopSellerService.INSERT_SNAPSHOT_SQL), rows.capture());
+      assertEquals(1, rows.getValue().size());
+      assertEquals(4L, rows.getValue().get(0)[0]);
+      assertEquals(2.0, (double) rows.getValue().get(0)[1], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given a snapshot taken a day ago, when restoring, "
+        + "then decay the stored scores to now")
+    void givenSnapshotDayAgo_whenRestoring_thenDecayStoredScores() {
+      // Arrange
+      LocalDateTime dayAgo = LocalDateTime.ofInstant(NOW.minus(Duration.ofDays(1)),
+          ZoneOffset.UTC);
+      when(scoreRepository.findAll())
+          .thenReturn(List.of(new ProductSalesScore(5L, 8.0, dayAgo)));
+      when(productRepository.findAllById(List.of(5L))).thenReturn(List.of(product(5L)));
+
+      // Act
+      topSellerService.restore();
+
+      // Assert
+      List<TopProductResponse> top = topSellerService.getTopProducts(10);
+      assertEquals(4.0, top.get(0).getScore(), 1e-9);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.util.ColumnarWriter.Column;
+import com.example.digigoods.util.ColumnarWriter.ColumnType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ColumnarWriterTest {
+
+  private static final List<Column> COLUMNS = List.of(
+      new Column("id", ColumnType.LONG),
+      new Column("name", ColumnType.STRING));
+
+  /**
+   * Decode a file into its column names and rows, checking the layout along the way.
+   */
+  private static List<Object[]> read(byte[] file, List<String> names, List<Integer> groupSizes)
+      throws IOException, DataFormatException {
+    InputStream in = new ByteArrayInputStream(file);
+    assertArrayEquals(ColumnarWriter.MAGIC, in.readNBytes(ColumnarWriter.MAGIC.length));
+    assertEquals(ColumnarWriter.VERSION, in.read());
+    int columnCount = (int) readVarint(in);
+    int[] types = new int[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      types[i] = in.read();
+      names.add(new String(in.readNBytes((int) readVarint(in)), StandardCharsets.UTF_8));
+    }
+
+    List<Object[]> rows = new ArrayList<>();
+    int rowCount;
+    while ((rowCount = (int) readVarint(in)) > 0) {
+      groupSizes.add(rowCount);
+      Object[][] group = new Object[rowCount][columnCount];
+      for (int column = 0; column < columnCount; column++) {
+        InputStream values = new ByteArrayInputStream(
+            inflate(in.readNBytes((int) readVarint(in))));
+        long previous = 0;
+        for (int row = 0; row < rowCount; row++) {
+          long raw = readVarint(values);
+          if (types[column] == ColumnType.LONG.ordinal()) {
+            previous += (raw >>> 1) ^ -(raw & 1);
+            group[row][column] = previous;
+          } else {
+            group[row][column] = raw == 0 ? null
+                : new String(values.readNBytes((int) raw - 1), StandardCharsets.UTF_8);
+          }
+        }
+      }
+      rows.addAll(List.of(group));
+    }
+    assertEquals(-1, in.read());
+    return rows;
+  }
+
+  private static byte[] inflate(byte[] compressed) throws DataFormatException {
+    Inflater inflater = new Inflater();
+    inflater.setInput(compressed);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[256];
+    while (!inflater.finished()) {
+      out.write(buffer, 0, inflater.inflate(buffer));
+    }
+    inflater.end();
+    return out.toByteArray();
+  }
+
+  private static long readVarint(InputStream in) throws IOException {
+    long value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = in.read();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  @Nested
+  @DisplayName("Writing")
+  class WriteTests {
+
+    @Test
+    @DisplayName("Given more rows than a row group, when writing, "
+        + "then split them into groups and read back every value")
+    void givenMoreRowsThanRowGroup_whenWriting_thenSplitIntoGroupsAndReadBackValues()
+        throws IOException, DataFormatException {
+      // Arrange
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      long[] ids = {1_000_000L, 1_000_001L, 999L, -5L, Long.MAX_VALUE};
+      String[] names = {"alice", null, "", "zoë, \"quoted\"", "bob"};
+
+      // Act
+      try (ColumnarWriter writer = new ColumnarWriter(out, COLUMNS, 2)) {
+        for (int i = 0; i < ids.length; i++) {
+          writer.setLong(0, ids[i]);
+          writer.setString(1, names[i]);
+          writer.endRow();
+        }
+      }
+
+      // Assert
+      List<String> columnNames = new ArrayList<>();
+      List<Integer> groupSizes = new ArrayList<>();
+      List<Object[]> rows = read(out.toByteArray(), columnNames, groupSizes);
+      assertEquals(List.of("id", "name"), columnNames);
+      assertEquals(List.of(2, 2, 1), groupSizes);
+      assertEquals(ids.length, rows.size());
+      for (int i = 0; i < ids.length; i++) {
+        assertEquals(ids[i], rows.get(i)[0]);
+        assertEquals(names[i], rows.get(i)[1]);
+      }
+      assertNull(rows.get(1)[1]);
+    }
+
+    @Test
+    @DisplayName("Given no rows, when closing, then write only the header and end marker")
+    void givenNoRows_whenClosing_thenWriteOnlyHeaderAndEndMarker()
+        throws IOException, DataFormatException {
+      // Arrange
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+      // Act
+      new ColumnarWriter(out, COLUMNS, 16).close();
+
+      // Assert
+      List<Integer> groupSizes = new ArrayList<>();
+      assertTrue(read(out.toByteArray(), new ArrayList<>(), groupSizes).isEmpty());
+      assertTrue(groupSizes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given sequential ids, when writing, then compress well below eight bytes a row")
+    void givenSequentialIds_whenWriting_thenCompressWellBelowEightBytesPerRow()
+        throws IOException {
+      // Arrange
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+      // Act
+      try (ColumnarWriter writer = new ColumnarWriter(out, List.of(COLUMNS.get(0)), 4096)) {
+        for (long id = 500_000; id < 510_000; id++) {
+          writer.setLong(0, id);
+          writer.endRow();
+        }
+      }
+
+      // Assert
+      assertTrue(out.size() < 10_000 / 4, "size " + out.size());
+    }
+
+    @Test
+    @DisplayName("Given no columns, when creating a writer, then throw IllegalArgumentException")
+    void givenNoColumns_whenCreatingWriter_thenThrowIllegalArgumentException() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> new ColumnarWriter(new ByteArrayOutputStream(), List.of(), 16));
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CooccurrenceIndexTest {
+
+  @Test
+  @DisplayName("Given baskets, when reading related products, "
+      + "then count each pair once per order, most frequent first")
+  void givenBaskets_whenReadingRelated_thenCountPairsMostFrequentFirst() {
+    // Arrange
+    CooccurrenceIndex index = new CooccurrenceIndex(10);
+
+    // Act
+    index.addBasket(new long[] {1L, 2L, 3L});
+    index.addBasket(new long[] {1L, 3L, 3L});
+    index.addBasket(new long[] {4L});
+
+    // Assert
+    assertEquals(List.of(new CooccurrenceIndex.Related(3L, 2),
+        new CooccurrenceIndex.Related(2L, 1)), index.related(1L, 10));
+    assertEquals(List.of(new CooccurrenceIndex.Related(1L, 1),
+        new CooccurrenceIndex.Related(3L, 1)), index.related(2L, 10));
+    assertTrue(index.related(4L, 10).isEmpty());
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  @DisplayName("Given more related products than the top N, when adding baskets, "
+      + "then keep exactly the most frequent ones")
+  void givenMoreRelatedThanTopN_whenAddingBaskets_thenKeepMostFrequent() {
+    // Arrange
+    CooccurrenceIndex index = new CooccurrenceIndex(3);
+    Map<Long, Long> expected = new HashMap<>();
+    Random random = new Random(11);
+
+    // Act
+    for (int i = 0; i < 2_000; i++) {
+      long other = 1 + random.nextInt(30);
+      index.addBasket(new long[] {0L, other});
+      expected.merge(other, 1L, Long::sum);
+    }
+
+    // Assert
+    List<Long> expectedCounts = expected.values().stream()
+        .sorted((a, b) -> Long.compare(b, a)).limit(3).toList();
+    assertEquals(expectedCounts, index.related(0L, 3).stream()
+        .map(CooccurrenceIndex.Related::count).toList());
+  }
+
+  @Test
+  @DisplayName("Given two partial indexes, when merging, then sum their counts")
+  void givenTwoPartialIndexes_whenMerging_thenSumCounts() {
+    // Arrange
+    CooccurrenceIndex first = new CooccurrenceIndex(5);
+    first.addBasket(new long[] {1L, 2L});
+    CooccurrenceIndex second = new CooccurrenceIndex(5);
+    second.addBasket(new long[] {1L, 2L});
+    second.addBasket(new long[] {1L, 3L});
+
+    // Act
+    first.merge(second);
+
+    // Assert
+    assertEquals(List.of(new CooccurrenceIndex.Related(2L, 2),
+        new CooccurrenceIndex.Related(3L, 1)), first.related(1L, 5));
+  }
+}
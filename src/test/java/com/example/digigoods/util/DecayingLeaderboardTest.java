@@ -0,0 +1,117 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class DecayingLeaderboardTest {
+
+  private static final long HALF_LIFE = 1_000L;
+
+  @Nested
+  @DisplayName("Ranking")
+  class RankingTests {
+
+    @Test
+    @DisplayName("Given scores added over time, when reading the top, "
+        + "then halve each amount per half life")
+    void givenScoresAddedOverTime_whenReadingTop_thenHalveAmountsPerHalfLife() {
+      // Arrange
+      DecayingLeaderboard leaderboard = new DecayingLeaderboard(HALF_LIFE, 10, 0);
+
+      // Act
+      leaderboard.add(1L, 8, 0);
+      leaderboard.add(2L, 5, 2_000);
+
+      // Assert
+      List<DecayingLeaderboard.Score> top = leaderboard.top(10, 2_000);
+      assertEquals(2L, top.get(0).key());
+      assertEquals(5.0, top.get(0).score(), 1e-9);
+      assertEquals(1L, top.get(1).key());
+      assertEquals(2.0, top.get(1).score(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given more keys than the capacity, when adding in random order, "
+        + "then keep exactly the keys with the highest scores")
+    void givenMoreKeysThanCapacity_whenAddingRandomly_thenKeepHighestScores() {
+      // Arrange
+      DecayingLeaderboard leaderboard = new DecayingLeaderboard(HALF_LIFE, 5, 0);
+      Map<Long, Double> expected = new HashMap<>();
+      Random random = new Random(7);
+
+      // Act
+      for (long now = 0; now < 5_000; now++) {
+        long key = random.nextInt(50);
+        leaderboard.add(key, 1, now);
+        expected.replaceAll((k, v) -> v * Math.pow(0.5, 1.0 / HALF_LIFE));
+        expected.merge(key, 1.0, Double::sum);
+      }
+
+      // Assert
+      List<Long> expectedTop = expected.entrySet().stream()
+          .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+          .limit(5)
+          .map(Map.Entry::getKey)
+          .toList();
+      List<DecayingLeaderboard.Score> top = leaderboard.top(5, 4_999);
+      assertEquals(expectedTop, top.stream().map(DecayingLeaderboard.Score::key).toList());
+      assertEquals(expected.get(expectedTop.get(0)), top.get(0).score(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Given decayed keys, when compacting, then drop them and keep the ranking")
+    void givenDecayedKeys_whenCompacting_thenDropThemAndKeepRanking() {
+      // Arrange
+      DecayingLeaderboard leaderboard = new DecayingLeaderboard(HALF_LIFE, 10, 0);
+      leaderboard.add(1L, 1, 0);
+      leaderboard.add(2L, 1_000, 0);
+      leaderboard.add(3L, 10, 5_000);
+
+      // Act
+      int dropped = leaderboard.compact(10_000, 0.01);
+
+      // Assert
+      assertEquals(1, dropped);
+      assertEquals(2, leaderboard.size());
+      List<DecayingLeaderboard.Score> top = leaderboard.top(10, 10_000);
+      assertEquals(List.of(2L, 3L), top.stream().map(DecayingLeaderboard.Score::key).toList());
+      assertEquals(1_000 / 1024.0, top.get(0).score(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given a very long time between additions, when adding, "
+        + "then rebase the scores instead of overflowing")
+    void givenVeryLongGap_whenAdding_thenRebaseInsteadOfOverflowing() {
+      // Arrange
+      DecayingLeaderboard leaderboard = new DecayingLeaderboard(HALF_LIFE, 10, 0);
+      leaderboard.add(1L, 1, 0);
+
+      // Act
+      leaderboard.add(2L, 3, 600_000);
+
+      // Assert
+      List<DecayingLeaderboard.Score> top = leaderboard.top(10, 600_000);
+      assertEquals(2L, top.get(0).key());
+      assertEquals(3.0, top.get(0).score(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Given a negative amount, when adding, then throw IllegalArgumentException")
+    void givenNegativeAmount_whenAdding_thenThrowIllegalArgumentException() {
+      // Arrange
+      DecayingLeaderboard leaderboard = new DecayingLeaderboard(HALF_LIFE, 10, 0);
+
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class, () -> leaderboard.add(1L, -1, 0));
+    }
+  }
+}
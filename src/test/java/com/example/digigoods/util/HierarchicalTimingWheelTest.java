@@ -0,0 +1,110 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+  @Nested
+  @DisplayName("Release Tests")
+  class ReleaseTests {
+
+    @Test
+    @DisplayName("Given item due in the lowest level, when advancing, "
+        + "then release it at its deadline and not before")
+    void givenItemDueInLowestLevel_whenAdvancing_thenReleaseAtDeadlineNotBefore() {
+      // Arrange
+      HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 2, 3, 0);
+      wheel.schedule(25, "a");
+
+      // Act & Assert
+      assertTrue(wheel.advanceTo(29).isEmpty());
+      assertEquals(List.of("a"), wheel.advanceTo(30));
+      assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Given item several levels away, when advancing, then cascade and release it")
+    void givenItemSeveralLevelsAway_whenAdvancing_thenCascadeAndReleaseIt() {
+      // Arrange - level spans are 4, 16 and 64 ticks
+      HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 2, 3, 5);
+      wheel.schedule(50, "far");
+
+      // Act & Assert
+      assertTrue(wheel.advanceTo(49).isEmpty());
+      assertEquals(List.of("far"), wheel.advanceTo(50));
+    }
+
+    @Test
+    @DisplayName("Given item beyond the top level, when advancing, then release it on time")
+    void givenItemBeyondTopLevel_whenAdvancing_thenReleaseItOnTime() {
+      // Arrange
+      HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 2, 2, 0);
+      wheel.schedule(100, "beyond");
+
+      // Act & Assert
+      assertTrue(wheel.advanceTo(99).isEmpty());
+      assertEquals(List.of("beyond"), wheel.advanceTo(100));
+    }
+
+    @Test
+    @DisplayName("Given overdue item, when advancing without moving, then release it")
+    void givenOverdueItem_whenAdvancingWithoutMoving_thenReleaseIt() {
+      // Arrange
+      HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 2, 2, 100);
+      wheel.schedule(40, "late");
+
+      // Act & Assert
+      assertEquals(1, wheel.size());
+      assertEquals(List.of("late"), wheel.advanceTo(100));
+    }
+
+    @Test
+    @DisplayName("Given random deadlines, when advancing in random steps, "
+        + "then release every item exactly once within one tick of its deadline")
+    void givenRandomDeadlines_whenAdvancingInRandomSteps_thenReleaseEachOnceOnTime() {
+      // Arrange
+      Random random = new Random(42);
+      HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(3, 3, 3, 0);
+      List<Long> deadlines = new ArrayList<>();
+      for (int i = 0; i < 2_000; i++) {
+        long deadline = random.nextInt(20_000);
+        deadlines.add(deadline);
+        wheel.schedule(deadline, deadline);
+      }
+
+      // Act
+      List<Long> released = new ArrayList<>();
+      long now = 0;
+      while (now < 20_010) {
+        now += 1 + random.nextInt(40);
+        for (Long deadline : wheel.advanceTo(now)) {
+          // Assert - never early, and at most one tick plus one step late
+          assertTrue(deadline <= now, "released early: " + deadline + " at " + now);
+          assertTrue(now - deadline < 3 + 40, "released late: " + deadline + " at " + now);
+          released.add(deadline);
+        }
+      }
+
+      // Assert
+      assertEquals(deadlines.stream().sorted().toList(), released.stream().sorted().toList());
+      assertEquals(0, wheel.size());
+    }
+  }
+
+  @Test
+  @DisplayName("Given invalid dimensions, when creating wheel, then reject them")
+  void givenInvalidDimensions_whenCreatingWheel_thenRejectThem() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class,
+        () -> new HierarchicalTimingWheel<String>(0, 6, 4, 0));
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LongDoubleHashMapTest {
+
+  @Nested
+  @DisplayName("Map Operations")
+  class MapTests {
+
+    @Test
+    @DisplayName("Given additions to new and existing keys, when reading, "
+        + "then return the sums and the default for absent keys")
+    void givenAdditions_whenReading_thenReturnSumsAndDefaultForAbsentKeys() {
+      // Arrange
+      LongDoubleHashMap map = new LongDoubleHashMap(2);
+
+      // Act
+      map.addTo(7L, 1.5);
+      map.addTo(7L, 2.0);
+      map.put(-3L, 4.0);
+
+      // Assert
+      assertEquals(3.5, map.get(7L, 0));
+      assertEquals(4.0, map.get(-3L, 0));
+      assertEquals(-1.0, map.get(8L, -1.0));
+      assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Given random operations beyond the initial capacity, when comparing, "
+        + "then match a boxed hash map")
+    void givenRandomOperations_whenComparing_thenMatchBoxedHashMap() {
+      // Arrange
+      LongDoubleHashMap map = new LongDoubleHashMap(4);
+      Map<Long, Double> expected = new HashMap<>();
+      Random random = new Random(42);
+
+      // Act
+      for (int i = 0; i < 20_000; i++) {
+        long key = random.nextInt(2_000);
+        if (random.nextInt(4) == 0) {
+          assertEquals(expected.remove(key) != null, map.remove(key));
+        } else {
+          expected.merge(key, 1.0, Double::sum);
+          map.addTo(key, 1.0);
+        }
+      }
+
+      // Assert
+      assertEquals(expected.size(), map.size());
+      expected.forEach((key, value) -> assertEquals(value, map.get(key, -1)));
+      Map<Long, Double> iterated = new HashMap<>();
+      map.forEach(iterated::put);
+      assertEquals(expected, iterated);
+    }
+
+    @Test
+    @DisplayName("Given entries, when removing with a predicate after scaling, "
+        + "then keep only the entries that do not match")
+    void givenEntries_whenRemovingIfAfterScaling_thenKeepNonMatchingEntries() {
+      // Arrange
+      LongDoubleHashMap map = new LongDoubleHashMap(4);
+      for (long key = 0; key < 100; key++) {
+        map.put(key, key);
+      }
+
+      // Act
+      map.scaleAll(0.5);
+      int removed = map.removeIf((key, value) -> value < 10);
+
+      // Assert
+      assertEquals(20, removed);
+      assertEquals(80, map.size());
+      assertFalse(map.containsKey(19L));
+      assertTrue(map.containsKey(20L));
+      assertEquals(10.0, map.get(20L, 0));
+    }
+  }
+}
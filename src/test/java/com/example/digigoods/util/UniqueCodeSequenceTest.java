@@ -0,0 +1,78 @@
+package com.example.digigoods.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class UniqueCodeSequenceTest {
+
+  @Nested
+  @DisplayName("Code Tests")
+  class CodeTests {
+
+    @Test
+    @DisplayName("Given prefix, when generating a code, "
+        + "then append a dash and eight base32 characters")
+    void givenPrefix_whenGeneratingCode_thenAppendDashAndEightBase32Characters() {
+      // Arrange
+      UniqueCodeSequence sequence = new UniqueCodeSequence("SPRING", new Random(1));
+
+      // Act
+      String code = sequence.codeAt(42);
+
+      // Assert
+      assertEquals(6 + 1 + UniqueCodeSequence.SUFFIX_LENGTH, code.length());
+      assertTrue(code.matches("SPRING-[0-9A-HJKMNP-TV-Z]{8}"), code);
+    }
+
+    @Test
+    @DisplayName("Given many consecutive indexes, when generating codes, "
+        + "then never repeat a code")
+    void givenManyConsecutiveIndexes_whenGeneratingCodes_thenNeverRepeatCode() {
+      // Arrange
+      UniqueCodeSequence sequence = new UniqueCodeSequence("X", new Random(7));
+      Set<String> codes = new HashSet<>();
+
+      // Act
+      for (long i = 0; i < 200_000; i++) {
+        codes.add(sequence.codeAt(i));
+      }
+
+      // Assert
+      assertEquals(200_000, codes.size());
+    }
+
+    @Test
+    @DisplayName("Given same index, when generating with different keys, "
+        + "then produce different codes")
+    void givenSameIndex_whenGeneratingWithDifferentKeys_thenProduceDifferentCodes() {
+      // Arrange
+      UniqueCodeSequence first = new UniqueCodeSequence("X", new Random(1));
+      UniqueCodeSequence second = new UniqueCodeSequence("X", new Random(2));
+
+      // Act & Assert
+      assertNotEquals(first.codeAt(0), second.codeAt(0));
+      assertEquals(first.codeAt(0), new UniqueCodeSequence("X", new Random(1)).codeAt(0));
+    }
+
+    @Test
+    @DisplayName("Given index beyond capacity, when generating a code, then reject it")
+    void givenIndexBeyondCapacity_whenGeneratingCode_thenRejectIt() {
+      // Arrange
+      UniqueCodeSequence sequence = new UniqueCodeSequence("X", new Random(1));
+
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> sequence.codeAt(UniqueCodeSequence.CAPACITY));
+      assertThrows(IllegalArgumentException.class, () -> sequence.codeAt(-1));
+    }
+  }
+}